@@ -1,5 +1,6 @@
 package am.ik.blog;
 
+import java.time.Duration;
 import org.jspecify.annotations.Nullable;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -10,6 +11,12 @@ public final class BlogProps {
 
 	private Init init = new Init();
 
+	private Local local = new Local();
+
+	private Reconciliation reconciliation = new Reconciliation();
+
+	private Changes changes = new Changes();
+
 	public TokenizerType getTokenizerType() {
 		return tokenizerType;
 	}
@@ -26,6 +33,144 @@ public final class BlogProps {
 		this.init = init;
 	}
 
+	public Local getLocal() {
+		return local;
+	}
+
+	public void setLocal(Local local) {
+		this.local = local;
+	}
+
+	public Reconciliation getReconciliation() {
+		return reconciliation;
+	}
+
+	public void setReconciliation(Reconciliation reconciliation) {
+		this.reconciliation = reconciliation;
+	}
+
+	public Changes getChanges() {
+		return changes;
+	}
+
+	public void setChanges(Changes changes) {
+		this.changes = changes;
+	}
+
+	/**
+	 * Local checkout of a content repository to read entries from instead of GitHub.
+	 */
+	public static final class Local {
+
+		// directory containing content/NNNNN.md, the local source of entries when set
+		@Nullable private String directory;
+
+		@Nullable private String tenantId;
+
+		private boolean importOnStartup = true;
+
+		private boolean watch = true;
+
+		@Nullable public String getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		@Nullable public String getTenantId() {
+			return tenantId;
+		}
+
+		public void setTenantId(String tenantId) {
+			this.tenantId = tenantId;
+		}
+
+		public boolean isImportOnStartup() {
+			return importOnStartup;
+		}
+
+		public void setImportOnStartup(boolean importOnStartup) {
+			this.importOnStartup = importOnStartup;
+		}
+
+		public boolean isWatch() {
+			return watch;
+		}
+
+		public void setWatch(boolean watch) {
+			this.watch = watch;
+		}
+
+		@Override
+		public String toString() {
+			return "Local{" + "directory='" + directory + '\'' + ", tenantId='" + tenantId + '\''
+					+ ", importOnStartup=" + importOnStartup + ", watch=" + watch + '}';
+		}
+
+	}
+
+	/**
+	 * Periodic comparison of the stored entries with the content repository on GitHub,
+	 * which repairs the entries of lost webhooks. GitHub is taken as the source of truth:
+	 * entries that are missing from it are deleted.
+	 */
+	public static final class Reconciliation {
+
+		private boolean enabled = false;
+
+		private Duration interval = Duration.ofMinutes(15);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getInterval() {
+			return interval;
+		}
+
+		public void setInterval(Duration interval) {
+			this.interval = interval;
+		}
+
+		@Override
+		public String toString() {
+			return "Reconciliation{" + "enabled=" + enabled + ", interval=" + interval + '}';
+		}
+
+	}
+
+	/**
+	 * The change feed. A write is stamped before it is stored, so a change can become
+	 * visible after a later one has already been read. The feed only returns the changes
+	 * stamped longer than the settle time ago, which bounds how long a write may take to
+	 * be stored after it has been stamped without being skipped by the clients.
+	 */
+	public static final class Changes {
+
+		// zero returns the changes as soon as they are stored
+		private Duration settleTime = Duration.ofSeconds(5);
+
+		public Duration getSettleTime() {
+			return settleTime;
+		}
+
+		public void setSettleTime(Duration settleTime) {
+			this.settleTime = settleTime;
+		}
+
+		@Override
+		public String toString() {
+			return "Changes{" + "settleTime=" + settleTime + '}';
+		}
+
+	}
+
 	public enum TokenizerType {
 
 		KUROMOJI, TRIGRAM
@@ -36,6 +36,18 @@ public class GitHubProps implements Validator {
 
 	private boolean directUpdate = false;
 
+	/**
+	 * Share of the rate limit kept for interactive calls. Background calls wait for the
+	 * limit to reset once only this share is left.
+	 */
+	private double rateLimitReserve = 0.2;
+
+	/**
+	 * Whether reads a user is waiting for are sent a second time when they are slower than
+	 * usual. The first answer is used.
+	 */
+	private boolean hedgedReads = false;
+
 	private final Validator validator = Validator.forInstanceOf(GitHubProps.class, ValidatorBuilder.<GitHubProps>of()
 		.constraint(GitHubProps::getApiUrl, "apiUrl", c -> c.notBlank().url())
 		.constraint(GitHubProps::getAccessToken, "accessToken", c -> c.codePoints(ASCII_PRINTABLE_CHARS).asWhiteList())
@@ -50,6 +62,7 @@ public class GitHubProps implements Validator {
 		.constraintOnObject(GitHubProps::getReadTimeout, "readTimeout", c -> c.notNull())
 		.constraintOnObject(GitHubProps::getConnectTimeout, "connectTimeout", c -> c.notNull())
 		.constraintOnObject(GitHubProps::getConnectTimeout, "connectTimeout", c -> c.notNull())
+		.constraint(GitHubProps::getRateLimitReserve, "rateLimitReserve", c -> c.greaterThanOrEqual(0.0).lessThan(1.0))
 		.build()
 		.toBiConsumer(Errors::rejectValue));
 
@@ -147,6 +160,22 @@ public class GitHubProps implements Validator {
 		this.directUpdate = directUpdate;
 	}
 
+	public double getRateLimitReserve() {
+		return rateLimitReserve;
+	}
+
+	public void setRateLimitReserve(double rateLimitReserve) {
+		this.rateLimitReserve = rateLimitReserve;
+	}
+
+	public boolean isHedgedReads() {
+		return hedgedReads;
+	}
+
+	public void setHedgedReads(boolean hedgedReads) {
+		this.hedgedReads = hedgedReads;
+	}
+
 	@Override
 	public boolean supports(Class<?> clazz) {
 		return clazz == GitHubProps.class;
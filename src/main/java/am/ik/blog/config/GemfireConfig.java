@@ -1,7 +1,11 @@
 package am.ik.blog.config;
 
 import am.ik.blog.GemfireProps;
+import am.ik.blog.entry.gemfire.CacheInvalidation;
 import am.ik.blog.entry.gemfire.EntryEntity;
+import am.ik.blog.entry.gemfire.EntryTombstone;
+import am.ik.blog.entry.gemfire.LatestEntries;
+import am.ik.blog.entry.gemfire.SearchStatistics;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.client.ClientCache;
@@ -33,9 +37,11 @@ class GemfireConfig {
 			properties.putAll(props.properties());
 		}
 		ClientCacheFactory cacheFactory = new ClientCacheFactory(properties)
-			.setPdxSerializer(new ReflectionBasedAutoSerializer(true, EntryEntity.class.getName()))
-		// .setPoolSubscriptionEnabled(true)
-		;
+			.setPdxSerializer(new ReflectionBasedAutoSerializer(true, EntryEntity.class.getName(),
+					LatestEntries.class.getName(), SearchStatistics.class.getName(), EntryTombstone.class.getName(),
+					CacheInvalidation.class.getName()))
+			// for the continuous queries of the change stream
+			.setPoolSubscriptionEnabled(true);
 		for (var locator : props.locators()) {
 			cacheFactory.addPoolLocator(locator.host(), locator.port());
 		}
@@ -59,4 +65,73 @@ class GemfireConfig {
 		return region;
 	}
 
+	@Bean
+	Region<String, LatestEntries> latestEntriesRegion(ClientCache clientCache) {
+		Region<String, LatestEntries> existing = clientCache.getRegion("LatestEntries");
+		if (existing != null) {
+			return existing;
+		}
+		return clientCache.<String, LatestEntries>createClientRegionFactory(ClientRegionShortcut.PROXY)
+			.create("LatestEntries");
+	}
+
+	@Bean
+	Region<String, SearchStatistics> searchStatisticsRegion(ClientCache clientCache) {
+		Region<String, SearchStatistics> existing = clientCache.getRegion("SearchStatistics");
+		if (existing != null) {
+			return existing;
+		}
+		return clientCache.<String, SearchStatistics>createClientRegionFactory(ClientRegionShortcut.PROXY)
+			.create("SearchStatistics");
+	}
+
+	@Bean
+	Region<String, Integer> documentFrequencyRegion(ClientCache clientCache) {
+		Region<String, Integer> existing = clientCache.getRegion("DocumentFrequency");
+		if (existing != null) {
+			return existing;
+		}
+		return clientCache.<String, Integer>createClientRegionFactory(ClientRegionShortcut.PROXY)
+			.create("DocumentFrequency");
+	}
+
+	@Bean
+	Region<String, EntryTombstone> entryTombstoneRegion(ClientCache clientCache) {
+		Region<String, EntryTombstone> existing = clientCache.getRegion("EntryTombstone");
+		if (existing != null) {
+			return existing;
+		}
+		return clientCache.<String, EntryTombstone>createClientRegionFactory(ClientRegionShortcut.PROXY)
+			.create("EntryTombstone");
+	}
+
+	@Bean
+	Region<String, CacheInvalidation> cacheInvalidationRegion(ClientCache clientCache) {
+		Region<String, CacheInvalidation> existing = clientCache.getRegion("CacheInvalidation");
+		if (existing != null) {
+			return existing;
+		}
+		return clientCache.<String, CacheInvalidation>createClientRegionFactory(ClientRegionShortcut.PROXY)
+			.create("CacheInvalidation");
+	}
+
+	@Bean
+	Region<String, Long> tenantWatermarkRegion(ClientCache clientCache) {
+		Region<String, Long> existing = clientCache.getRegion("TenantWatermark");
+		if (existing != null) {
+			return existing;
+		}
+		return clientCache.<String, Long>createClientRegionFactory(ClientRegionShortcut.PROXY)
+			.create("TenantWatermark");
+	}
+
+	@Bean
+	Region<String, Long> leaseRegion(ClientCache clientCache) {
+		Region<String, Long> existing = clientCache.getRegion("Lease");
+		if (existing != null) {
+			return existing;
+		}
+		return clientCache.<String, Long>createClientRegionFactory(ClientRegionShortcut.PROXY).create("Lease");
+	}
+
 }
\ No newline at end of file
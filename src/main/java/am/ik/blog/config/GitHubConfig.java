@@ -1,16 +1,25 @@
 package am.ik.blog.config;
 
 import am.ik.blog.GitHubProps;
+import am.ik.blog.entry.EntryKey;
 import am.ik.blog.github.Committer;
 import am.ik.blog.github.GitCommit;
 import am.ik.blog.github.GitCommitter;
 import am.ik.blog.github.GitHubClient;
 import am.ik.blog.github.GitHubUserContentClient;
+import am.ik.blog.github.HedgedReads;
 import am.ik.blog.github.Parent;
+import am.ik.blog.github.RateLimitInterceptor;
+import am.ik.blog.github.RateLimitScheduler;
 import am.ik.blog.github.Tree;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.InstantSource;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -48,14 +57,29 @@ class GitHubConfig {
 	};
 
 	@Bean
-	RestClientHttpServiceGroupConfigurer githubRestClientHttpServiceGroupConfigurer(GitHubProps props) {
+	RestClientHttpServiceGroupConfigurer githubRestClientHttpServiceGroupConfigurer(GitHubProps props,
+			MeterRegistry meterRegistry) {
 		ErrorLoggingInterceptor errorLoggingInterceptor = new ErrorLoggingInterceptor();
+		// the rate limit applies to the access token, which tenants may share
+		Map<String, RateLimitScheduler> rateLimitSchedulers = new ConcurrentHashMap<>();
+		BiFunction<@Nullable String, String, RateLimitInterceptor> rateLimitInterceptor = (tenantId, accessToken) -> {
+			RateLimitScheduler scheduler = rateLimitSchedulers.computeIfAbsent(accessToken,
+					_ -> new RateLimitScheduler(InstantSource.system(), props.getRateLimitReserve(),
+							props.getRetryMaxElapsedTime()));
+			Gauge.builder("github.ratelimit.remaining", scheduler,
+					s -> (s.remaining() < 0) ? Double.NaN : s.remaining())
+				.description("Number of GitHub API calls left until the rate limit resets")
+				.tag("tenant", EntryKey.requireNonNullTenantId(tenantId))
+				.register(meterRegistry);
+			return new RateLimitInterceptor(scheduler);
+		};
 		return groups -> {
 			groups.filterByName("github").forEachClient((_, builder) -> {
 				builder.baseUrl(props.getApiUrl())
 					.defaultHeader(HttpHeaders.AUTHORIZATION, "token %s".formatted(props.getAccessToken()))
 					.defaultStatusHandler(allwaysTrueStatusPredicate, noOpErrorHandler)
-					.requestInterceptor(errorLoggingInterceptor);
+					.requestInterceptor(errorLoggingInterceptor)
+					.requestInterceptor(rateLimitInterceptor.apply(null, props.getAccessToken()));
 			});
 			Map<String, GitHubProps> tenants = props.getTenants();
 			if (!CollectionUtils.isEmpty(tenants)) {
@@ -65,7 +89,8 @@ class GitHubConfig {
 							.defaultHeader(HttpHeaders.AUTHORIZATION,
 									"token %s".formatted(tenantProps.getAccessToken()))
 							.defaultStatusHandler(allwaysTrueStatusPredicate, noOpErrorHandler)
-							.requestInterceptor(errorLoggingInterceptor);
+							.requestInterceptor(errorLoggingInterceptor)
+							.requestInterceptor(rateLimitInterceptor.apply(tenantId, tenantProps.getAccessToken()));
 					});
 				});
 			}
@@ -78,6 +103,12 @@ class GitHubConfig {
 		};
 	}
 
+	@Bean
+	HedgedReads hedgedReads(GitHubProps props, MeterRegistry meterRegistry) {
+		// the read timeout is the upper bound of the deadline adapted to the latencies
+		return new HedgedReads(props.isHedgedReads(), props.getReadTimeout(), meterRegistry);
+	}
+
 	static class RuntimeHints implements RuntimeHintsRegistrar {
 
 		@Override
@@ -1,6 +1,10 @@
 package am.ik.blog.config;
 
+import am.ik.blog.entry.gemfire.CacheInvalidation;
 import am.ik.blog.entry.gemfire.EntryEntity;
+import am.ik.blog.entry.gemfire.EntryTombstone;
+import am.ik.blog.entry.gemfire.LatestEntries;
+import am.ik.blog.entry.gemfire.SearchStatistics;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.client.ClientCache;
 import org.springframework.context.annotation.Bean;
@@ -26,4 +30,53 @@ public class MockGemfireConfig {
 				new Class[] { Region.class }, (proxy, method, args) -> null);
 	};
 
+	@SuppressWarnings("unchecked")
+	@Bean
+	Region<String, LatestEntries> latestEntriesRegion() {
+		return (Region<String, LatestEntries>) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+				new Class[] { Region.class }, (proxy, method, args) -> null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Bean
+	Region<String, SearchStatistics> searchStatisticsRegion() {
+		return (Region<String, SearchStatistics>) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+				new Class[] { Region.class }, (proxy, method, args) -> null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Bean
+	Region<String, Integer> documentFrequencyRegion() {
+		return (Region<String, Integer>) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+				new Class[] { Region.class }, (proxy, method, args) -> null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Bean
+	Region<String, EntryTombstone> entryTombstoneRegion() {
+		return (Region<String, EntryTombstone>) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+				new Class[] { Region.class }, (proxy, method, args) -> null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Bean
+	Region<String, CacheInvalidation> cacheInvalidationRegion() {
+		return (Region<String, CacheInvalidation>) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+				new Class[] { Region.class }, (proxy, method, args) -> null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Bean
+	Region<String, Long> tenantWatermarkRegion() {
+		return (Region<String, Long>) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+				new Class[] { Region.class }, (proxy, method, args) -> null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Bean
+	Region<String, Long> leaseRegion() {
+		return (Region<String, Long>) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+				new Class[] { Region.class }, (proxy, method, args) -> null);
+	}
+
 }
@@ -62,6 +62,7 @@ public class SecurityConfig {
 		var editForTenant = new RequestTenantAuthorizationManager("entry", Privilege.EDIT);
 		var deleteForTenant = new RequestTenantAuthorizationManager("entry", Privilege.DELETE);
 		var importForTenant = new RequestTenantAuthorizationManager("entry", Privilege.IMPORT);
+		var exportForTenant = new RequestTenantAuthorizationManager("entry", Privilege.EXPORT);
 		return http
 		// @formatter:off
 			.authorizeHttpRequests(authorize -> authorize
@@ -70,16 +71,20 @@ public class SecurityConfig {
 				.requestMatchers(HttpMethod.PUT,    "/entries/**").hasAuthority("entry:edit")
 				.requestMatchers(HttpMethod.DELETE, "/entries/**").hasAuthority("entry:delete")
 				.requestMatchers(HttpMethod.POST,   "/admin/import").hasAuthority("entry:import")
+				.requestMatchers(HttpMethod.GET,    "/export").hasAuthority("entry:export")
 				.requestMatchers(HttpMethod.POST,   "/tenants/{tenantId}/webhook").permitAll()
 				.requestMatchers(HttpMethod.GET,    "/tenants/{tenantId}/entries").access(listForTenant)
 				.requestMatchers(HttpMethod.GET,    "/tenants/{tenantId}/categories").access(listForTenant)
 				.requestMatchers(HttpMethod.GET,    "/tenants/{tenantId}/tag").access(listForTenant)
+				.requestMatchers(HttpMethod.GET,    "/tenants/{tenantId}/suggest").access(listForTenant)
+				.requestMatchers(HttpMethod.GET,    "/tenants/{tenantId}/changes").access(listForTenant)
+				.requestMatchers(HttpMethod.GET,    "/tenants/{tenantId}/export").access(exportForTenant)
 				.requestMatchers(HttpMethod.GET,    "/tenants/{tenantId}/entries/**").access(getForTenant)
+				.requestMatchers(HttpMethod.POST,   "/tenants/{tenantId}/admin/import").access(importForTenant)
 				.requestMatchers(HttpMethod.POST,   "/tenants/{tenantId}/**").access(editForTenant)
 				.requestMatchers(HttpMethod.PATCH,  "/tenants/{tenantId}/**").access(editForTenant)
 				.requestMatchers(HttpMethod.PUT,    "/tenants/{tenantId}/**").access(editForTenant)
 				.requestMatchers(HttpMethod.DELETE, "/tenants/{tenantId}/**").access(deleteForTenant)
-				.requestMatchers(HttpMethod.POST,   "/tenants/{tenantId}/admin/import").access(importForTenant)
 				.anyRequest().permitAll())
 			// @formatter:on
 			.httpBasic(httpBasic -> httpBasic.authenticationEntryPoint(new NoPopupBasicAuthenticationEntryPoint()))
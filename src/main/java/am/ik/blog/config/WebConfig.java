@@ -1,7 +1,9 @@
 package am.ik.blog.config;
 
 import am.ik.blog.GitHubProps;
+import am.ik.blog.entry.EntryCursor;
 import am.ik.blog.entry.EntryService;
+import am.ik.blog.entry.UpdatedCursor;
 import am.ik.pagination.web.CursorPageRequestHandlerMethodArgumentResolver;
 import am.ik.webhook.spring.WebhookVerifierRequestBodyAdvice;
 import org.springframework.context.annotation.Bean;
@@ -11,7 +13,6 @@ import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.time.Instant;
-import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Configuration(proxyBeanMethods = false)
@@ -21,12 +22,12 @@ class WebConfig implements WebMvcConfigurer {
 	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
 		resolvers.add(new CursorPageRequestHandlerMethodArgumentResolver<>(s -> {
 			try {
-				return Instant.parse(s);
+				return EntryCursor.valueOf(s);
 			}
-			catch (DateTimeParseException e) {
-				return Instant.now();
+			catch (IllegalArgumentException e) {
+				return new UpdatedCursor(Instant.now());
 			}
-		}, props -> props.withSizeDefault(EntryService.DEFAULT_PAGE_SIZE).withSizeMax(1024)));
+		}, props -> props.withSizeDefault(EntryService.DEFAULT_PAGE_SIZE).withSizeMax(EntryService.MAX_PAGE_SIZE)));
 	}
 
 	@Override
@@ -0,0 +1,42 @@
+package am.ik.blog.entry;
+
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+public record CategoriesAndCount(List<Category> categories, int count) {
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public Builder toBuilder() {
+		return new Builder().categories(this.categories).count(this.count);
+	}
+
+	public static class Builder {
+
+		@Nullable private List<Category> categories;
+
+		private int count;
+
+		private Builder() {
+		}
+
+		public Builder categories(List<Category> categories) {
+			this.categories = categories;
+			return this;
+		}
+
+		public Builder count(int count) {
+			this.count = count;
+			return this;
+		}
+
+		public CategoriesAndCount build() {
+			Assert.notNull(categories, "categories must not be null");
+			return new CategoriesAndCount(categories, count);
+		}
+
+	}
+}
@@ -0,0 +1,49 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Position in the change feed of a tenant. Changes are ordered by the tenant watermark
+ * that stamped them, which is the epoch millis of the write or later, and then by entry
+ * id.
+ *
+ * @param changedAt stamp of the change at the cursor
+ * @param entryId id of the entry at the cursor. {@code null} for a bare stamp, which
+ * stands for the position after every change with that stamp.
+ */
+public record ChangeCursor(long changedAt, @Nullable Long entryId) {
+
+	private static final char SEPARATOR = ',';
+
+	public ChangeCursor(long changedAt) {
+		this(changedAt, null);
+	}
+
+	@JsonValue
+	@Override
+	public String toString() {
+		return this.entryId == null ? String.valueOf(this.changedAt)
+				: this.changedAt + String.valueOf(SEPARATOR) + this.entryId;
+	}
+
+	/**
+	 * Parses {@code {changedAt},{entryId}} or {@code {changedAt}}.
+	 */
+	@JsonCreator
+	public static ChangeCursor valueOf(String value) {
+		int index = value.indexOf(SEPARATOR);
+		try {
+			if (index < 0) {
+				return new ChangeCursor(Long.parseLong(value));
+			}
+			return new ChangeCursor(Long.parseLong(value.substring(0, index)),
+					Long.parseLong(value.substring(index + 1)));
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid ChangeCursor format: " + value, e);
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Cursor for pages ordered by creation date, in the form
+ * {@code created:{created},{entryId}}.
+ */
+public record CreatedCursor(Instant created, Long entryId) implements EntryCursor {
+
+	static final String PREFIX = "created:";
+
+	private static final char SEPARATOR = ',';
+
+	@Override
+	public EntrySort.Field field() {
+		return EntrySort.Field.CREATED;
+	}
+
+	@JsonValue
+	@Override
+	public String toString() {
+		return PREFIX + this.created + SEPARATOR + this.entryId;
+	}
+
+	public static CreatedCursor valueOf(String value) {
+		String body = value.startsWith(PREFIX) ? value.substring(PREFIX.length()) : value;
+		int index = body.indexOf(SEPARATOR);
+		if (index < 0) {
+			throw new IllegalArgumentException("Invalid CreatedCursor format: " + value);
+		}
+		try {
+			return new CreatedCursor(Instant.parse(body.substring(0, index)),
+					Long.parseLong(body.substring(index + 1)));
+		}
+		catch (DateTimeParseException | NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid CreatedCursor format: " + value, e);
+		}
+	}
+
+}
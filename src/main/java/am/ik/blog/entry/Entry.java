@@ -3,13 +3,35 @@ package am.ik.blog.entry;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
-import java.time.Instant;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
 import org.jspecify.annotations.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+/**
+ * @param blobSha SHA of the git blob the entry was read from, {@code null} when the entry
+ * was not read from GitHub
+ * @param contentHash SHA-256 of the fields of the entry other than its key and blob SHA,
+ * computed once when the entry is built, so that a change can be told without hashing
+ * the content again
+ */
 public record Entry(@JsonUnwrapped EntryKey entryKey, FrontMatter frontMatter,
-		@Nullable @JsonInclude(JsonInclude.Include.NON_NULL) String content, Author created, Author updated) {
+		@Nullable @JsonInclude(JsonInclude.Include.NON_NULL) String content, Author created, Author updated,
+		@JsonIgnore @Nullable String blobSha, @JsonIgnore String contentHash) {
+
+	private static final String TAG_DELIMITER = "|";
+
+	public Entry {
+		// not deserialized, computed from the other fields instead
+		if (contentHash == null) {
+			contentHash = contentHash(frontMatter, content, created, updated);
+		}
+	}
 
 	public String toMarkdown() {
 		return """
@@ -41,11 +63,45 @@ public record Entry(@JsonUnwrapped EntryKey entryKey, FrontMatter frontMatter,
 		return "%05d".formatted(entryId);
 	}
 
-	@Nullable public Instant toCursor() {
-		if (updated == null) {
+	@Nullable public UpdatedCursor toCursor() {
+		if (updated == null || updated.date() == null) {
 			return null;
 		}
-		return updated.date();
+		return new UpdatedCursor(updated.date(), entryKey.entryId());
+	}
+
+	@Nullable public EntryCursor toCursor(EntrySort.Field field) {
+		return switch (field) {
+			case UPDATED -> toCursor();
+			case CREATED -> created == null || created.date() == null ? null
+					: new CreatedCursor(created.date(), entryKey.entryId());
+			case TITLE -> new TitleCursor(frontMatter.title(), entryKey.entryId());
+			case ENTRY_ID -> new EntryIdCursor(entryKey.entryId());
+		};
+	}
+
+	private static String contentHash(FrontMatter frontMatter, @Nullable String content, Author created,
+			Author updated) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (Object field : List.of(frontMatter.title(), frontMatter.summary(),
+				frontMatter.categories().stream().map(Category::name).toList(),
+				frontMatter.tags().stream().map(tag -> tag.name() + TAG_DELIMITER + tag.version()).toList(),
+				Objects.requireNonNullElse(content, ""), created.name(), toEpochMilli(created), updated.name(),
+				toEpochMilli(updated))) {
+			digest.update(field.toString().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static long toEpochMilli(Author author) {
+		return author.date() != null ? author.date().toEpochMilli() : 0;
 	}
 
 	public static Builder builder() {
@@ -57,7 +113,9 @@ public record Entry(@JsonUnwrapped EntryKey entryKey, FrontMatter frontMatter,
 			.frontMatter(this.frontMatter)
 			.content(this.content)
 			.created(this.created)
-			.updated(this.updated);
+			.updated(this.updated)
+			.blobSha(this.blobSha)
+			.contentHash(this.contentHash);
 	}
 
 	public static class Builder {
@@ -72,6 +130,10 @@ public record Entry(@JsonUnwrapped EntryKey entryKey, FrontMatter frontMatter,
 
 		@Nullable private Author updated;
 
+		@Nullable private String blobSha;
+
+		@Nullable private String contentHash;
+
 		private Builder() {
 		}
 
@@ -82,21 +144,39 @@ public record Entry(@JsonUnwrapped EntryKey entryKey, FrontMatter frontMatter,
 
 		public Builder frontMatter(FrontMatter frontMatter) {
 			this.frontMatter = frontMatter;
+			this.contentHash = null;
 			return this;
 		}
 
 		public Builder content(@Nullable String content) {
 			this.content = content;
+			this.contentHash = null;
 			return this;
 		}
 
 		public Builder created(Author created) {
 			this.created = created;
+			this.contentHash = null;
 			return this;
 		}
 
 		public Builder updated(Author updated) {
 			this.updated = updated;
+			this.contentHash = null;
+			return this;
+		}
+
+		public Builder blobSha(@Nullable String blobSha) {
+			this.blobSha = blobSha;
+			return this;
+		}
+
+		/**
+		 * Sets the hash already computed for the fields set on the builder. It is dropped
+		 * when any of these fields is set afterwards, and computed on build if not set.
+		 */
+		public Builder contentHash(@Nullable String contentHash) {
+			this.contentHash = contentHash;
 			return this;
 		}
 
@@ -105,7 +185,9 @@ public record Entry(@JsonUnwrapped EntryKey entryKey, FrontMatter frontMatter,
 			Assert.notNull(frontMatter, "frontMatter must not be null");
 			Assert.notNull(created, "created must not be null");
 			Assert.notNull(updated, "updated must not be null");
-			return new Entry(entryKey, frontMatter, content, created, updated);
+			String contentHash = this.contentHash != null ? this.contentHash
+					: Entry.contentHash(frontMatter, content, created, updated);
+			return new Entry(entryKey, frontMatter, content, created, updated, blobSha, contentHash);
 		}
 
 	}
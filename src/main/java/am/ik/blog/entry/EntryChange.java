@@ -0,0 +1,40 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import java.util.Comparator;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A change in the change feed of a tenant.
+ *
+ * @param type whether the entry has been saved or deleted
+ * @param entryKey key of the entry
+ * @param changedAt tenant watermark that stamped the change
+ * @param entry the entry as saved, or {@code null} if it has been deleted
+ */
+public record EntryChange(Type type, @JsonUnwrapped EntryKey entryKey, long changedAt,
+		@Nullable @JsonInclude(JsonInclude.Include.NON_NULL) Entry entry) {
+
+	public static final Comparator<EntryChange> ORDER = Comparator.comparingLong(EntryChange::changedAt)
+		.thenComparing(change -> change.entryKey().entryId());
+
+	public static EntryChange upsert(Entry entry, long changedAt) {
+		return new EntryChange(Type.UPSERT, entry.entryKey(), changedAt, entry);
+	}
+
+	public static EntryChange delete(EntryKey entryKey, long changedAt) {
+		return new EntryChange(Type.DELETE, entryKey, changedAt, null);
+	}
+
+	public ChangeCursor toCursor() {
+		return new ChangeCursor(this.changedAt, this.entryKey.entryId());
+	}
+
+	public enum Type {
+
+		UPSERT, DELETE
+
+	}
+
+}
@@ -0,0 +1,28 @@
+package am.ik.blog.entry;
+
+import java.util.function.Consumer;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Pushes the changes of the change feed of a tenant to subscribers as they are written.
+ */
+public interface EntryChangeStream {
+
+	/**
+	 * Delivers the changes to the entries of the tenant to the listener until the returned
+	 * subscription is closed. The listener is called on a GemFire thread and must not
+	 * block. A change may be delivered more than once.
+	 * @param tenantId tenant ID, or {@code null} for the default tenant
+	 * @param listener listener of the changes
+	 * @return subscription to close when the listener is no longer interested
+	 */
+	Subscription subscribe(@Nullable String tenantId, Consumer<EntryChange> listener);
+
+	interface Subscription extends AutoCloseable {
+
+		@Override
+		void close();
+
+	}
+
+}
@@ -0,0 +1,16 @@
+package am.ik.blog.entry;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Published by the {@link EntryRepository} after an entry has been saved or deleted.
+ * Several entries written together share the same pair of watermarks.
+ *
+ * @param entryKey key of the entry
+ * @param entry saved entry, or {@code null} if the entry has been deleted
+ * @param previousWatermark write watermark of the tenant before the write
+ * @param watermark write watermark of the tenant after the write
+ */
+public record EntryChangedEvent(EntryKey entryKey, @Nullable Entry entry, long previousWatermark, long watermark) {
+
+}
@@ -0,0 +1,19 @@
+package am.ik.blog.entry;
+
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Entries of a tenant read in the order of their IDs.
+ *
+ * @param entries entries of the chunk, without those deleted while it was read
+ * @param next ID to read the next chunk after, which is the ID of the last entry the
+ * chunk covered even if it was deleted. {@code null} if there is no next chunk.
+ */
+public record EntryChunk(List<Entry> entries, @Nullable Long next) {
+
+	public boolean hasNext() {
+		return this.next != null;
+	}
+
+}
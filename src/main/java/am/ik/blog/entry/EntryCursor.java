@@ -0,0 +1,32 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keyset cursor of an entry listing. There is a cursor type for each
+ * {@link EntrySort.Field}, which holds the sort key and the entry id of the entry at the
+ * cursor. Except for {@link UpdatedCursor}, the string form is prefixed with the sort
+ * field so that a cursor can be told apart from the others.
+ */
+public sealed interface EntryCursor permits UpdatedCursor, CreatedCursor, TitleCursor, EntryIdCursor {
+
+	EntrySort.Field field();
+
+	@Nullable Long entryId();
+
+	@JsonCreator
+	static EntryCursor valueOf(String value) {
+		if (value.startsWith(CreatedCursor.PREFIX)) {
+			return CreatedCursor.valueOf(value);
+		}
+		if (value.startsWith(TitleCursor.PREFIX)) {
+			return TitleCursor.valueOf(value);
+		}
+		if (value.startsWith(EntryIdCursor.PREFIX)) {
+			return EntryIdCursor.valueOf(value);
+		}
+		return UpdatedCursor.valueOf(value);
+	}
+
+}
@@ -0,0 +1,33 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Cursor for pages ordered by entry id, in the form {@code entryId:{entryId}}.
+ */
+public record EntryIdCursor(Long entryId) implements EntryCursor {
+
+	static final String PREFIX = "entryId:";
+
+	@Override
+	public EntrySort.Field field() {
+		return EntrySort.Field.ENTRY_ID;
+	}
+
+	@JsonValue
+	@Override
+	public String toString() {
+		return PREFIX + this.entryId;
+	}
+
+	public static EntryIdCursor valueOf(String value) {
+		String body = value.startsWith(PREFIX) ? value.substring(PREFIX.length()) : value;
+		try {
+			return new EntryIdCursor(Long.parseLong(body));
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid EntryIdCursor format: " + value, e);
+		}
+	}
+
+}
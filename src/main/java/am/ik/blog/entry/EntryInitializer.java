@@ -2,6 +2,7 @@ package am.ik.blog.entry;
 
 import am.ik.blog.BlogProps;
 import am.ik.blog.GitHubProps;
+import am.ik.blog.github.RequestPriority;
 import am.ik.blog.util.Tuple2;
 import am.ik.blog.util.Tuples;
 import java.util.Objects;
@@ -48,6 +49,13 @@ public class EntryInitializer implements CommandLineRunner {
 		BlogProps.Init.Fetch fetch = init.getFetch();
 		logger.info("Importing entries from https://github.com/{}/{} ({}-{})", ownerAndRepo.getT1(),
 				ownerAndRepo.getT2(), fetch.getFrom(), fetch.getTo());
+		// yields to cache-aside fetches when the rate limit runs low
+		RequestPriority.runInBackground(() -> importEntries(tenantId, ownerAndRepo, fetch));
+		logger.info("Finished importing entries");
+	}
+
+	private void importEntries(@Nullable String tenantId, Tuple2<String, String> ownerAndRepo,
+			BlogProps.Init.Fetch fetch) {
 		IntStream.rangeClosed(fetch.getFrom(), fetch.getTo()).boxed().map(entryId -> {
 			try {
 				return this.entryFetcher.fetch(tenantId, ownerAndRepo.getT1(), ownerAndRepo.getT2(),
@@ -67,7 +75,6 @@ public class EntryInitializer implements CommandLineRunner {
 			.map(Optional::get)
 			.peek(this.entryRepository::save)
 			.forEach(e -> logger.info("Import key:{} title:{}", e.entryKey(), e.frontMatter().title()));
-		logger.info("Finished importing entries");
 	}
 
 	private Tuple2<String, String> getOwnerAndRepo(@Nullable String tenantId) {
@@ -4,7 +4,9 @@ import am.ik.pagination.CursorPage;
 import am.ik.pagination.CursorPageRequest;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.jspecify.annotations.Nullable;
 
 public interface EntryRepository {
@@ -13,13 +15,65 @@ public interface EntryRepository {
 
 	List<Entry> findAll(List<EntryKey> entryKeys);
 
-	CursorPage<Entry, Instant> findOrderByUpdated(@Nullable String tenantId, SearchCriteria searchCriteria,
-			CursorPageRequest<Instant> pageRequest);
+	/**
+	 * Returns the first page of {@link EntryService#DEFAULT_PAGE_SIZE} entries ordered by
+	 * update date, without content.
+	 */
+	CursorPage<Entry, UpdatedCursor> findLatest(@Nullable String tenantId);
+
+	CursorPage<Entry, UpdatedCursor> findOrderByUpdated(@Nullable String tenantId, SearchCriteria searchCriteria,
+			CursorPageRequest<UpdatedCursor> pageRequest);
+
+	SearchResultPage<Entry, UpdatedCursor> findOrderByUpdatedWithFacets(@Nullable String tenantId,
+			SearchCriteria searchCriteria, CursorPageRequest<UpdatedCursor> pageRequest, Set<Facet> facets);
+
+	CursorPage<Entry, EntryCursor> findOrderBy(@Nullable String tenantId, SearchCriteria searchCriteria,
+			EntrySort sort, CursorPageRequest<EntryCursor> pageRequest);
+
+	CursorPage<Entry, RelevanceCursor> findOrderByRelevance(@Nullable String tenantId, SearchCriteria searchCriteria,
+			CursorPageRequest<RelevanceCursor> pageRequest);
+
+	Map<EntryKey, Snippet> findSnippets(@Nullable String tenantId, List<EntryKey> entryKeys, @Nullable String query);
 
 	List<List<Category>> findAllCategories(@Nullable String tenantId);
 
 	List<TagAndCount> findAllTags(@Nullable String tenantId);
 
+	/**
+	 * Returns the changes to the entries of the tenant after the given position, in the
+	 * order they were written. Without a position, it returns every entry, and no
+	 * deletions. With a bound, only the changes stamped before it are returned, so that a
+	 * write stamped earlier but still being stored is not passed by the position.
+	 */
+	CursorPage<EntryChange, ChangeCursor> findChanges(@Nullable String tenantId, @Nullable ChangeCursor since,
+			@Nullable Instant before, int pageSize);
+
+	/**
+	 * Returns up to {@code limit} entries of the tenant with their content, in the order of
+	 * their IDs, starting after the given one. The chunk may hold fewer entries while
+	 * there are more, if some were deleted while it was read.
+	 */
+	EntryChunk findAllAfter(@Nullable String tenantId, @Nullable Long afterEntryId, int limit);
+
+	/**
+	 * Returns the SHA of the git blob each entry of the tenant was read from, by entry ID.
+	 * The SHA is {@code null} for entries that were not read from GitHub.
+	 */
+	Map<Long, @Nullable String> findBlobShas(@Nullable String tenantId);
+
+	/**
+	 * Returns the SHA of the git blob the entry was last read from or written to, or
+	 * {@code null} if the entry is not stored or the SHA is not known. Unlike
+	 * {@link #findById(EntryKey)}, it never fetches the entry from GitHub.
+	 */
+	@Nullable String findBlobSha(EntryKey entryKey);
+
+	/**
+	 * Returns the write watermark of the tenant, which increases on every write to its
+	 * entries, or {@code 0} if the tenant has not been written.
+	 */
+	long watermark(@Nullable String tenantId);
+
 	Entry save(Entry entry);
 
 	Long nextId(@Nullable String tenantId);
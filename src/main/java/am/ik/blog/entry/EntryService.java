@@ -1,20 +1,37 @@
 package am.ik.blog.entry;
 
 import am.ik.blog.GitHubProps;
+import am.ik.blog.github.CreateCommitRequest;
 import am.ik.blog.github.CreateFileRequest;
+import am.ik.blog.github.CreateTreeRequest;
 import am.ik.blog.github.DeleteFileRequest;
 import am.ik.blog.github.File;
+import am.ik.blog.github.FileCommitResponse;
+import am.ik.blog.github.GitBlobs;
+import am.ik.blog.github.GitCommit;
 import am.ik.blog.github.GitHubClient;
+import am.ik.blog.github.GitRef;
+import am.ik.blog.github.GitTree;
+import am.ik.blog.github.GitTreeEntry;
 import am.ik.blog.github.UpdateFileRequest;
+import am.ik.blog.github.UpdateRefRequest;
 import am.ik.blog.security.Authorized;
 import am.ik.blog.security.Privilege;
 import am.ik.pagination.CursorPage;
 import am.ik.pagination.CursorPageRequest;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,8 +49,20 @@ public class EntryService {
 
 	public static final int DEFAULT_PAGE_SIZE = 30;
 
-	private static final CursorPageRequest<Instant> DEFAULT_CURSOR_REQUEST = new CursorPageRequest<>(null,
-			DEFAULT_PAGE_SIZE, CursorPageRequest.Navigation.NEXT);
+	public static final int MAX_PAGE_SIZE = 1024;
+
+	/**
+	 * How long deletions are kept for the change feed. Clients that have not synchronized
+	 * for longer have to start over.
+	 */
+	public static final Duration TOMBSTONE_RETENTION = Duration.ofDays(30);
+
+	private static final String CONTENT_DIRECTORY = "content";
+
+	/**
+	 * How many times a batch commit is attempted when the branch moves on concurrently.
+	 */
+	private static final int MAX_COMMIT_ATTEMPTS = 3;
 
 	private final EntryRepository entryRepository;
 
@@ -45,13 +74,16 @@ public class EntryService {
 
 	private final EntryParser entryParser;
 
+	private final EntryChangeStream entryChangeStream;
+
 	public EntryService(EntryRepository entryRepository, GitHubProps gitHubProps, HttpServiceProxyRegistry registry,
-			EntryParser entryParser) {
+			EntryParser entryParser, EntryChangeStream entryChangeStream) {
 		this.entryRepository = entryRepository;
 		this.gitHubProps = gitHubProps;
 		this.registry = registry;
 		this.gitHubClient = registry.getClient("github", GitHubClient.class);
 		this.entryParser = entryParser;
+		this.entryChangeStream = entryChangeStream;
 	}
 
 	@Authorized(resource = "entry", requiredPrivileges = Privilege.GET)
@@ -65,14 +97,60 @@ public class EntryService {
 	}
 
 	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
-	public CursorPage<Entry, Instant> findOrderByUpdated(@Nullable @P("tenantId") String tenantId,
-			SearchCriteria searchCriteria, CursorPageRequest<Instant> pageRequest) {
+	public CursorPage<Entry, UpdatedCursor> findOrderByUpdated(@Nullable @P("tenantId") String tenantId,
+			SearchCriteria searchCriteria, CursorPageRequest<UpdatedCursor> pageRequest) {
 		return entryRepository.findOrderByUpdated(tenantId, searchCriteria, pageRequest);
 	}
 
 	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
-	public CursorPage<Entry, Instant> findLatest(@Nullable @P("tenantId") String tenantId) {
-		return entryRepository.findOrderByUpdated(tenantId, SearchCriteria.NULL_CRITERIA, DEFAULT_CURSOR_REQUEST);
+	public SearchResultPage<Entry, UpdatedCursor> findOrderByUpdatedWithFacets(@Nullable @P("tenantId") String tenantId,
+			SearchCriteria searchCriteria, CursorPageRequest<UpdatedCursor> pageRequest, Set<Facet> facets) {
+		return entryRepository.findOrderByUpdatedWithFacets(tenantId, searchCriteria, pageRequest, facets);
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
+	public CursorPage<Entry, EntryCursor> findOrderBy(@Nullable @P("tenantId") String tenantId,
+			SearchCriteria searchCriteria, EntrySort sort, CursorPageRequest<EntryCursor> pageRequest) {
+		return entryRepository.findOrderBy(tenantId, searchCriteria, sort, pageRequest);
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
+	public CursorPage<Entry, RelevanceCursor> findOrderByRelevance(@Nullable @P("tenantId") String tenantId,
+			SearchCriteria searchCriteria, CursorPageRequest<RelevanceCursor> pageRequest) {
+		return entryRepository.findOrderByRelevance(tenantId, searchCriteria, pageRequest);
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
+	public Map<EntryKey, Snippet> findSnippets(@Nullable @P("tenantId") String tenantId, List<EntryKey> entryKeys,
+			@Nullable String query) {
+		return entryRepository.findSnippets(tenantId, entryKeys, query);
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
+	public CursorPage<Entry, UpdatedCursor> findLatest(@Nullable @P("tenantId") String tenantId) {
+		return entryRepository.findLatest(tenantId);
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
+	public CursorPage<EntryChange, ChangeCursor> findChanges(@Nullable @P("tenantId") String tenantId,
+			@Nullable ChangeCursor since, @Nullable Instant before, int pageSize) {
+		return entryRepository.findChanges(tenantId, since, before, pageSize);
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
+	public EntryChangeStream.Subscription subscribeChanges(@Nullable @P("tenantId") String tenantId,
+			Consumer<EntryChange> listener) {
+		return entryChangeStream.subscribe(tenantId, listener);
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.EXPORT)
+	public EntryChunk findAllAfter(@Nullable @P("tenantId") String tenantId, @Nullable Long afterEntryId, int limit) {
+		return entryRepository.findAllAfter(tenantId, afterEntryId, limit);
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
+	public long watermark(@Nullable @P("tenantId") String tenantId) {
+		return entryRepository.watermark(tenantId);
 	}
 
 	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
@@ -100,11 +178,33 @@ public class EntryService {
 
 	@Authorized(resource = "entry", requiredPrivileges = Privilege.EDIT)
 	public void saveAll(@Nullable @P("tenantId") String tenantId, Entry... entries) {
-		entryRepository.saveAll(entries);
+		saveAll(tenantId, List.of(entries));
 	}
 
 	@Authorized(resource = "entry", requiredPrivileges = Privilege.EDIT)
 	public void saveAll(@Nullable @P("tenantId") String tenantId, List<Entry> entries) {
+		if (this.gitHubProps.isDirectUpdate()) {
+			commitToGitHub(tenantId, "Update %d entries".formatted(entries.size()), entries, List.of());
+			return;
+		}
+		entryRepository.saveAll(entries);
+	}
+
+	/**
+	 * Returns who created each of the entries that are already stored and when, so that an
+	 * import keeps it.
+	 */
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.IMPORT)
+	public Map<EntryKey, Author> findCreated(@Nullable @P("tenantId") String tenantId, List<EntryKey> entryKeys) {
+		Map<EntryKey, Author> created = new HashMap<>();
+		for (Entry entry : entryRepository.findAll(entryKeys)) {
+			created.put(entry.entryKey(), entry.created());
+		}
+		return created;
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.IMPORT)
+	public void importAll(@Nullable @P("tenantId") String tenantId, List<Entry> entries) {
 		entryRepository.saveAll(entries);
 	}
 
@@ -117,6 +217,15 @@ public class EntryService {
 		entryRepository.deleteById(entryKey);
 	}
 
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.DELETE)
+	public void deleteAll(@Nullable @P("tenantId") String tenantId, List<EntryKey> entryKeys) {
+		if (this.gitHubProps.isDirectUpdate()) {
+			commitToGitHub(tenantId, "Delete %d entries".formatted(entryKeys.size()), List.of(), entryKeys);
+			return;
+		}
+		entryKeys.forEach(entryRepository::deleteById);
+	}
+
 	@Authorized(resource = "entry", requiredPrivileges = Privilege.EDIT)
 	public void updateSummary(@Nullable @P("tenantId") String tenantId, EntryKey entryKey, String summary) {
 		if (this.gitHubProps.isDirectUpdate()) {
@@ -129,6 +238,12 @@ public class EntryService {
 		entryRepository.updateSummary(entryKey, summary);
 	}
 
+	/**
+	 * Writes the entry to GitHub and then to the repository. The blob SHA the entry was
+	 * last read from or written to is used optimistically, so that an edit usually takes
+	 * a single call. Only when it is not known or has become stale is the current SHA
+	 * looked up first.
+	 */
 	private Entry saveToGitHub(@Nullable String tenantId, Entry entry) {
 		String owner = getOwner(tenantId);
 		String repo = getRepo(tenantId);
@@ -136,33 +251,43 @@ public class EntryService {
 		GitHubClient client = getGitHubClient(tenantId);
 		String content = Base64.getEncoder().encodeToString(entry.toMarkdown().getBytes(StandardCharsets.UTF_8));
 		String formattedId = Entry.formatId(entry.entryKey().entryId());
-		ResponseEntity<File> getResponse = client.getFile(owner, repo, path);
-		if (getResponse.getStatusCode() == HttpStatus.NOT_FOUND) {
-			String message = "Create entry %s".formatted(formattedId);
-			logger.info("action=create_file tenantId={} owner={} repo={} path={}", tenantId, owner, repo, path);
-			ResponseEntity<?> createResponse = client.createFile(owner, repo, path,
-					new CreateFileRequest(message, content));
-			if (createResponse.getStatusCode().isError()) {
-				throw new ResponseStatusException(HttpStatus.valueOf(createResponse.getStatusCode().value()),
-						"Failed to create file on GitHub: " + createResponse.getStatusCode());
-			}
+		String message = "Update entry %s".formatted(formattedId);
+		String knownSha = findBlobSha(entry);
+		ResponseEntity<FileCommitResponse> response = (knownSha != null)
+				? updateFile(tenantId, client, owner, repo, path, new UpdateFileRequest(message, content, knownSha))
+				: null;
+		if (response != null && isConflict(response)) {
+			logger.info("action=update_file tenantId={} status=stale_sha owner={} repo={} path={} sha={}", tenantId,
+					owner, repo, path, knownSha);
+			response = null;
 		}
-		else {
-			File file = getResponse.getBody();
-			String sha = (file != null) ? file.sha() : "";
-			String message = "Update entry %s".formatted(formattedId);
-			logger.info("action=update_file tenantId={} owner={} repo={} path={} sha={}", tenantId, owner, repo, path,
-					sha);
-			ResponseEntity<?> updateResponse = client.updateFile(owner, repo, path,
-					new UpdateFileRequest(message, content, sha));
-			if (updateResponse.getStatusCode().isError()) {
-				throw new ResponseStatusException(HttpStatus.valueOf(updateResponse.getStatusCode().value()),
-						"Failed to update file on GitHub: " + updateResponse.getStatusCode());
+		if (response == null) {
+			ResponseEntity<File> getResponse = client.getFile(owner, repo, path);
+			if (getResponse.getStatusCode() == HttpStatus.NOT_FOUND) {
+				logger.info("action=create_file tenantId={} owner={} repo={} path={}", tenantId, owner, repo, path);
+				response = client.createFile(owner, repo, path,
+						new CreateFileRequest("Create entry %s".formatted(formattedId), content));
+				if (response.getStatusCode().isError()) {
+					throw new ResponseStatusException(HttpStatus.valueOf(response.getStatusCode().value()),
+							"Failed to create file on GitHub: " + response.getStatusCode());
+				}
+			}
+			else {
+				File file = getResponse.getBody();
+				String sha = (file != null) ? file.sha() : "";
+				response = updateFile(tenantId, client, owner, repo, path,
+						new UpdateFileRequest(message, content, sha));
 			}
 		}
-		// Also update the repository
-		this.entryRepository.save(entry);
-		return entry;
+		if (response.getStatusCode().isError()) {
+			throw new ResponseStatusException(HttpStatus.valueOf(response.getStatusCode().value()),
+					"Failed to update file on GitHub: " + response.getStatusCode());
+		}
+		// Also update the repository, keeping the SHA of the written blob for the next
+		// update
+		Entry saved = entry.toBuilder().blobSha(blobSha(response)).build();
+		this.entryRepository.save(saved);
+		return saved;
 	}
 
 	private void deleteFromGitHub(@Nullable String tenantId, EntryKey entryKey) {
@@ -170,29 +295,160 @@ public class EntryService {
 		String repo = getRepo(tenantId);
 		String path = getFilePath(entryKey);
 		GitHubClient client = getGitHubClient(tenantId);
-		String formattedId = Entry.formatId(entryKey.entryId());
-		ResponseEntity<File> getResponse = client.getFile(owner, repo, path);
-		if (getResponse.getStatusCode() != HttpStatus.NOT_FOUND) {
-			File file = getResponse.getBody();
-			String sha = (file != null) ? file.sha() : "";
-			String message = "Delete entry %s".formatted(formattedId);
-			logger.info("action=delete_file tenantId={} owner={} repo={} path={} sha={}", tenantId, owner, repo, path,
-					sha);
-			ResponseEntity<?> deleteResponse = client.deleteFile(owner, repo, path,
-					new DeleteFileRequest(message, sha));
-			if (deleteResponse.getStatusCode().isError()) {
-				throw new ResponseStatusException(HttpStatus.valueOf(deleteResponse.getStatusCode().value()),
-						"Failed to delete file on GitHub: " + deleteResponse.getStatusCode());
+		String message = "Delete entry %s".formatted(Entry.formatId(entryKey.entryId()));
+		String knownSha = this.entryRepository.findBlobSha(entryKey);
+		ResponseEntity<FileCommitResponse> response = (knownSha != null)
+				? deleteFile(tenantId, client, owner, repo, path, new DeleteFileRequest(message, knownSha)) : null;
+		if (response != null && isConflict(response)) {
+			logger.info("action=delete_file tenantId={} status=stale_sha owner={} repo={} path={} sha={}", tenantId,
+					owner, repo, path, knownSha);
+			response = null;
+		}
+		if (response == null) {
+			ResponseEntity<File> getResponse = client.getFile(owner, repo, path);
+			if (getResponse.getStatusCode() != HttpStatus.NOT_FOUND) {
+				File file = getResponse.getBody();
+				String sha = (file != null) ? file.sha() : "";
+				response = deleteFile(tenantId, client, owner, repo, path, new DeleteFileRequest(message, sha));
 			}
 		}
-		else {
+		if (response == null || response.getStatusCode() == HttpStatus.NOT_FOUND) {
 			logger.info("action=skip_delete tenantId={} reason=not_found owner={} repo={} path={}", tenantId, owner,
 					repo, path);
 		}
+		else if (response.getStatusCode().isError()) {
+			throw new ResponseStatusException(HttpStatus.valueOf(response.getStatusCode().value()),
+					"Failed to delete file on GitHub: " + response.getStatusCode());
+		}
 		// Also delete from the repository
 		this.entryRepository.deleteById(entryKey);
 	}
 
+	/**
+	 * Writes the entries and deletes the files of the entry keys in a single commit through
+	 * the Git Data API, and then updates the repository. The contents are sent inline with
+	 * the tree and the blob SHAs are computed locally, so the number of calls does not
+	 * depend on the number of entries. Files that already have the content, and deleted
+	 * files that do not exist, are left out of the commit.
+	 */
+	private void commitToGitHub(@Nullable String tenantId, String message, List<Entry> entries,
+			List<EntryKey> deletedKeys) {
+		String owner = getOwner(tenantId);
+		String repo = getRepo(tenantId);
+		GitHubClient client = getGitHubClient(tenantId);
+		Map<String, String> contents = new LinkedHashMap<>();
+		List<Entry> saved = new ArrayList<>(entries.size());
+		for (Entry entry : entries) {
+			String markdown = entry.toMarkdown();
+			contents.put(getFilePath(entry.entryKey()), markdown);
+			saved.add(entry.toBuilder().blobSha(GitBlobs.sha(markdown.getBytes(StandardCharsets.UTF_8))).build());
+		}
+		String branch = requireBody(client.getRepository(owner, repo), "get repository").defaultBranch();
+		for (int attempt = 1;; attempt++) {
+			String head = requireBody(client.getBranch(owner, repo, branch), "get branch").object().sha();
+			ResponseEntity<GitTree> contentResponse = client.getTree(owner, repo, head + ":" + CONTENT_DIRECTORY);
+			GitTree contentTree = (contentResponse.getStatusCode() == HttpStatus.NOT_FOUND) ? null
+					: requireBody(contentResponse, "get tree");
+			Map<String, String> currentShas = new HashMap<>();
+			if (contentTree != null) {
+				for (GitTreeEntry treeEntry : contentTree.tree()) {
+					String sha = treeEntry.sha();
+					if (treeEntry.isBlob() && sha != null) {
+						currentShas.put(CONTENT_DIRECTORY + "/" + treeEntry.path(), sha);
+					}
+				}
+			}
+			boolean complete = contentTree == null || !contentTree.truncated();
+			List<CreateTreeRequest.Entry> changes = new ArrayList<>();
+			for (Entry entry : saved) {
+				String path = getFilePath(entry.entryKey());
+				if (!Objects.equals(currentShas.get(path), entry.blobSha())) {
+					changes.add(CreateTreeRequest.Entry.file(path, Objects.requireNonNull(contents.get(path))));
+				}
+			}
+			for (EntryKey entryKey : deletedKeys) {
+				String path = getFilePath(entryKey);
+				if (!complete || currentShas.containsKey(path)) {
+					changes.add(CreateTreeRequest.Entry.delete(path));
+				}
+			}
+			if (changes.isEmpty()) {
+				logger.info("action=skip_commit tenantId={} reason=unchanged owner={} repo={} branch={}", tenantId,
+						owner, repo, branch);
+				break;
+			}
+			String baseTree = requireBody(client.getTree(owner, repo, head), "get tree").sha();
+			GitTree tree = requireBody(client.createTree(owner, repo, new CreateTreeRequest(baseTree, changes)),
+					"create tree");
+			GitCommit commit = requireBody(
+					client.createCommit(owner, repo, new CreateCommitRequest(message, tree.sha(), List.of(head))),
+					"create commit");
+			ResponseEntity<GitRef> updateResponse = client.updateBranch(owner, repo, branch,
+					new UpdateRefRequest(commit.sha(), false));
+			if (updateResponse.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY && attempt < MAX_COMMIT_ATTEMPTS) {
+				// the branch has moved on, so the changes are applied again on the new head
+				logger.info("action=commit tenantId={} status=conflict owner={} repo={} branch={} attempt={}",
+						tenantId, owner, repo, branch, attempt);
+				continue;
+			}
+			requireBody(updateResponse, "update branch");
+			long deletions = changes.stream().filter(CreateTreeRequest.Entry::isDelete).count();
+			logger.info("action=commit tenantId={} owner={} repo={} branch={} sha={} updated={} deleted={}", tenantId,
+					owner, repo, branch, commit.sha(), changes.size() - deletions, deletions);
+			break;
+		}
+		// Also update the repository
+		if (!saved.isEmpty()) {
+			this.entryRepository.saveAll(saved);
+		}
+		deletedKeys.forEach(this.entryRepository::deleteById);
+	}
+
+	private static <T> T requireBody(ResponseEntity<T> response, String action) {
+		T body = response.getBody();
+		if (response.getStatusCode().isError() || body == null) {
+			HttpStatus status = response.getStatusCode().isError()
+					? HttpStatus.valueOf(response.getStatusCode().value()) : HttpStatus.BAD_GATEWAY;
+			throw new ResponseStatusException(status,
+					"Failed to %s on GitHub: %s".formatted(action, response.getStatusCode()));
+		}
+		return body;
+	}
+
+	private ResponseEntity<FileCommitResponse> updateFile(@Nullable String tenantId, GitHubClient client, String owner,
+			String repo, String path, UpdateFileRequest request) {
+		logger.info("action=update_file tenantId={} owner={} repo={} path={} sha={}", tenantId, owner, repo, path,
+				request.sha());
+		return client.updateFile(owner, repo, path, request);
+	}
+
+	private ResponseEntity<FileCommitResponse> deleteFile(@Nullable String tenantId, GitHubClient client, String owner,
+			String repo, String path, DeleteFileRequest request) {
+		logger.info("action=delete_file tenantId={} owner={} repo={} path={} sha={}", tenantId, owner, repo, path,
+				request.sha());
+		return client.deleteFile(owner, repo, path, request);
+	}
+
+	private @Nullable String findBlobSha(Entry entry) {
+		String blobSha = entry.blobSha();
+		return (blobSha != null) ? blobSha : this.entryRepository.findBlobSha(entry.entryKey());
+	}
+
+	/**
+	 * GitHub answers a write with a SHA that does not match the current blob with either
+	 * status depending on the endpoint.
+	 */
+	private static boolean isConflict(ResponseEntity<?> response) {
+		return response.getStatusCode() == HttpStatus.CONFLICT
+				|| response.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY;
+	}
+
+	private static @Nullable String blobSha(ResponseEntity<FileCommitResponse> response) {
+		FileCommitResponse body = response.getBody();
+		File file = (body != null) ? body.content() : null;
+		return (file != null) ? file.sha() : null;
+	}
+
 	private Entry fetchFromGitHub(@Nullable String tenantId, EntryKey entryKey) {
 		String owner = getOwner(tenantId);
 		String repo = getRepo(tenantId);
@@ -212,11 +468,13 @@ public class EntryService {
 			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Entry not found: " + entryKey);
 		}
 		Author unknownAuthor = Author.builder().name("unknown").build();
-		return this.entryParser.fromMarkdown(entryKey, file.decode(), unknownAuthor, unknownAuthor).build();
+		return this.entryParser.fromMarkdown(entryKey, file.decode(), unknownAuthor, unknownAuthor)
+			.blobSha(file.sha())
+			.build();
 	}
 
 	private String getFilePath(EntryKey entryKey) {
-		return "content/%s.md".formatted(Entry.formatId(entryKey.entryId()));
+		return "%s/%s.md".formatted(CONTENT_DIRECTORY, Entry.formatId(entryKey.entryId()));
 	}
 
 	private String getOwner(@Nullable String tenantId) {
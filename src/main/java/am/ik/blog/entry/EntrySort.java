@@ -0,0 +1,83 @@
+package am.ik.blog.entry;
+
+import java.util.Locale;
+
+/**
+ * Order of an entry listing. Entries with the same sort key are ordered by entry key in
+ * the same direction, and each order is backed by an index on the pair so that a page is
+ * read with a keyset predicate instead of sorting all entries of a tenant.
+ *
+ * @param field sort key
+ * @param direction sort direction
+ */
+public record EntrySort(Field field, Direction direction) {
+
+	public static final EntrySort DEFAULT = new EntrySort(Field.UPDATED, Direction.DESC);
+
+	private static final char SEPARATOR = ',';
+
+	public boolean descending() {
+		return this.direction == Direction.DESC;
+	}
+
+	@Override
+	public String toString() {
+		return this.field.parameter + SEPARATOR + this.direction.name().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Parses {@code {field}} or {@code {field},{asc|desc}}. The direction defaults to the
+	 * natural direction of the field.
+	 */
+	public static EntrySort valueOf(String value) {
+		int index = value.indexOf(SEPARATOR);
+		Field field = Field.fromParameter(index < 0 ? value : value.substring(0, index));
+		if (index < 0) {
+			return new EntrySort(field, field.defaultDirection);
+		}
+		String direction = value.substring(index + 1).trim();
+		try {
+			return new EntrySort(field, Direction.valueOf(direction.toUpperCase(Locale.ROOT)));
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown sort direction: " + direction, e);
+		}
+	}
+
+	public enum Field {
+
+		UPDATED("updated", Direction.DESC), CREATED("created", Direction.DESC), TITLE("title", Direction.ASC),
+		ENTRY_ID("entryId", Direction.DESC);
+
+		private final String parameter;
+
+		private final Direction defaultDirection;
+
+		Field(String parameter, Direction defaultDirection) {
+			this.parameter = parameter;
+			this.defaultDirection = defaultDirection;
+		}
+
+		public String parameter() {
+			return this.parameter;
+		}
+
+		public static Field fromParameter(String value) {
+			String trimmed = value.trim();
+			for (Field field : values()) {
+				if (field.parameter.equals(trimmed)) {
+					return field;
+				}
+			}
+			throw new IllegalArgumentException("Unknown sort field: " + value);
+		}
+
+	}
+
+	public enum Direction {
+
+		ASC, DESC
+
+	}
+
+}
@@ -0,0 +1,21 @@
+package am.ik.blog.entry;
+
+import java.util.Locale;
+
+/**
+ * Facets that can be counted over the entries matching a search.
+ */
+public enum Facet {
+
+	TAGS, CATEGORIES;
+
+	public static Facet fromParameter(String value) {
+		try {
+			return Facet.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown facet: " + value, e);
+		}
+	}
+
+}
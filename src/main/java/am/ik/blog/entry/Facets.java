@@ -0,0 +1,14 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Counts of the requested facets over all entries matching a search, not only the
+ * current page. Facets that were not requested are {@code null}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Facets(@Nullable List<TagAndCount> tags, @Nullable List<CategoriesAndCount> categories) {
+
+}
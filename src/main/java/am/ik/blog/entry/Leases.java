@@ -0,0 +1,18 @@
+package am.ik.blog.entry;
+
+import java.time.Duration;
+
+/**
+ * Leases shared by all application instances, so that periodic work runs on one instance
+ * at a time.
+ */
+public interface Leases {
+
+	/**
+	 * Acquires the lease if no instance holds it. The lease is never released and runs out
+	 * after the given duration, so that it also limits how often the work runs.
+	 * @return whether the lease has been acquired
+	 */
+	boolean tryAcquire(String name, Duration duration);
+
+}
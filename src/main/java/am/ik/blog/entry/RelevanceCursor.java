@@ -0,0 +1,38 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.Comparator;
+
+/**
+ * Cursor for pages ordered by relevance. Entries are ordered by score descending, and
+ * entries with the same score by entry key descending, so that the pair identifies a
+ * position in the result even when many entries share a score.
+ */
+public record RelevanceCursor(double score, String entryKey) {
+
+	public static final Comparator<RelevanceCursor> ORDER = Comparator.comparingDouble(RelevanceCursor::score)
+		.reversed()
+		.thenComparing(RelevanceCursor::entryKey, Comparator.reverseOrder());
+
+	private static final char SEPARATOR = ',';
+
+	@JsonValue
+	@Override
+	public String toString() {
+		return this.score + String.valueOf(SEPARATOR) + this.entryKey;
+	}
+
+	public static RelevanceCursor valueOf(String value) {
+		int index = value.indexOf(SEPARATOR);
+		if (index <= 0 || index == value.length() - 1) {
+			throw new IllegalArgumentException("Invalid RelevanceCursor format: " + value);
+		}
+		try {
+			return new RelevanceCursor(Double.parseDouble(value.substring(0, index)), value.substring(index + 1));
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid RelevanceCursor format: " + value, e);
+		}
+	}
+
+}
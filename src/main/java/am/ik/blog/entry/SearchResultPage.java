@@ -0,0 +1,29 @@
+package am.ik.blog.entry;
+
+import am.ik.pagination.CursorPage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link CursorPage} with optional search metadata. The page is serialized as is, with
+ * additional {@code facets} and {@code snippets} fields when they were requested.
+ *
+ * @param page page of entries
+ * @param facets facet counts over all matched entries
+ * @param snippets snippets of the entries in the page, keyed by entry id
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SearchResultPage<T, C>(@JsonUnwrapped CursorPage<T, C> page, @Nullable Facets facets,
+		@Nullable Map<Long, Snippet> snippets) {
+
+	public SearchResultPage(CursorPage<T, C> page) {
+		this(page, null, null);
+	}
+
+	public SearchResultPage<T, C> withSnippets(Map<Long, Snippet> snippets) {
+		return new SearchResultPage<>(this.page, this.facets, snippets);
+	}
+
+}
@@ -0,0 +1,22 @@
+package am.ik.blog.entry;
+
+import java.util.List;
+
+/**
+ * An excerpt of an entry around the words matching a search.
+ *
+ * @param text excerpt of the normalized plain text of the entry. It starts or ends with
+ * an ellipsis when the text is truncated.
+ * @param highlights ranges of the matches in {@code text}, in UTF-16 code units
+ */
+public record Snippet(String text, List<Highlight> highlights) {
+
+	/**
+	 * @param start inclusive start index
+	 * @param end exclusive end index
+	 */
+	public record Highlight(int start, int end) {
+
+	}
+
+}
@@ -0,0 +1,40 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Cursor for pages ordered by title, in the form {@code title:{entryId},{title}}. The
+ * title comes last as it may contain the separator.
+ */
+public record TitleCursor(String title, Long entryId) implements EntryCursor {
+
+	static final String PREFIX = "title:";
+
+	private static final char SEPARATOR = ',';
+
+	@Override
+	public EntrySort.Field field() {
+		return EntrySort.Field.TITLE;
+	}
+
+	@JsonValue
+	@Override
+	public String toString() {
+		return PREFIX + this.entryId + SEPARATOR + this.title;
+	}
+
+	public static TitleCursor valueOf(String value) {
+		String body = value.startsWith(PREFIX) ? value.substring(PREFIX.length()) : value;
+		int index = body.indexOf(SEPARATOR);
+		if (index < 0) {
+			throw new IllegalArgumentException("Invalid TitleCursor format: " + value);
+		}
+		try {
+			return new TitleCursor(body.substring(index + 1), Long.parseLong(body.substring(0, index)));
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid TitleCursor format: " + value, e);
+		}
+	}
+
+}
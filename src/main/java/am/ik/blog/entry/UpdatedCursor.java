@@ -0,0 +1,55 @@
+package am.ik.blog.entry;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Cursor for pages ordered by update date. Entries updated at the same millisecond are
+ * ordered by entry id, so that the pair identifies a position without skipping or
+ * repeating entries across pages.
+ *
+ * @param updated update date of the entry at the cursor
+ * @param entryId id of the entry at the cursor. {@code null} for a legacy cursor that
+ * has only the update date.
+ */
+public record UpdatedCursor(Instant updated, @Nullable Long entryId) implements EntryCursor {
+
+	private static final char SEPARATOR = ',';
+
+	public UpdatedCursor(Instant updated) {
+		this(updated, null);
+	}
+
+	@Override
+	public EntrySort.Field field() {
+		return EntrySort.Field.UPDATED;
+	}
+
+	@JsonValue
+	@Override
+	public String toString() {
+		return this.entryId == null ? this.updated.toString() : this.updated.toString() + SEPARATOR + this.entryId;
+	}
+
+	/**
+	 * Parses {@code {updated},{entryId}}, or an ISO-8601 instant as a legacy cursor.
+	 */
+	@JsonCreator
+	public static UpdatedCursor valueOf(String value) {
+		int index = value.indexOf(SEPARATOR);
+		try {
+			if (index < 0) {
+				return new UpdatedCursor(Instant.parse(value));
+			}
+			return new UpdatedCursor(Instant.parse(value.substring(0, index)),
+					Long.parseLong(value.substring(index + 1)));
+		}
+		catch (DateTimeParseException | NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid UpdatedCursor format: " + value, e);
+		}
+	}
+
+}
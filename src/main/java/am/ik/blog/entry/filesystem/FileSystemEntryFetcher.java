@@ -0,0 +1,116 @@
+package am.ik.blog.entry.filesystem;
+
+import am.ik.blog.BlogProps;
+import am.ik.blog.entry.Author;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryFetcher;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryParser;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.Optional;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link EntryFetcher} reading a local checkout of the content repository, configured
+ * with {@code blog.local.directory}. It replaces the GitHub fetcher when configured, so
+ * that development and benchmark environments need no network. The owner and the
+ * repository are ignored; the path is resolved against the directory. Dates missing from
+ * the front matter are taken from the file times.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "blog.local", name = "directory")
+public class FileSystemEntryFetcher implements EntryFetcher {
+
+	private static final String UNKNOWN_AUTHOR = "unknown";
+
+	private final Logger logger = LoggerFactory.getLogger(FileSystemEntryFetcher.class);
+
+	private final EntryParser entryParser;
+
+	private final Path directory;
+
+	@Nullable private final String tenantId;
+
+	public FileSystemEntryFetcher(EntryParser entryParser, BlogProps blogProps) {
+		this.entryParser = entryParser;
+		BlogProps.Local local = blogProps.getLocal();
+		this.directory = Path.of(Objects.requireNonNull(local.getDirectory(), "blog.local.directory"))
+			.toAbsolutePath()
+			.normalize();
+		this.tenantId = local.getTenantId();
+	}
+
+	/**
+	 * @return the directory containing {@code content/NNNNN.md}
+	 */
+	public Path directory() {
+		return this.directory;
+	}
+
+	/**
+	 * @return the tenant the directory belongs to
+	 */
+	@Nullable public String tenantId() {
+		return this.tenantId;
+	}
+
+	@Override
+	public Optional<Entry> fetch(@Nullable String tenantId, String owner, String repo, String path) {
+		if (!Objects.equals(EntryKey.requireNonNullTenantId(tenantId),
+				EntryKey.requireNonNullTenantId(this.tenantId))) {
+			return Optional.empty();
+		}
+		Path file = this.directory.resolve(path).normalize();
+		if (!file.startsWith(this.directory)) {
+			logger.warn("Rejected path outside of {}: {}", this.directory, path);
+			return Optional.empty();
+		}
+		return read(file);
+	}
+
+	/**
+	 * Reads the entry in the file, or returns empty if the file does not exist.
+	 * @throws NumberFormatException if the file name is not an entry ID
+	 */
+	Optional<Entry> read(Path file) {
+		Long entryId = Entry.parseId(file.getFileName().toString());
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			if (!attributes.isRegularFile()) {
+				return Optional.empty();
+			}
+			String markdown = Files.readString(file, StandardCharsets.UTF_8);
+			Author created = Author.builder()
+				.name(UNKNOWN_AUTHOR)
+				.date(attributes.creationTime().toInstant())
+				.build();
+			Author updated = Author.builder()
+				.name(UNKNOWN_AUTHOR)
+				.date(attributes.lastModifiedTime().toInstant())
+				.build();
+			return Optional.of(this.entryParser
+				.fromMarkdown(new EntryKey(entryId, this.tenantId), markdown, created, updated)
+				.build());
+		}
+		catch (NoSuchFileException e) {
+			return Optional.empty();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
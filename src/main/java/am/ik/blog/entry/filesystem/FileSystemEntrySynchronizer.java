@@ -0,0 +1,251 @@
+package am.ik.blog.entry.filesystem;
+
+import am.ik.blog.BlogProps;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the entries of the local checkout into the repository on startup, and then
+ * watches the {@code content} directory to save or delete only the files that change.
+ * Events are collected for a short while before they are applied, since editors often
+ * write a file in several steps. When the watch service overflows, the whole directory
+ * is loaded again, and the entries whose files are gone are deleted. A file that cannot
+ * be read is logged and skipped, so that it does not hold back the others.
+ */
+@Component
+@ConditionalOnProperty(prefix = "blog.local", name = "directory")
+public class FileSystemEntrySynchronizer implements SmartLifecycle {
+
+	static final int BATCH_SIZE = 100;
+
+	static final Duration DEBOUNCE = Duration.ofMillis(200);
+
+	private static final Pattern ENTRY_FILE = Pattern.compile("\\d+\\.md");
+
+	private final Logger logger = LoggerFactory.getLogger(FileSystemEntrySynchronizer.class);
+
+	private final FileSystemEntryFetcher entryFetcher;
+
+	private final EntryRepository entryRepository;
+
+	private final BlogProps.Local local;
+
+	private final Path contentDirectory;
+
+	@Nullable private volatile WatchService watchService;
+
+	private volatile boolean running;
+
+	public FileSystemEntrySynchronizer(FileSystemEntryFetcher entryFetcher, EntryRepository entryRepository,
+			BlogProps blogProps) {
+		this.entryFetcher = entryFetcher;
+		this.entryRepository = entryRepository;
+		this.local = blogProps.getLocal();
+		this.contentDirectory = entryFetcher.directory().resolve("content");
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+		if (!Files.isDirectory(this.contentDirectory)) {
+			logger.warn("Content directory not found: {}", this.contentDirectory);
+			return;
+		}
+		if (this.local.isImportOnStartup()) {
+			importAll();
+		}
+		if (this.local.isWatch()) {
+			try {
+				WatchService watchService = this.contentDirectory.getFileSystem().newWatchService();
+				this.contentDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+				this.watchService = watchService;
+				Thread.ofPlatform().name("entry-watcher").daemon(true).start(() -> watch(watchService));
+				logger.info("Watching {}", this.contentDirectory);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		WatchService watchService = this.watchService;
+		if (watchService != null) {
+			try {
+				watchService.close();
+			}
+			catch (IOException e) {
+				logger.warn("Failed to close the watch service", e);
+			}
+			this.watchService = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Saves all the entries in the content directory, in batches read in parallel.
+	 * @return the IDs of the entry files in the directory, including the ones that could
+	 * not be read
+	 */
+	Set<Long> importAll() {
+		long start = System.nanoTime();
+		List<Path> files;
+		try (Stream<Path> stream = Files.list(this.contentDirectory)) {
+			files = stream.filter(FileSystemEntrySynchronizer::isEntryFile).sorted().toList();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		for (int i = 0; i < files.size(); i += BATCH_SIZE) {
+			List<Entry> entries = files.subList(i, Math.min(i + BATCH_SIZE, files.size()))
+				.parallelStream()
+				.map(file -> {
+					try {
+						return this.entryFetcher.read(file);
+					}
+					catch (RuntimeException e) {
+						logger.warn("Skipping {}, which cannot be read", file, e);
+						return Optional.<Entry>empty();
+					}
+				})
+				.flatMap(Optional::stream)
+				.toList();
+			this.entryRepository.saveAll(entries);
+		}
+		logger.info("Imported {} entries from {} in {} ms", files.size(), this.contentDirectory,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return files.stream().map(file -> Entry.parseId(file.getFileName().toString())).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Saves all the entries in the content directory, and deletes the stored entries whose
+	 * files are gone, whose events may have been lost.
+	 */
+	void reimportAll() {
+		Set<Long> entryIds = importAll();
+		for (Long entryId : this.entryRepository.findBlobShas(this.entryFetcher.tenantId()).keySet()) {
+			if (!entryIds.contains(entryId)) {
+				EntryKey entryKey = new EntryKey(entryId, this.entryFetcher.tenantId());
+				logger.info("Deleting {}", entryKey);
+				this.entryRepository.deleteById(entryKey);
+			}
+		}
+	}
+
+	/**
+	 * Saves the entries of the files that exist and deletes the ones of the files that do
+	 * not.
+	 */
+	void synchronize(Set<Path> files) {
+		List<Entry> saved = new ArrayList<>();
+		for (Path file : files) {
+			Optional<Entry> entry;
+			try {
+				entry = this.entryFetcher.read(file);
+			}
+			catch (RuntimeException e) {
+				logger.warn("Skipping {}, which cannot be read", file, e);
+				continue;
+			}
+			if (entry.isPresent()) {
+				saved.add(entry.get());
+			}
+			else {
+				EntryKey entryKey = new EntryKey(Entry.parseId(file.getFileName().toString()),
+						this.entryFetcher.tenantId());
+				logger.info("Deleting {}", entryKey);
+				this.entryRepository.deleteById(entryKey);
+			}
+		}
+		if (!saved.isEmpty()) {
+			logger.info("Saving {}", saved.stream().map(Entry::entryKey).toList());
+			this.entryRepository.saveAll(saved);
+		}
+	}
+
+	private void watch(WatchService watchService) {
+		while (this.running) {
+			try {
+				Set<Path> changed = new LinkedHashSet<>();
+				boolean overflow = collect(watchService.take(), changed);
+				// wait for the rest of a save that spans several events
+				WatchKey next;
+				while ((next = watchService.poll(DEBOUNCE.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+					overflow |= collect(next, changed);
+				}
+				if (overflow) {
+					logger.warn("Missed file events in {}, importing all the entries again", this.contentDirectory);
+					reimportAll();
+				}
+				else if (!changed.isEmpty()) {
+					synchronize(changed);
+				}
+			}
+			catch (ClosedWatchServiceException e) {
+				return;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (RuntimeException e) {
+				logger.warn("Failed to synchronize {}", this.contentDirectory, e);
+			}
+		}
+	}
+
+	/**
+	 * @return whether events have been lost
+	 */
+	private boolean collect(WatchKey key, Set<Path> changed) {
+		boolean overflow = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				overflow = true;
+			}
+			else if (event.context() instanceof Path name && isEntryFile(name)) {
+				changed.add(this.contentDirectory.resolve(name));
+			}
+		}
+		key.reset();
+		return overflow;
+	}
+
+	static boolean isEntryFile(Path file) {
+		return ENTRY_FILE.matcher(file.getFileName().toString()).matches();
+	}
+
+}
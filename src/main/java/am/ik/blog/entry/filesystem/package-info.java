@@ -0,0 +1,4 @@
+@NullMarked
+package am.ik.blog.entry.filesystem;
+
+import org.jspecify.annotations.NullMarked;
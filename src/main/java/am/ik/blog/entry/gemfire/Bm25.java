@@ -0,0 +1,76 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Okapi BM25 scoring over the term statistics stored on {@link EntryEntity}, with extra
+ * weight for terms that also appear in the title or in a tag.
+ */
+final class Bm25 {
+
+	static final double K1 = 1.2;
+
+	static final double B = 0.75;
+
+	static final double TITLE_BOOST = 2.0;
+
+	static final double TAG_BOOST = 1.5;
+
+	private final List<String> terms;
+
+	private final double[] idf;
+
+	private final double averageLength;
+
+	/**
+	 * @param terms query terms
+	 * @param documentCount number of entries in the tenant
+	 * @param documentFrequencies number of entries containing each term
+	 * @param averageLength average number of terms per entry
+	 */
+	Bm25(List<String> terms, long documentCount, long[] documentFrequencies, double averageLength) {
+		this.terms = terms;
+		this.idf = new double[terms.size()];
+		for (int i = 0; i < terms.size(); i++) {
+			long df = documentFrequencies[i];
+			this.idf[i] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+		}
+		this.averageLength = averageLength > 0 ? averageLength : 1;
+	}
+
+	/**
+	 * @param termFrequencies frequency of each query term in the entry, in the order of
+	 * the query terms
+	 * @param length number of terms in the entry
+	 * @param searchTitle normalized title
+	 * @param tags tags of the entry
+	 * @return relevance score
+	 */
+	double score(int[] termFrequencies, int length, String searchTitle, Collection<String> tags) {
+		Set<String> titleTerms = new HashSet<>(SearchTokenizer.tokenize(searchTitle));
+		Set<String> tagTerms = new HashSet<>();
+		for (String tag : tags) {
+			tagTerms.addAll(SearchTokenizer.tokenize(SearchTextNormalizer.normalize(tag)));
+		}
+		double norm = K1 * (1 - B + B * length / this.averageLength);
+		double score = 0;
+		for (int i = 0; i < this.terms.size(); i++) {
+			String term = this.terms.get(i);
+			int tf = termFrequencies[i];
+			if (tf > 0) {
+				score += this.idf[i] * (tf * (K1 + 1)) / (tf + norm);
+			}
+			if (titleTerms.contains(term)) {
+				score += this.idf[i] * TITLE_BOOST;
+			}
+			if (tagTerms.contains(term)) {
+				score += this.idf[i] * TAG_BOOST;
+			}
+		}
+		return score;
+	}
+
+}
@@ -0,0 +1,57 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.Objects;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Message put to the {@code CacheInvalidation} region to have every replica evict its
+ * local caches of an entry, or of a whole tenant. Messages are only read through a
+ * continuous query and expire on the server.
+ */
+public class CacheInvalidation {
+
+	// instance that sent the message and has already evicted its own caches
+	private String origin;
+
+	private String tenantId;
+
+	// key of the entry to evict, or null to evict the whole tenant
+	@Nullable private String entryKey;
+
+	@SuppressWarnings("NullAway")
+	public CacheInvalidation() {
+		// Default constructor required for GemFire PDX serialization
+	}
+
+	CacheInvalidation(String origin, String tenantId, @Nullable String entryKey) {
+		this.origin = origin;
+		this.tenantId = tenantId;
+		this.entryKey = entryKey;
+	}
+
+	public String getOrigin() {
+		return origin;
+	}
+
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	@Nullable public String getEntryKey() {
+		return entryKey;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof CacheInvalidation that))
+			return false;
+		return Objects.equals(origin, that.origin) && Objects.equals(tenantId, that.tenantId)
+				&& Objects.equals(entryKey, that.entryKey);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(origin, tenantId, entryKey);
+	}
+
+}
@@ -0,0 +1,152 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Number of entries containing each term, stored in the {@code DocumentFrequency} region
+ * with one key per term so that a relevance search reads the query terms only and a write
+ * updates the terms it adds or removes only. Keys are {@code tenantId|generation|term},
+ * where the generation is the watermark of the load of the {@link SearchStatistics} they
+ * belong to, so that the counts of a load become visible only once its statistics have
+ * been stored, and the counts of a previous load can be dropped.
+ */
+final class DocumentFrequencies {
+
+	private static final int MAX_RETRIES = 3;
+
+	private final Region<String, Integer> region;
+
+	private final QueryService queryService;
+
+	DocumentFrequencies(Region<String, Integer> region, QueryService queryService) {
+		this.region = region;
+		this.queryService = queryService;
+	}
+
+	/**
+	 * @return the number of entries containing each of the terms, in the same order
+	 */
+	long[] get(String tenantId, long generation, List<String> terms) {
+		if (terms.isEmpty()) {
+			return new long[0];
+		}
+		Map<String, Integer> counts = this.region
+			.getAll(terms.stream().map(term -> key(tenantId, generation, term)).toList());
+		return terms.stream().mapToLong(term -> {
+			Integer count = counts.get(key(tenantId, generation, term));
+			return count == null ? 0 : count;
+		}).toArray();
+	}
+
+	/**
+	 * Stores the counts of a load.
+	 */
+	void store(String tenantId, long generation, Map<String, Integer> documentFrequencies) {
+		Map<String, Integer> counts = new HashMap<>(documentFrequencies.size() * 2);
+		documentFrequencies.forEach((term, count) -> counts.put(key(tenantId, generation, term), count));
+		this.region.putAll(counts);
+	}
+
+	/**
+	 * Counts an entry that no longer contains the removed terms and now contains the
+	 * added ones. Each term is updated with a compare-and-set, so that writes of other
+	 * entries from other instances are not lost.
+	 * @return {@code false} if an update kept failing and the counts are incomplete
+	 */
+	boolean update(String tenantId, long generation, Collection<String> removed, Collection<String> added) {
+		Map<String, Integer> deltas = new HashMap<>((removed.size() + added.size()) * 2);
+		removed.forEach(term -> deltas.put(key(tenantId, generation, term), -1));
+		added.forEach(term -> deltas.put(key(tenantId, generation, term), 1));
+		if (deltas.isEmpty()) {
+			return true;
+		}
+		Map<String, Integer> counts = this.region.getAll(deltas.keySet());
+		for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+			if (!update(delta.getKey(), counts.get(delta.getKey()), delta.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean update(String key, @Nullable Integer current, int delta) {
+		Integer count = current;
+		for (int i = 0; i < MAX_RETRIES; i++) {
+			int next = (count == null ? 0 : count) + delta;
+			boolean updated;
+			if (count == null) {
+				updated = next <= 0 || this.region.putIfAbsent(key, next) == null;
+			}
+			else {
+				// drop the terms no longer contained in any entry
+				updated = next <= 0 ? this.region.remove(key, count) : this.region.replace(key, count, next);
+			}
+			if (updated) {
+				return true;
+			}
+			count = this.region.get(key);
+		}
+		return false;
+	}
+
+	/**
+	 * Drops the counts of the tenant stored for the given generation.
+	 */
+	void remove(String tenantId, long generation, Collection<String> terms) {
+		this.region.removeAll(terms.stream().map(term -> key(tenantId, generation, term)).toList());
+	}
+
+	/**
+	 * Drops the counts of the tenant stored for any other generation than the given one.
+	 */
+	@SuppressWarnings("unchecked")
+	void removeOthers(String tenantId, long generation) {
+		String tenantPrefix = tenantId + "|";
+		String generationPrefix = tenantPrefix + generation + "|";
+		try {
+			SelectResults<String> keys = (SelectResults<String>) this.queryService.newQuery("""
+					SELECT
+					    k
+					FROM
+					    /DocumentFrequency.keySet k
+					WHERE
+					    k LIKE $1
+					""").execute(tenantPrefix + "%");
+			// LIKE treats "_" as a wildcard, so the prefix is checked again
+			List<String> stale = new ArrayList<>();
+			for (String key : keys) {
+				if (key.startsWith(tenantPrefix) && !key.startsWith(generationPrefix)) {
+					stale.add(key);
+				}
+			}
+			if (!stale.isEmpty()) {
+				this.region.removeAll(stale);
+			}
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	void clear() {
+		this.region.removeAll(this.region.keySetOnServer());
+	}
+
+	private static String key(String tenantId, long generation, String term) {
+		return tenantId + "|" + generation + "|" + term;
+	}
+
+}
@@ -24,8 +24,14 @@ public class EntryEntity {
 
 	private String entryKey;
 
+	// ID of the entry key, ordered as a number unlike the padded key, 0 if written before
+	// it was kept
+	private long entryId;
+
 	private String title;
 
+	private String searchTitle;
+
 	private String summary;
 
 	private List<String> categories;
@@ -38,6 +44,16 @@ public class EntryEntity {
 
 	private String content;
 
+	private String searchText;
+
+	// search text in the case and width it is displayed in, null if written before it was
+	// kept
+	@Nullable private String plainText;
+
+	private Map<String, Integer> termFrequencies;
+
+	private int searchLength;
+
 	private String createdBy;
 
 	private long createdAt;
@@ -46,8 +62,17 @@ public class EntryEntity {
 
 	private long updatedAt;
 
+	// tenant watermark that stamped the last write, 0 if written before it was kept
+	private long changedAt;
+
 	private String tenantId;
 
+	// SHA of the git blob the entry was read from, null if not read from GitHub
+	@Nullable private String blobSha;
+
+	// SHA-256 of everything the entry is made of, null if written before it was kept
+	@Nullable private String contentHash;
+
 	@SuppressWarnings("NullAway")
 	public EntryEntity() {
 		// Default constructor required for GemFire PDX serialization
@@ -58,7 +83,11 @@ public class EntryEntity {
 	public static EntryEntity fromModel(Entry entry) {
 		FrontMatter frontMatter = entry.frontMatter();
 		Author created = entry.created();
-		return new EntryEntity(toGemfireKey(entry.entryKey()), frontMatter.title(), frontMatter.summary(),
+		String searchText = SearchTextNormalizer.fromMarkdown(entry.content());
+		String plainText = SearchTextNormalizer.plainTextFromMarkdown(entry.content());
+		List<String> terms = SearchTokenizer.tokenize(searchText);
+		return new EntryEntity(toGemfireKey(entry.entryKey()), frontMatter.title(),
+				SearchTextNormalizer.normalize(frontMatter.title()), frontMatter.summary(),
 				// toList() throws `class java.util.ImmutableCollections$ListN are not
 				// compatible with non-java PDX.`
 				frontMatter.categories().stream().map(Category::name).collect(Collectors.toList()),
@@ -69,8 +98,10 @@ public class EntryEntity {
 					.filter(tag -> tag.version() != null)
 					.map(tag -> String.join(delimiter, tag.name(), tag.version()))
 					.collect(Collectors.toCollection(LinkedHashSet::new)),
-				Objects.requireNonNullElse(entry.content(), ""), created.name(), toDate(created),
-				entry.updated().name(), toDate(entry.updated()), entry.entryKey().tenantId());
+				Objects.requireNonNullElse(entry.content(), ""), searchText, plainText,
+				SearchTokenizer.termFrequencies(terms), terms.size(), created.name(), toDate(created),
+				entry.updated().name(), toDate(entry.updated()), 0, entry.entryKey().tenantId(), entry.blobSha(),
+				entry.contentHash());
 	}
 
 	private static long toDate(Author author) {
@@ -112,33 +143,58 @@ public class EntryEntity {
 			.content(content)
 			.created(Author.builder().name(createdBy).date(Instant.ofEpochMilli(createdAt)).build())
 			.updated(Author.builder().name(updatedBy).date(Instant.ofEpochMilli(updatedAt)).build())
+			.blobSha(blobSha)
+			.contentHash(contentHash)
 			.build();
 	}
 
-	public EntryEntity(String entryKey, String title, String summary, List<String> categories,
+	public EntryEntity(String entryKey, String title, String searchTitle, String summary, List<String> categories,
 			@Nullable String joinedCategories, Set<String> tags, Set<String> tagWithVersions, String content,
-			String createdBy, long createdAt, String updatedBy, long updatedAt, String tenantId) {
+			String searchText, @Nullable String plainText, Map<String, Integer> termFrequencies, int searchLength,
+			String createdBy, long createdAt, String updatedBy, long updatedAt, long changedAt, String tenantId,
+			@Nullable String blobSha, @Nullable String contentHash) {
 		this.entryKey = entryKey;
+		this.entryId = EntryKey.valueOf(entryKey).entryId();
 		this.title = title;
+		this.searchTitle = searchTitle;
 		this.summary = summary;
 		this.categories = categories;
 		this.joinedCategories = joinedCategories;
 		this.tags = tags;
 		this.tagWithVersions = tagWithVersions;
 		this.content = content;
+		this.searchText = searchText;
+		this.plainText = plainText;
+		this.termFrequencies = termFrequencies;
+		this.searchLength = searchLength;
 		this.createdBy = createdBy;
 		this.createdAt = createdAt;
 		this.updatedBy = updatedBy;
 		this.updatedAt = updatedAt;
+		this.changedAt = changedAt;
 		this.tenantId = tenantId;
+		this.blobSha = blobSha;
+		this.contentHash = contentHash;
 	}
 
 	public String getEntryKey() {
 		return entryKey;
 	}
 
+	/**
+	 * Sets the entry key, and the entry ID it holds.
+	 */
 	public void setEntryKey(String entryKey) {
 		this.entryKey = entryKey;
+		this.entryId = EntryKey.valueOf(entryKey).entryId();
+	}
+
+	public long getEntryId() {
+		return entryId;
+	}
+
+	public void setEntryId(long entryId) {
+		this.entryId = entryId;
 	}
 
 	public String getTitle() {
@@ -149,6 +205,14 @@ public class EntryEntity {
 		this.title = title;
 	}
 
+	public String getSearchTitle() {
+		return searchTitle;
+	}
+
+	public void setSearchTitle(String searchTitle) {
+		this.searchTitle = searchTitle;
+	}
+
 	public String getSummary() {
 		return summary;
 	}
@@ -193,8 +257,44 @@ public class EntryEntity {
 		return content;
 	}
 
+	/**
+	 * Sets the content, and drops the content hash that no longer describes the entity.
+	 */
 	public void setContent(String content) {
 		this.content = content;
+		this.contentHash = null;
+	}
+
+	public String getSearchText() {
+		return searchText;
+	}
+
+	public void setSearchText(String searchText) {
+		this.searchText = searchText;
+	}
+
+	@Nullable public String getPlainText() {
+		return plainText;
+	}
+
+	public void setPlainText(@Nullable String plainText) {
+		this.plainText = plainText;
+	}
+
+	public Map<String, Integer> getTermFrequencies() {
+		return termFrequencies;
+	}
+
+	public void setTermFrequencies(Map<String, Integer> termFrequencies) {
+		this.termFrequencies = termFrequencies;
+	}
+
+	public int getSearchLength() {
+		return searchLength;
+	}
+
+	public void setSearchLength(int searchLength) {
+		this.searchLength = searchLength;
 	}
 
 	public String getCreatedBy() {
@@ -229,6 +329,14 @@ public class EntryEntity {
 		this.updatedAt = updatedAt;
 	}
 
+	public long getChangedAt() {
+		return changedAt;
+	}
+
+	public void setChangedAt(long changedAt) {
+		this.changedAt = changedAt;
+	}
+
 	public String getTenantId() {
 		return tenantId;
 	}
@@ -237,6 +345,22 @@ public class EntryEntity {
 		this.tenantId = tenantId;
 	}
 
+	@Nullable public String getBlobSha() {
+		return blobSha;
+	}
+
+	public void setBlobSha(@Nullable String blobSha) {
+		this.blobSha = blobSha;
+	}
+
+	@Nullable public String getContentHash() {
+		return contentHash;
+	}
+
+	public void setContentHash(@Nullable String contentHash) {
+		this.contentHash = contentHash;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (!(o instanceof EntryEntity entry))
@@ -269,17 +393,25 @@ public class EntryEntity {
 	public Builder toBuilder() {
 		return new Builder().entryKey(this.entryKey)
 			.title(this.title)
+			.searchTitle(this.searchTitle)
 			.summary(this.summary)
 			.categories(this.categories)
 			.joinedCategories(this.joinedCategories)
 			.tags(this.tags)
 			.tagWithVersions(this.tagWithVersions)
 			.content(this.content)
+			.searchText(this.searchText)
+			.plainText(this.plainText)
+			.termFrequencies(this.termFrequencies)
+			.searchLength(this.searchLength)
 			.createdBy(this.createdBy)
 			.createdAt(this.createdAt)
 			.updatedBy(this.updatedBy)
 			.updatedAt(this.updatedAt)
-			.tenantId(this.tenantId);
+			.changedAt(this.changedAt)
+			.tenantId(this.tenantId)
+			.blobSha(this.blobSha)
+			.contentHash(this.contentHash);
 	}
 
 	public static class Builder {
@@ -288,6 +420,8 @@ public class EntryEntity {
 
 		@Nullable private String title;
 
+		@Nullable private String searchTitle;
+
 		@Nullable private String summary;
 
 		@Nullable private List<String> categories;
@@ -300,6 +434,14 @@ public class EntryEntity {
 
 		@Nullable private String content;
 
+		@Nullable private String searchText;
+
+		@Nullable private String plainText;
+
+		@Nullable private Map<String, Integer> termFrequencies;
+
+		private int searchLength;
+
 		@Nullable private String createdBy;
 
 		private long createdAt;
@@ -308,8 +450,14 @@ public class EntryEntity {
 
 		private long updatedAt;
 
+		private long changedAt;
+
 		@Nullable private String tenantId;
 
+		@Nullable private String blobSha;
+
+		@Nullable private String contentHash;
+
 		private Builder() {
 		}
 
@@ -323,6 +471,11 @@ public class EntryEntity {
 			return this;
 		}
 
+		public Builder searchTitle(@Nullable String searchTitle) {
+			this.searchTitle = searchTitle;
+			return this;
+		}
+
 		public Builder summary(String summary) {
 			this.summary = summary;
 			return this;
@@ -353,6 +506,26 @@ public class EntryEntity {
 			return this;
 		}
 
+		public Builder searchText(@Nullable String searchText) {
+			this.searchText = searchText;
+			return this;
+		}
+
+		public Builder plainText(@Nullable String plainText) {
+			this.plainText = plainText;
+			return this;
+		}
+
+		public Builder termFrequencies(@Nullable Map<String, Integer> termFrequencies) {
+			this.termFrequencies = termFrequencies;
+			return this;
+		}
+
+		public Builder searchLength(int searchLength) {
+			this.searchLength = searchLength;
+			return this;
+		}
+
 		public Builder createdBy(String createdBy) {
 			this.createdBy = createdBy;
 			return this;
@@ -373,11 +546,26 @@ public class EntryEntity {
 			return this;
 		}
 
+		public Builder changedAt(long changedAt) {
+			this.changedAt = changedAt;
+			return this;
+		}
+
 		public Builder tenantId(String tenantId) {
 			this.tenantId = tenantId;
 			return this;
 		}
 
+		public Builder blobSha(@Nullable String blobSha) {
+			this.blobSha = blobSha;
+			return this;
+		}
+
+		public Builder contentHash(@Nullable String contentHash) {
+			this.contentHash = contentHash;
+			return this;
+		}
+
 		public EntryEntity build() {
 			Assert.notNull(entryKey, "entryKey must not be null");
 			Assert.notNull(title, "title must not be null");
@@ -389,8 +577,21 @@ public class EntryEntity {
 			Assert.notNull(createdBy, "createdBy must not be null");
 			Assert.notNull(updatedBy, "updatedBy must not be null");
 			Assert.notNull(tenantId, "tenantId must not be null");
-			return new EntryEntity(entryKey, title, summary, categories, joinedCategories, tags, tagWithVersions,
-					content, createdBy, createdAt, updatedBy, updatedAt, tenantId);
+			String searchText = this.searchText != null ? this.searchText : SearchTextNormalizer.fromMarkdown(content);
+			String plainText = this.plainText != null ? this.plainText
+					: SearchTextNormalizer.plainTextFromMarkdown(content);
+			Map<String, Integer> termFrequencies = this.termFrequencies;
+			int searchLength = this.searchLength;
+			if (termFrequencies == null) {
+				List<String> terms = SearchTokenizer.tokenize(searchText);
+				termFrequencies = SearchTokenizer.termFrequencies(terms);
+				searchLength = terms.size();
+			}
+			return new EntryEntity(entryKey, title,
+					searchTitle != null ? searchTitle : SearchTextNormalizer.normalize(title), summary, categories,
+					joinedCategories, tags, tagWithVersions, content, searchText, plainText, termFrequencies,
+					searchLength, createdBy, createdAt, updatedBy, updatedAt, changedAt, tenantId, blobSha,
+					contentHash);
 		}
 
 	}
@@ -0,0 +1,56 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.Objects;
+
+/**
+ * Record of a deleted entry, stored in the {@code EntryTombstone} region under the key of
+ * the entry, so that the change feed can report deletions to clients that have already
+ * synchronized the entry. Tombstones are dropped after
+ * {@link am.ik.blog.entry.EntryService#TOMBSTONE_RETENTION}.
+ */
+public class EntryTombstone {
+
+	private String entryKey;
+
+	private String tenantId;
+
+	// tenant watermark that stamped the deletion
+	private long changedAt;
+
+	@SuppressWarnings("NullAway")
+	public EntryTombstone() {
+		// Default constructor required for GemFire PDX serialization
+	}
+
+	EntryTombstone(String entryKey, String tenantId, long changedAt) {
+		this.entryKey = entryKey;
+		this.tenantId = tenantId;
+		this.changedAt = changedAt;
+	}
+
+	public String getEntryKey() {
+		return entryKey;
+	}
+
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	public long getChangedAt() {
+		return changedAt;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof EntryTombstone that))
+			return false;
+		return changedAt == that.changedAt && Objects.equals(entryKey, that.entryKey)
+				&& Objects.equals(tenantId, that.tenantId);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(entryKey, tenantId, changedAt);
+	}
+
+}
@@ -0,0 +1,168 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.entry.CacheNames;
+import am.ik.blog.entry.EntryChangedEvent;
+import am.ik.blog.entry.EntryKey;
+import java.util.UUID;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.query.CqAttributesFactory;
+import org.apache.geode.cache.query.CqEvent;
+import org.apache.geode.cache.query.CqException;
+import org.apache.geode.cache.query.CqListener;
+import org.apache.geode.cache.query.CqQuery;
+import org.apache.geode.cache.query.RegionNotFoundException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link CacheManager} caches of all replicas consistent with the regions.
+ * Every write to an entry evicts the local caches right away and is broadcast through
+ * the {@code CacheInvalidation} region, which every replica watches with a continuous
+ * query to evict its own. Does nothing when there is no {@link CacheManager}.
+ */
+@Component
+public class GemfireCacheInvalidationBus implements CqListener, SmartInitializingSingleton, DisposableBean {
+
+	private final Logger logger = LoggerFactory.getLogger(GemfireCacheInvalidationBus.class);
+
+	private final String origin = UUID.randomUUID().toString();
+
+	private final Region<String, CacheInvalidation> cacheInvalidationRegion;
+
+	private final ClientCache clientCache;
+
+	private final ObjectProvider<CacheManager> cacheManagerProvider;
+
+	@Nullable private volatile CacheManager cacheManager;
+
+	@Nullable private volatile CqQuery query;
+
+	public GemfireCacheInvalidationBus(
+			@Qualifier("cacheInvalidationRegion") Region<String, CacheInvalidation> cacheInvalidationRegion,
+			ClientCache clientCache, ObjectProvider<CacheManager> cacheManagerProvider) {
+		this.cacheInvalidationRegion = cacheInvalidationRegion;
+		this.clientCache = clientCache;
+		this.cacheManagerProvider = cacheManagerProvider;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		this.cacheManager = this.cacheManagerProvider.getIfAvailable();
+		if (this.cacheManager == null) {
+			return;
+		}
+		CqAttributesFactory attributesFactory = new CqAttributesFactory();
+		attributesFactory.addCqListener(this);
+		try {
+			CqQuery cq = this.clientCache.getQueryService()
+				.newCq("SELECT * FROM /CacheInvalidation", attributesFactory.create());
+			cq.execute();
+			this.query = cq;
+			logger.info("action=register_cq region=CacheInvalidation origin={}", this.origin);
+		}
+		catch (CqException | RegionNotFoundException e) {
+			// the local caches are still evicted, other replicas serve stale data until they expire
+			logger.warn("action=register_cq region=CacheInvalidation status=failed", e);
+		}
+	}
+
+	@EventListener
+	public void onEntryChanged(EntryChangedEvent event) {
+		invalidate(event.entryKey());
+	}
+
+	/**
+	 * Evicts the entry, and the latest entries of its tenant, from the caches of all
+	 * replicas.
+	 */
+	public void invalidate(EntryKey entryKey) {
+		invalidate(entryKey.tenantId(), entryKey);
+	}
+
+	/**
+	 * Evicts all the entries, and the latest entries of the tenant, from the caches of all
+	 * replicas.
+	 */
+	public void invalidateTenant(@Nullable String tenantId) {
+		invalidate(EntryKey.requireNonNullTenantId(tenantId), null);
+	}
+
+	private void invalidate(String tenantId, @Nullable EntryKey entryKey) {
+		CacheManager cacheManager = this.cacheManager;
+		if (cacheManager == null) {
+			return;
+		}
+		evict(cacheManager, tenantId, entryKey);
+		String entryGemfireKey = (entryKey != null) ? EntryEntity.toGemfireKey(entryKey) : null;
+		try {
+			this.cacheInvalidationRegion.put(UUID.randomUUID().toString(),
+					new CacheInvalidation(this.origin, tenantId, entryGemfireKey));
+		}
+		catch (RuntimeException e) {
+			// the write itself has succeeded, so it must not fail because of the broadcast
+			logger.warn("action=broadcast_invalidation tenantId={} entryKey={} status=failed", tenantId,
+					entryGemfireKey, e);
+		}
+	}
+
+	@Override
+	public void onEvent(CqEvent event) {
+		CacheManager cacheManager = this.cacheManager;
+		if (cacheManager == null || !event.getQueryOperation().isCreate()
+				|| !(event.getNewValue() instanceof CacheInvalidation invalidation)
+				|| this.origin.equals(invalidation.getOrigin())) {
+			return;
+		}
+		String entryKey = invalidation.getEntryKey();
+		evict(cacheManager, invalidation.getTenantId(), (entryKey != null) ? EntryKey.valueOf(entryKey) : null);
+	}
+
+	@Override
+	public void onError(CqEvent event) {
+		logger.warn("action=receive_cq region=CacheInvalidation status=error", event.getThrowable());
+	}
+
+	private void evict(CacheManager cacheManager, String tenantId, @Nullable EntryKey entryKey) {
+		Cache entryCache = cacheManager.getCache(CacheNames.ENTRY);
+		if (entryCache != null) {
+			if (entryKey != null) {
+				logger.info("Evicting entry cache for entryKey: {}", entryKey);
+				entryCache.evict(entryKey);
+			}
+			else {
+				// the cache cannot be scanned for the entries of the tenant
+				logger.info("Clearing entry cache for tenantId: {}", tenantId);
+				entryCache.clear();
+			}
+		}
+		Cache latestEntriesCache = cacheManager.getCache(CacheNames.LATEST_ENTRIES);
+		if (latestEntriesCache != null) {
+			logger.info("Evicting latestEntries cache for tenantId: {}", tenantId);
+			latestEntriesCache.evict(tenantId);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		CqQuery query = this.query;
+		if (query != null) {
+			try {
+				query.close();
+			}
+			catch (CqException e) {
+				logger.warn("action=close_cq region=CacheInvalidation status=failed", e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,149 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.entry.EntryChange;
+import am.ik.blog.entry.EntryChangeStream;
+import am.ik.blog.entry.EntryKey;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.query.CqAttributesFactory;
+import org.apache.geode.cache.query.CqEvent;
+import org.apache.geode.cache.query.CqException;
+import org.apache.geode.cache.query.CqListener;
+import org.apache.geode.cache.query.CqQuery;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.RegionNotFoundException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link EntryChangeStream} backed by GemFire continuous queries. Saves are observed on
+ * the {@code Entry} region and deletions on the {@code EntryTombstone} region, so both
+ * carry the watermark that stamped them. The queries of a tenant are registered with the
+ * first subscriber and closed with the last one, and are shared by all subscribers in
+ * between.
+ */
+@Component
+public class GemfireEntryChangeStream implements EntryChangeStream, DisposableBean {
+
+	private final Logger logger = LoggerFactory.getLogger(GemfireEntryChangeStream.class);
+
+	private final QueryService queryService;
+
+	private final ConcurrentMap<String, TenantQueries> tenants = new ConcurrentHashMap<>();
+
+	public GemfireEntryChangeStream(ClientCache clientCache) {
+		this.queryService = clientCache.getQueryService();
+	}
+
+	@Override
+	public Subscription subscribe(@Nullable String tenantId, Consumer<EntryChange> listener) {
+		String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+		// a distinct instance per subscription, so that the same listener can subscribe twice
+		Consumer<EntryChange> subscriber = listener::accept;
+		this.tenants.compute(nonNullTenantId, (key, queries) -> {
+			TenantQueries tenantQueries = (queries != null) ? queries : new TenantQueries(key);
+			tenantQueries.listeners.add(subscriber);
+			return tenantQueries;
+		});
+		return () -> this.tenants.computeIfPresent(nonNullTenantId, (key, queries) -> {
+			queries.listeners.remove(subscriber);
+			if (queries.listeners.isEmpty()) {
+				queries.close();
+				return null;
+			}
+			return queries;
+		});
+	}
+
+	@Override
+	public void destroy() {
+		this.tenants.values().forEach(TenantQueries::close);
+		this.tenants.clear();
+	}
+
+	static String quote(String literal) {
+		return "'" + literal.replace("'", "''") + "'";
+	}
+
+	private final class TenantQueries implements CqListener {
+
+		private final String tenantId;
+
+		private final List<Consumer<EntryChange>> listeners = new CopyOnWriteArrayList<>();
+
+		private final List<CqQuery> queries;
+
+		TenantQueries(String tenantId) {
+			this.tenantId = tenantId;
+			this.queries = List.of(register("Entry"), register("EntryTombstone"));
+		}
+
+		private CqQuery register(String region) {
+			CqAttributesFactory attributesFactory = new CqAttributesFactory();
+			attributesFactory.addCqListener(this);
+			String query = "SELECT * FROM /%s WHERE tenantId = %s".formatted(region, quote(this.tenantId));
+			try {
+				CqQuery cq = queryService.newCq(query, attributesFactory.create());
+				cq.execute();
+				logger.info("action=register_cq tenantId={} region={}", this.tenantId, region);
+				return cq;
+			}
+			catch (CqException | RegionNotFoundException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void onEvent(CqEvent event) {
+			Operation operation = event.getQueryOperation();
+			if (!(operation.isCreate() || operation.isUpdate())) {
+				// entries are deleted from the tombstones, and tombstones are only purged
+				return;
+			}
+			@Nullable EntryChange change = switch (event.getNewValue()) {
+				case EntryEntity entity -> EntryChange.upsert(entity.toModel(), entity.getChangedAt());
+				case EntryTombstone tombstone ->
+					EntryChange.delete(EntryKey.valueOf(tombstone.getEntryKey()), tombstone.getChangedAt());
+				case null, default -> null;
+			};
+			if (change == null) {
+				return;
+			}
+			for (Consumer<EntryChange> listener : this.listeners) {
+				try {
+					listener.accept(change);
+				}
+				catch (RuntimeException e) {
+					logger.warn("action=notify_change tenantId={} status=failed", this.tenantId, e);
+				}
+			}
+		}
+
+		@Override
+		public void onError(CqEvent event) {
+			logger.warn("action=receive_cq tenantId={} status=error query={}", this.tenantId,
+					event.getCq().getQueryString(), event.getThrowable());
+		}
+
+		void close() {
+			for (CqQuery query : this.queries) {
+				try {
+					query.close();
+				}
+				catch (CqException e) {
+					logger.warn("action=close_cq tenantId={} status=failed", this.tenantId, e);
+				}
+			}
+		}
+
+	}
+
+}
@@ -1,26 +1,51 @@
 package am.ik.blog.entry.gemfire;
 
 import am.ik.blog.GitHubProps;
+import am.ik.blog.entry.CategoriesAndCount;
 import am.ik.blog.entry.Category;
+import am.ik.blog.entry.ChangeCursor;
+import am.ik.blog.entry.CreatedCursor;
 import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryChange;
+import am.ik.blog.entry.EntryChangedEvent;
+import am.ik.blog.entry.EntryChunk;
+import am.ik.blog.entry.EntryCursor;
 import am.ik.blog.entry.EntryFetcher;
+import am.ik.blog.entry.EntryIdCursor;
 import am.ik.blog.entry.EntryKey;
 import am.ik.blog.entry.EntryRepository;
+import am.ik.blog.entry.EntryService;
+import am.ik.blog.entry.EntrySort;
+import am.ik.blog.entry.Facet;
+import am.ik.blog.entry.Facets;
+import am.ik.blog.entry.RelevanceCursor;
 import am.ik.blog.entry.SearchCriteria;
+import am.ik.blog.entry.SearchResultPage;
+import am.ik.blog.entry.Snippet;
 import am.ik.blog.entry.Tag;
 import am.ik.blog.entry.TagAndCount;
+import am.ik.blog.entry.TitleCursor;
+import am.ik.blog.entry.UpdatedCursor;
 import am.ik.pagination.CursorPage;
 import am.ik.pagination.CursorPageRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.annotation.Observed;
 import java.time.Instant;
+import java.time.InstantSource;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.client.ClientCache;
@@ -35,6 +60,7 @@ import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -44,22 +70,55 @@ import org.springframework.util.StringUtils;
 @Observed
 public class GemfireEntryRepository implements EntryRepository {
 
+	private static final int MAX_UPDATE_RETRIES = 3;
+
+	private static final int SEARCH_RESULT_CACHE_SIZE = 1024;
+
 	private final Region<String, EntryEntity> entryRegion;
 
+	private final Region<String, LatestEntries> latestEntriesRegion;
+
+	private final Region<String, SearchStatistics> searchStatisticsRegion;
+
+	private final DocumentFrequencies documentFrequencies;
+
+	private final Region<String, EntryTombstone> entryTombstoneRegion;
+
+	private final TenantWatermarks watermarks;
+
+	private final SearchResultCache searchResultCache = new SearchResultCache(SEARCH_RESULT_CACHE_SIZE);
+
 	private final QueryService queryService;
 
 	private final EntryFetcher entryFetcher;
 
 	private final GitHubProps gitHubProps;
 
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final MeterRegistry meterRegistry;
+
 	private final Logger logger = LoggerFactory.getLogger(GemfireEntryRepository.class);
 
 	public GemfireEntryRepository(@Qualifier("entryRegion") Region<String, EntryEntity> entryRegion,
-			ClientCache clientCache, EntryFetcher entryFetcher, GitHubProps gitHubProps) {
+			@Qualifier("latestEntriesRegion") Region<String, LatestEntries> latestEntriesRegion,
+			@Qualifier("searchStatisticsRegion") Region<String, SearchStatistics> searchStatisticsRegion,
+			@Qualifier("documentFrequencyRegion") Region<String, Integer> documentFrequencyRegion,
+			@Qualifier("entryTombstoneRegion") Region<String, EntryTombstone> entryTombstoneRegion,
+			@Qualifier("tenantWatermarkRegion") Region<String, Long> tenantWatermarkRegion, ClientCache clientCache,
+			EntryFetcher entryFetcher, GitHubProps gitHubProps, InstantSource instantSource,
+			ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
 		this.entryRegion = entryRegion;
+		this.latestEntriesRegion = latestEntriesRegion;
+		this.searchStatisticsRegion = searchStatisticsRegion;
+		this.entryTombstoneRegion = entryTombstoneRegion;
+		this.watermarks = new TenantWatermarks(tenantWatermarkRegion, instantSource);
 		this.queryService = clientCache.getQueryService();
+		this.documentFrequencies = new DocumentFrequencies(documentFrequencyRegion, this.queryService);
 		this.entryFetcher = entryFetcher;
 		this.gitHubProps = gitHubProps;
+		this.eventPublisher = eventPublisher;
+		this.meterRegistry = meterRegistry;
 	}
 
 	public boolean exists(EntryKey entryKey) {
@@ -103,15 +162,135 @@ public class GemfireEntryRepository implements EntryRepository {
 			.toList();
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
-	public CursorPage<Entry, Instant> findOrderByUpdated(@Nullable String tenantId, SearchCriteria searchCriteria,
-			CursorPageRequest<Instant> pageRequest) {
+	public CursorPage<Entry, UpdatedCursor> findLatest(@Nullable String tenantId) {
+		String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+		int pageSize = EntryService.DEFAULT_PAGE_SIZE;
+		LatestEntries latest = this.latestEntriesRegion.get(nonNullTenantId);
+		if (latest == null || !latest.covers(pageSize)) {
+			latest = loadLatestEntries(nonNullTenantId, latest);
+		}
+		List<EntryEntity> entries = latest.getEntries();
+		List<Entry> content = entries.stream().limit(pageSize).map(EntryEntity::toModel).toList();
+		return new CursorPage<>(content, pageSize, entry -> Objects.requireNonNull(entry.toCursor()), false,
+				entries.size() > pageSize);
+	}
+
+	/**
+	 * Loads the latest entries of the tenant and stores them unless the tenant has been
+	 * written since the load started. A write that finds no latest entries does not
+	 * update them, so storing a load that ran concurrently with it would keep the entries
+	 * from before the write until the next write.
+	 */
+	private LatestEntries loadLatestEntries(String tenantId, @Nullable LatestEntries stale) {
+		// read before the query so that a write during the query is detected
+		long watermark = this.watermarks.get(tenantId);
+		CursorPage<Entry, UpdatedCursor> page = findOrderByUpdated(tenantId, SearchCriteria.NULL_CRITERIA,
+				new CursorPageRequest<>(null, LatestEntries.CAPACITY, CursorPageRequest.Navigation.NEXT));
+		LatestEntries latest = new LatestEntries(
+				page.content().stream().map(EntryEntity::fromModel).collect(Collectors.toList()), !page.hasNext(),
+				watermark);
+		// If another instance has written in the meantime, keep its version and load again
+		// on the next read if it does not cover a page.
+		storeLoaded(this.latestEntriesRegion, tenantId, watermark, stale, latest);
+		return latest;
+	}
+
+	/**
+	 * Stores the value loaded for the tenant unless the tenant has been written since the
+	 * given watermark was read. The value then serves the current read only, and the next
+	 * read loads it again.
+	 * @param stale the value replaced by the loaded one, or {@code null} if there was none
+	 */
+	private <V> void storeLoaded(Region<String, V> region, String tenantId, long watermark, @Nullable V stale,
+			V loaded) {
+		if (this.watermarks.get(tenantId) != watermark) {
+			return;
+		}
+		if (stale == null) {
+			if (region.putIfAbsent(tenantId, loaded) == null && this.watermarks.get(tenantId) != watermark) {
+				// written between the check and the put, and the write may not have seen the
+				// put value. Drop it unless the write has updated it.
+				region.remove(tenantId, loaded);
+			}
+		}
+		else {
+			region.replace(tenantId, stale, loaded);
+		}
+	}
+
+	/**
+	 * Applies the update to the value kept for the tenant, if it has been loaded.
+	 * Concurrent updates from other instances are detected with a compare-and-set, and
+	 * the value is dropped to be loaded again if the update keeps failing.
+	 */
+	private <V> void update(Region<String, V> region, String tenantId, UnaryOperator<V> update) {
+		for (int i = 0; i < MAX_UPDATE_RETRIES; i++) {
+			V current = region.get(tenantId);
+			if (current == null) {
+				return;
+			}
+			if (region.replace(tenantId, current, update.apply(current))) {
+				return;
+			}
+		}
+		logger.warn("Could not update {} of tenant {}. It will be loaded again.", region.getName(), tenantId);
+		region.remove(tenantId);
+	}
+
+	/**
+	 * Copies the entity without the content and the search fields derived from it, as
+	 * kept in the latest entries.
+	 */
+	private static EntryEntity withoutContent(EntryEntity entity) {
+		return entity.toBuilder()
+			.content("")
+			.searchText("")
+			.plainText("")
+			.termFrequencies(new HashMap<>())
+			.searchLength(0)
+			.contentHash(null)
+			.build();
+	}
+
+	@Override
+	public CursorPage<Entry, UpdatedCursor> findOrderByUpdated(@Nullable String tenantId,
+			SearchCriteria searchCriteria, CursorPageRequest<UpdatedCursor> pageRequest) {
+		String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+		// read before the query so that a write during the query invalidates the page
+		long watermark = this.watermarks.get(nonNullTenantId);
+		SearchResultCache.Key key = SearchResultCache.key(nonNullTenantId, searchCriteria, pageRequest);
+		CursorPage<Entry, UpdatedCursor> cached = this.searchResultCache.get(key, watermark);
+		if (cached != null) {
+			return cached;
+		}
+		CursorPage<Entry, UpdatedCursor> page = findOrderBy(nonNullTenantId, searchCriteria, EntrySort.DEFAULT,
+				pageRequest, Entry::toCursor);
+		this.searchResultCache.put(key, watermark, page);
+		return page;
+	}
+
+	@Override
+	public CursorPage<Entry, EntryCursor> findOrderBy(@Nullable String tenantId, SearchCriteria searchCriteria,
+			EntrySort sort, CursorPageRequest<EntryCursor> pageRequest) {
+		return findOrderBy(tenantId, searchCriteria, sort, pageRequest, entry -> entry.toCursor(sort.field()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <C extends EntryCursor> CursorPage<Entry, C> findOrderBy(@Nullable String tenantId,
+			SearchCriteria searchCriteria, EntrySort sort, CursorPageRequest<C> pageRequest,
+			Function<Entry, @Nullable C> toCursor) {
 		try {
-			Optional<Instant> cursor = pageRequest.cursorOptional();
+			String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+			Optional<C> cursor = pageRequest.cursorOptional();
+			cursor.ifPresent(c -> Assert.isTrue(c.field() == sort.field(),
+					() -> "Cursor '%s' cannot be used to sort by %s".formatted(c, sort.field().parameter())));
+			boolean forward = pageRequest.navigation() == CursorPageRequest.Navigation.NEXT;
+			// walking backwards reads the entries before the cursor in the reverse order
+			boolean descending = sort.descending() == forward;
+			String sortColumn = sortColumn(sort.field());
 			int pageSizePlus1 = pageRequest.pageSize() + 1;
-			List<Object> params = new ArrayList<>(Arrays.asList(EntryKey.requireNonNullTenantId(tenantId),
-					cursor.map(Instant::toEpochMilli).orElse(Long.MAX_VALUE), pageSizePlus1));
+			List<Object> params = new ArrayList<>(Arrays.asList(nonNullTenantId, pageSizePlus1));
 			String query = """
 					SELECT
 					    entryKey,
@@ -132,27 +311,16 @@ public class GemfireEntryRepository implements EntryRepository {
 					    /* QUERY */
 					    /* TAG */
 					    /* CATEGORIES */
-					    AND updatedAt < $2
+					    /* KEYSET */
 					ORDER BY
-					    updatedAt DESC
-					LIMIT $3
-					""";
-			if (StringUtils.hasText(searchCriteria.query())) {
-				var queryAndParams = SearchCriteriaToOql.convertQuery(searchCriteria.query(), params.size() + 1);
-				query = query.replace("/* QUERY */", "AND (" + queryAndParams.query() + ")");
-				params.addAll(queryAndParams.params());
-			}
-			if (StringUtils.hasText(searchCriteria.tag())) {
-				var queryAndParams = SearchCriteriaToOql.convertTag(searchCriteria.tag(), params.size() + 1);
-				query = query.replace("/* TAG */", "AND (" + queryAndParams.query() + ")");
-				params.addAll(queryAndParams.params());
-			}
-			if (!CollectionUtils.isEmpty(searchCriteria.categories())) {
-				var queryAndParams = SearchCriteriaToOql.convertCategories(searchCriteria.categories(),
-						params.size() + 1);
-				query = query.replace("/* CATEGORIES */", "AND (" + queryAndParams.query() + ")");
-				params.addAll(queryAndParams.params());
+					    /* ORDER */
+					LIMIT $2
+					""".replace("/* ORDER */", orderBy(sortColumn, descending));
+			if (cursor.isPresent()) {
+				query = query.replace("/* KEYSET */",
+						"AND " + keysetPredicate(cursor.get(), sortColumn, descending, nonNullTenantId, params));
 			}
+			query = applySearchCriteria(query, searchCriteria, params);
 			logger.debug("Executing query: {}, params: {}", query, params);
 			List<Entry> contentPlus1 = ((SelectResults<Struct>) this.queryService.newQuery(query)
 				.execute(params.toArray()))
@@ -173,11 +341,90 @@ public class GemfireEntryRepository implements EntryRepository {
 					.build())
 				.map(EntryEntity::toModel)
 				.toList();
-			boolean hasPrevious = cursor.isPresent();
-			boolean hasNext = contentPlus1.size() == pageSizePlus1;
-			List<Entry> content = hasNext ? contentPlus1.subList(0, pageRequest.pageSize()) : contentPlus1;
-			return new CursorPage<>(content, pageRequest.pageSize(), entry -> Objects.requireNonNull(entry.toCursor()),
-					hasPrevious, hasNext);
+			boolean hasMore = contentPlus1.size() == pageSizePlus1;
+			List<Entry> content = hasMore ? contentPlus1.subList(0, pageRequest.pageSize()) : contentPlus1;
+			if (!forward) {
+				content = content.reversed();
+			}
+			boolean hasPrevious = forward ? cursor.isPresent() : hasMore;
+			boolean hasNext = forward ? hasMore : cursor.isPresent();
+			return new CursorPage<>(content, pageRequest.pageSize(),
+					entry -> Objects.requireNonNull(toCursor.apply(entry)), hasPrevious, hasNext);
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public SearchResultPage<Entry, UpdatedCursor> findOrderByUpdatedWithFacets(@Nullable String tenantId,
+			SearchCriteria searchCriteria, CursorPageRequest<UpdatedCursor> pageRequest, Set<Facet> facets) {
+		try {
+			String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+			Optional<UpdatedCursor> cursor = pageRequest.cursorOptional();
+			boolean forward = pageRequest.navigation() == CursorPageRequest.Navigation.NEXT;
+			Comparator<KeyAndUpdatedAt> order = forward ? KeyAndUpdatedAt.ORDER : KeyAndUpdatedAt.ORDER.reversed();
+			// A legacy cursor has no entry key. The sentinel keys sort before/after every key,
+			// so that only updatedAt is compared.
+			Optional<KeyAndUpdatedAt> position = cursor.map(c -> new KeyAndUpdatedAt(
+					c.entryId() == null ? (forward ? "" : "\uffff")
+							: EntryEntity.toGemfireKey(new EntryKey(c.entryId(), nonNullTenantId)),
+					c.updated().toEpochMilli()));
+			List<Object> params = new ArrayList<>(List.of(nonNullTenantId));
+			String query = """
+					SELECT
+					    entryKey,
+					    updatedAt,
+					    tags,
+					    categories
+					FROM
+					    /Entry
+					WHERE
+					    tenantId = $1
+					    /* QUERY */
+					    /* TAG */
+					    /* CATEGORIES */
+					""";
+			query = applySearchCriteria(query, searchCriteria, params);
+			logger.debug("Executing query: {}, params: {}", query, params);
+			int pageSizePlus1 = pageRequest.pageSize() + 1;
+			// The facets are counted over the whole matched set, and the page is picked out
+			// of the same result instead of querying again.
+			TopK<KeyAndUpdatedAt> topK = new TopK<>(pageSizePlus1, order);
+			Map<String, Integer> tagCounts = new HashMap<>();
+			Map<List<String>, Integer> categoriesCounts = new HashMap<>();
+			((SelectResults<Struct>) this.queryService.newQuery(query).execute(params.toArray())).forEach(struct -> {
+				KeyAndUpdatedAt row = new KeyAndUpdatedAt((String) struct.get("entryKey"),
+						(Long) struct.get("updatedAt"));
+				if (position.isEmpty() || order.compare(row, position.get()) > 0) {
+					topK.offer(row);
+				}
+				if (facets.contains(Facet.TAGS)) {
+					((Set<String>) struct.get("tags")).forEach(tag -> tagCounts.merge(tag, 1, Integer::sum));
+				}
+				if (facets.contains(Facet.CATEGORIES)) {
+					categoriesCounts.merge((List<String>) struct.get("categories"), 1, Integer::sum);
+				}
+			});
+			List<KeyAndUpdatedAt> keysPlus1 = topK.toSortedList();
+			boolean hasMore = keysPlus1.size() == pageSizePlus1;
+			List<KeyAndUpdatedAt> page = hasMore ? keysPlus1.subList(0, pageRequest.pageSize()) : keysPlus1;
+			List<String> keys = (forward ? page : page.reversed()).stream().map(KeyAndUpdatedAt::entryKey).toList();
+			boolean hasPrevious = forward ? cursor.isPresent() : hasMore;
+			boolean hasNext = forward ? hasMore : cursor.isPresent();
+			Map<String, EntryEntity> entities = this.entryRegion.getAll(keys);
+			List<Entry> content = keys.stream()
+				.map(entities::get)
+				.filter(Objects::nonNull)
+				.peek(entity -> entity.setContent(""))
+				.map(EntryEntity::toModel)
+				.toList();
+			Facets result = new Facets(facets.contains(Facet.TAGS) ? toTagFacet(tagCounts) : null,
+					facets.contains(Facet.CATEGORIES) ? toCategoriesFacet(categoriesCounts) : null);
+			return new SearchResultPage<>(new CursorPage<>(content, pageRequest.pageSize(),
+					entry -> Objects.requireNonNull(entry.toCursor()), hasPrevious, hasNext), result, null);
 		}
 		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
 				| TypeMismatchException e) {
@@ -185,15 +432,545 @@ public class GemfireEntryRepository implements EntryRepository {
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public CursorPage<Entry, RelevanceCursor> findOrderByRelevance(@Nullable String tenantId,
+			SearchCriteria searchCriteria, CursorPageRequest<RelevanceCursor> pageRequest) {
+		try {
+			String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+			List<String> terms = StringUtils.hasText(searchCriteria.query())
+					? SearchCriteriaToOql.extractTerms(searchCriteria.query()) : List.of();
+			List<Object> params = new ArrayList<>(List.of(nonNullTenantId));
+			StringBuilder termFrequencies = new StringBuilder();
+			for (int i = 0; i < terms.size(); i++) {
+				params.add(terms.get(i));
+				termFrequencies.append(",\n    termFrequencies[$%d] AS tf%d".formatted(params.size(), i));
+			}
+			String query = """
+					SELECT
+					    entryKey,
+					    searchTitle,
+					    tags,
+					    searchLength/* TERM_FREQUENCIES */
+					FROM
+					    /Entry
+					WHERE
+					    tenantId = $1
+					    /* QUERY */
+					    /* TAG */
+					    /* CATEGORIES */
+					""".replace("/* TERM_FREQUENCIES */", termFrequencies);
+			query = applySearchCriteria(query, searchCriteria, params);
+			logger.debug("Executing query: {}, params: {}", query, params);
+			Bm25 bm25 = this.bm25(nonNullTenantId, terms);
+			Optional<RelevanceCursor> cursor = pageRequest.cursorOptional();
+			boolean forward = pageRequest.navigation() == CursorPageRequest.Navigation.NEXT;
+			Comparator<RelevanceCursor> order = forward ? RelevanceCursor.ORDER : RelevanceCursor.ORDER.reversed();
+			int pageSizePlus1 = pageRequest.pageSize() + 1;
+			// Only the keys and the term statistics of the matched entries are transferred,
+			// and only the first pageSize + 1 of them in the order are kept.
+			TopK<RelevanceCursor> topK = new TopK<>(pageSizePlus1, order);
+			((SelectResults<Struct>) this.queryService.newQuery(query).execute(params.toArray())).forEach(struct -> {
+				int[] tfs = new int[terms.size()];
+				for (int i = 0; i < terms.size(); i++) {
+					tfs[i] = (struct.get("tf" + i) instanceof Number tf) ? tf.intValue() : 0;
+				}
+				double score = bm25.score(tfs, (Integer) struct.get("searchLength"),
+						Objects.requireNonNullElse((String) struct.get("searchTitle"), ""),
+						(Set<String>) struct.get("tags"));
+				RelevanceCursor ranked = new RelevanceCursor(score, (String) struct.get("entryKey"));
+				if (cursor.isEmpty() || order.compare(ranked, cursor.get()) > 0) {
+					topK.offer(ranked);
+				}
+			});
+			List<RelevanceCursor> rankedPlus1 = topK.toSortedList();
+			boolean hasMore = rankedPlus1.size() == pageSizePlus1;
+			List<RelevanceCursor> ranked = new ArrayList<>(
+					hasMore ? rankedPlus1.subList(0, pageRequest.pageSize()) : rankedPlus1);
+			if (!forward) {
+				ranked.sort(RelevanceCursor.ORDER);
+			}
+			Map<String, RelevanceCursor> cursors = ranked.stream()
+				.collect(Collectors.toMap(RelevanceCursor::entryKey, Function.identity()));
+			Map<String, EntryEntity> entities = this.entryRegion.getAll(cursors.keySet());
+			List<Entry> content = ranked.stream()
+				.map(r -> entities.get(r.entryKey()))
+				.filter(Objects::nonNull)
+				.peek(entity -> entity.setContent("")) // same as findOrderByUpdated
+				.map(EntryEntity::toModel)
+				.toList();
+			boolean hasPrevious = forward ? cursor.isPresent() : hasMore;
+			boolean hasNext = forward ? hasMore : cursor.isPresent();
+			return new CursorPage<>(content, pageRequest.pageSize(),
+					entry -> cursors.get(EntryEntity.toGemfireKey(entry.entryKey())), hasPrevious, hasNext);
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Map<EntryKey, Snippet> findSnippets(@Nullable String tenantId, List<EntryKey> entryKeys,
+			@Nullable String query) {
+		if (entryKeys.isEmpty()) {
+			return Map.of();
+		}
+		try {
+			List<String> phrases = StringUtils.hasText(query) ? SearchCriteriaToOql.extractPhrases(query) : List.of();
+			// Only the plain text of the entries in the page is transferred, never the
+			// markdown content. The search text stands in for entries written before the
+			// plain text was kept.
+			Set<String> gemfireKeys = entryKeys.stream()
+				.map(EntryEntity::toGemfireKey)
+				.collect(Collectors.toCollection(HashSet::new));
+			return ((SelectResults<Struct>) this.queryService.newQuery("""
+					SELECT
+					    entryKey,
+					    searchText,
+					    plainText
+					FROM
+					    /Entry
+					WHERE
+					    tenantId = $1
+					    AND entryKey IN $2
+					""").execute(EntryKey.requireNonNullTenantId(tenantId), gemfireKeys))
+				.stream()
+				.collect(Collectors.toMap(struct -> EntryKey.valueOf((String) struct.get("entryKey")),
+						struct -> SnippetGenerator.generate(struct.get("plainText") instanceof String plainText
+								? plainText : Objects.requireNonNullElse((String) struct.get("searchText"), ""),
+								phrases)));
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static List<TagAndCount> toTagFacet(Map<String, Integer> counts) {
+		return counts.entrySet()
+			.stream()
+			.sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+			.map(e -> new TagAndCount(new Tag(e.getKey()), e.getValue()))
+			.toList();
+	}
+
+	private static List<CategoriesAndCount> toCategoriesFacet(Map<List<String>, Integer> counts) {
+		return counts.entrySet()
+			.stream()
+			.sorted(Map.Entry.<List<String>, Integer>comparingByValue()
+				.reversed()
+				.thenComparing(e -> String.join("|", e.getKey())))
+			.map(e -> new CategoriesAndCount(e.getKey().stream().map(Category::new).toList(), e.getValue()))
+			.toList();
+	}
+
+	/**
+	 * Reads the statistics of the tenant that BM25 needs: the number of entries, their
+	 * average length, and the number of entries containing each query term. They are
+	 * maintained on write, and only collected from the entries when they have not been
+	 * loaded yet.
+	 */
+	private Bm25 bm25(String tenantId, List<String> terms) throws FunctionDomainException, TypeMismatchException,
+			NameResolutionException, QueryInvocationTargetException {
+		SearchStatistics statistics = this.searchStatisticsRegion.get(tenantId);
+		if (statistics == null) {
+			return loadSearchStatistics(tenantId, terms);
+		}
+		long[] documentFrequencies = this.documentFrequencies.get(tenantId, statistics.getWatermark(), terms);
+		return new Bm25(terms, statistics.getDocumentCount(), documentFrequencies, statistics.averageLength());
+	}
+
+	/**
+	 * Collects the statistics of the tenant from its entries. The number of entries
+	 * containing each term is stored under the watermark read before the query, and only
+	 * becomes visible once the statistics are stored with the same watermark. The counts
+	 * of a load that has not been stored are dropped, and so are the ones of the previous
+	 * loads when it has.
+	 */
+	@SuppressWarnings("unchecked")
+	private Bm25 loadSearchStatistics(String tenantId, List<String> queryTerms) throws FunctionDomainException,
+			TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+		// read before the query so that a write during the query is detected
+		long watermark = this.watermarks.get(tenantId);
+		SelectResults<Struct> results = (SelectResults<Struct>) this.queryService.newQuery("""
+				SELECT
+				    searchLength,
+				    termFrequencies
+				FROM
+				    /Entry
+				WHERE
+				    tenantId = $1
+				""").execute(tenantId);
+		long totalLength = 0;
+		Map<String, Integer> documentFrequencies = new HashMap<>();
+		for (Struct struct : results) {
+			// UNDEFINED for entries written before the term statistics were kept
+			if (struct.get("searchLength") instanceof Integer length) {
+				totalLength += length;
+			}
+			if (struct.get("termFrequencies") instanceof Map<?, ?> termFrequencies) {
+				for (String term : ((Map<String, Integer>) termFrequencies).keySet()) {
+					documentFrequencies.merge(term, 1, Integer::sum);
+				}
+			}
+		}
+		SearchStatistics statistics = new SearchStatistics(results.size(), totalLength, watermark);
+		if (this.watermarks.get(tenantId) == watermark) {
+			this.documentFrequencies.store(tenantId, watermark, documentFrequencies);
+			storeLoaded(this.searchStatisticsRegion, tenantId, watermark, null, statistics);
+			SearchStatistics stored = this.searchStatisticsRegion.get(tenantId);
+			if (stored != null && stored.getWatermark() == watermark) {
+				this.documentFrequencies.removeOthers(tenantId, watermark);
+			}
+			else {
+				this.documentFrequencies.remove(tenantId, watermark, documentFrequencies.keySet());
+			}
+		}
+		long[] queryDocumentFrequencies = queryTerms.stream()
+			.mapToLong(term -> documentFrequencies.getOrDefault(term, 0))
+			.toArray();
+		return new Bm25(queryTerms, statistics.getDocumentCount(), queryDocumentFrequencies,
+				statistics.averageLength());
+	}
+
+	/**
+	 * Returns the column holding the sort key, or {@code null} when entries are ordered by
+	 * entry key only.
+	 */
+	private static @Nullable String sortColumn(EntrySort.Field field) {
+		return switch (field) {
+			case UPDATED -> "updatedAt";
+			case CREATED -> "createdAt";
+			case TITLE -> "title";
+			case ENTRY_ID -> null;
+		};
+	}
+
+	private static String orderBy(@Nullable String sortColumn, boolean descending) {
+		String direction = descending ? "DESC" : "ASC";
+		return sortColumn == null ? "entryKey " + direction
+				: "%s %s, entryKey %s".formatted(sortColumn, direction, direction);
+	}
+
+	/**
+	 * Builds the predicate selecting the entries after the cursor in the order of
+	 * {@code (sortColumn, entryKey)}. The index on the pair serves both directions.
+	 */
+	private static String keysetPredicate(EntryCursor cursor, @Nullable String sortColumn, boolean descending,
+			String tenantId, List<Object> params) {
+		String operator = descending ? "<" : ">";
+		Long entryId = cursor.entryId();
+		if (sortColumn == null) {
+			params.add(EntryEntity.toGemfireKey(new EntryKey(Objects.requireNonNull(entryId), tenantId)));
+			return "entryKey %s $%d".formatted(operator, params.size());
+		}
+		params.add(switch (cursor) {
+			case UpdatedCursor c -> c.updated().toEpochMilli();
+			case CreatedCursor c -> c.created().toEpochMilli();
+			case TitleCursor c -> c.title();
+			case EntryIdCursor c -> throw new IllegalArgumentException("Unexpected cursor: " + c);
+		});
+		int sortKey = params.size();
+		if (entryId == null) {
+			// legacy cursor without entry id
+			return "%s %s $%d".formatted(sortColumn, operator, sortKey);
+		}
+		params.add(EntryEntity.toGemfireKey(new EntryKey(entryId, tenantId)));
+		return "(%1$s %2$s $%3$d OR (%1$s = $%3$d AND entryKey %2$s $%4$d))".formatted(sortColumn, operator, sortKey,
+				params.size());
+	}
+
+	private static String applySearchCriteria(String query, SearchCriteria searchCriteria, List<Object> params) {
+		if (StringUtils.hasText(searchCriteria.query())) {
+			var queryAndParams = SearchCriteriaToOql.convertQuery(searchCriteria.query(), params.size() + 1);
+			query = query.replace("/* QUERY */", "AND (" + queryAndParams.query() + ")");
+			params.addAll(queryAndParams.params());
+		}
+		if (StringUtils.hasText(searchCriteria.tag())) {
+			var queryAndParams = SearchCriteriaToOql.convertTag(searchCriteria.tag(), params.size() + 1);
+			query = query.replace("/* TAG */", "AND (" + queryAndParams.query() + ")");
+			params.addAll(queryAndParams.params());
+		}
+		if (!CollectionUtils.isEmpty(searchCriteria.categories())) {
+			var queryAndParams = SearchCriteriaToOql.convertCategories(searchCriteria.categories(), params.size() + 1);
+			query = query.replace("/* CATEGORIES */", "AND (" + queryAndParams.query() + ")");
+			params.addAll(queryAndParams.params());
+		}
+		return query;
+	}
+
 	@Override
 	public Entry save(Entry entry) {
 		Assert.notNull(entry, "entry must not be null");
 		Assert.notNull(entry.entryKey(), "entryId must not be null");
 		String gemfireKey = EntryEntity.toGemfireKey(entry.entryKey());
-		this.entryRegion.put(gemfireKey, EntryEntity.fromModel(entry));
+		String tenantId = entry.entryKey().tenantId();
+		EntryEntity entity = EntryEntity.fromModel(entry);
+		// The entity is written with a compare-and-set against the stored version, so
+		// that the search statistics are updated from the version actually replaced even
+		// if the entry is written concurrently.
+		EntryEntity stored;
+		TenantWatermarks.Advance stamp;
+		boolean replaced;
+		int attempts = 0;
+		do {
+			stored = this.entryRegion.get(gemfireKey);
+			if (stored != null && isUnchanged(entity, StoredEntry.of(stored))) {
+				countSkippedWrites(tenantId, 1);
+				return entry;
+			}
+			stamp = this.watermarks.advance(tenantId);
+			entity.setChangedAt(stamp.current());
+			replaced = stored == null ? this.entryRegion.putIfAbsent(gemfireKey, entity) == null
+					: this.entryRegion.replace(gemfireKey, stored, entity);
+		}
+		while (!replaced && ++attempts < MAX_UPDATE_RETRIES);
+		if (!replaced) {
+			// keeps losing against concurrent writes of the entry
+			this.entryRegion.put(gemfireKey, entity);
+		}
+		TenantWatermarks.Advance advance = this.watermarks.advance(tenantId);
+		EntryEntity latest = withoutContent(entity);
+		update(this.latestEntriesRegion, tenantId, entries -> entries.with(latest));
+		if (replaced) {
+			updateSearchStatistics(tenantId, stored, entity, advance);
+		}
+		else {
+			invalidateSearchStatistics(tenantId);
+		}
+		publishEntryChanged(entry.entryKey(), entry, stamp, advance);
 		return entry;
 	}
 
+	/**
+	 * Replaces the previous version of an entry with the new one in the search
+	 * statistics of the tenant. A write made before the statistics were loaded is already
+	 * counted in them, and a write whose statistics cannot be updated drops them to be
+	 * loaded again.
+	 * @param previous the entity replaced by the write, or {@code null} if there was none
+	 * @param current the entity written, or {@code null} if it has been deleted
+	 * @param advance the advance that published the write
+	 */
+	private void updateSearchStatistics(String tenantId, @Nullable EntryEntity previous,
+			@Nullable EntryEntity current, TenantWatermarks.Advance advance) {
+		SearchStatistics.Terms previousTerms = previous == null ? null : SearchStatistics.Terms.of(previous);
+		SearchStatistics.Terms currentTerms = current == null ? null : SearchStatistics.Terms.of(current);
+		Set<String> removed = new HashSet<>(previousTerms == null ? Set.<String>of() : previousTerms.terms());
+		Set<String> added = new HashSet<>(currentTerms == null ? Set.<String>of() : currentTerms.terms());
+		Set<String> kept = new HashSet<>(removed);
+		kept.retainAll(added);
+		removed.removeAll(kept);
+		added.removeAll(kept);
+		for (int i = 0; i < MAX_UPDATE_RETRIES; i++) {
+			SearchStatistics statistics = this.searchStatisticsRegion.get(tenantId);
+			if (statistics == null || statistics.getWatermark() >= advance.current()) {
+				return;
+			}
+			if (this.searchStatisticsRegion.replace(tenantId, statistics,
+					statistics.with(previousTerms, currentTerms))) {
+				if (!this.documentFrequencies.update(tenantId, statistics.getWatermark(), removed, added)) {
+					invalidateSearchStatistics(tenantId);
+				}
+				return;
+			}
+		}
+		invalidateSearchStatistics(tenantId);
+	}
+
+	/**
+	 * Drops the search statistics of the tenant to be loaded again, for a write that
+	 * could not be counted in them. Called after the watermark has been advanced past the
+	 * write, so that a load racing with it is not stored either.
+	 */
+	private void invalidateSearchStatistics(String tenantId) {
+		logger.debug("Dropping the search statistics of tenant {}. They will be loaded again.", tenantId);
+		this.searchStatisticsRegion.remove(tenantId);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public CursorPage<EntryChange, ChangeCursor> findChanges(@Nullable String tenantId, @Nullable ChangeCursor since,
+			@Nullable Instant before, int pageSize) {
+		String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+		int pageSizePlus1 = pageSize + 1;
+		List<EntryChange> changes = new ArrayList<>(pageSizePlus1 * 2);
+		try {
+			List<Struct> saved = findChangedKeys("Entry", nonNullTenantId, since, before, pageSizePlus1);
+			Map<String, EntryEntity> entities = this.entryRegion
+				.getAll(saved.stream().map(struct -> (String) struct.get("entryKey")).toList());
+			for (Struct struct : saved) {
+				EntryEntity entity = entities.get((String) struct.get("entryKey"));
+				// deleted after the query, its tombstone follows
+				if (entity != null) {
+					changes.add(EntryChange.upsert(entity.toModel(), (Long) struct.get("changedAt")));
+				}
+			}
+			// a full synchronization starts from nothing and has no deletions to learn about
+			if (since != null) {
+				for (Struct struct : findChangedKeys("EntryTombstone", nonNullTenantId, since, before,
+						pageSizePlus1)) {
+					changes.add(EntryChange.delete(EntryKey.valueOf((String) struct.get("entryKey")),
+							(Long) struct.get("changedAt")));
+				}
+			}
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+		changes.sort(EntryChange.ORDER);
+		boolean hasNext = changes.size() > pageSize;
+		List<EntryChange> content = hasNext ? changes.subList(0, pageSize) : changes;
+		return new CursorPage<>(content, pageSize, EntryChange::toCursor, since != null, hasNext);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Struct> findChangedKeys(String region, String tenantId, @Nullable ChangeCursor since,
+			@Nullable Instant before, int limit) throws FunctionDomainException, TypeMismatchException,
+			NameResolutionException, QueryInvocationTargetException {
+		List<Object> params = new ArrayList<>(Arrays.asList(tenantId, limit));
+		String keyset = "";
+		if (since != null) {
+			params.add(since.changedAt());
+			Long entryId = since.entryId();
+			if (entryId == null) {
+				keyset = "AND changedAt > $3";
+			}
+			else {
+				params.add(EntryEntity.toGemfireKey(new EntryKey(entryId, tenantId)));
+				keyset = "AND (changedAt > $3 OR (changedAt = $3 AND entryKey > $4))";
+			}
+		}
+		if (before != null) {
+			params.add(before.toEpochMilli());
+			keyset += " AND changedAt < $" + params.size();
+		}
+		String query = """
+				SELECT
+				    entryKey,
+				    changedAt
+				FROM
+				    /%s
+				WHERE
+				    tenantId = $1
+				    /* KEYSET */
+				ORDER BY
+				    changedAt,
+				    entryKey
+				LIMIT $2
+				""".formatted(region).replace("/* KEYSET */", keyset);
+		logger.debug("Executing query: {}, params: {}", query, params);
+		return ((SelectResults<Struct>) this.queryService.newQuery(query).execute(params.toArray())).asList();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public EntryChunk findAllAfter(@Nullable String tenantId, @Nullable Long afterEntryId, int limit) {
+		String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+		List<Object> params = new ArrayList<>(Arrays.asList(nonNullTenantId, limit));
+		String keyset = "";
+		if (afterEntryId != null) {
+			params.add(afterEntryId);
+			keyset = "AND entryId > $3";
+		}
+		// the padded keys are ordered as strings, which breaks past 99999, so the numeric id
+		// is used instead
+		String query = """
+				SELECT
+				    entryId,
+				    entryKey
+				FROM
+				    /Entry
+				WHERE
+				    tenantId = $1
+				    /* KEYSET */
+				ORDER BY
+				    entryId
+				LIMIT $2
+				""".replace("/* KEYSET */", keyset);
+		logger.debug("Executing query: {}, params: {}", query, params);
+		try {
+			// only the keys are sorted by the query, the entities are read by key
+			List<Struct> keys = ((SelectResults<Struct>) this.queryService.newQuery(query).execute(params.toArray()))
+				.asList();
+			Map<String, EntryEntity> entities = this.entryRegion
+				.getAll(keys.stream().map(struct -> (String) struct.get("entryKey")).toList());
+			List<Entry> entries = keys.stream()
+				.map(struct -> entities.get((String) struct.get("entryKey")))
+				// deleted after the query
+				.filter(Objects::nonNull)
+				.map(EntryEntity::toModel)
+				.toList();
+			// whether there is a next chunk depends on the keys, some of which may have been
+			// deleted since
+			Long next = keys.size() < limit ? null : (Long) keys.getLast().get("entryId");
+			return new EntryChunk(entries, next);
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<Long, @Nullable String> findBlobShas(@Nullable String tenantId) {
+		try {
+			SelectResults<Struct> results = (SelectResults<Struct>) this.queryService.newQuery("""
+					SELECT
+					    entryKey,
+					    blobSha
+					FROM
+					    /Entry
+					WHERE
+					    tenantId = $1
+					""").execute(EntryKey.requireNonNullTenantId(tenantId));
+			Map<Long, @Nullable String> blobShas = new HashMap<>(results.size() * 2);
+			for (Struct struct : results) {
+				// UNDEFINED for entries written before the SHA was kept
+				blobShas.put(EntryKey.valueOf((String) struct.get("entryKey")).entryId(),
+						struct.get("blobSha") instanceof String blobSha ? blobSha : null);
+			}
+			return blobShas;
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public @Nullable String findBlobSha(EntryKey entryKey) {
+		try {
+			SelectResults<?> results = (SelectResults<?>) this.queryService.newQuery("""
+					SELECT
+					    blobSha
+					FROM
+					    /Entry
+					WHERE
+					    entryKey = $1
+					""").execute(EntryEntity.toGemfireKey(entryKey));
+			for (Object blobSha : results) {
+				// UNDEFINED for entries written before the SHA was kept
+				if (blobSha instanceof String sha) {
+					return sha;
+				}
+			}
+			return null;
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public long watermark(@Nullable String tenantId) {
+		return this.watermarks.get(EntryKey.requireNonNullTenantId(tenantId));
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public Long nextId(@Nullable String tenantId) {
@@ -280,15 +1057,163 @@ public class GemfireEntryRepository implements EntryRepository {
 
 	@Override
 	public void saveAll(List<Entry> entries) {
-		this.entryRegion.putAll(entries.stream()
-			.map(EntryEntity::fromModel)
-			.collect(Collectors.toMap(EntryEntity::getEntryKey, Function.identity())));
+		Map<String, List<Entry>> entriesByTenant = entries.stream()
+			.collect(Collectors.groupingBy(entry -> entry.entryKey().tenantId()));
+		for (Map.Entry<String, List<Entry>> group : entriesByTenant.entrySet()) {
+			String tenantId = group.getKey();
+			Map<String, EntryEntity> entities = group.getValue()
+				.stream()
+				.map(EntryEntity::fromModel)
+				.collect(Collectors.toMap(EntryEntity::getEntryKey, Function.identity()));
+			Map<String, StoredEntry> stored = findStored(tenantId, entities.keySet());
+			Set<String> unchanged = entities.values()
+				.stream()
+				.filter(entity -> isUnchanged(entity, stored.get(entity.getEntryKey())))
+				.map(EntryEntity::getEntryKey)
+				.collect(Collectors.toSet());
+			if (!unchanged.isEmpty()) {
+				countSkippedWrites(tenantId, unchanged.size());
+				entities.keySet().removeAll(unchanged);
+			}
+			if (entities.isEmpty()) {
+				continue;
+			}
+			List<Entry> tenantEntries = group.getValue()
+				.stream()
+				.filter(entry -> !unchanged.contains(EntryEntity.toGemfireKey(entry.entryKey())))
+				.toList();
+			TenantWatermarks.Advance stamp = this.watermarks.advance(tenantId);
+			entities.values().forEach(entity -> entity.setChangedAt(stamp.current()));
+			this.entryRegion.putAll(entities);
+			TenantWatermarks.Advance advance = this.watermarks.advance(tenantId);
+			List<EntryEntity> latest = entities.values().stream().map(GemfireEntryRepository::withoutContent).toList();
+			update(this.latestEntriesRegion, tenantId, current -> {
+				LatestEntries updated = current;
+				for (EntryEntity entity : latest) {
+					updated = updated.with(entity);
+				}
+				return updated;
+			});
+			// The entries are written at once without a compare-and-set, so the versions they
+			// replaced are not known for sure. A batch is rare enough to load the statistics
+			// again.
+			invalidateSearchStatistics(tenantId);
+			tenantEntries.forEach(entry -> publishEntryChanged(entry.entryKey(), entry, stamp, advance));
+		}
+	}
+
+	/**
+	 * Reads what is needed of the stored versions of the given entries: the content hash
+	 * and the blob SHA that tell whether writing an entry again changes anything. The
+	 * content is not transferred.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, StoredEntry> findStored(String tenantId, Collection<String> gemfireKeys) {
+		try {
+			SelectResults<Struct> results = (SelectResults<Struct>) this.queryService.newQuery("""
+					SELECT
+					    entryKey,
+					    contentHash,
+					    blobSha
+					FROM
+					    /Entry
+					WHERE
+					    tenantId = $1
+					    AND entryKey IN $2
+					""").execute(tenantId, new HashSet<>(gemfireKeys));
+			Map<String, StoredEntry> stored = new HashMap<>(results.size() * 2);
+			for (Struct struct : results) {
+				// UNDEFINED for entries written before the hash and the SHA were kept
+				stored.put((String) struct.get("entryKey"),
+						new StoredEntry(struct.get("contentHash") instanceof String contentHash ? contentHash : null,
+								struct.get("blobSha") instanceof String blobSha ? blobSha : null));
+			}
+			return stored;
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns whether the entity is stored with the same content hash, and the same blob
+	 * SHA if it has one. Writing it again would only notify subscribers of a change that
+	 * did not happen.
+	 */
+	private static boolean isUnchanged(EntryEntity entity, @Nullable StoredEntry stored) {
+		if (stored == null || !Objects.equals(entity.getContentHash(), stored.contentHash())) {
+			return false;
+		}
+		String blobSha = entity.getBlobSha();
+		return blobSha == null || blobSha.equals(stored.blobSha());
+	}
+
+	private void countSkippedWrites(String tenantId, int count) {
+		Counter.builder("entry.writes.skipped")
+			.description("Number of entry writes skipped because the entry has not changed")
+			.tag("tenant", tenantId)
+			.register(this.meterRegistry)
+			.increment(count);
 	}
 
 	@Override
 	public void deleteById(EntryKey entryKey) {
 		String gemfireKey = EntryEntity.toGemfireKey(entryKey);
-		this.entryRegion.remove(gemfireKey);
+		String tenantId = entryKey.tenantId();
+		// removed with a compare-and-set like in save, so that a concurrent delete does not
+		// uncount the entry twice
+		EntryEntity stored;
+		TenantWatermarks.Advance stamp;
+		boolean removed;
+		int attempts = 0;
+		do {
+			stored = this.entryRegion.get(gemfireKey);
+			stamp = this.watermarks.advance(tenantId);
+			removed = stored != null && this.entryRegion.remove(gemfireKey, stored);
+		}
+		while (stored != null && !removed && ++attempts < MAX_UPDATE_RETRIES);
+		if (stored != null && !removed) {
+			// keeps losing against concurrent writes of the entry
+			this.entryRegion.remove(gemfireKey);
+		}
+		this.entryTombstoneRegion.put(gemfireKey, new EntryTombstone(gemfireKey, tenantId, stamp.current()));
+		TenantWatermarks.Advance advance = this.watermarks.advance(tenantId);
+		update(this.latestEntriesRegion, tenantId, entries -> entries.without(gemfireKey));
+		if (removed) {
+			updateSearchStatistics(tenantId, stored, null, advance);
+		}
+		else if (stored != null) {
+			invalidateSearchStatistics(tenantId);
+		}
+		publishEntryChanged(entryKey, null, stamp, advance);
+		purgeTombstones(tenantId, stamp.current() - EntryService.TOMBSTONE_RETENTION.toMillis());
+	}
+
+	/**
+	 * Drops the tombstones of the tenant written before the given time, past which
+	 * clients have to synchronize from scratch anyway.
+	 */
+	@SuppressWarnings("unchecked")
+	private void purgeTombstones(String tenantId, long before) {
+		try {
+			List<String> keys = ((SelectResults<String>) this.queryService.newQuery("""
+					SELECT
+					    entryKey
+					FROM
+					    /EntryTombstone
+					WHERE
+					    tenantId = $1
+					    AND changedAt < $2
+					""").execute(tenantId, before)).asList();
+			if (!keys.isEmpty()) {
+				this.entryTombstoneRegion.removeAll(keys);
+			}
+		}
+		catch (FunctionDomainException | QueryInvocationTargetException | NameResolutionException
+				| TypeMismatchException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 
 	@Override
@@ -299,7 +1224,38 @@ public class GemfireEntryRepository implements EntryRepository {
 	}
 
 	public void deleteAll() {
-		this.entryRegion.removeAll(this.entryRegion.keySetOnServer());
+		Set<String> keys = this.entryRegion.keySetOnServer();
+		this.entryRegion.removeAll(keys);
+		keys.stream().map(key -> EntryKey.valueOf(key).tenantId()).distinct().forEach(this.watermarks::advance);
+		this.latestEntriesRegion.removeAll(this.latestEntriesRegion.keySetOnServer());
+		this.searchStatisticsRegion.removeAll(this.searchStatisticsRegion.keySetOnServer());
+		this.documentFrequencies.clear();
+		this.entryTombstoneRegion.removeAll(this.entryTombstoneRegion.keySetOnServer());
+	}
+
+	/**
+	 * @param stamp the advance that stamped the write, before it was made
+	 * @param advance the advance that published the write, after it was made
+	 */
+	private void publishEntryChanged(EntryKey entryKey, @Nullable Entry entry, TenantWatermarks.Advance stamp,
+			TenantWatermarks.Advance advance) {
+		this.eventPublisher.publishEvent(new EntryChangedEvent(entryKey, entry, stamp.previous(), advance.current()));
+	}
+
+	private record StoredEntry(@Nullable String contentHash, @Nullable String blobSha) {
+
+		static StoredEntry of(EntryEntity entity) {
+			return new StoredEntry(entity.getContentHash(), entity.getBlobSha());
+		}
+
+	}
+
+	private record KeyAndUpdatedAt(String entryKey, long updatedAt) {
+
+		static final Comparator<KeyAndUpdatedAt> ORDER = Comparator.comparingLong(KeyAndUpdatedAt::updatedAt)
+			.thenComparing(KeyAndUpdatedAt::entryKey)
+			.reversed();
+
 	}
 
 }
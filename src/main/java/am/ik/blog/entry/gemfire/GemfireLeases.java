@@ -0,0 +1,38 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.entry.Leases;
+import java.time.Duration;
+import java.time.InstantSource;
+import org.apache.geode.cache.Region;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link Leases} stored in the {@code Lease} region as the epoch millis at which they run
+ * out. An expired lease is taken over with a compare-and-set, so that only one instance
+ * acquires it.
+ */
+@Component
+public class GemfireLeases implements Leases {
+
+	private final Region<String, Long> leaseRegion;
+
+	private final InstantSource instantSource;
+
+	public GemfireLeases(@Qualifier("leaseRegion") Region<String, Long> leaseRegion, InstantSource instantSource) {
+		this.leaseRegion = leaseRegion;
+		this.instantSource = instantSource;
+	}
+
+	@Override
+	public boolean tryAcquire(String name, Duration duration) {
+		long now = this.instantSource.millis();
+		long expiresAt = now + duration.toMillis();
+		Long current = this.leaseRegion.putIfAbsent(name, expiresAt);
+		if (current == null) {
+			return true;
+		}
+		return current <= now && this.leaseRegion.replace(name, current, expiresAt);
+	}
+
+}
@@ -0,0 +1,125 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.entry.EntryService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Materialized first page of the entries of a tenant ordered by update date, stored in
+ * the {@code LatestEntries} region keyed by tenant id so that every application instance
+ * shares it. It is updated in place on each write and serves the default listing without
+ * running a query.
+ * <p>
+ * It holds up to {@link #CAPACITY} entries without content, more than a page, so that a
+ * deleted entry on the page can be replaced without re-reading the page. Instances are
+ * treated as immutable so that they can be swapped with {@code Region#replace}.
+ * <p>
+ * The watermark of the tenant read before the entries were loaded is kept, so that a
+ * load racing with a write can tell that the write may be missing from it.
+ */
+public class LatestEntries {
+
+	static final int CAPACITY = EntryService.DEFAULT_PAGE_SIZE * 2;
+
+	static final Comparator<EntryEntity> ORDER = Comparator.comparingLong(EntryEntity::getUpdatedAt)
+		.thenComparing(EntryEntity::getEntryKey)
+		.reversed();
+
+	private List<EntryEntity> entries;
+
+	// whether the entries are all entries of the tenant
+	private boolean complete;
+
+	private long watermark;
+
+	@SuppressWarnings("NullAway")
+	public LatestEntries() {
+		// Default constructor required for GemFire PDX serialization
+	}
+
+	LatestEntries(List<EntryEntity> entries, boolean complete, long watermark) {
+		this.entries = entries;
+		this.complete = complete;
+		this.watermark = watermark;
+	}
+
+	public List<EntryEntity> getEntries() {
+		return entries;
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * @return the watermark of the tenant read before the entries were loaded
+	 */
+	public long getWatermark() {
+		return watermark;
+	}
+
+	/**
+	 * @return whether the first page of the given size and whether there is a next page
+	 * can be told from the entries
+	 */
+	boolean covers(int pageSize) {
+		return this.complete || this.entries.size() > pageSize;
+	}
+
+	/**
+	 * Returns a copy with the given entry inserted at its position, or removed if it has
+	 * moved beyond the kept entries.
+	 */
+	LatestEntries with(EntryEntity entity) {
+		List<EntryEntity> updated = new ArrayList<>(this.entries.size() + 1);
+		int index = -1;
+		for (EntryEntity e : this.entries) {
+			if (e.getEntryKey().equals(entity.getEntryKey())) {
+				continue;
+			}
+			if (index < 0 && ORDER.compare(entity, e) < 0) {
+				index = updated.size();
+			}
+			updated.add(e);
+		}
+		if (index < 0) {
+			if (!this.complete) {
+				// older than every kept entry, so entries not kept may come before it
+				return new LatestEntries(updated, false, this.watermark);
+			}
+			index = updated.size();
+		}
+		updated.add(index, entity);
+		if (updated.size() > CAPACITY) {
+			updated.removeLast();
+			return new LatestEntries(updated, false, this.watermark);
+		}
+		return new LatestEntries(updated, this.complete, this.watermark);
+	}
+
+	/**
+	 * Returns a copy without the entry of the given key.
+	 */
+	LatestEntries without(String entryKey) {
+		List<EntryEntity> updated = new ArrayList<>(this.entries);
+		updated.removeIf(e -> e.getEntryKey().equals(entryKey));
+		return new LatestEntries(updated, this.complete, this.watermark);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof LatestEntries that)) {
+			return false;
+		}
+		return this.complete == that.complete && this.watermark == that.watermark
+				&& Objects.equals(this.entries, that.entries);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.entries, this.complete, this.watermark);
+	}
+
+}
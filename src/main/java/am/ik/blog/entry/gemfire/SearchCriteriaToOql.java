@@ -15,15 +15,32 @@ import am.ik.query.ast.TokenNode;
 import am.ik.query.ast.WildcardNode;
 import am.ik.query.parser.QueryParser;
 import am.ik.query.util.QueryPrinter;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 final class SearchCriteriaToOql {
 
-	private static final String CONTENT_FIELD = "content.toLowerCase()";
+	private static final String CONTENT_FIELD = "searchText";
+
+	private static final String TITLE_FIELD = "searchTitle";
+
+	private static final String OPEN_BOUND = "*";
+
+	static final int MAX_TERMS = 16;
 
 	private static final QueryParser queryParser = QueryParser.create();
 
@@ -39,12 +56,52 @@ final class SearchCriteriaToOql {
 		return new QueryAndParams(oql, visitor.getParams());
 	}
 
+	/**
+	 * Extracts the terms to score relevance with. Negated terms and filters on tags,
+	 * categories or dates do not contribute to relevance.
+	 * @param query search query
+	 * @return distinct {@link SearchTokenizer tokenized} terms, at most {@link #MAX_TERMS}
+	 */
+	static List<String> extractTerms(String query) {
+		return extractPhrases(query).stream()
+			.flatMap(phrase -> SearchTokenizer.tokenize(phrase).stream())
+			.distinct()
+			.limit(MAX_TERMS)
+			.toList();
+	}
+
+	/**
+	 * Extracts the {@link SearchTextNormalizer#normalizeInline(String) normalized} words
+	 * and phrases to highlight, in the same way as {@link #extractTerms(String)} but
+	 * without splitting phrases.
+	 * @param query search query
+	 * @return distinct words and phrases
+	 */
+	static List<String> extractPhrases(String query) {
+		TermVisitor visitor = new TermVisitor();
+		queryParser.parse(query).accept(visitor);
+		return List.copyOf(visitor.phrases);
+	}
+
+	/**
+	 * Returns a canonical form of the query that is the same for queries matching the same
+	 * entries in the same way, e.g. {@code Spring AND boot} and {@code boot spring}.
+	 * Children of AND and OR are sorted, and terms are
+	 * {@link SearchTextNormalizer#normalizeInline(String) normalized} as they are when
+	 * matched.
+	 * @param query search query
+	 * @return canonical form of the query
+	 */
+	static String canonicalize(String query) {
+		return queryParser.parse(query).accept(new CanonicalVisitor());
+	}
+
 	static QueryAndParams convertTag(String tag, int index) {
 		return new QueryAndParams("$" + index + " IN tags", List.of(tag));
 	}
 
 	static QueryAndParams convertCategories(List<String> categories, int index) {
-		List<String> params = new ArrayList<>();
+		List<Object> params = new ArrayList<>();
 		StringBuilder categoriesQuery = new StringBuilder("categories.size() >= ").append(categories.size())
 			.append(" AND ");
 		categoriesQuery.append("(");
@@ -64,21 +121,19 @@ final class SearchCriteriaToOql {
 
 		private final AtomicInteger index;
 
-		private final List<String> params = new ArrayList<>();
+		private final List<Object> params = new ArrayList<>();
 
 		OqlVisitor(AtomicInteger index) {
 			this.index = index;
 		}
 
-		List<String> getParams() {
-			return params.stream().map(String::toLowerCase).toList();
+		List<Object> getParams() {
+			return params;
 		}
 
 		@Override
 		public String visitToken(TokenNode node) {
-			String paramName = "$" + index.getAndIncrement();
-			params.add("%" + node.value() + "%");
-			return CONTENT_FIELD + " LIKE " + paramName;
+			return contains(CONTENT_FIELD, node.value());
 		}
 
 		@Override
@@ -102,13 +157,8 @@ final class SearchCriteriaToOql {
 		public String visitNot(NotNode node) {
 			if (!node.children().isEmpty()) {
 				Node child = node.children().getFirst();
-				if (child instanceof TokenNode) {
-					String paramName = "$" + index.getAndIncrement();
-					params.add("%" + child.value() + "%");
-					return "NOT (" + CONTENT_FIELD + " LIKE " + paramName + ")";
-				}
-				else {
-					String childResult = child.accept(this);
+				String childResult = child.accept(this);
+				if (!childResult.isEmpty()) {
 					return "NOT (" + childResult + ")";
 				}
 			}
@@ -117,34 +167,77 @@ final class SearchCriteriaToOql {
 
 		@Override
 		public String visitPhrase(PhraseNode node) {
-			String paramName = "$" + index.getAndIncrement();
-			params.add("%" + node.value() + "%");
-			return CONTENT_FIELD + " LIKE " + paramName;
+			return contains(CONTENT_FIELD, node.value());
 		}
 
 		@Override
 		public String visitWildcard(WildcardNode node) {
-			String paramName = "$" + index.getAndIncrement();
 			// Convert wildcard pattern to OQL LIKE pattern
-			String pattern = node.value().replace("*", "%").replace("?", "_");
-			params.add(pattern);
-			return CONTENT_FIELD + " LIKE " + paramName;
+			String pattern = SearchTextNormalizer.normalizeWildcard(node.value()).replace("*", "%").replace("?", "_");
+			return CONTENT_FIELD + " LIKE " + param(pattern);
 		}
 
-		// Ignore field queries, fuzzy queries, and ranges for this use-case
 		@Override
 		public String visitField(FieldNode node) {
-			return "";
+			String value = node.fieldValue();
+			return switch (node.field().toLowerCase(Locale.ROOT)) {
+				case "title" -> contains(TITLE_FIELD, value);
+				case "tag", "tags" -> param(value) + " IN tags";
+				case "category", "categories" -> param(value) + " IN categories";
+				case "created", "createdat" -> between("createdAt", value, value, true, true);
+				case "updated", "updatedat" -> between("updatedAt", value, value, true, true);
+				// Not a field we know, e.g. "http://..." or "key:value" in the content
+				default -> contains(CONTENT_FIELD, node.field() + ":" + value);
+			};
 		}
 
+		// Fuzzy matching is not available in OQL; fall back to a plain term match
 		@Override
 		public String visitFuzzy(FuzzyNode node) {
-			return "";
+			return contains(CONTENT_FIELD, node.term());
 		}
 
 		@Override
 		public String visitRange(RangeNode node) {
-			return "";
+			String field = node.field();
+			return switch (field == null ? "" : field.toLowerCase(Locale.ROOT)) {
+				case "created", "createdat" ->
+					between("createdAt", node.start(), node.end(), node.includeStart(), node.includeEnd());
+				case "updated", "updatedat" ->
+					between("updatedAt", node.start(), node.end(), node.includeStart(), node.includeEnd());
+				// dropping the range would match every entry of the tenant
+				default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+						"Range queries are only supported on 'created' and 'updated'");
+			};
+		}
+
+		private String contains(String field, String value) {
+			// the title is stored without stripping markdown
+			String normalized = TITLE_FIELD.equals(field) ? SearchTextNormalizer.normalize(value)
+					: SearchTextNormalizer.normalizeInline(value);
+			return field + " LIKE " + param("%" + normalized + "%");
+		}
+
+		/**
+		 * Builds a range predicate on an epoch millis field so that the index on the
+		 * field can be used. A date without time covers the whole day (UTC).
+		 */
+		private String between(String field, String start, String end, boolean includeStart, boolean includeEnd) {
+			List<String> predicates = new ArrayList<>(2);
+			if (!OPEN_BOUND.equals(start)) {
+				long lower = includeStart ? startOf(start) : endOf(start);
+				predicates.add(field + " >= " + param(lower));
+			}
+			if (!OPEN_BOUND.equals(end)) {
+				long upper = includeEnd ? endOf(end) : startOf(end);
+				predicates.add(field + " < " + param(upper));
+			}
+			return predicates.size() > 1 ? "(" + String.join(" AND ", predicates) + ")" : String.join("", predicates);
+		}
+
+		private String param(Object value) {
+			params.add(value);
+			return "$" + index.getAndIncrement();
 		}
 
 		private String processChildren(Node node, String operator) {
@@ -166,7 +259,202 @@ final class SearchCriteriaToOql {
 
 	}
 
-	record QueryAndParams(String query, List<String> params) {
+	/**
+	 * Returns the first epoch millis covered by the given date or instant.
+	 */
+	static long startOf(String value) {
+		LocalDate date = parseDate(value);
+		if (date != null) {
+			return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+		}
+		return parseInstant(value).toEpochMilli();
+	}
+
+	/**
+	 * Returns the first epoch millis after the given date or instant.
+	 */
+	static long endOf(String value) {
+		LocalDate date = parseDate(value);
+		if (date != null) {
+			return date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+		}
+		return parseInstant(value).toEpochMilli() + 1;
+	}
+
+	@Nullable private static LocalDate parseDate(String value) {
+		try {
+			return LocalDate.parse(value);
+		}
+		catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	private static Instant parseInstant(String value) {
+		try {
+			return Instant.parse(value);
+		}
+		catch (DateTimeParseException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Invalid date '%s'. Expected yyyy-MM-dd or an ISO-8601 instant".formatted(value), e);
+		}
+	}
+
+	private static class CanonicalVisitor implements NodeVisitor<String> {
+
+		@Override
+		public String visitToken(TokenNode node) {
+			return quote(SearchTextNormalizer.normalizeInline(node.value()));
+		}
+
+		@Override
+		public String visitRoot(RootNode node) {
+			return sortedChildren("AND", node);
+		}
+
+		@Override
+		public String visitAnd(AndNode node) {
+			return sortedChildren("AND", node);
+		}
+
+		@Override
+		public String visitOr(OrNode node) {
+			return sortedChildren("OR", node);
+		}
+
+		@Override
+		public String visitNot(NotNode node) {
+			return "NOT(" + String.join(",", node.children().stream().map(child -> child.accept(this)).toList())
+					+ ")";
+		}
+
+		@Override
+		public String visitPhrase(PhraseNode node) {
+			// a phrase is matched as a substring like a term
+			return quote(SearchTextNormalizer.normalizeInline(node.value()));
+		}
+
+		@Override
+		public String visitWildcard(WildcardNode node) {
+			return "WILDCARD(" + quote(SearchTextNormalizer.normalizeWildcard(node.value())) + ")";
+		}
+
+		@Override
+		public String visitField(FieldNode node) {
+			String field = node.field().toLowerCase(Locale.ROOT);
+			String value = switch (field) {
+				// tags and categories are matched as they are
+				case "tag", "tags", "category", "categories" -> node.fieldValue();
+				default -> SearchTextNormalizer.normalize(node.fieldValue());
+			};
+			return "FIELD(" + quote(field) + "," + quote(value) + ")";
+		}
+
+		@Override
+		public String visitFuzzy(FuzzyNode node) {
+			// matched as a plain term
+			return quote(SearchTextNormalizer.normalizeInline(node.term()));
+		}
+
+		@Override
+		public String visitRange(RangeNode node) {
+			String field = node.field();
+			return "RANGE(" + quote(field == null ? "" : field.toLowerCase(Locale.ROOT)) + ","
+					+ (node.includeStart() ? "[" : "(") + quote(node.start()) + "," + quote(node.end())
+					+ (node.includeEnd() ? "]" : ")") + ")";
+		}
+
+		private String sortedChildren(String operator, Node node) {
+			List<String> children = new ArrayList<>();
+			for (Node child : node.children()) {
+				children.add(child.accept(this));
+			}
+			if (children.size() == 1) {
+				return children.getFirst();
+			}
+			Collections.sort(children);
+			return operator + "(" + String.join(",", children) + ")";
+		}
+
+		private static String quote(String value) {
+			return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+		}
+
+	}
+
+	private static class TermVisitor implements NodeVisitor<Void> {
+
+		private final Set<String> phrases = new LinkedHashSet<>();
+
+		@Override
+		@Nullable public Void visitToken(TokenNode node) {
+			return addTerms(node.value());
+		}
+
+		@Override
+		@Nullable public Void visitRoot(RootNode node) {
+			return visitChildren(node);
+		}
+
+		@Override
+		@Nullable public Void visitAnd(AndNode node) {
+			return visitChildren(node);
+		}
+
+		@Override
+		@Nullable public Void visitOr(OrNode node) {
+			return visitChildren(node);
+		}
+
+		@Override
+		@Nullable public Void visitNot(NotNode node) {
+			return null;
+		}
+
+		@Override
+		@Nullable public Void visitPhrase(PhraseNode node) {
+			return addTerms(node.value());
+		}
+
+		@Override
+		@Nullable public Void visitWildcard(WildcardNode node) {
+			for (String part : node.value().split("[*?]")) {
+				addTerms(part);
+			}
+			return null;
+		}
+
+		@Override
+		@Nullable public Void visitField(FieldNode node) {
+			return "title".equalsIgnoreCase(node.field()) ? addTerms(node.fieldValue()) : null;
+		}
+
+		@Override
+		@Nullable public Void visitFuzzy(FuzzyNode node) {
+			return addTerms(node.term());
+		}
+
+		@Override
+		@Nullable public Void visitRange(RangeNode node) {
+			return null;
+		}
+
+		@Nullable private Void addTerms(String text) {
+			String phrase = SearchTextNormalizer.normalizeInline(text);
+			if (!phrase.isEmpty()) {
+				this.phrases.add(phrase);
+			}
+			return null;
+		}
+
+		@Nullable private Void visitChildren(Node node) {
+			node.children().forEach(child -> child.accept(this));
+			return null;
+		}
+
+	}
+
+	record QueryAndParams(String query, List<Object> params) {
 	}
 
 }
\ No newline at end of file
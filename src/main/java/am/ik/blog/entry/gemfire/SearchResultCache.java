@@ -0,0 +1,72 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.SearchCriteria;
+import am.ik.blog.entry.UpdatedCursor;
+import am.ik.pagination.CursorPage;
+import am.ik.pagination.CursorPageRequest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * LRU cache of pages ordered by update date. Pages are keyed by the canonical form of
+ * the search criteria, and each one is tagged with the write watermark of its tenant
+ * when the query started. A page is only returned while the watermark is unchanged, so
+ * that a hit is always consistent with the region without relying on a TTL.
+ */
+final class SearchResultCache {
+
+	private final Map<Key, Cached> cache;
+
+	SearchResultCache(int maxSize) {
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	@Nullable synchronized CursorPage<Entry, UpdatedCursor> get(Key key, long watermark) {
+		Cached cached = this.cache.get(key);
+		if (cached == null) {
+			return null;
+		}
+		if (cached.watermark() != watermark) {
+			this.cache.remove(key);
+			return null;
+		}
+		return cached.page();
+	}
+
+	synchronized void put(Key key, long watermark, CursorPage<Entry, UpdatedCursor> page) {
+		this.cache.put(key, new Cached(watermark, page));
+	}
+
+	synchronized int size() {
+		return this.cache.size();
+	}
+
+	static Key key(String tenantId, SearchCriteria searchCriteria, CursorPageRequest<UpdatedCursor> pageRequest) {
+		String query = StringUtils.hasText(searchCriteria.query())
+				? SearchCriteriaToOql.canonicalize(searchCriteria.query()) : "";
+		String tag = StringUtils.hasText(searchCriteria.tag()) ? searchCriteria.tag() : "";
+		List<String> categories = Objects.requireNonNullElse(searchCriteria.categories(), List.of());
+		return new Key(tenantId, query, tag, List.copyOf(categories), pageRequest.cursor(), pageRequest.pageSize(),
+				pageRequest.navigation());
+	}
+
+	record Key(String tenantId, String query, String tag, List<String> categories, @Nullable UpdatedCursor cursor,
+			int pageSize, CursorPageRequest.Navigation navigation) {
+
+	}
+
+	private record Cached(long watermark, CursorPage<Entry, UpdatedCursor> page) {
+
+	}
+
+}
@@ -0,0 +1,112 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Statistics of the entries of a tenant that {@link Bm25} needs, stored in the
+ * {@code SearchStatistics} region keyed by tenant id so that every application instance
+ * shares them. Like {@link LatestEntries}, they are updated in place on each write, so
+ * that a relevance search reads them with a single key lookup instead of counting the
+ * entries of the tenant. The number of entries containing each term is kept apart in
+ * {@link DocumentFrequencies}, under the watermark of these statistics.
+ * <p>
+ * Instances are treated as immutable so that they can be swapped with
+ * {@code Region#replace}. The watermark of the tenant read before the statistics were
+ * loaded is kept, so that a load racing with a write can tell that the write may be
+ * missing from it, and a write that the load has already counted is not counted again.
+ */
+public class SearchStatistics {
+
+	// number of entries
+	private long documentCount;
+
+	// sum of the number of terms of the entries
+	private long totalLength;
+
+	private long watermark;
+
+	public SearchStatistics() {
+		// Default constructor required for GemFire PDX serialization
+	}
+
+	SearchStatistics(long documentCount, long totalLength, long watermark) {
+		this.documentCount = documentCount;
+		this.totalLength = totalLength;
+		this.watermark = watermark;
+	}
+
+	public long getDocumentCount() {
+		return documentCount;
+	}
+
+	public long getTotalLength() {
+		return totalLength;
+	}
+
+	/**
+	 * @return the watermark of the tenant read before the statistics were loaded
+	 */
+	public long getWatermark() {
+		return watermark;
+	}
+
+	double averageLength() {
+		return this.documentCount > 0 ? (double) this.totalLength / this.documentCount : 0;
+	}
+
+	/**
+	 * Returns a copy in which the previous version of an entry is replaced with the new
+	 * one. The number of entries containing each term is updated separately.
+	 * @param previous the terms of the entry before the write, or {@code null} if it did
+	 * not exist
+	 * @param current the terms of the entry after the write, or {@code null} if it has
+	 * been deleted
+	 */
+	SearchStatistics with(@Nullable Terms previous, @Nullable Terms current) {
+		long documentCount = this.documentCount;
+		long totalLength = this.totalLength;
+		if (previous != null) {
+			documentCount--;
+			totalLength -= previous.length();
+		}
+		if (current != null) {
+			documentCount++;
+			totalLength += current.length();
+		}
+		return new SearchStatistics(documentCount, totalLength, this.watermark);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof SearchStatistics that)) {
+			return false;
+		}
+		return this.documentCount == that.documentCount && this.totalLength == that.totalLength
+				&& this.watermark == that.watermark;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.documentCount, this.totalLength, this.watermark);
+	}
+
+	/**
+	 * The terms of an entry as counted in the statistics.
+	 * @param length number of terms in the entry
+	 * @param terms distinct terms of the entry
+	 */
+	record Terms(int length, Collection<String> terms) {
+
+		static Terms of(EntryEntity entity) {
+			// null for entries written before the term statistics were kept
+			Map<String, Integer> termFrequencies = entity.getTermFrequencies();
+			return new Terms(entity.getSearchLength(), termFrequencies == null ? Set.of() : termFrequencies.keySet());
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+package am.ik.blog.entry.gemfire;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Normalizes text for full-text search. Both the stored search field and the query terms
+ * go through {@link #normalizeInline(String)} so that they can be compared with a plain
+ * {@code LIKE} on the server.
+ */
+final class SearchTextNormalizer {
+
+	private static final Pattern CODE_FENCE = Pattern.compile("(?m)^[ \\t]*(```|~~~).*$");
+
+	private static final Pattern IMAGE = Pattern.compile("!\\[([^\\]]*)]\\([^)]*\\)");
+
+	private static final Pattern LINK = Pattern.compile("\\[([^\\]]*)]\\([^)]*\\)");
+
+	private static final Pattern LINK_DEFINITION = Pattern.compile("(?m)^[ \\t]{0,3}\\[[^\\]]+]:[ \\t]*\\S+.*$");
+
+	private static final Pattern HTML_TAG = Pattern.compile("<[^>\\n]+>");
+
+	private static final Pattern HEADING = Pattern.compile("(?m)^[ \\t]{0,3}#{1,6}[ \\t]+");
+
+	private static final Pattern BLOCKQUOTE = Pattern.compile("(?m)^[ \\t]{0,3}(>[ \\t]?)+");
+
+	private static final Pattern HORIZONTAL_RULE = Pattern.compile("(?m)^[ \\t]*([-*_][ \\t]*){3,}$");
+
+	private static final Pattern LIST_MARKER = Pattern.compile("(?m)^[ \\t]*([-*+]|\\d+\\.)[ \\t]+");
+
+	private static final Pattern EMPHASIS = Pattern.compile("\\*{1,3}|_{2,3}|~~|`+");
+
+	private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+	private static final Pattern WILDCARD = Pattern.compile("[*?]");
+
+	private SearchTextNormalizer() {
+	}
+
+	/**
+	 * Applies NFKC normalization (which folds full-width alphanumerics and half-width
+	 * katakana), and lowercases the result.
+	 * @param text text to normalize
+	 * @return normalized text
+	 */
+	static String normalize(@Nullable String text) {
+		if (text == null || text.isEmpty()) {
+			return "";
+		}
+		return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Strips emphasis and code markers from the given text, then
+	 * {@link #normalize(String) normalizes} it and collapses whitespaces. Query terms and
+	 * phrases go through this too, so that {@code __init__} or {@code `code`} in a query
+	 * matches the text stored for them.
+	 * @param text text to normalize
+	 * @return normalized text without leading and trailing whitespaces
+	 */
+	static String normalizeInline(@Nullable String text) {
+		if (text == null || text.isEmpty()) {
+			return "";
+		}
+		return stripInline(text).trim();
+	}
+
+	/**
+	 * {@link #normalizeInline(String) Normalizes} the parts of a wildcard pattern between
+	 * the wildcards {@code *} and {@code ?}, which are kept as they are.
+	 * @param pattern wildcard pattern
+	 * @return normalized pattern
+	 */
+	static String normalizeWildcard(String pattern) {
+		StringBuilder normalized = new StringBuilder(pattern.length());
+		Matcher matcher = WILDCARD.matcher(pattern);
+		int start = 0;
+		while (matcher.find()) {
+			normalized.append(stripInline(pattern.substring(start, matcher.start()))).append(matcher.group());
+			start = matcher.end();
+		}
+		normalized.append(stripInline(pattern.substring(start)));
+		return normalized.toString().trim();
+	}
+
+	private static String stripInline(String text) {
+		return WHITESPACES.matcher(normalize(EMPHASIS.matcher(text).replaceAll(""))).replaceAll(" ");
+	}
+
+	/**
+	 * Strips markdown syntax from the given markdown, then
+	 * {@link #normalizeInline(String) normalizes} it.
+	 * @param markdown markdown body
+	 * @return normalized text for search
+	 */
+	static String fromMarkdown(@Nullable String markdown) {
+		if (markdown == null || markdown.isEmpty()) {
+			return "";
+		}
+		return normalizeInline(stripMarkdown(markdown));
+	}
+
+	/**
+	 * Strips markdown syntax, emphasis and code markers from the given markdown, and
+	 * collapses whitespaces, but keeps the case and the width of the characters. This is
+	 * the text snippets are cut from; it becomes the search text once
+	 * {@link #normalize(String) normalized}.
+	 * @param markdown markdown body
+	 * @return plain text for display
+	 */
+	static String plainTextFromMarkdown(@Nullable String markdown) {
+		if (markdown == null || markdown.isEmpty()) {
+			return "";
+		}
+		String text = EMPHASIS.matcher(stripMarkdown(markdown)).replaceAll("");
+		return WHITESPACES.matcher(text).replaceAll(" ").trim();
+	}
+
+	private static String stripMarkdown(String markdown) {
+		String text = CODE_FENCE.matcher(markdown).replaceAll("");
+		text = IMAGE.matcher(text).replaceAll("$1");
+		text = LINK.matcher(text).replaceAll("$1");
+		text = LINK_DEFINITION.matcher(text).replaceAll("");
+		text = HTML_TAG.matcher(text).replaceAll(" ");
+		text = HEADING.matcher(text).replaceAll("");
+		text = BLOCKQUOTE.matcher(text).replaceAll("");
+		text = HORIZONTAL_RULE.matcher(text).replaceAll("");
+		return LIST_MARKER.matcher(text).replaceAll("");
+	}
+
+}
@@ -0,0 +1,79 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits {@link SearchTextNormalizer#normalize(String) normalized} text into terms for
+ * relevance scoring. Runs of letters and digits become one term, while Japanese and
+ * Chinese text, which is not separated by spaces, is split into overlapping bigrams.
+ */
+final class SearchTokenizer {
+
+	private static final int PROLONGED_SOUND_MARK = 0x30FC;
+
+	private SearchTokenizer() {
+	}
+
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		StringBuilder word = new StringBuilder();
+		List<Integer> ideographs = new ArrayList<>();
+		text.codePoints().forEach(codePoint -> {
+			if (isIdeographic(codePoint)) {
+				flushWord(word, tokens);
+				ideographs.add(codePoint);
+			}
+			else if (Character.isLetterOrDigit(codePoint)) {
+				flushIdeographs(ideographs, tokens);
+				word.appendCodePoint(codePoint);
+			}
+			else {
+				flushWord(word, tokens);
+				flushIdeographs(ideographs, tokens);
+			}
+		});
+		flushWord(word, tokens);
+		flushIdeographs(ideographs, tokens);
+		return tokens;
+	}
+
+	static Map<String, Integer> termFrequencies(List<String> tokens) {
+		Map<String, Integer> frequencies = new HashMap<>();
+		for (String token : tokens) {
+			frequencies.merge(token, 1, Integer::sum);
+		}
+		return frequencies;
+	}
+
+	private static boolean isIdeographic(int codePoint) {
+		if (codePoint == PROLONGED_SOUND_MARK) {
+			return true;
+		}
+		Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+		return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+				|| script == Character.UnicodeScript.KATAKANA;
+	}
+
+	private static void flushWord(StringBuilder word, List<String> tokens) {
+		if (!word.isEmpty()) {
+			tokens.add(word.toString());
+			word.setLength(0);
+		}
+	}
+
+	private static void flushIdeographs(List<Integer> ideographs, List<String> tokens) {
+		if (ideographs.size() == 1) {
+			tokens.add(Character.toString(ideographs.getFirst()));
+		}
+		for (int i = 0; i + 1 < ideographs.size(); i++) {
+			tokens.add(new StringBuilder().appendCodePoint(ideographs.get(i))
+				.appendCodePoint(ideographs.get(i + 1))
+				.toString());
+		}
+		ideographs.clear();
+	}
+
+}
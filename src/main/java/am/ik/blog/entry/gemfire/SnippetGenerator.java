@@ -0,0 +1,190 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.entry.Snippet;
+import am.ik.blog.entry.Snippet.Highlight;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Generates a {@link Snippet} of bounded length from the plain text of an entry. The
+ * phrases are found in the {@link SearchTextNormalizer#normalize(String) normalized} form
+ * of the text, and the snippet is cut from the text as it is displayed. The window that
+ * covers the most distinct query phrases is chosen.
+ */
+final class SnippetGenerator {
+
+	static final int MAX_LENGTH = 160;
+
+	static final int MAX_MATCHES = 256;
+
+	// number of characters shown before the first match in the window
+	private static final int CONTEXT_LENGTH = 40;
+
+	// how far a window boundary may move to avoid cutting a word
+	private static final int WORD_BOUNDARY_LENGTH = 15;
+
+	private static final String ELLIPSIS = "…";
+
+	private SnippetGenerator() {
+	}
+
+	/**
+	 * @param text plain text to display
+	 * @param phrases normalized words and phrases to highlight
+	 * @return snippet
+	 */
+	static Snippet generate(String text, List<String> phrases) {
+		List<Match> matches = findMatches(Normalized.of(text), phrases);
+		int start = 0;
+		int end = Math.min(text.length(), MAX_LENGTH);
+		if (text.length() > MAX_LENGTH) {
+			int bestCoverage = 0;
+			for (Match match : matches) {
+				int windowStart = Math.min(Math.max(0, match.start() - CONTEXT_LENGTH), text.length() - MAX_LENGTH);
+				int coverage = coverage(matches, windowStart, windowStart + MAX_LENGTH);
+				if (coverage > bestCoverage) {
+					bestCoverage = coverage;
+					start = windowStart;
+				}
+			}
+			end = start + MAX_LENGTH;
+			start = adjustStart(text, start, matches);
+			end = adjustEnd(text, end, matches);
+		}
+		String prefix = start > 0 ? ELLIPSIS : "";
+		String suffix = end < text.length() ? ELLIPSIS : "";
+		List<Highlight> highlights = new ArrayList<>();
+		for (Match match : matches) {
+			if (match.start() < start || match.end() > end) {
+				continue;
+			}
+			int highlightStart = match.start() - start + prefix.length();
+			int highlightEnd = match.end() - start + prefix.length();
+			if (!highlights.isEmpty() && highlights.getLast().end() >= highlightStart) {
+				Highlight last = highlights.removeLast();
+				highlights.add(new Highlight(last.start(), Math.max(last.end(), highlightEnd)));
+			}
+			else {
+				highlights.add(new Highlight(highlightStart, highlightEnd));
+			}
+		}
+		return new Snippet(prefix + text.substring(start, end) + suffix, List.copyOf(highlights));
+	}
+
+	/**
+	 * @return the matches in the displayed text
+	 */
+	private static List<Match> findMatches(Normalized normalized, List<String> phrases) {
+		String text = normalized.text();
+		List<Match> matches = new ArrayList<>();
+		for (int i = 0; i < phrases.size(); i++) {
+			String phrase = phrases.get(i);
+			if (phrase.isEmpty()) {
+				continue;
+			}
+			int index = text.indexOf(phrase);
+			while (index >= 0 && matches.size() < MAX_MATCHES) {
+				int end = index + phrase.length();
+				matches.add(new Match(normalized.starts()[index], normalized.ends()[end - 1], i));
+				index = text.indexOf(phrase, end);
+			}
+		}
+		matches.sort(Comparator.comparingInt(Match::start).thenComparingInt(Match::end));
+		return matches;
+	}
+
+	private static int coverage(List<Match> matches, int start, int end) {
+		BitSet phrases = new BitSet();
+		for (Match match : matches) {
+			if (match.start() >= start && match.end() <= end) {
+				phrases.set(match.phrase());
+			}
+		}
+		return phrases.cardinality();
+	}
+
+	private static int adjustStart(String text, int start, List<Match> matches) {
+		if (start == 0) {
+			return start;
+		}
+		int limit = Math.min(start + WORD_BOUNDARY_LENGTH, text.length());
+		for (Match match : matches) {
+			if (match.start() >= start) {
+				limit = Math.min(limit, match.start());
+				break;
+			}
+		}
+		int space = text.indexOf(' ', start);
+		if (space >= 0 && space < limit) {
+			return space + 1;
+		}
+		return Character.isLowSurrogate(text.charAt(start)) ? start + 1 : start;
+	}
+
+	private static int adjustEnd(String text, int end, List<Match> matches) {
+		if (end >= text.length()) {
+			return text.length();
+		}
+		int limit = end - WORD_BOUNDARY_LENGTH;
+		for (Match match : matches) {
+			if (match.end() <= end) {
+				limit = Math.max(limit, match.end());
+			}
+		}
+		int space = text.lastIndexOf(' ', end);
+		if (space > limit) {
+			return space;
+		}
+		return Character.isLowSurrogate(text.charAt(end)) ? end - 1 : end;
+	}
+
+	private record Match(int start, int end, int phrase) {
+
+	}
+
+	/**
+	 * Normalized form of a text, with the range of the text each of its characters comes
+	 * from. Each grapheme cluster is normalized on its own, so that a character that is
+	 * folded, expanded or composed maps back to the characters it was made of, and
+	 * whitespaces are collapsed as in the search text.
+	 */
+	private record Normalized(String text, int[] starts, int[] ends) {
+
+		static Normalized of(String text) {
+			StringBuilder normalized = new StringBuilder(text.length());
+			int[] starts = new int[text.length()];
+			int[] ends = new int[text.length()];
+			BreakIterator clusters = BreakIterator.getCharacterInstance(Locale.ROOT);
+			clusters.setText(text);
+			int start = clusters.first();
+			for (int end = clusters.next(); end != BreakIterator.DONE; start = end, end = clusters.next()) {
+				String cluster = SearchTextNormalizer.normalize(text.substring(start, end));
+				for (int i = 0; i < cluster.length(); i++) {
+					char c = cluster.charAt(i);
+					if (Character.isWhitespace(c)) {
+						if (normalized.isEmpty() || normalized.charAt(normalized.length() - 1) == ' ') {
+							continue;
+						}
+						c = ' ';
+					}
+					int index = normalized.length();
+					if (index == starts.length) {
+						starts = Arrays.copyOf(starts, index * 2 + 1);
+						ends = Arrays.copyOf(ends, index * 2 + 1);
+					}
+					starts[index] = start;
+					ends[index] = end;
+					normalized.append(c);
+				}
+			}
+			return new Normalized(normalized.toString(), starts, ends);
+		}
+
+	}
+
+}
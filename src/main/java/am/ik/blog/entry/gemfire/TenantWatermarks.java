@@ -0,0 +1,57 @@
+package am.ik.blog.entry.gemfire;
+
+import java.time.InstantSource;
+import org.apache.geode.cache.Region;
+
+/**
+ * Per-tenant write watermarks, stored in the {@code TenantWatermark} region so that all
+ * application instances see the same value. A watermark is the epoch millis of the last
+ * write to the entries of the tenant, and strictly increases on every write so that
+ * anything derived from the entries can be tagged with it and checked for staleness with
+ * a single key lookup.
+ */
+final class TenantWatermarks {
+
+	private static final int MAX_RETRIES = 100;
+
+	private final Region<String, Long> region;
+
+	private final InstantSource instantSource;
+
+	TenantWatermarks(Region<String, Long> region, InstantSource instantSource) {
+		this.region = region;
+		this.instantSource = instantSource;
+	}
+
+	/**
+	 * @return the watermark of the tenant, or {@code 0} if the tenant has not been written
+	 */
+	long get(String tenantId) {
+		Long watermark = this.region.get(tenantId);
+		return watermark == null ? 0 : watermark;
+	}
+
+	/**
+	 * Advances the watermark of the tenant past both the current time and the current
+	 * watermark. Concurrent writers are serialized with a compare-and-set so that no two
+	 * writes share a watermark.
+	 * @return the watermark before and after the advance
+	 */
+	Advance advance(String tenantId) {
+		for (int i = 0; i < MAX_RETRIES; i++) {
+			Long current = this.region.get(tenantId);
+			long next = Math.max(this.instantSource.millis(), current == null ? 0 : current + 1);
+			boolean updated = current == null ? this.region.putIfAbsent(tenantId, next) == null
+					: this.region.replace(tenantId, current, next);
+			if (updated) {
+				return new Advance(current == null ? 0 : current, next);
+			}
+		}
+		throw new IllegalStateException("Could not advance the watermark of tenant " + tenantId);
+	}
+
+	record Advance(long previous, long current) {
+
+	}
+
+}
@@ -0,0 +1,43 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the first {@code k} elements in the given order out of a stream of elements in
+ * {@code O(n log k)} time and {@code O(k)} space, instead of sorting all of them.
+ */
+final class TopK<T> {
+
+	private final int k;
+
+	private final Comparator<? super T> comparator;
+
+	// the head is the last element in the order among the kept ones
+	private final PriorityQueue<T> heap;
+
+	TopK(int k, Comparator<? super T> comparator) {
+		this.k = k;
+		this.comparator = comparator;
+		this.heap = new PriorityQueue<>(k + 1, comparator.reversed());
+	}
+
+	void offer(T element) {
+		if (this.heap.size() < this.k) {
+			this.heap.add(element);
+		}
+		else if (this.k > 0 && this.comparator.compare(element, this.heap.peek()) < 0) {
+			this.heap.poll();
+			this.heap.add(element);
+		}
+	}
+
+	List<T> toSortedList() {
+		List<T> list = new ArrayList<>(this.heap);
+		list.sort(this.comparator);
+		return list;
+	}
+
+}
@@ -10,9 +10,14 @@ import am.ik.blog.github.CommitParameter;
 import am.ik.blog.github.File;
 import am.ik.blog.github.GitCommitter;
 import am.ik.blog.github.GitHubClient;
+import am.ik.blog.github.HedgedReads;
+import am.ik.blog.github.RequestPriority;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,12 +38,15 @@ public class GithubEntryFetcher implements EntryFetcher {
 
 	private final HttpServiceProxyRegistry registry;
 
+	private final HedgedReads hedgedReads;
+
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
-	public GithubEntryFetcher(EntryParser entryParser, HttpServiceProxyRegistry registry) {
+	public GithubEntryFetcher(EntryParser entryParser, HttpServiceProxyRegistry registry, HedgedReads hedgedReads) {
 		this.entryParser = entryParser;
 		this.gitHubClient = registry.getClient("github", GitHubClient.class);
 		this.registry = registry;
+		this.hedgedReads = hedgedReads;
 	}
 
 	@Override
@@ -52,26 +60,57 @@ public class GithubEntryFetcher implements EntryFetcher {
 		}
 		Long entryId = Entry.parseId(Paths.get(path).getFileName().toString());
 		EntryKey entryKey = new EntryKey(entryId, tenantId);
-		ResponseEntity<File> response = gitHubClient.getFile(owner, repo, path);
-		HttpStatusCode statusCode = response.getStatusCode();
-		if (statusCode == HttpStatus.OK) {
-			File file = response.getBody();
-			Assert.notNull(file, "File must not be null");
-			logger.info("Retrieved file: {}", file.url());
-			List<Commit> commits = gitHubClient.getCommits(owner, repo, new CommitParameter().path(path).queryParams());
-			Author created = commits.isEmpty() ? Author.builder().name("unknown").build() : toAuthor(commits.getLast());
-			Author updated = commits.isEmpty() ? Author.builder().name("unknown").build()
-					: toAuthor(commits.getFirst());
-			return Optional.of(this.entryParser.fromMarkdown(entryKey, file.decode(), created, updated).build());
+		// the commits are looked up while the file is, and the lookup is cancelled if the
+		// file cannot be retrieved
+		Callable<List<Commit>> getCommits = () -> this.hedgedReads.read("getCommits",
+				() -> gitHubClient.getCommits(owner, repo, new CommitParameter().path(path).queryParams()));
+		FutureTask<List<Commit>> commitsTask = new FutureTask<>(RequestPriority.propagate(getCommits));
+		Thread.ofVirtual().name("github-commits").start(commitsTask);
+		try {
+			ResponseEntity<File> response = this.hedgedReads.read("getFile",
+					() -> gitHubClient.getFile(owner, repo, path));
+			HttpStatusCode statusCode = response.getStatusCode();
+			if (statusCode == HttpStatus.OK) {
+				File file = response.getBody();
+				Assert.notNull(file, "File must not be null");
+				logger.info("Retrieved file: {}", file.url());
+				List<Commit> commits = join(commitsTask);
+				Author created = commits.isEmpty() ? Author.builder().name("unknown").build()
+						: toAuthor(commits.getLast());
+				Author updated = commits.isEmpty() ? Author.builder().name("unknown").build()
+						: toAuthor(commits.getFirst());
+				return Optional.of(this.entryParser.fromMarkdown(entryKey, file.decode(), created, updated)
+					.blobSha(file.sha())
+					.build());
+			}
+			else if (statusCode.is4xxClientError()) {
+				logger.info("Failed to retrieve file statusCode: {}, tenantId: {}, owner: {}, repo: {}, path: {}",
+						statusCode.value(), tenantId, owner, repo, path);
+				return Optional.empty();
+			}
+			else {
+				throw new ResponseStatusException(statusCode,
+						"Unexpected response returned from Github File API :" + statusCode);
+			}
 		}
-		else if (statusCode.is4xxClientError()) {
-			logger.info("Failed to retrieve file statusCode: {}, tenantId: {}, owner: {}, repo: {}, path: {}",
-					statusCode.value(), tenantId, owner, repo, path);
-			return Optional.empty();
+		finally {
+			commitsTask.cancel(true);
 		}
-		else {
-			throw new ResponseStatusException(statusCode,
-					"Unexpected response returned from Github File API :" + statusCode);
+	}
+
+	private static <T> T join(FutureTask<T> task) {
+		try {
+			return task.get();
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
 		}
 	}
 
@@ -0,0 +1,289 @@
+package am.ik.blog.entry.github;
+
+import am.ik.blog.BlogProps;
+import am.ik.blog.GitHubProps;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryRepository;
+import am.ik.blog.entry.Leases;
+import am.ik.blog.github.GitHubClient;
+import am.ik.blog.github.GitTree;
+import am.ik.blog.github.GitTreeEntry;
+import am.ik.blog.github.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.service.registry.HttpServiceProxyRegistry;
+
+/**
+ * Repairs the entries that webhooks failed to update, by periodically comparing the blob
+ * SHAs of the {@code content} tree on GitHub with the ones stored with the entries. The
+ * tree is read with a single request per tenant, and only the entries that are missing,
+ * differ, or no longer exist on GitHub are fetched again. Entries stored without a blob
+ * SHA did not come from GitHub, or were stored before the SHA was kept, so they are only
+ * refreshed when they exist on GitHub and are never deleted. A lease makes only one
+ * instance reconcile per interval. The number of drifted entries is counted in
+ * {@code entry.reconciliation.drift}, tagged with the tenant and the kind of drift.
+ */
+@Component
+@ConditionalOnProperty(prefix = "blog.reconciliation", name = "enabled", havingValue = "true")
+public class GithubEntryReconciler implements SmartLifecycle {
+
+	static final String LEASE_NAME = "entry-reconciliation";
+
+	static final String CONTENT_TREE = "HEAD:content";
+
+	static final int BATCH_SIZE = 100;
+
+	private static final Pattern ENTRY_FILE = Pattern.compile("\\d+\\.md");
+
+	private final Logger logger = LoggerFactory.getLogger(GithubEntryReconciler.class);
+
+	private final GithubEntryFetcher entryFetcher;
+
+	private final EntryRepository entryRepository;
+
+	private final Leases leases;
+
+	private final GitHubProps gitHubProps;
+
+	private final HttpServiceProxyRegistry registry;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Duration interval;
+
+	@Nullable private volatile ScheduledExecutorService scheduler;
+
+	public GithubEntryReconciler(GithubEntryFetcher entryFetcher, EntryRepository entryRepository, Leases leases,
+			GitHubProps gitHubProps, HttpServiceProxyRegistry registry, MeterRegistry meterRegistry,
+			BlogProps blogProps) {
+		this.entryFetcher = entryFetcher;
+		this.entryRepository = entryRepository;
+		this.leases = leases;
+		this.gitHubProps = gitHubProps;
+		this.registry = registry;
+		this.meterRegistry = meterRegistry;
+		this.interval = blogProps.getReconciliation().getInterval();
+	}
+
+	@Override
+	public void start() {
+		ScheduledExecutorService scheduler = Executors
+			.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("entry-reconciler").daemon(true).factory());
+		scheduler.scheduleWithFixedDelay(this::reconcileAll, this.interval.toMillis(), this.interval.toMillis(),
+				TimeUnit.MILLISECONDS);
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public void stop() {
+		ScheduledExecutorService scheduler = this.scheduler;
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			this.scheduler = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.scheduler != null;
+	}
+
+	/**
+	 * Reconciles all the tenants, unless another instance has done so within the interval.
+	 */
+	void reconcileAll() {
+		// a little shorter than the interval, so that the lease has run out on the next run
+		if (!this.leases.tryAcquire(LEASE_NAME, this.interval.minus(this.interval.dividedBy(10)))) {
+			logger.debug("Skipped reconciliation, another instance holds the lease");
+			return;
+		}
+		List<@Nullable String> tenantIds = new ArrayList<>();
+		tenantIds.add(null);
+		tenantIds.addAll(this.gitHubProps.getTenants().keySet());
+		// yields to cache-aside fetches when the rate limit runs low
+		RequestPriority.runInBackground(() -> {
+			for (@Nullable String tenantId : tenantIds) {
+				try {
+					reconcile(tenantId);
+				}
+				catch (RuntimeException e) {
+					logger.warn("Failed to reconcile tenant {}", tenantId, e);
+				}
+			}
+		});
+	}
+
+	Drift reconcile(@Nullable String tenantId) {
+		String owner = getOwner(tenantId);
+		String repo = getRepo(tenantId);
+		ResponseEntity<GitTree> response = getGitHubClient(tenantId).getTree(owner, repo, CONTENT_TREE);
+		GitTree tree = response.getBody();
+		if (response.getStatusCode() != HttpStatus.OK || tree == null) {
+			logger.warn("Failed to retrieve the content tree statusCode: {}, tenantId: {}, owner: {}, repo: {}",
+					response.getStatusCode().value(), tenantId, owner, repo);
+			return Drift.NONE;
+		}
+		Map<Long, String> remote = new HashMap<>();
+		for (GitTreeEntry entry : tree.tree()) {
+			if (entry.isBlob() && entry.sha() != null && ENTRY_FILE.matcher(entry.path()).matches()) {
+				remote.put(Entry.parseId(entry.path()), entry.sha());
+			}
+		}
+		if (tree.truncated()) {
+			logger.warn("The content tree of {}/{} is truncated, no entries will be deleted", owner, repo);
+		}
+		Drift drift = Drift.of(remote, this.entryRepository.findBlobShas(tenantId), !tree.truncated());
+		String tenantTag = EntryKey.requireNonNullTenantId(tenantId);
+		countDrift(tenantTag, "missing", drift.missing());
+		countDrift(tenantTag, "mismatched", drift.mismatched());
+		countDrift(tenantTag, "unverified", drift.unverified());
+		countDrift(tenantTag, "extra", drift.extra());
+		if (drift.isEmpty()) {
+			logger.info("No drift in tenant {}", tenantId);
+			return drift;
+		}
+		logger.info("Reconciling tenant {}: missing={}, mismatched={}, unverified={}, extra={}", tenantId,
+				drift.missing(), drift.mismatched(), drift.unverified(), drift.extra());
+		List<Entry> fetched = new ArrayList<>(BATCH_SIZE);
+		for (Long entryId : drift.all()) {
+			// fetched again even if it was not in the tree, in case it was created since
+			Optional<Entry> entry = this.entryFetcher.fetch(tenantId, owner, repo,
+					"content/%s.md".formatted(Entry.formatId(entryId)));
+			if (entry.isPresent()) {
+				fetched.add(entry.get());
+				if (fetched.size() == BATCH_SIZE) {
+					this.entryRepository.saveAll(List.copyOf(fetched));
+					fetched.clear();
+				}
+			}
+			else if (drift.mismatched().contains(entryId) || drift.extra().contains(entryId)) {
+				// only entries known to come from GitHub are deleted
+				this.entryRepository.deleteById(new EntryKey(entryId, tenantId));
+			}
+		}
+		if (!fetched.isEmpty()) {
+			this.entryRepository.saveAll(fetched);
+		}
+		return drift;
+	}
+
+	private void countDrift(String tenantId, String type, List<Long> entryIds) {
+		Counter.builder("entry.reconciliation.drift")
+			.description("Number of entries found out of sync with GitHub")
+			.tag("tenant", tenantId)
+			.tag("type", type)
+			.register(this.meterRegistry)
+			.increment(entryIds.size());
+	}
+
+	private String getOwner(@Nullable String tenantId) {
+		if (EntryKey.isDefaultTenant(tenantId)) {
+			return this.gitHubProps.getContentOwner();
+		}
+		return getTenantProps(tenantId).getContentOwner();
+	}
+
+	private String getRepo(@Nullable String tenantId) {
+		if (EntryKey.isDefaultTenant(tenantId)) {
+			return this.gitHubProps.getContentRepo();
+		}
+		return getTenantProps(tenantId).getContentRepo();
+	}
+
+	private GitHubProps getTenantProps(@Nullable String tenantId) {
+		return Objects.requireNonNull(this.gitHubProps.getTenants().get(tenantId),
+				() -> "Could not find tenant definition: " + tenantId);
+	}
+
+	private GitHubClient getGitHubClient(@Nullable String tenantId) {
+		if (EntryKey.isDefaultTenant(tenantId)) {
+			return this.registry.getClient("github", GitHubClient.class);
+		}
+		return this.registry.getClient("github.%s".formatted(tenantId), GitHubClient.class);
+	}
+
+	/**
+	 * Entries out of sync with GitHub, by entry ID.
+	 *
+	 * @param missing entries on GitHub that are not stored
+	 * @param mismatched stored entries whose blob differs from GitHub
+	 * @param unverified entries on GitHub that are stored without a blob SHA
+	 * @param extra stored entries that are not on GitHub, among the ones with a blob SHA
+	 */
+	record Drift(List<Long> missing, List<Long> mismatched, List<Long> unverified, List<Long> extra) {
+
+		static final Drift NONE = new Drift(List.of(), List.of(), List.of(), List.of());
+
+		/**
+		 * @param remote blob SHAs on GitHub
+		 * @param local stored blob SHAs
+		 * @param complete whether the remote SHAs are complete, otherwise no entries are
+		 * considered extra
+		 */
+		static Drift of(Map<Long, String> remote, Map<Long, @Nullable String> local, boolean complete) {
+			List<Long> missing = new ArrayList<>();
+			List<Long> mismatched = new ArrayList<>();
+			List<Long> unverified = new ArrayList<>();
+			List<Long> extra = new ArrayList<>();
+			remote.forEach((entryId, sha) -> {
+				if (!local.containsKey(entryId)) {
+					missing.add(entryId);
+					return;
+				}
+				String localSha = local.get(entryId);
+				if (localSha == null) {
+					unverified.add(entryId);
+				}
+				else if (!sha.equals(localSha)) {
+					mismatched.add(entryId);
+				}
+			});
+			if (complete) {
+				local.forEach((entryId, sha) -> {
+					if (sha != null && !remote.containsKey(entryId)) {
+						extra.add(entryId);
+					}
+				});
+			}
+			missing.sort(null);
+			mismatched.sort(null);
+			unverified.sort(null);
+			extra.sort(null);
+			return new Drift(missing, mismatched, unverified, extra);
+		}
+
+		boolean isEmpty() {
+			return this.missing.isEmpty() && this.mismatched.isEmpty() && this.unverified.isEmpty()
+					&& this.extra.isEmpty();
+		}
+
+		List<Long> all() {
+			return Stream.of(this.missing, this.mismatched, this.unverified, this.extra)
+				.flatMap(List::stream)
+				.toList();
+		}
+
+	}
+
+}
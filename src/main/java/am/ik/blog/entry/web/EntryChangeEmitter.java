@@ -0,0 +1,151 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.entry.EntryChange;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jspecify.annotations.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Sends the changes delivered to one subscriber of the change stream over Server-Sent
+ * Events. Changes are offered without blocking the caller and buffered up to a fixed
+ * number per connection; they are written by a single drain at a time on the given
+ * executor, so that a slow client only delays itself. A client that falls behind by more
+ * than the buffer is sent an {@code overflow} event and disconnected, and resumes from
+ * the change feed with the ID of the last change it received.
+ */
+final class EntryChangeEmitter {
+
+	static final String CHANGE_EVENT = "change";
+
+	static final String OVERFLOW_EVENT = "overflow";
+
+	private final SseEmitter sseEmitter;
+
+	private final Queue<EntryChange> buffer;
+
+	private final Executor executor;
+
+	private final AtomicInteger wip = new AtomicInteger();
+
+	private volatile boolean started;
+
+	private volatile boolean overflowed;
+
+	private volatile boolean heartbeatDue;
+
+	private volatile boolean closed;
+
+	private final AtomicReference<@Nullable Runnable> onClose = new AtomicReference<>();
+
+	EntryChangeEmitter(SseEmitter sseEmitter, int bufferSize, Executor executor) {
+		this.sseEmitter = sseEmitter;
+		this.buffer = new ArrayBlockingQueue<>(bufferSize);
+		this.executor = executor;
+		sseEmitter.onCompletion(this::close);
+		sseEmitter.onTimeout(this::close);
+		sseEmitter.onError(e -> close());
+	}
+
+	/**
+	 * Registers the callback run once when the connection is closed for any reason.
+	 */
+	void onClose(Runnable onClose) {
+		this.onClose.set(onClose);
+		if (this.closed) {
+			close();
+		}
+	}
+
+	/**
+	 * Buffers the change. Never blocks.
+	 */
+	void offer(EntryChange change) {
+		if (this.closed || this.overflowed) {
+			return;
+		}
+		if (!this.buffer.offer(change)) {
+			this.overflowed = true;
+			this.buffer.clear();
+		}
+		schedule();
+	}
+
+	/**
+	 * Sends the change right away, for changes replayed before {@link #start()}.
+	 */
+	void send(EntryChange change) throws IOException {
+		this.sseEmitter.send(event(change));
+	}
+
+	/**
+	 * Starts sending the buffered changes and the ones offered from now on.
+	 */
+	void start() {
+		this.started = true;
+		schedule();
+	}
+
+	void heartbeat() {
+		this.heartbeatDue = true;
+		schedule();
+	}
+
+	boolean isClosed() {
+		return this.closed;
+	}
+
+	private void schedule() {
+		if (this.started && !this.closed) {
+			this.executor.execute(this::drain);
+		}
+	}
+
+	private void drain() {
+		if (this.wip.getAndIncrement() != 0) {
+			return;
+		}
+		do {
+			try {
+				if (this.overflowed) {
+					this.sseEmitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(""));
+					this.sseEmitter.complete();
+					close();
+					return;
+				}
+				EntryChange change;
+				while (!this.closed && (change = this.buffer.poll()) != null) {
+					send(change);
+				}
+				if (this.heartbeatDue && !this.closed) {
+					this.heartbeatDue = false;
+					this.sseEmitter.send(SseEmitter.event().comment("heartbeat"));
+				}
+			}
+			catch (IOException | IllegalStateException e) {
+				// the client has gone, or the emitter has already been completed
+				close();
+				return;
+			}
+		}
+		while (this.wip.decrementAndGet() != 0);
+	}
+
+	private void close() {
+		this.closed = true;
+		this.buffer.clear();
+		Runnable callback = this.onClose.getAndSet(null);
+		if (callback != null) {
+			callback.run();
+		}
+	}
+
+	private static SseEmitter.SseEventBuilder event(EntryChange change) {
+		return SseEmitter.event().id(change.toCursor().toString()).name(CHANGE_EVENT).data(change);
+	}
+
+}
@@ -0,0 +1,122 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.entry.ChangeCursor;
+import am.ik.blog.entry.EntryChange;
+import am.ik.blog.entry.EntryChangeStream;
+import am.ik.blog.entry.EntryService;
+import am.ik.pagination.CursorPage;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.InstantSource;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * Streams the change feed over Server-Sent Events, for clients that would otherwise poll
+ * {@code GET /changes}. Each event carries an {@link EntryChange} and its cursor as the
+ * event ID, so that a reconnecting client resumes with {@code Last-Event-ID}.
+ */
+@RestController
+public class EntryChangeStreamController implements DisposableBean {
+
+	static final int BUFFER_SIZE = 256;
+
+	static final int MAX_STREAMS = 1000;
+
+	static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+	static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+	private final EntryService entryService;
+
+	private final InstantSource instantSource;
+
+	private final Set<EntryChangeEmitter> emitters = ConcurrentHashMap.newKeySet();
+
+	private final ExecutorService sendExecutor = Executors.newCachedThreadPool(Thread.ofPlatform()
+		.name("change-stream-", 0)
+		.daemon(true)
+		.factory());
+
+	private final ScheduledExecutorService heartbeatExecutor = Executors
+		.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("change-stream-heartbeat").daemon(true).factory());
+
+	public EntryChangeStreamController(EntryService entryService, InstantSource instantSource) {
+		this.entryService = entryService;
+		this.instantSource = instantSource;
+		this.heartbeatExecutor.scheduleWithFixedDelay(() -> this.emitters.forEach(EntryChangeEmitter::heartbeat),
+				HEARTBEAT_INTERVAL.toMillis(), HEARTBEAT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@GetMapping(path = { "/changes", "/tenants/{tenantId}/changes" }, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamChanges(@PathVariable(required = false) @Nullable String tenantId,
+			@RequestParam(required = false) @Nullable String since,
+			@RequestHeader(name = "Last-Event-ID", required = false) @Nullable String lastEventId) {
+		ChangeCursor sinceCursor = EntryController.parseSince(Objects.requireNonNullElse(lastEventId, since),
+				this.instantSource);
+		if (this.emitters.size() >= MAX_STREAMS) {
+			throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Too many change streams");
+		}
+		SseEmitter sseEmitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+		EntryChangeEmitter emitter = new EntryChangeEmitter(sseEmitter, BUFFER_SIZE, this.sendExecutor);
+		// subscribe before replaying, so that nothing written in between is missed
+		EntryChangeStream.Subscription subscription = this.entryService.subscribeChanges(tenantId, emitter::offer);
+		this.emitters.add(emitter);
+		emitter.onClose(() -> {
+			subscription.close();
+			this.emitters.remove(emitter);
+		});
+		if (sinceCursor != null) {
+			try {
+				replay(tenantId, sinceCursor, emitter);
+			}
+			catch (IOException e) {
+				sseEmitter.completeWithError(e);
+				return sseEmitter;
+			}
+		}
+		emitter.start();
+		return sseEmitter;
+	}
+
+	private void replay(@Nullable String tenantId, ChangeCursor since, EntryChangeEmitter emitter)
+			throws IOException {
+		ChangeCursor cursor = since;
+		boolean hasNext = true;
+		while (hasNext && !emitter.isClosed()) {
+			// unlike the polled feed, no settle time is needed: a write still being stored is
+			// delivered by the subscription taken before the replay
+			CursorPage<EntryChange, ChangeCursor> page = this.entryService.findChanges(tenantId, cursor, null,
+					EntryService.MAX_PAGE_SIZE);
+			for (EntryChange change : page.content()) {
+				emitter.send(change);
+			}
+			cursor = Objects.requireNonNullElse(page.head(), cursor);
+			hasNext = page.hasNext();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.heartbeatExecutor.shutdownNow();
+		this.sendExecutor.shutdownNow();
+	}
+
+}
@@ -1,25 +1,38 @@
 package am.ik.blog.entry.web;
 
+import am.ik.blog.BlogProps;
 import am.ik.blog.entry.Author;
 import am.ik.blog.entry.Category;
+import am.ik.blog.entry.ChangeCursor;
 import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryChange;
+import am.ik.blog.entry.EntryCursor;
 import am.ik.blog.entry.EntryKey;
 import am.ik.blog.entry.EntryParser;
 import am.ik.blog.entry.EntryService;
+import am.ik.blog.entry.EntrySort;
+import am.ik.blog.entry.Facet;
 import am.ik.blog.entry.FrontMatter;
+import am.ik.blog.entry.RelevanceCursor;
 import am.ik.blog.entry.SearchCriteria;
+import am.ik.blog.entry.SearchResultPage;
+import am.ik.blog.entry.Snippet;
 import am.ik.blog.entry.Tag;
 import am.ik.blog.entry.TagAndCount;
+import am.ik.blog.entry.UpdatedCursor;
 import am.ik.pagination.CursorPage;
 import am.ik.pagination.CursorPageRequest;
+import am.ik.pagination.CursorPageRequest.Navigation;
 import am.ik.query.parser.QueryParseException;
 import org.jspecify.annotations.Nullable;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -32,51 +45,165 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.time.InstantSource;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.GONE;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 @RestController
 public class EntryController {
 
+	private static final long REPRESENTATION_CACHE_MAX_BYTES = 64 * 1024 * 1024;
+
 	private final EntryService entryService;
 
 	private final EntryParser entryParser;
 
 	private final InstantSource instantSource;
 
-	public EntryController(EntryService entryService, EntryParser entryParser, InstantSource instantSource) {
+	private final EntryRepresentationCache representationCache;
+
+	private final BlogProps.Changes changes;
+
+	public EntryController(EntryService entryService, EntryParser entryParser, InstantSource instantSource,
+			JsonMapper jsonMapper, BlogProps blogProps) {
 		this.entryService = entryService;
 		this.entryParser = entryParser;
 		this.instantSource = instantSource;
+		this.changes = blogProps.getChanges();
+		this.representationCache = new EntryRepresentationCache(jsonMapper, REPRESENTATION_CACHE_MAX_BYTES);
 	}
 
 	@GetMapping(path = { "/entries", "/tenants/{tenantId}/entries" })
-	public CursorPage<Entry, Instant> getEntries(@PathVariable(required = false) String tenantId,
-			@ModelAttribute SearchCriteria criteria, CursorPageRequest<Instant> pageRequest) {
-		if (criteria.isDefault() && pageRequest.pageSize() == EntryService.DEFAULT_PAGE_SIZE
-				&& pageRequest.cursor() == null) {
-			// Default request
-			return this.entryService.findLatest(tenantId);
+	@Nullable public ResponseEntity<?> getEntries(@PathVariable(required = false) String tenantId,
+			@ModelAttribute SearchCriteria criteria, CursorPageRequest<EntryCursor> cursorPageRequest,
+			@RequestParam(required = false) @Nullable String sort,
+			@RequestParam(required = false) @Nullable List<String> facets,
+			@RequestParam(defaultValue = "false") boolean snippets, WebRequest webRequest) {
+		return checkNotModified(tenantId, webRequest,
+				() -> findEntries(tenantId, criteria, cursorPageRequest, sort, facets, snippets));
+	}
+
+	private Object findEntries(@Nullable String tenantId, SearchCriteria criteria,
+			CursorPageRequest<EntryCursor> cursorPageRequest, @Nullable String sort, @Nullable List<String> facets,
+			boolean snippets) {
+		EntrySort entrySort = parseSort(sort);
+		EntryCursor cursor = cursorPageRequest.cursor();
+		if (cursor != null && cursor.field() != entrySort.field()) {
+			throw new ResponseStatusException(BAD_REQUEST,
+					"'cursor' cannot be used to sort by " + entrySort.field().parameter());
+		}
+		if (!entrySort.equals(EntrySort.DEFAULT)) {
+			if (facets != null) {
+				throw new ResponseStatusException(BAD_REQUEST, "'facets' is only supported when sorted by updated");
+			}
+			CursorPage<Entry, EntryCursor> page = this.entryService.findOrderBy(tenantId, criteria, entrySort,
+					cursorPageRequest);
+			return snippets ? withSnippets(tenantId, criteria, new SearchResultPage<>(page)) : page;
+		}
+		CursorPageRequest<UpdatedCursor> pageRequest = new CursorPageRequest<>((UpdatedCursor) cursor,
+				cursorPageRequest.pageSize(), cursorPageRequest.navigation());
+		if (facets == null && !snippets) {
+			if (criteria.isDefault() && pageRequest.pageSize() == EntryService.DEFAULT_PAGE_SIZE
+					&& pageRequest.cursor() == null) {
+				// Default request
+				return this.entryService.findLatest(tenantId);
+			}
+			return this.entryService.findOrderByUpdated(tenantId, criteria, pageRequest);
+		}
+		SearchResultPage<Entry, UpdatedCursor> page = facets != null
+				? this.entryService.findOrderByUpdatedWithFacets(tenantId, criteria, pageRequest, parseFacets(facets))
+				: new SearchResultPage<>(this.entryService.findOrderByUpdated(tenantId, criteria, pageRequest));
+		return snippets ? withSnippets(tenantId, criteria, page) : page;
+	}
+
+	@GetMapping(path = { "/entries", "/tenants/{tenantId}/entries" }, params = "sort=relevance")
+	@Nullable public ResponseEntity<?> getEntriesByRelevance(@PathVariable(required = false) String tenantId,
+			@ModelAttribute SearchCriteria criteria, @RequestParam(required = false) @Nullable String cursor,
+			@RequestParam(required = false) @Nullable Integer size,
+			@RequestParam(defaultValue = "NEXT") Navigation direction,
+			@RequestParam(defaultValue = "false") boolean snippets, WebRequest webRequest) {
+		if (!StringUtils.hasText(criteria.query())) {
+			throw new ResponseStatusException(BAD_REQUEST, "'query' is required to sort by relevance");
+		}
+		int pageSize = Math.clamp(Objects.requireNonNullElse(size, EntryService.DEFAULT_PAGE_SIZE), 1,
+				EntryService.MAX_PAGE_SIZE);
+		RelevanceCursor relevanceCursor;
+		try {
+			relevanceCursor = StringUtils.hasText(cursor) ? RelevanceCursor.valueOf(cursor) : null;
+		}
+		catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
 		}
-		return this.entryService.findOrderByUpdated(tenantId, criteria, pageRequest);
+		CursorPageRequest<RelevanceCursor> pageRequest = new CursorPageRequest<>(relevanceCursor, pageSize, direction);
+		return checkNotModified(tenantId, webRequest, () -> {
+			CursorPage<Entry, RelevanceCursor> page = this.entryService.findOrderByRelevance(tenantId, criteria,
+					pageRequest);
+			return snippets ? withSnippets(tenantId, criteria, new SearchResultPage<>(page)) : page;
+		});
 	}
 
 	@GetMapping(path = { "/entries", "/tenants/{tenantId}/entries" }, params = "entryIds")
-	public List<Entry> getEntriesWithIds(@PathVariable(required = false) String tenantId,
-			@RequestParam List<Long> entryIds) {
+	@Nullable public ResponseEntity<List<Entry>> getEntriesWithIds(@PathVariable(required = false) String tenantId,
+			@RequestParam List<Long> entryIds, WebRequest webRequest) {
 		List<EntryKey> entryKeys = entryIds.stream().map(entryId -> new EntryKey(entryId, tenantId)).toList();
-		return this.entryService.findAll(tenantId, entryKeys);
+		return checkNotModified(tenantId, webRequest, () -> this.entryService.findAll(tenantId, entryKeys));
+	}
+
+	@GetMapping(path = { "/changes", "/tenants/{tenantId}/changes" })
+	@Nullable public ResponseEntity<CursorPage<EntryChange, ChangeCursor>> getChanges(
+			@PathVariable(required = false) String tenantId, @RequestParam(required = false) @Nullable String since,
+			@RequestParam(required = false) @Nullable Integer size, WebRequest webRequest) {
+		ChangeCursor sinceCursor = parseSince(since, this.instantSource);
+		int pageSize = Math.clamp(Objects.requireNonNullElse(size, EntryService.DEFAULT_PAGE_SIZE), 1,
+				EntryService.MAX_PAGE_SIZE);
+		Duration settleTime = this.changes.getSettleTime();
+		Instant before = settleTime.isZero() ? null : this.instantSource.instant().minus(settleTime);
+		long watermark = this.entryService.watermark(tenantId);
+		if (before != null && watermark >= before.toEpochMilli()) {
+			// the last write is held back until it settles, so the page may grow without a
+			// write and must not be validated with the watermark
+			return ResponseEntity.ok(this.entryService.findChanges(tenantId, sinceCursor, before, pageSize));
+		}
+		return checkNotModified(watermark, webRequest,
+				() -> this.entryService.findChanges(tenantId, sinceCursor, before, pageSize));
+	}
+
+	/**
+	 * Parses the cursor to resume the change feed from, rejecting the ones older than the
+	 * retention of deletions.
+	 */
+	@Nullable static ChangeCursor parseSince(@Nullable String since, InstantSource instantSource) {
+		if (!StringUtils.hasText(since)) {
+			return null;
+		}
+		ChangeCursor sinceCursor;
+		try {
+			sinceCursor = ChangeCursor.valueOf(since);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
+		}
+		if (sinceCursor.changedAt() < instantSource.millis() - EntryService.TOMBSTONE_RETENTION.toMillis()) {
+			throw new ResponseStatusException(GONE,
+					"'since' is older than the retention of deletions. Synchronize again without 'since'");
+		}
+		return sinceCursor;
 	}
 
 	@GetMapping(path = { "/entries/{entryId:\\d+}", "/tenants/{tenantId}/entries/{entryId:\\d+}" })
@@ -85,7 +212,7 @@ public class EntryController {
 		EntryKey entryKey = new EntryKey(entryId, tenantId);
 		Optional<Entry> entry = this.entryService.findById(tenantId, entryKey);
 		if (entry.isPresent()) {
-			return checkNotModified(entry.get(), webRequest, Function.identity(), MediaType.APPLICATION_JSON);
+			return checkNotModified(entry.get(), webRequest, EntryRepresentationCache.Format.JSON);
 		}
 		else {
 			return entryNotFound(entryKey);
@@ -98,7 +225,7 @@ public class EntryController {
 		EntryKey entryKey = new EntryKey(entryId, tenantId);
 		Optional<Entry> entry = this.entryService.findById(tenantId, entryKey);
 		if (entry.isPresent()) {
-			return checkNotModified(entry.get(), webRequest, Entry::toMarkdown, MediaType.TEXT_MARKDOWN);
+			return checkNotModified(entry.get(), webRequest, EntryRepresentationCache.Format.MARKDOWN);
 		}
 		else {
 			return entryNotFound(entryKey);
@@ -163,13 +290,15 @@ public class EntryController {
 	}
 
 	@GetMapping(path = { "/categories", "/tenants/{tenantId}/categories" })
-	public List<List<Category>> getCategories(@PathVariable(required = false) String tenantId) {
-		return this.entryService.findAllCategories(tenantId);
+	@Nullable public ResponseEntity<List<List<Category>>> getCategories(@PathVariable(required = false) String tenantId,
+			WebRequest webRequest) {
+		return checkNotModified(tenantId, webRequest, () -> this.entryService.findAllCategories(tenantId));
 	}
 
 	@GetMapping(path = { "/tags", "/tenants/{tenantId}/tags" })
-	public List<TagAndCount> getTags(@PathVariable(required = false) String tenantId) {
-		return this.entryService.findAllTags(tenantId);
+	@Nullable public ResponseEntity<List<TagAndCount>> getTags(@PathVariable(required = false) String tenantId,
+			WebRequest webRequest) {
+		return checkNotModified(tenantId, webRequest, () -> this.entryService.findAllTags(tenantId));
 	}
 
 	@GetMapping(path = "/entries/template.md", produces = MediaType.TEXT_MARKDOWN_VALUE)
@@ -240,8 +369,8 @@ public class EntryController {
 		return ResponseEntity.badRequest().body(ProblemDetail.forStatusAndDetail(BAD_REQUEST, e.getMessage()));
 	}
 
-	@Nullable private <T> ResponseEntity<T> checkNotModified(Entry entry, WebRequest webRequest, Function<Entry, T> mapper,
-			MediaType mediaType) {
+	@Nullable private ResponseEntity<byte[]> checkNotModified(Entry entry, WebRequest webRequest,
+			EntryRepresentationCache.Format format) {
 		Instant updated = entry.updated().date();
 		if (updated != null) {
 			long lastModified = updated.toEpochMilli();
@@ -249,10 +378,72 @@ public class EntryController {
 				return null;
 			}
 		}
-		return ResponseEntity.ok()
+		EntryRepresentationCache.Representation representation = this.representationCache.get(entry, format);
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
 			.cacheControl(CacheControl.maxAge(Duration.ofHours(1)))
-			.contentType(mediaType)
-			.body(mapper.apply(entry));
+			.contentType(format.mediaType())
+			.varyBy(HttpHeaders.ACCEPT_ENCODING);
+		if (EntryRepresentationCache.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+			// the servlet container does not compress a response that already has an encoding
+			return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(representation.gzip());
+		}
+		return builder.body(representation.identity());
+	}
+
+	/**
+	 * Answers {@code 304} if the client has the response as of the current write watermark
+	 * of the tenant, which serves as both the strong ETag and the last-modified date. The
+	 * watermark is read before the body is computed, so that a concurrent write can only
+	 * make the ETag older than the body and never newer.
+	 */
+	@Nullable private <T> ResponseEntity<T> checkNotModified(@Nullable String tenantId, WebRequest webRequest,
+			Supplier<T> body) {
+		return checkNotModified(this.entryService.watermark(tenantId), webRequest, body);
+	}
+
+	@Nullable private <T> ResponseEntity<T> checkNotModified(long watermark, WebRequest webRequest, Supplier<T> body) {
+		if (webRequest.checkNotModified("\"" + Long.toHexString(watermark) + "\"", watermark)) {
+			return null;
+		}
+		return ResponseEntity.ok(body.get());
+	}
+
+	private static EntrySort parseSort(@Nullable String sort) {
+		if (!StringUtils.hasText(sort)) {
+			return EntrySort.DEFAULT;
+		}
+		try {
+			return EntrySort.valueOf(sort);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	private static Set<Facet> parseFacets(List<String> facets) {
+		Set<Facet> parsed = EnumSet.noneOf(Facet.class);
+		try {
+			facets.stream().filter(StringUtils::hasText).map(Facet::fromParameter).forEach(parsed::add);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
+		}
+		return parsed;
+	}
+
+	private <C> SearchResultPage<Entry, C> withSnippets(@Nullable String tenantId, SearchCriteria criteria,
+			SearchResultPage<Entry, C> page) {
+		List<Entry> content = page.page().content();
+		Map<EntryKey, Snippet> snippets = this.entryService.findSnippets(tenantId,
+				content.stream().map(Entry::entryKey).toList(), criteria.query());
+		Map<Long, Snippet> snippetsByEntryId = new LinkedHashMap<>();
+		for (Entry entry : content) {
+			Snippet snippet = snippets.get(entry.entryKey());
+			if (snippet != null) {
+				snippetsByEntryId.put(entry.entryKey().entryId(), snippet);
+			}
+		}
+		return page.withSnippets(snippetsByEntryId);
 	}
 
 	private ResponseEntity<?> entryNotFound(EntryKey entryKey) {
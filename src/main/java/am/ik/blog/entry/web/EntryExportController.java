@@ -0,0 +1,86 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryChunk;
+import am.ik.blog.entry.EntryService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Dumps all the entries of a tenant as NDJSON, one entry with its content per line in
+ * the order of entry IDs. Entries are read from the region in chunks and written as they
+ * are read, so that memory use does not depend on the size of the tenant. An interrupted
+ * export resumes with {@code after} set to the ID of the last entry received.
+ */
+@RestController
+public class EntryExportController {
+
+	static final int CHUNK_SIZE = 100;
+
+	static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private final EntryService entryService;
+
+	private final JsonMapper jsonMapper;
+
+	public EntryExportController(EntryService entryService, JsonMapper jsonMapper) {
+		this.entryService = entryService;
+		this.jsonMapper = jsonMapper;
+	}
+
+	@GetMapping(path = { "/export", "/tenants/{tenantId}/export" })
+	public ResponseEntity<StreamingResponseBody> export(@PathVariable(required = false) @Nullable String tenantId,
+			@RequestParam(required = false) @Nullable Long after,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) @Nullable String acceptEncoding) {
+		// read the first chunk here, so that an unauthorized request fails before the response is committed
+		EntryChunk first = this.entryService.findAllAfter(tenantId, after, CHUNK_SIZE);
+		boolean gzip = EntryRepresentationCache.acceptsGzip(acceptEncoding);
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+			.contentType(APPLICATION_NDJSON)
+			.varyBy(HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return builder.body(outputStream -> {
+			if (gzip) {
+				try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(StreamUtils.nonClosing(outputStream))) {
+					write(tenantId, first, gzipOutputStream);
+				}
+			}
+			else {
+				write(tenantId, first, outputStream);
+			}
+		});
+	}
+
+	private void write(@Nullable String tenantId, EntryChunk first, OutputStream outputStream)
+			throws IOException {
+		EntryChunk chunk = first;
+		while (true) {
+			for (Entry entry : chunk.entries()) {
+				outputStream.write(this.jsonMapper.writeValueAsBytes(entry));
+				outputStream.write('\n');
+			}
+			outputStream.flush();
+			Long next = chunk.next();
+			if (next == null) {
+				break;
+			}
+			chunk = this.entryService.findAllAfter(tenantId, next, CHUNK_SIZE);
+		}
+	}
+
+}
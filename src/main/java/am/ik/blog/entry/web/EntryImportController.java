@@ -0,0 +1,209 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.entry.Author;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryParser;
+import am.ik.blog.entry.EntryService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Imports the entries in a zip or tar.gz archive of {@code content/*.md} files, as in the
+ * content repository of a tenant. The archive is read as it is received, in batches of
+ * files that are parsed in parallel and saved together, and the result of each file is
+ * written back as a line of NDJSON once its batch is saved.
+ */
+@RestController
+public class EntryImportController implements DisposableBean {
+
+	static final int BATCH_SIZE = 100;
+
+	static final int MAX_FILE_SIZE = 1024 * 1024;
+
+	private final Logger logger = LoggerFactory.getLogger(EntryImportController.class);
+
+	private final EntryService entryService;
+
+	private final EntryParser entryParser;
+
+	private final JsonMapper jsonMapper;
+
+	private final InstantSource instantSource;
+
+	private final ExecutorService parseExecutor = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(),
+			Thread.ofPlatform().name("entry-import-", 0).daemon(true).factory());
+
+	public EntryImportController(EntryService entryService, EntryParser entryParser, JsonMapper jsonMapper,
+			InstantSource instantSource) {
+		this.entryService = entryService;
+		this.entryParser = entryParser;
+		this.jsonMapper = jsonMapper;
+		this.instantSource = instantSource;
+	}
+
+	@PostMapping(path = { "/admin/import", "/tenants/{tenantId}/admin/import" })
+	public void importEntries(@PathVariable(required = false) @Nullable String tenantId, InputStream body,
+			@AuthenticationPrincipal UserDetails userDetails, HttpServletResponse response) throws IOException {
+		MarkdownArchive archive;
+		try {
+			archive = MarkdownArchive.open(body);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
+		}
+		Author author = Author.builder().name(userDetails.getUsername()).date(this.instantSource.instant()).build();
+		response.setContentType(EntryExportController.APPLICATION_NDJSON.toString());
+		OutputStream outputStream = response.getOutputStream();
+		List<ArchivedFile> batch = new ArrayList<>(BATCH_SIZE);
+		archive.forEach((path, content) -> {
+			if (!isEntryFile(path)) {
+				return;
+			}
+			byte[] bytes = content.readNBytes(MAX_FILE_SIZE + 1);
+			batch.add(new ArchivedFile(path, bytes));
+			if (batch.size() == BATCH_SIZE) {
+				importBatch(tenantId, batch, author, outputStream);
+				batch.clear();
+			}
+		});
+		importBatch(tenantId, batch, author, outputStream);
+	}
+
+	private void importBatch(@Nullable String tenantId, List<ArchivedFile> batch, Author author,
+			OutputStream outputStream) throws IOException {
+		if (batch.isEmpty()) {
+			return;
+		}
+		// entries that are already stored keep who created them and when, unless the front
+		// matter says otherwise
+		List<EntryKey> entryKeys = batch.stream()
+			.map(file -> entryId(file.path()))
+			.filter(Objects::nonNull)
+			.distinct()
+			.map(entryId -> new EntryKey(entryId, tenantId))
+			.toList();
+		Map<EntryKey, Author> created = entryKeys.isEmpty() ? Map.of()
+				: this.entryService.findCreated(tenantId, entryKeys);
+		List<CompletableFuture<Parsed>> futures = batch.stream()
+			.map(file -> CompletableFuture.supplyAsync(() -> parse(tenantId, file, created, author),
+					this.parseExecutor))
+			.toList();
+		List<ImportResult> results = new ArrayList<>(batch.size());
+		// a later file with the same ID wins, as it would have when imported one by one
+		Map<Long, Entry> entries = new LinkedHashMap<>();
+		for (CompletableFuture<Parsed> future : futures) {
+			Parsed parsed = future.join();
+			results.add(parsed.result());
+			Entry entry = parsed.entry();
+			if (entry != null) {
+				entries.put(entry.entryKey().entryId(), entry);
+			}
+		}
+		if (!entries.isEmpty()) {
+			try {
+				this.entryService.importAll(tenantId, List.copyOf(entries.values()));
+			}
+			catch (RuntimeException e) {
+				logger.warn("action=import_entries tenantId={} status=failed size={}", tenantId, entries.size(), e);
+				results = results.stream()
+					.map(result -> result.status() == ImportResult.Status.IMPORTED
+							? ImportResult.failed(result.path(), result.entryId(), "Failed to save: " + e.getMessage())
+							: result)
+					.toList();
+			}
+		}
+		for (ImportResult result : results) {
+			outputStream.write(this.jsonMapper.writeValueAsBytes(result));
+			outputStream.write('\n');
+		}
+		outputStream.flush();
+	}
+
+	private Parsed parse(@Nullable String tenantId, ArchivedFile file, Map<EntryKey, Author> created,
+			Author author) {
+		Long entryId = entryId(file.path());
+		if (entryId == null) {
+			return new Parsed(ImportResult.failed(file.path(), null, "Invalid entry ID: " + fileName(file.path())),
+					null);
+		}
+		if (file.content().length > MAX_FILE_SIZE) {
+			return new Parsed(ImportResult.failed(file.path(), entryId,
+					"File is larger than %d bytes".formatted(MAX_FILE_SIZE)), null);
+		}
+		try {
+			EntryKey entryKey = new EntryKey(entryId, tenantId);
+			Entry entry = this.entryParser
+				.fromMarkdown(entryKey, new String(file.content(), StandardCharsets.UTF_8),
+						created.getOrDefault(entryKey, author), author)
+				.build();
+			return new Parsed(ImportResult.imported(file.path(), entryId), entry);
+		}
+		catch (RuntimeException e) {
+			return new Parsed(ImportResult.failed(file.path(), entryId, "Failed to parse: " + e.getMessage()), null);
+		}
+	}
+
+	@Nullable private static Long entryId(String path) {
+		try {
+			return Entry.parseId(fileName(path));
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static String fileName(String path) {
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * Whether the path is a markdown file directly under a {@code content} directory, at
+	 * the root of the archive or under a single top-level directory.
+	 */
+	static boolean isEntryFile(String path) {
+		String[] segments = path.split("/");
+		return segments.length >= 2 && segments.length <= 3 && "content".equals(segments[segments.length - 2])
+				&& segments[segments.length - 1].endsWith(".md");
+	}
+
+	@Override
+	public void destroy() {
+		this.parseExecutor.shutdownNow();
+	}
+
+	private record ArchivedFile(String path, byte[] content) {
+
+	}
+
+	private record Parsed(ImportResult result, @Nullable Entry entry) {
+
+	}
+
+}
@@ -0,0 +1,169 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * LRU cache of serialized entries, bounded by the total number of bytes held. Each
+ * rendering is kept both as is and gzip-compressed, so that a response is written
+ * straight from the bytes instead of being serialized and compressed on every request.
+ * A rendering is tagged with the version of the entry it was made from, i.e. its SHA-256
+ * {@link Entry#contentHash() content hash}, and is rebuilt as soon as the entry differs.
+ */
+final class EntryRepresentationCache {
+
+	private final JsonMapper jsonMapper;
+
+	private final long maxBytes;
+
+	private final Map<Key, Cached> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long bytes;
+
+	EntryRepresentationCache(JsonMapper jsonMapper, long maxBytes) {
+		this.jsonMapper = jsonMapper;
+		this.maxBytes = maxBytes;
+	}
+
+	Representation get(Entry entry, Format format) {
+		Key key = new Key(entry.entryKey(), format);
+		Version version = Version.of(entry);
+		synchronized (this) {
+			Cached cached = this.cache.get(key);
+			if (cached != null && cached.version().equals(version)) {
+				return cached.representation();
+			}
+		}
+		Representation representation = Representation.of(serialize(entry, format));
+		synchronized (this) {
+			Cached previous = this.cache.put(key, new Cached(version, representation));
+			if (previous != null) {
+				this.bytes -= previous.representation().size();
+			}
+			this.bytes += representation.size();
+			Iterator<Cached> eldest = this.cache.values().iterator();
+			while (this.bytes > this.maxBytes && eldest.hasNext()) {
+				this.bytes -= eldest.next().representation().size();
+				eldest.remove();
+			}
+		}
+		return representation;
+	}
+
+	synchronized long bytes() {
+		return this.bytes;
+	}
+
+	private byte[] serialize(Entry entry, Format format) {
+		return switch (format) {
+			case JSON -> this.jsonMapper.writeValueAsBytes(entry);
+			case MARKDOWN -> entry.toMarkdown().getBytes(StandardCharsets.UTF_8);
+		};
+	}
+
+	/**
+	 * @return whether the {@code Accept-Encoding} header allows a gzip-encoded response,
+	 * where an explicit {@code gzip} takes precedence over {@code *}
+	 */
+	static boolean acceptsGzip(@Nullable String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		double gzipQuality = -1;
+		double anyQuality = 0;
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].strip();
+			if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+				continue;
+			}
+			double quality = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String parameter = parts[i].strip();
+				if (parameter.startsWith("q=")) {
+					try {
+						quality = Double.parseDouble(parameter.substring(2));
+					}
+					catch (NumberFormatException e) {
+						quality = 0;
+					}
+				}
+			}
+			if (name.equals("*")) {
+				anyQuality = quality;
+			}
+			else {
+				gzipQuality = quality;
+			}
+		}
+		return gzipQuality >= 0 ? gzipQuality > 0 : anyQuality > 0;
+	}
+
+	enum Format {
+
+		JSON(MediaType.APPLICATION_JSON), MARKDOWN(new MediaType(MediaType.TEXT_MARKDOWN, StandardCharsets.UTF_8));
+
+		private final MediaType mediaType;
+
+		Format(MediaType mediaType) {
+			this.mediaType = mediaType;
+		}
+
+		MediaType mediaType() {
+			return this.mediaType;
+		}
+
+	}
+
+	record Representation(byte[] identity, byte[] gzip) {
+
+		static Representation of(byte[] identity) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 3 + 64);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(identity);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return new Representation(identity, out.toByteArray());
+		}
+
+		long size() {
+			return this.identity.length + this.gzip.length;
+		}
+
+	}
+
+	private record Key(EntryKey entryKey, Format format) {
+
+	}
+
+	/**
+	 * @param contentHash hash of the rendered fields
+	 * @param hasContent whether the content is rendered, since a {@code null} content is
+	 * hashed like an empty one
+	 */
+	private record Version(String contentHash, boolean hasContent) {
+
+		static Version of(Entry entry) {
+			return new Version(entry.contentHash(), entry.content() != null);
+		}
+
+	}
+
+	private record Cached(Version version, Representation representation) {
+
+	}
+
+}
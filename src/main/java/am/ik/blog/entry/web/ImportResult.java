@@ -0,0 +1,31 @@
+package am.ik.blog.entry.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Outcome of importing one file of an archive, streamed back as a line of NDJSON.
+ *
+ * @param path path of the file in the archive
+ * @param entryId ID of the entry, or {@code null} if it could not be determined
+ * @param status whether the entry has been imported
+ * @param error reason of the failure
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportResult(String path, @Nullable Long entryId, Status status, @Nullable String error) {
+
+	static ImportResult imported(String path, Long entryId) {
+		return new ImportResult(path, entryId, Status.IMPORTED, null);
+	}
+
+	static ImportResult failed(String path, @Nullable Long entryId, String error) {
+		return new ImportResult(path, entryId, Status.FAILED, error);
+	}
+
+	public enum Status {
+
+		IMPORTED, FAILED
+
+	}
+
+}
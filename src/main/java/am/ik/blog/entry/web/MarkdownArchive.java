@@ -0,0 +1,233 @@
+package am.ik.blog.entry.web;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Reads the files of a zip or tar.gz archive one by one as the archive is received,
+ * without extracting it or holding more than one file at a time. Only regular files are
+ * visited. The tar reader understands ustar, GNU long names and the {@code path} of pax
+ * headers, which covers the archives produced by {@code tar} and by GitHub.
+ */
+final class MarkdownArchive {
+
+	private static final int BLOCK_SIZE = 512;
+
+	private final InputStream inputStream;
+
+	private final boolean zip;
+
+	private MarkdownArchive(InputStream inputStream, boolean zip) {
+		this.inputStream = inputStream;
+		this.zip = zip;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the stream is neither a zip nor a gzip stream
+	 */
+	static MarkdownArchive open(InputStream inputStream) throws IOException {
+		BufferedInputStream in = new BufferedInputStream(inputStream);
+		in.mark(2);
+		int b0 = in.read();
+		int b1 = in.read();
+		in.reset();
+		if (b0 == 'P' && b1 == 'K') {
+			return new MarkdownArchive(in, true);
+		}
+		if (b0 == 0x1f && b1 == 0x8b) {
+			return new MarkdownArchive(new GZIPInputStream(in), false);
+		}
+		throw new IllegalArgumentException("Unsupported archive format. A zip or tar.gz archive is expected");
+	}
+
+	/**
+	 * Calls the handler for each regular file in the archive, in the order of the archive.
+	 * The content is only readable during the call and must not be closed.
+	 */
+	void forEach(FileHandler handler) throws IOException {
+		if (this.zip) {
+			readZip(handler);
+		}
+		else {
+			readTar(handler);
+		}
+	}
+
+	private void readZip(FileHandler handler) throws IOException {
+		ZipInputStream zipInputStream = new ZipInputStream(this.inputStream, StandardCharsets.UTF_8);
+		ZipEntry zipEntry;
+		while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+			if (!zipEntry.isDirectory()) {
+				handler.handle(zipEntry.getName(), StreamUtils.nonClosing(zipInputStream));
+			}
+		}
+	}
+
+	private void readTar(FileHandler handler) throws IOException {
+		byte[] header = new byte[BLOCK_SIZE];
+		@Nullable String longName = null;
+		while (this.inputStream.readNBytes(header, 0, BLOCK_SIZE) == BLOCK_SIZE && !isZero(header)) {
+			long size = parseOctal(header, 124, 12);
+			byte type = header[156];
+			BoundedInputStream content = new BoundedInputStream(this.inputStream, size);
+			switch (type) {
+				// GNU long name of the next file
+				case 'L' -> longName = trimNul(new String(content.readAllBytes(), StandardCharsets.UTF_8));
+				case 'x' -> {
+					String path = parsePaxPath(new String(content.readAllBytes(), StandardCharsets.UTF_8));
+					if (path != null) {
+						longName = path;
+					}
+				}
+				case '0', 0 -> {
+					String name = (longName != null) ? longName : headerName(header);
+					longName = null;
+					handler.handle(name, content);
+				}
+				default -> longName = null;
+			}
+			content.skipRemaining();
+			long padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+			this.inputStream.skipNBytes(padding);
+		}
+	}
+
+	private static String headerName(byte[] header) {
+		String name = parseString(header, 0, 100);
+		if ("ustar".equals(parseString(header, 257, 5))) {
+			String prefix = parseString(header, 345, 155);
+			if (!prefix.isEmpty()) {
+				return prefix + "/" + name;
+			}
+		}
+		return name;
+	}
+
+	@Nullable static String parsePaxPath(String records) {
+		// each record is "<length> <key>=<value>\n"
+		for (String record : records.split("\n")) {
+			int space = record.indexOf(' ');
+			if (space > 0 && record.startsWith("path=", space + 1)) {
+				return record.substring(space + 1 + "path=".length());
+			}
+		}
+		return null;
+	}
+
+	private static String parseString(byte[] header, int offset, int length) {
+		int end = offset;
+		while (end < offset + length && header[end] != 0) {
+			end++;
+		}
+		return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+	}
+
+	private static long parseOctal(byte[] header, int offset, int length) {
+		String value = parseString(header, offset, length).trim();
+		if (value.isEmpty()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(value, 8);
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid tar header size: " + value, e);
+		}
+	}
+
+	private static String trimNul(String value) {
+		int index = value.indexOf('\0');
+		return (index >= 0) ? value.substring(0, index) : value;
+	}
+
+	private static boolean isZero(byte[] block) {
+		for (byte b : block) {
+			if (b != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@FunctionalInterface
+	interface FileHandler {
+
+		void handle(String path, InputStream content) throws IOException;
+
+	}
+
+	/**
+	 * Content of a tar entry, which ends at the size in its header and leaves the archive
+	 * open.
+	 */
+	private static final class BoundedInputStream extends FilterInputStream {
+
+		private long remaining;
+
+		BoundedInputStream(InputStream in, long size) {
+			super(in);
+			this.remaining = size;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (this.remaining <= 0) {
+				return -1;
+			}
+			int b = super.read();
+			if (b >= 0) {
+				this.remaining--;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (this.remaining <= 0) {
+				return -1;
+			}
+			int n = super.read(b, off, (int) Math.min(len, this.remaining));
+			if (n > 0) {
+				this.remaining -= n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(Math.min(n, this.remaining));
+			this.remaining -= skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(super.available(), this.remaining);
+		}
+
+		@Override
+		public void close() {
+			// the archive stays open for the next entry
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		void skipRemaining() throws IOException {
+			this.in.skipNBytes(this.remaining);
+			this.remaining = 0;
+		}
+
+	}
+
+}
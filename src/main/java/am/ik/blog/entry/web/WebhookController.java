@@ -1,7 +1,6 @@
 package am.ik.blog.entry.web;
 
 import am.ik.blog.GitHubProps;
-import am.ik.blog.entry.CacheNames;
 import am.ik.blog.entry.Entry;
 import am.ik.blog.entry.EntryFetcher;
 import am.ik.blog.entry.EntryKey;
@@ -15,11 +14,6 @@ import java.util.Optional;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.jspecify.annotations.Nullable;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.ObjectProvider;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -47,12 +41,8 @@ public class WebhookController {
 
 	private final JsonMapper jsonMapper;
 
-	@Nullable private final CacheManager cacheManager;
-
-	private final Logger logger = LoggerFactory.getLogger(getClass());
-
 	public WebhookController(GitHubProps props, EntryFetcher entryFetcher, EntryRepository entryRepository,
-			JsonMapper jsonMapper, ObjectProvider<CacheManager> cacheManager) {
+			JsonMapper jsonMapper) {
 		this.entryFetcher = entryFetcher;
 		this.entryRepository = entryRepository;
 		this.webhookVerifier = WebhookVerifier.gitHubSha256(props.getWebhookSecret());
@@ -62,7 +52,6 @@ public class WebhookController {
 			.collect(toUnmodifiableMap(Map.Entry::getKey,
 					e -> WebhookVerifier.gitHubSha256(e.getValue().getWebhookSecret())));
 		this.jsonMapper = jsonMapper;
-		this.cacheManager = cacheManager.getIfAvailable();
 	}
 
 	@PostMapping(path = { "/webhook", "/tenants/{tenantId}/webhook" })
@@ -93,7 +82,6 @@ public class WebhookController {
 		}
 		final Stream<JsonNode> commits = StreamSupport.stream(node.get("commits").spliterator(), false);
 		final List<Map<String, EntryKey>> result = new ArrayList<>();
-		final List<EntryKey> updatedEntries = new ArrayList<>();
 		commits.forEach(commit -> {
 			Stream.of("added", "modified").forEach(key -> {
 				this.paths(commit.get(key)).forEach(path -> {
@@ -101,7 +89,6 @@ public class WebhookController {
 					fetch.ifPresent(entry -> {
 						result.add(Map.of(key, entry.entryKey()));
 						this.entryRepository.save(entry);
-						updatedEntries.add(entry.entryKey());
 					});
 				});
 			});
@@ -110,25 +97,10 @@ public class WebhookController {
 				fetch.ifPresent(entryKey -> {
 					result.add(Map.of("removed", entryKey));
 					this.entryRepository.deleteById(entryKey);
-					updatedEntries.add(entryKey);
 				});
 			});
 		});
-		if (this.cacheManager != null) {
-			Cache latestEntriesCache = this.cacheManager.getCache(CacheNames.LATEST_ENTRIES);
-			Cache entryCache = this.cacheManager.getCache(CacheNames.ENTRY);
-			if (entryCache != null) {
-				for (EntryKey entryKey : updatedEntries) {
-					logger.info("Evicting entry cache for entryKey: {}", entryKey);
-					entryCache.evict(entryKey);
-				}
-			}
-			if (latestEntriesCache != null) {
-				String key = EntryKey.requireNonNullTenantId(tenantId);
-				logger.info("Evicting latestEntries cache for tenantId: {}", key);
-				latestEntriesCache.evict(key);
-			}
-		}
+		// the caches of every replica are evicted by GemfireCacheInvalidationBus on each write
 		return Optional.of(result);
 	}
 
@@ -0,0 +1,75 @@
+package am.ik.blog.github;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Request DTO for creating a tree via GitHub Git Trees API.
+ *
+ * @param baseTree SHA of the tree the changes are applied to
+ * @param tree changed entries
+ */
+public record CreateTreeRequest(@JsonProperty("base_tree") String baseTree, List<Entry> tree) {
+
+	/**
+	 * Changed entry of a tree, either a blob written with its content or a deleted one.
+	 */
+	public sealed interface Entry permits Blob, Deletion {
+
+		String FILE_MODE = "100644";
+
+		String path();
+
+		String mode();
+
+		String type();
+
+		static Entry file(String path, String content) {
+			return new Blob(path, FILE_MODE, GitTreeEntry.BLOB, content);
+		}
+
+		static Entry delete(String path) {
+			return new Deletion(path, FILE_MODE, GitTreeEntry.BLOB);
+		}
+
+		@JsonIgnore
+		default boolean isDelete() {
+			return this instanceof Deletion;
+		}
+
+	}
+
+	/**
+	 * Blob written with its content. It has no SHA, since GitHub rejects an entry with
+	 * both.
+	 *
+	 * @param path path relative to the base tree
+	 * @param mode file mode
+	 * @param type object type
+	 * @param content content of the blob
+	 */
+	public record Blob(String path, String mode, String type, String content) implements Entry {
+
+	}
+
+	/**
+	 * Blob deleted from the tree, which is sent with a {@code null} SHA.
+	 *
+	 * @param path path relative to the base tree
+	 * @param mode file mode
+	 * @param type object type
+	 */
+	public record Deletion(String path, String mode, String type) implements Entry {
+
+		@JsonProperty
+		@JsonInclude(JsonInclude.Include.ALWAYS)
+		@Nullable public String sha() {
+			return null;
+		}
+
+	}
+
+}
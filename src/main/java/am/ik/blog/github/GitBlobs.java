@@ -0,0 +1,28 @@
+package am.ik.blog.github;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes blob SHAs the way git does, so that the SHA of written content is known
+ * without asking GitHub.
+ */
+public final class GitBlobs {
+
+	private GitBlobs() {
+	}
+
+	public static String sha(byte[] content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+			return HexFormat.of().formatHex(digest.digest(content));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
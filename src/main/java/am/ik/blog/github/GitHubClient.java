@@ -10,11 +10,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.DeleteExchange;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PatchExchange;
+import org.springframework.web.service.annotation.PostExchange;
 import org.springframework.web.service.annotation.PutExchange;
 
 @HttpExchange(url = "/repos/{owner}/{repo}")
 public interface GitHubClient {
 
+	@GetExchange
+	ResponseEntity<@NonNull GitHubRepository> getRepository(@PathVariable("owner") String owner,
+			@PathVariable("repo") String repo);
+
 	@GetExchange(url = "/contents/{path}")
 	ResponseEntity<@NonNull File> getFile(@PathVariable("owner") String owner, @PathVariable("repo") String repo,
 			@PathVariable("path") String path);
@@ -23,6 +29,34 @@ public interface GitHubClient {
 	List<Commit> getCommits(@PathVariable("owner") String owner, @PathVariable("repo") String repo,
 			@RequestParam MultiValueMap<String, String> params);
 
+	/**
+	 * @param treeSha SHA of the tree, or a tree-ish like {@code HEAD:content}
+	 */
+	@GetExchange(url = "/git/trees/{treeSha}")
+	ResponseEntity<@NonNull GitTree> getTree(@PathVariable("owner") String owner, @PathVariable("repo") String repo,
+			@PathVariable("treeSha") String treeSha);
+
+	@PostExchange(url = "/git/trees")
+	ResponseEntity<@NonNull GitTree> createTree(@PathVariable("owner") String owner, @PathVariable("repo") String repo,
+			@RequestBody CreateTreeRequest request);
+
+	@PostExchange(url = "/git/commits")
+	ResponseEntity<@NonNull GitCommit> createCommit(@PathVariable("owner") String owner,
+			@PathVariable("repo") String repo, @RequestBody CreateCommitRequest request);
+
+	@GetExchange(url = "/git/ref/heads/{branch}")
+	ResponseEntity<@NonNull GitRef> getBranch(@PathVariable("owner") String owner, @PathVariable("repo") String repo,
+			@PathVariable("branch") String branch);
+
+	/**
+	 * Moves the branch to the given commit. Without {@code force}, GitHub answers with
+	 * {@code 422} if the branch has moved on since the commit was created.
+	 */
+	@PatchExchange(url = "/git/refs/heads/{branch}")
+	ResponseEntity<@NonNull GitRef> updateBranch(@PathVariable("owner") String owner,
+			@PathVariable("repo") String repo, @PathVariable("branch") String branch,
+			@RequestBody UpdateRefRequest request);
+
 	@PutExchange(url = "/contents/{path}")
 	ResponseEntity<FileCommitResponse> createFile(@PathVariable("owner") String owner,
 			@PathVariable("repo") String repo, @PathVariable("path") String path,
@@ -0,0 +1,11 @@
+package am.ik.blog.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response DTO for GitHub Repositories API.
+ *
+ * @param defaultBranch name of the branch the contents API reads from and writes to
+ */
+public record GitHubRepository(@JsonProperty("default_branch") String defaultBranch) {
+}
@@ -0,0 +1,10 @@
+package am.ik.blog.github;
+
+/**
+ * Git object a reference points to.
+ *
+ * @param sha SHA of the object
+ * @param type {@code commit} for a branch
+ */
+public record GitObject(String sha, String type) {
+}
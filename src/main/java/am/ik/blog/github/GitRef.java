@@ -0,0 +1,10 @@
+package am.ik.blog.github;
+
+/**
+ * Response DTO for GitHub Git References API.
+ *
+ * @param ref fully qualified name of the reference, like {@code refs/heads/main}
+ * @param object object the reference points to
+ */
+public record GitRef(String ref, GitObject object) {
+}
@@ -0,0 +1,13 @@
+package am.ik.blog.github;
+
+import java.util.List;
+
+/**
+ * Response DTO for GitHub Git Trees API.
+ *
+ * @param sha SHA of the tree
+ * @param tree entries of the tree
+ * @param truncated whether the entries exceeded the limit of the API and some are missing
+ */
+public record GitTree(String sha, List<GitTreeEntry> tree, boolean truncated) {
+}
@@ -0,0 +1,23 @@
+package am.ik.blog.github;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Entry of a git tree.
+ *
+ * @param path path relative to the tree
+ * @param mode file mode, {@code 100644} for a regular file
+ * @param type {@code blob} for a file, {@code tree} for a directory
+ * @param sha SHA of the blob or the tree
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GitTreeEntry(String path, String mode, String type, @Nullable String sha) {
+
+	public static final String BLOB = "blob";
+
+	public boolean isBlob() {
+		return BLOB.equals(this.type);
+	}
+
+}
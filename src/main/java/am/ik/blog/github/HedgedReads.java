@@ -0,0 +1,180 @@
+package am.ik.blog.github;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs idempotent GitHub reads a user is waiting for with a deadline that follows their
+ * recent latencies, instead of a fixed timeout. Optionally, a read is hedged: when it
+ * takes longer than the 95th percentile of the recent ones, the same read is sent again
+ * and whichever answers first is used, which cuts the tail latency at the cost of a few
+ * more calls.
+ * <p>
+ * Background reads are run as they are.
+ */
+public class HedgedReads implements AutoCloseable {
+
+	static final int WINDOW_SIZE = 512;
+
+	static final int MIN_SAMPLES = 20;
+
+	static final double HEDGE_PERCENTILE = 0.95;
+
+	static final double TIMEOUT_PERCENTILE = 0.99;
+
+	static final int TIMEOUT_FACTOR = 3;
+
+	static final Duration MIN_TIMEOUT = Duration.ofMillis(500);
+
+	private final boolean hedging;
+
+	private final Duration maxTimeout;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	private final Logger logger = LoggerFactory.getLogger(HedgedReads.class);
+
+	/**
+	 * @param hedging whether slow reads are hedged
+	 * @param maxTimeout deadline of a read until there are enough latencies to adapt it,
+	 * and the upper bound afterwards
+	 * @param meterRegistry registry for the number of hedged reads
+	 */
+	public HedgedReads(boolean hedging, Duration maxTimeout, MeterRegistry meterRegistry) {
+		this.hedging = hedging;
+		this.maxTimeout = maxTimeout;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * @param operation name of the read, whose latencies are tracked together
+	 * @param read the read, which must be safe to send twice
+	 * @return the result of the first read that answered
+	 * @throws ResponseStatusException with {@code 504} if no read answered in time
+	 */
+	public <T> T read(String operation, Supplier<T> read) {
+		if (RequestPriority.current() == RequestPriority.BACKGROUND) {
+			return read.get();
+		}
+		LatencyWindow window = this.windows.computeIfAbsent(operation,
+				_ -> new LatencyWindow(WINDOW_SIZE, MIN_SAMPLES));
+		Duration timeout = timeout(window);
+		@Nullable Duration hedgeDelay = this.hedging ? window.percentile(HEDGE_PERCENTILE) : null;
+		long timeoutNanos = timeout.toNanos();
+		long hedgeNanos = (hedgeDelay != null) ? hedgeDelay.toNanos() : Long.MAX_VALUE;
+		Callable<T> timed = () -> {
+			long start = System.nanoTime();
+			try {
+				return read.get();
+			}
+			finally {
+				// reads that are cancelled count with the time they took so far, so that
+				// hedging does not drag the percentiles down
+				window.record(Duration.ofNanos(System.nanoTime() - start));
+			}
+		};
+		ExecutorCompletionService<T> completionService = new ExecutorCompletionService<>(this.executor);
+		List<Future<T>> futures = new ArrayList<>(2);
+		long start = System.nanoTime();
+		try {
+			futures.add(completionService.submit(timed));
+			int pending = 1;
+			ExecutionException failure = null;
+			while (pending > 0) {
+				boolean canHedge = futures.size() == 1 && hedgeNanos < timeoutNanos;
+				long wait = (canHedge ? hedgeNanos : timeoutNanos) - (System.nanoTime() - start);
+				Future<T> done = completionService.poll(wait, TimeUnit.NANOSECONDS);
+				if (done == null) {
+					if (canHedge) {
+						logger.debug("Hedging {} after {}", operation, hedgeDelay);
+						countHedge(operation);
+						futures.add(completionService.submit(timed));
+						pending++;
+						continue;
+					}
+					throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+							"GitHub did not answer %s within %s".formatted(operation, timeout));
+				}
+				pending--;
+				try {
+					return done.get();
+				}
+				catch (ExecutionException e) {
+					// the other read may still succeed
+					failure = e;
+				}
+			}
+			throw unwrap(Objects.requireNonNull(failure));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for " + operation, e);
+		}
+		finally {
+			futures.forEach(future -> future.cancel(true));
+		}
+	}
+
+	/**
+	 * Returns the deadline of a read, a few times the 99th percentile of the recent ones.
+	 */
+	Duration timeout(LatencyWindow window) {
+		Duration percentile = window.percentile(TIMEOUT_PERCENTILE);
+		if (percentile == null) {
+			return this.maxTimeout;
+		}
+		Duration timeout = percentile.multipliedBy(TIMEOUT_FACTOR);
+		if (timeout.compareTo(MIN_TIMEOUT) < 0) {
+			return MIN_TIMEOUT;
+		}
+		return (timeout.compareTo(this.maxTimeout) > 0) ? this.maxTimeout : timeout;
+	}
+
+	private void countHedge(String operation) {
+		Counter.builder("github.reads.hedged")
+			.description("Number of GitHub reads sent a second time because the first was slow")
+			.tag("operation", operation)
+			.register(this.meterRegistry)
+			.increment();
+	}
+
+	private static RuntimeException unwrap(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		if (cause instanceof Error error) {
+			throw error;
+		}
+		return new IllegalStateException(cause);
+	}
+
+	@Override
+	public void close() {
+		this.executor.close();
+	}
+
+}
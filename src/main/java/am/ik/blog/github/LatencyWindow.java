@@ -0,0 +1,49 @@
+package am.ik.blog.github;
+
+import java.time.Duration;
+import java.util.Arrays;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Latencies of the most recent calls of an operation.
+ */
+final class LatencyWindow {
+
+	private final long[] nanos;
+
+	private final int minSamples;
+
+	private int count;
+
+	private int next;
+
+	/**
+	 * @param size number of latencies kept
+	 * @param minSamples number of latencies needed before percentiles are given
+	 */
+	LatencyWindow(int size, int minSamples) {
+		this.nanos = new long[size];
+		this.minSamples = minSamples;
+	}
+
+	synchronized void record(Duration latency) {
+		this.nanos[this.next] = latency.toNanos();
+		this.next = (this.next + 1) % this.nanos.length;
+		this.count = Math.min(this.count + 1, this.nanos.length);
+	}
+
+	/**
+	 * Returns the latency the given share of the recent calls did not exceed, or
+	 * {@code null} if there are too few of them yet.
+	 */
+	synchronized @Nullable Duration percentile(double percentile) {
+		if (this.count < this.minSamples) {
+			return null;
+		}
+		long[] sorted = Arrays.copyOf(this.nanos, this.count);
+		Arrays.sort(sorted);
+		int index = Math.max((int) Math.ceil(percentile * sorted.length) - 1, 0);
+		return Duration.ofNanos(sorted[index]);
+	}
+
+}
@@ -0,0 +1,37 @@
+package am.ik.blog.github;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Interceptor that makes requests wait for the {@link RateLimitScheduler} of their access
+ * token, and feeds it the rate limit headers of the responses.
+ */
+public class RateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+	private final RateLimitScheduler scheduler;
+
+	public RateLimitInterceptor(RateLimitScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		try {
+			this.scheduler.acquire(RequestPriority.current());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the GitHub rate limit");
+		}
+		ClientHttpResponse response = execution.execute(request, body);
+		this.scheduler.update(response.getStatusCode(), response.getHeaders());
+		return response;
+	}
+
+}
@@ -0,0 +1,155 @@
+package am.ik.blog.github;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Paces the calls made with one access token according to the rate limit GitHub reports
+ * in the response headers, so that the limit is not reached instead of being reported
+ * after the fact.
+ * <ul>
+ * <li>After a {@code Retry-After}, no call is made until it has passed.</li>
+ * <li>Background calls are spread evenly over the budget left until the limit resets,
+ * and stop when only the reserve for interactive calls is left.</li>
+ * <li>Interactive calls only wait when the budget is used up, and not longer than the
+ * given maximum. If the wait would be longer, they are made right away and the error is
+ * left to the caller.</li>
+ * </ul>
+ */
+public class RateLimitScheduler {
+
+	static final String LIMIT = "X-RateLimit-Limit";
+
+	static final String REMAINING = "X-RateLimit-Remaining";
+
+	static final String RESET = "X-RateLimit-Reset";
+
+	/**
+	 * How long to wait after a secondary rate limit without {@code Retry-After}, as
+	 * GitHub recommends.
+	 */
+	static final Duration DEFAULT_RETRY_AFTER = Duration.ofMinutes(1);
+
+	private final InstantSource instantSource;
+
+	private final double reserveRatio;
+
+	private final Duration maxInteractiveWait;
+
+	private long limit = -1;
+
+	private long remaining = -1;
+
+	private Instant reset = Instant.EPOCH;
+
+	private Instant blockedUntil = Instant.EPOCH;
+
+	private Instant nextBackground = Instant.EPOCH;
+
+	/**
+	 * @param instantSource source of the current time
+	 * @param reserveRatio share of the limit kept for interactive calls
+	 * @param maxInteractiveWait how long an interactive call waits at most
+	 */
+	public RateLimitScheduler(InstantSource instantSource, double reserveRatio, Duration maxInteractiveWait) {
+		this.instantSource = instantSource;
+		this.reserveRatio = reserveRatio;
+		this.maxInteractiveWait = maxInteractiveWait;
+	}
+
+	/**
+	 * Waits until a call of the given priority may be made.
+	 */
+	public void acquire(RequestPriority priority) throws InterruptedException {
+		Instant deadline = this.instantSource.instant().plus(this.maxInteractiveWait);
+		while (true) {
+			Duration delay = tryAcquire(priority);
+			if (delay.isZero()) {
+				return;
+			}
+			if (priority == RequestPriority.INTERACTIVE && this.instantSource.instant().plus(delay).isAfter(deadline)) {
+				return;
+			}
+			Thread.sleep(delay);
+		}
+	}
+
+	/**
+	 * Takes a permit for a call of the given priority if one is available.
+	 * @return {@link Duration#ZERO} if a permit was taken, otherwise how long to wait
+	 * before trying again
+	 */
+	synchronized Duration tryAcquire(RequestPriority priority) {
+		Instant now = this.instantSource.instant();
+		if (now.isBefore(this.blockedUntil)) {
+			return Duration.between(now, this.blockedUntil);
+		}
+		boolean known = this.remaining >= 0 && now.isBefore(this.reset);
+		if (known) {
+			long floor = (priority == RequestPriority.BACKGROUND) ? reserve() : 0;
+			if (this.remaining <= floor) {
+				return Duration.between(now, this.reset);
+			}
+			if (priority == RequestPriority.BACKGROUND) {
+				if (now.isBefore(this.nextBackground)) {
+					return Duration.between(now, this.nextBackground);
+				}
+				this.nextBackground = now.plus(Duration.between(now, this.reset).dividedBy(this.remaining - floor));
+			}
+			// counted until the response reports the actual budget
+			this.remaining--;
+		}
+		return Duration.ZERO;
+	}
+
+	/**
+	 * Updates the budget from the headers of a response.
+	 */
+	public synchronized void update(HttpStatusCode statusCode, HttpHeaders headers) {
+		Instant now = this.instantSource.instant();
+		Long limit = parseLong(headers.getFirst(LIMIT));
+		Long remaining = parseLong(headers.getFirst(REMAINING));
+		Long reset = parseLong(headers.getFirst(RESET));
+		if (limit != null && remaining != null && reset != null) {
+			this.limit = limit;
+			this.remaining = remaining;
+			this.reset = Instant.ofEpochSecond(reset);
+		}
+		Long retryAfter = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+		if (retryAfter != null) {
+			this.blockedUntil = now.plusSeconds(retryAfter);
+		}
+		else if (statusCode.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+			this.blockedUntil = now.plus(DEFAULT_RETRY_AFTER);
+		}
+	}
+
+	/**
+	 * Returns the calls left until the limit resets, or {@code -1} if it is not known.
+	 */
+	public synchronized long remaining() {
+		return this.instantSource.instant().isBefore(this.reset) ? this.remaining : -1;
+	}
+
+	private long reserve() {
+		return (long) Math.ceil(this.limit * this.reserveRatio);
+	}
+
+	private static @Nullable Long parseLong(@Nullable String value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+}
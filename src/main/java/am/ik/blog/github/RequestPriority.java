@@ -0,0 +1,41 @@
+package am.ik.blog.github;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Priority of the GitHub calls made by the current thread. Calls are interactive unless
+ * they are made within {@link #runInBackground(Runnable)}, and background calls yield to
+ * interactive ones when the rate limit runs low.
+ */
+public enum RequestPriority {
+
+	/**
+	 * Calls a user is waiting for, like cache-aside fetches.
+	 */
+	INTERACTIVE,
+
+	/**
+	 * Bulk calls nobody is waiting for, like imports and reconciliation.
+	 */
+	BACKGROUND;
+
+	private static final ScopedValue<RequestPriority> CURRENT = ScopedValue.newInstance();
+
+	public static RequestPriority current() {
+		return CURRENT.orElse(INTERACTIVE);
+	}
+
+	public static void runInBackground(Runnable task) {
+		ScopedValue.where(CURRENT, BACKGROUND).run(task);
+	}
+
+	/**
+	 * Returns a task that runs the given one with the priority of the current thread, to
+	 * hand it over to another thread.
+	 */
+	public static <T> Callable<T> propagate(Callable<T> task) {
+		RequestPriority priority = current();
+		return () -> ScopedValue.where(CURRENT, priority).call(task::call);
+	}
+
+}
@@ -0,0 +1,10 @@
+package am.ik.blog.github;
+
+/**
+ * Request DTO for updating a reference via GitHub Git References API.
+ *
+ * @param sha SHA of the commit the reference points to
+ * @param force whether to update the reference even if it is not a fast-forward
+ */
+public record UpdateRefRequest(String sha, boolean force) {
+}
@@ -0,0 +1,105 @@
+package am.ik.blog.suggest;
+
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryChangedEvent;
+import am.ik.blog.entry.EntryCursor;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryRepository;
+import am.ik.blog.entry.EntryService;
+import am.ik.blog.entry.EntrySort;
+import am.ik.blog.entry.SearchCriteria;
+import am.ik.blog.security.Authorized;
+import am.ik.blog.security.Privilege;
+import am.ik.pagination.CursorPage;
+import am.ik.pagination.CursorPageRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.parameters.P;
+import org.springframework.stereotype.Service;
+
+/**
+ * Type-ahead suggestions over titles, tags and categories. The suggestions of a tenant
+ * are loaded into memory on first use and then kept up to date with the
+ * {@link EntryChangedEvent events} of the writes made by this instance. Writes made by
+ * other instances are caught by comparing the write watermark of the tenant at most
+ * once per {@link #WATERMARK_CHECK_INTERVAL}, and reloading on a mismatch.
+ */
+@Service
+public class SuggestService {
+
+	public static final int DEFAULT_LIMIT = 10;
+
+	public static final int MAX_LIMIT = SuggestionTrie.TOP_K;
+
+	static final Duration WATERMARK_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+	private static final EntrySort LOAD_SORT = new EntrySort(EntrySort.Field.ENTRY_ID, EntrySort.Direction.ASC);
+
+	private final EntryRepository entryRepository;
+
+	private final ConcurrentMap<String, TenantSuggestions> tenants = new ConcurrentHashMap<>();
+
+	private final Logger logger = LoggerFactory.getLogger(SuggestService.class);
+
+	public SuggestService(EntryRepository entryRepository) {
+		this.entryRepository = entryRepository;
+	}
+
+	@Authorized(resource = "entry", requiredPrivileges = Privilege.LIST)
+	public List<Suggestion> suggest(@Nullable @P("tenantId") String tenantId, String prefix, int limit) {
+		String nonNullTenantId = EntryKey.requireNonNullTenantId(tenantId);
+		TenantSuggestions suggestions = this.tenants.get(nonNullTenantId);
+		long now = System.nanoTime();
+		if (suggestions == null) {
+			suggestions = load(nonNullTenantId);
+		}
+		else if (now - suggestions.checkedAt() >= WATERMARK_CHECK_INTERVAL.toNanos()) {
+			suggestions.checkedAt(now);
+			if (suggestions.watermark() != this.entryRepository.watermark(nonNullTenantId)) {
+				suggestions = load(nonNullTenantId);
+			}
+		}
+		return suggestions.complete(prefix, Math.clamp(limit, 1, MAX_LIMIT));
+	}
+
+	@EventListener
+	public void onEntryChanged(EntryChangedEvent event) {
+		String tenantId = event.entryKey().tenantId();
+		TenantSuggestions suggestions = this.tenants.get(tenantId);
+		if (suggestions != null && !suggestions.apply(event)) {
+			// writes have been missed, reload on the next request
+			this.tenants.remove(tenantId, suggestions);
+		}
+	}
+
+	private TenantSuggestions load(String tenantId) {
+		long watermark = this.entryRepository.watermark(tenantId);
+		TenantSuggestions suggestions = new TenantSuggestions(watermark, System.nanoTime());
+		CursorPageRequest<EntryCursor> pageRequest = new CursorPageRequest<>(null, EntryService.MAX_PAGE_SIZE,
+				CursorPageRequest.Navigation.NEXT);
+		int count = 0;
+		while (true) {
+			CursorPage<Entry, EntryCursor> page = this.entryRepository.findOrderBy(tenantId,
+					SearchCriteria.NULL_CRITERIA, LOAD_SORT, pageRequest);
+			for (Entry entry : page.content()) {
+				suggestions.put(entry);
+			}
+			count += page.content().size();
+			EntryCursor next = page.head();
+			if (!page.hasNext() || next == null) {
+				break;
+			}
+			pageRequest = new CursorPageRequest<>(next, EntryService.MAX_PAGE_SIZE, CursorPageRequest.Navigation.NEXT);
+		}
+		logger.info("action=load_suggestions tenantId={} entries={} watermark={}", tenantId, count, watermark);
+		this.tenants.put(tenantId, suggestions);
+		return suggestions;
+	}
+
+}
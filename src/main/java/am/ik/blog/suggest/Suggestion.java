@@ -0,0 +1,30 @@
+package am.ik.blog.suggest;
+
+import java.util.Comparator;
+
+/**
+ * A completion for a type-ahead prefix.
+ *
+ * @param text title, tag or category name as written in the entries
+ * @param type what the text is
+ * @param weight popularity of the text; the number of entries that use a tag or a
+ * category, and {@code 1} for a title
+ */
+public record Suggestion(String text, Type type, int weight) {
+
+	/**
+	 * Most popular first. Ties are broken by type and then by text so that the order is
+	 * total.
+	 */
+	public static final Comparator<Suggestion> ORDER = Comparator.comparingInt(Suggestion::weight)
+		.reversed()
+		.thenComparing(Suggestion::type)
+		.thenComparing(Suggestion::text);
+
+	public enum Type {
+
+		TAG, CATEGORY, TITLE
+
+	}
+
+}
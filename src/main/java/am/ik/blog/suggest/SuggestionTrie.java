@@ -0,0 +1,107 @@
+package am.ik.blog.suggest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Prefix trie from normalized keys to weighted {@link Suggestion suggestions}. Every node
+ * caches the best {@link #TOP_K} suggestions below it, and a change only drops the caches
+ * along the path of its key, so that a completion is a walk down the prefix once the
+ * caches are warm. Not thread-safe.
+ */
+final class SuggestionTrie {
+
+	static final int TOP_K = 20;
+
+	private final Node root = new Node();
+
+	/**
+	 * Adds {@code delta} to the weight of the suggestion under the key, and removes the
+	 * suggestion once its weight drops to zero.
+	 */
+	void add(String key, Suggestion.Type type, String text, int delta) {
+		List<Node> path = new ArrayList<>(key.length() + 1);
+		Node node = this.root;
+		path.add(node);
+		for (int i = 0; i < key.length(); i++) {
+			node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+			path.add(node);
+		}
+		Target target = new Target(type, text);
+		int weight = node.suggestions.merge(target, delta, Integer::sum);
+		if (weight <= 0) {
+			node.suggestions.remove(target);
+		}
+		for (int i = path.size() - 1; i >= 0; i--) {
+			Node current = path.get(i);
+			current.top = null;
+			if (i > 0 && current.isEmpty()) {
+				path.get(i - 1).children.remove(key.charAt(i - 1));
+			}
+		}
+	}
+
+	/**
+	 * @return up to {@code limit} suggestions whose keys start with the prefix, in
+	 * {@link Suggestion#ORDER}
+	 */
+	List<Suggestion> complete(String prefix, int limit) {
+		Node node = this.root;
+		for (int i = 0; i < prefix.length() && node != null; i++) {
+			node = node.children.get(prefix.charAt(i));
+		}
+		if (node == null) {
+			return List.of();
+		}
+		List<Suggestion> top = top(node);
+		return top.size() <= limit ? top : top.subList(0, limit);
+	}
+
+	/**
+	 * The same suggestion can sit under several keys, e.g. a title under each of its
+	 * words, so it is counted once with its largest weight. The top suggestions of a node
+	 * are always among its own suggestions and the top suggestions of its children: a
+	 * suggestion left out of a child's top is preceded by {@link #TOP_K} others there.
+	 */
+	private static List<Suggestion> top(Node node) {
+		List<Suggestion> top = node.top;
+		if (top == null) {
+			Map<Target, Integer> weights = new HashMap<>(node.suggestions);
+			for (Node child : node.children.values()) {
+				for (Suggestion suggestion : top(child)) {
+					weights.merge(new Target(suggestion.type(), suggestion.text()), suggestion.weight(), Math::max);
+				}
+			}
+			top = weights.entrySet()
+				.stream()
+				.map(e -> new Suggestion(e.getKey().text(), e.getKey().type(), e.getValue()))
+				.sorted(Suggestion.ORDER)
+				.limit(TOP_K)
+				.toList();
+			node.top = top;
+		}
+		return top;
+	}
+
+	private record Target(Suggestion.Type type, String text) {
+
+	}
+
+	private static final class Node {
+
+		final Map<Character, Node> children = new HashMap<>(4);
+
+		final Map<Target, Integer> suggestions = new HashMap<>(2);
+
+		@Nullable List<Suggestion> top;
+
+		boolean isEmpty() {
+			return this.children.isEmpty() && this.suggestions.isEmpty();
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+package am.ik.blog.suggest;
+
+import am.ik.blog.entry.Category;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryChangedEvent;
+import am.ik.blog.entry.FrontMatter;
+import am.ik.blog.entry.Tag;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Suggestions of a single tenant as of a write watermark. Each entry contributes its
+ * title, under the title and under every word of it, and its tags and categories, whose
+ * weights are the number of entries that use them. The contribution of every entry is
+ * kept so that a later write can take it back.
+ */
+final class TenantSuggestions {
+
+	private final SuggestionTrie trie = new SuggestionTrie();
+
+	private final Map<Long, FrontMatter> contributions = new HashMap<>();
+
+	private long watermark;
+
+	private volatile long checkedAt;
+
+	TenantSuggestions(long watermark, long checkedAt) {
+		this.watermark = watermark;
+		this.checkedAt = checkedAt;
+	}
+
+	static String normalize(String text) {
+		return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+	}
+
+	synchronized void put(Entry entry) {
+		remove(entry.entryKey().entryId());
+		this.contributions.put(entry.entryKey().entryId(), entry.frontMatter());
+		contribute(entry.frontMatter(), 1);
+	}
+
+	synchronized void remove(Long entryId) {
+		FrontMatter frontMatter = this.contributions.remove(entryId);
+		if (frontMatter != null) {
+			contribute(frontMatter, -1);
+		}
+	}
+
+	/**
+	 * Applies a write made after the watermark of these suggestions.
+	 * @return {@code false} if writes have been missed in between, in which case the
+	 * suggestions have to be reloaded
+	 */
+	synchronized boolean apply(EntryChangedEvent event) {
+		if (this.watermark != event.previousWatermark() && this.watermark != event.watermark()) {
+			return event.watermark() < this.watermark;
+		}
+		Entry entry = event.entry();
+		if (entry == null) {
+			remove(event.entryKey().entryId());
+		}
+		else {
+			put(entry);
+		}
+		this.watermark = event.watermark();
+		return true;
+	}
+
+	synchronized List<Suggestion> complete(String prefix, int limit) {
+		return this.trie.complete(normalize(prefix).stripLeading(), limit);
+	}
+
+	synchronized long watermark() {
+		return this.watermark;
+	}
+
+	long checkedAt() {
+		return this.checkedAt;
+	}
+
+	void checkedAt(long checkedAt) {
+		this.checkedAt = checkedAt;
+	}
+
+	private void contribute(FrontMatter frontMatter, int delta) {
+		String title = frontMatter.title();
+		for (String key : titleKeys(normalize(title))) {
+			this.trie.add(key, Suggestion.Type.TITLE, title, delta);
+		}
+		for (String tag : frontMatter.tags().stream().map(Tag::name).collect(Collectors.toSet())) {
+			this.trie.add(normalize(tag), Suggestion.Type.TAG, tag, delta);
+		}
+		for (String category : frontMatter.categories().stream().map(Category::name).collect(Collectors.toSet())) {
+			this.trie.add(normalize(category), Suggestion.Type.CATEGORY, category, delta);
+		}
+	}
+
+	/**
+	 * @return the title and every part of it that starts a word
+	 */
+	static Set<String> titleKeys(String title) {
+		Set<String> keys = new LinkedHashSet<>();
+		for (int i = 0; i < title.length(); i++) {
+			if (!Character.isWhitespace(title.charAt(i)) && (i == 0 || Character.isWhitespace(title.charAt(i - 1)))) {
+				keys.add(title.substring(i));
+			}
+		}
+		return keys;
+	}
+
+}
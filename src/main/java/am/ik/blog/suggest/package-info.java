@@ -0,0 +1,4 @@
+@NullMarked
+package am.ik.blog.suggest;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,37 @@
+package am.ik.blog.suggest.web;
+
+import am.ik.blog.suggest.SuggestService;
+import am.ik.blog.suggest.Suggestion;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+public class SuggestController {
+
+	private final SuggestService suggestService;
+
+	public SuggestController(SuggestService suggestService) {
+		this.suggestService = suggestService;
+	}
+
+	@GetMapping(path = { "/suggest", "/tenants/{tenantId}/suggest" })
+	public List<Suggestion> suggest(@PathVariable(required = false) @Nullable String tenantId,
+			@RequestParam String prefix,
+			@RequestParam(defaultValue = "" + SuggestService.DEFAULT_LIMIT) int size) {
+		if (size < 1 || size > SuggestService.MAX_LIMIT) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"size must be between 1 and " + SuggestService.MAX_LIMIT);
+		}
+		if (prefix.isBlank()) {
+			return List.of();
+		}
+		return this.suggestService.suggest(tenantId, prefix, size);
+	}
+
+}
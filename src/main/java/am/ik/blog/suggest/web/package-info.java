@@ -0,0 +1,4 @@
+@NullMarked
+package am.ik.blog.suggest.web;
+
+import org.jspecify.annotations.NullMarked;
@@ -15,8 +15,38 @@ public class TestcontainersConfiguration {
 		cluster.withPdx("am\\.ik\\.blog\\.entry\\..+", true);
 		cluster.start();
 		cluster.gfsh(false, "create region --name=Entry --type=PARTITION_REDUNDANT_PERSISTENT");
+		cluster.gfsh(false, "create region --name=LatestEntries --type=REPLICATE");
+		cluster.gfsh(false, "create region --name=SearchStatistics --type=REPLICATE");
+		cluster.gfsh(false, "create region --name=DocumentFrequency --type=REPLICATE");
+		cluster.gfsh(false, "create region --name=TenantWatermark --type=REPLICATE");
+		cluster.gfsh(false, "create region --name=EntryTombstone --type=REPLICATE");
+		cluster.gfsh(false, "create region --name=Lease --type=REPLICATE");
+		cluster.gfsh(false,
+				"create region --name=CacheInvalidation --type=REPLICATE --enable-statistics"
+						+ " --entry-time-to-live-expiration=60 --entry-time-to-live-expiration-action=destroy");
 		cluster.gfsh(false,
 				"create index --name=idx_tenant_updated_at --expression=\"tenantId, updatedAt\" --region=/Entry");
+		cluster.gfsh(false,
+				"create index --name=idx_tenant_created_at --expression=\"tenantId, createdAt\" --region=/Entry");
+		cluster.gfsh(false,
+				"create index --name=idx_tenant_updated_at_entry_key --expression=\"tenantId, updatedAt, entryKey\""
+						+ " --region=/Entry");
+		cluster.gfsh(false,
+				"create index --name=idx_tenant_created_at_entry_key --expression=\"tenantId, createdAt, entryKey\""
+						+ " --region=/Entry");
+		cluster.gfsh(false,
+				"create index --name=idx_tenant_title_entry_key --expression=\"tenantId, title, entryKey\""
+						+ " --region=/Entry");
+		cluster.gfsh(false,
+				"create index --name=idx_tenant_entry_key --expression=\"tenantId, entryKey\" --region=/Entry");
+		cluster.gfsh(false,
+				"create index --name=idx_tenant_entry_id --expression=\"tenantId, entryId\" --region=/Entry");
+		cluster.gfsh(false,
+				"create index --name=idx_tenant_changed_at_entry_key --expression=\"tenantId, changedAt, entryKey\""
+						+ " --region=/Entry");
+		cluster.gfsh(false,
+				"create index --name=idx_tombstone_tenant_changed_at --expression=\"tenantId, changedAt\""
+						+ " --region=/EntryTombstone");
 		return cluster;
 	}
 
@@ -0,0 +1,34 @@
+package am.ik.blog.entry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeCursorTest {
+
+	@Test
+	void roundTrip() {
+		ChangeCursor cursor = new ChangeCursor(1705329000000L, 12L);
+		assertThat(cursor.toString()).isEqualTo("1705329000000,12");
+		assertThat(ChangeCursor.valueOf(cursor.toString())).isEqualTo(cursor);
+	}
+
+	@Test
+	void bareStamp() {
+		ChangeCursor cursor = ChangeCursor.valueOf("1705329000000");
+		assertThat(cursor.changedAt()).isEqualTo(1705329000000L);
+		assertThat(cursor.entryId()).isNull();
+		assertThat(cursor.toString()).isEqualTo("1705329000000");
+	}
+
+	@Test
+	void invalidFormat() {
+		assertThatThrownBy(() -> ChangeCursor.valueOf("abc")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ChangeCursor.valueOf("1705329000000,abc"))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ChangeCursor.valueOf("1705329000000,"))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,47 @@
+package am.ik.blog.entry;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntryCursorTest {
+
+	@Test
+	void updatedCursor() {
+		EntryCursor cursor = EntryCursor.valueOf("2024-01-15T14:30:00Z,12");
+		assertThat(cursor).isEqualTo(new UpdatedCursor(Instant.parse("2024-01-15T14:30:00Z"), 12L));
+		assertThat(cursor.field()).isEqualTo(EntrySort.Field.UPDATED);
+	}
+
+	@Test
+	void createdCursor() {
+		CreatedCursor cursor = new CreatedCursor(Instant.parse("2024-01-15T14:30:00Z"), 12L);
+		assertThat(cursor.toString()).isEqualTo("created:2024-01-15T14:30:00Z,12");
+		assertThat(EntryCursor.valueOf(cursor.toString())).isEqualTo(cursor);
+	}
+
+	@Test
+	void titleCursor() {
+		TitleCursor cursor = new TitleCursor("Hello, World", 12L);
+		assertThat(cursor.toString()).isEqualTo("title:12,Hello, World");
+		assertThat(EntryCursor.valueOf(cursor.toString())).isEqualTo(cursor);
+	}
+
+	@Test
+	void entryIdCursor() {
+		EntryIdCursor cursor = new EntryIdCursor(12L);
+		assertThat(cursor.toString()).isEqualTo("entryId:12");
+		assertThat(EntryCursor.valueOf(cursor.toString())).isEqualTo(cursor);
+	}
+
+	@Test
+	void invalidFormat() {
+		assertThatThrownBy(() -> EntryCursor.valueOf("created:2024-01-15T14:30:00Z"))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> EntryCursor.valueOf("title:abc")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> EntryCursor.valueOf("entryId:abc")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -2,12 +2,17 @@ package am.ik.blog.entry;
 
 import am.ik.blog.GitHubProps;
 import am.ik.blog.MockConfig;
+import am.ik.blog.github.GitBlobs;
 import am.ik.blog.github.GitHubClient;
 import am.ik.blog.mockserver.MockServer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -92,7 +97,8 @@ class EntryServiceGitHubDirectUpdateTest {
 		@Bean
 		EntryService entryService(EntryRepository entryRepository, GitHubProps gitHubProps,
 				HttpServiceProxyRegistry registry, EntryParser entryParser) {
-			return new EntryService(entryRepository, gitHubProps, registry, entryParser);
+			return new EntryService(entryRepository, gitHubProps, registry, entryParser,
+					Mockito.mock(EntryChangeStream.class));
 		}
 
 	}
@@ -158,9 +164,9 @@ class EntryServiceGitHubDirectUpdateTest {
 
 		Entry result = this.entryService.save(null, entry);
 
-		assertThat(result).isEqualTo(entry);
+		assertThat(result).isEqualTo(entry.toBuilder().blobSha("newfile123").build());
 		// Repository should also be updated
-		verify(this.entryRepository).save(entry);
+		verify(this.entryRepository).save(result);
 	}
 
 	@Test
@@ -225,9 +231,171 @@ class EntryServiceGitHubDirectUpdateTest {
 
 		Entry result = this.entryService.save(null, entry);
 
-		assertThat(result).isEqualTo(entry);
+		assertThat(result).isEqualTo(entry.toBuilder().blobSha("updatedsha789").build());
 		// Repository should also be updated
-		verify(this.entryRepository).save(entry);
+		verify(this.entryRepository).save(result);
+	}
+
+	@Test
+	void save_shouldUpdateFileWithKnownShaWithoutFetching() {
+		Entry entry = createTestEntry(9L);
+		AtomicInteger fetches = new AtomicInteger();
+		AtomicReference<String> capturedBody = new AtomicReference<>();
+		when(this.entryRepository.findBlobSha(entry.entryKey())).thenReturn("knownsha999");
+		this.mockServer.GET("/repos/test-owner/test-repo/contents/content/00009.md", request -> {
+			fetches.incrementAndGet();
+			return MockServer.Response.json(fileResponse("00009", "knownsha999"));
+		});
+		this.mockServer.PUT("/repos/test-owner/test-repo/contents/content/00009.md", request -> {
+			capturedBody.set(request.body());
+			return MockServer.Response.json(commitResponse("00009", "updatedsha999"));
+		});
+
+		Entry result = this.entryService.save(null, entry);
+
+		assertThat(result.blobSha()).isEqualTo("updatedsha999");
+		assertThat(fetches).hasValue(0);
+		assertThat(capturedBody.get()).contains("\"sha\":\"knownsha999\"");
+		verify(this.entryRepository).save(result);
+	}
+
+	@Test
+	void save_shouldRetryWithFreshShaWhenKnownShaIsStale() {
+		Entry entry = createTestEntry(10L);
+		List<String> capturedBodies = new CopyOnWriteArrayList<>();
+		when(this.entryRepository.findBlobSha(entry.entryKey())).thenReturn("stalesha");
+		this.mockServer.GET("/repos/test-owner/test-repo/contents/content/00010.md",
+				request -> MockServer.Response.json(fileResponse("00010", "freshsha")));
+		this.mockServer.PUT("/repos/test-owner/test-repo/contents/content/00010.md", request -> {
+			capturedBodies.add(request.body());
+			if (request.body().contains("stalesha")) {
+				return MockServer.Response.builder()
+					.status(409)
+					.contentType(MediaType.APPLICATION_JSON_VALUE)
+					.body("{\"message\":\"content/00010.md does not match stalesha\"}")
+					.build();
+			}
+			return MockServer.Response.json(commitResponse("00010", "updatedsha010"));
+		});
+
+		Entry result = this.entryService.save(null, entry);
+
+		assertThat(result.blobSha()).isEqualTo("updatedsha010");
+		assertThat(capturedBodies).hasSize(2);
+		assertThat(capturedBodies.get(1)).contains("\"sha\":\"freshsha\"");
+		verify(this.entryRepository).save(result);
+	}
+
+	@Test
+	void deleteById_shouldDeleteFileWithKnownShaWithoutFetching() {
+		EntryKey entryKey = new EntryKey(11L, null);
+		AtomicInteger fetches = new AtomicInteger();
+		AtomicReference<String> capturedBody = new AtomicReference<>();
+		when(this.entryRepository.findBlobSha(entryKey)).thenReturn("knownsha011");
+		this.mockServer.GET("/repos/test-owner/test-repo/contents/content/00011.md", request -> {
+			fetches.incrementAndGet();
+			return MockServer.Response.json(fileResponse("00011", "knownsha011"));
+		});
+		this.mockServer.DELETE("/repos/test-owner/test-repo/contents/content/00011.md", request -> {
+			capturedBody.set(request.body());
+			return MockServer.Response.json("""
+					{
+					  "content": null,
+					  "commit": {
+					    "sha": "deletecommit011",
+					    "message": "Delete entry 00011"
+					  }
+					}
+					""");
+		});
+
+		this.entryService.deleteById(null, entryKey);
+
+		assertThat(fetches).hasValue(0);
+		assertThat(capturedBody.get()).contains("\"sha\":\"knownsha011\"");
+		verify(this.entryRepository).deleteById(entryKey);
+	}
+
+	@Test
+	void saveAll_shouldCommitChangedEntriesAtOnce() {
+		Entry unchanged = createTestEntry(12L);
+		Entry changed = createTestEntry(13L);
+		Entry added = createTestEntry(14L);
+		String unchangedSha = GitBlobs.sha(unchanged.toMarkdown().getBytes(StandardCharsets.UTF_8));
+		AtomicReference<String> treeBody = new AtomicReference<>();
+		AtomicReference<String> commitBody = new AtomicReference<>();
+		AtomicReference<String> refBody = new AtomicReference<>();
+		prepareGitData("""
+				{"path": "00012.md", "mode": "100644", "type": "blob", "sha": "%s"},
+				{"path": "00013.md", "mode": "100644", "type": "blob", "sha": "oldsha013"}
+				""".formatted(unchangedSha), treeBody, commitBody, request -> {
+			refBody.set(request.body());
+			return branchUpdated();
+		});
+
+		this.entryService.saveAll(null, List.of(unchanged, changed, added));
+
+		assertThat(treeBody.get()).contains("\"base_tree\":\"roottree\"")
+			.contains("\"path\":\"content/00013.md\"")
+			.contains("\"path\":\"content/00014.md\"")
+			// GitHub rejects a blob with both content and SHA
+			.doesNotContain("\"sha\":")
+			.doesNotContain("00012.md");
+		assertThat(commitBody.get()).contains("\"message\":\"Update 3 entries\"")
+			.contains("\"tree\":\"newtree\"")
+			.contains("\"parents\":[\"head123\"]");
+		assertThat(refBody.get()).contains("\"sha\":\"newcommit\"").contains("\"force\":false");
+		String changedSha = GitBlobs.sha(changed.toMarkdown().getBytes(StandardCharsets.UTF_8));
+		String addedSha = GitBlobs.sha(added.toMarkdown().getBytes(StandardCharsets.UTF_8));
+		verify(this.entryRepository).saveAll(List.of(unchanged.toBuilder().blobSha(unchangedSha).build(),
+				changed.toBuilder().blobSha(changedSha).build(), added.toBuilder().blobSha(addedSha).build()));
+	}
+
+	@Test
+	void saveAll_shouldRetryWhenBranchHasMovedOn() {
+		Entry entry = createTestEntry(15L);
+		AtomicInteger updates = new AtomicInteger();
+		prepareGitData("", new AtomicReference<>(), new AtomicReference<>(),
+				request -> (updates.incrementAndGet() == 1) ? notFastForward() : branchUpdated());
+
+		this.entryService.saveAll(null, List.of(entry));
+
+		assertThat(updates).hasValue(2);
+		verify(this.entryRepository).saveAll(List.of(
+				entry.toBuilder().blobSha(GitBlobs.sha(entry.toMarkdown().getBytes(StandardCharsets.UTF_8))).build()));
+	}
+
+	@Test
+	void saveAll_shouldFailWhenBranchCannotBeUpdated() {
+		Entry entry = createTestEntry(16L);
+		prepareGitData("", new AtomicReference<>(), new AtomicReference<>(), request -> notFastForward());
+
+		assertThatThrownBy(() -> this.entryService.saveAll(null, List.of(entry)))
+			.isInstanceOf(ResponseStatusException.class)
+			.hasMessageContaining("Failed to update branch on GitHub");
+
+		verify(this.entryRepository, never()).saveAll(any(List.class));
+	}
+
+	@Test
+	void deleteAll_shouldDeleteExistingFilesAtOnce() {
+		EntryKey existing = new EntryKey(17L, null);
+		EntryKey missing = new EntryKey(18L, null);
+		AtomicReference<String> treeBody = new AtomicReference<>();
+		AtomicReference<String> commitBody = new AtomicReference<>();
+		prepareGitData("""
+				{"path": "00017.md", "mode": "100644", "type": "blob", "sha": "sha017"}
+				""", treeBody, commitBody, request -> branchUpdated());
+
+		this.entryService.deleteAll(null, List.of(existing, missing));
+
+		assertThat(treeBody.get()).contains("\"path\":\"content/00017.md\"")
+			.contains("\"sha\":null")
+			.doesNotContain("\"content\":")
+			.doesNotContain("00018.md");
+		assertThat(commitBody.get()).contains("\"message\":\"Delete 2 entries\"");
+		verify(this.entryRepository).deleteById(existing);
+		verify(this.entryRepository).deleteById(missing);
 	}
 
 	@Test
@@ -418,6 +586,78 @@ class EntryServiceGitHubDirectUpdateTest {
 		}
 	}
 
+	private void prepareGitData(String contentTreeEntries, AtomicReference<String> treeBody,
+			AtomicReference<String> commitBody, Function<MockServer.Request, MockServer.Response> updateBranch) {
+		this.mockServer.GET("/repos/test-owner/test-repo", request -> MockServer.Response.json("""
+				{"default_branch": "main"}
+				"""));
+		this.mockServer.GET("/repos/test-owner/test-repo/git/ref/heads/main", request -> MockServer.Response.json("""
+				{"ref": "refs/heads/main", "object": {"sha": "head123", "type": "commit"}}
+				"""));
+		this.mockServer.GET("/repos/test-owner/test-repo/git/trees/head123:content",
+				request -> MockServer.Response.json("""
+						{"sha": "contenttree", "tree": [%s], "truncated": false}
+						""".formatted(contentTreeEntries)));
+		this.mockServer.GET("/repos/test-owner/test-repo/git/trees/head123", request -> MockServer.Response.json("""
+				{"sha": "roottree", "tree": [], "truncated": false}
+				"""));
+		this.mockServer.POST("/repos/test-owner/test-repo/git/trees", request -> {
+			treeBody.set(request.body());
+			return MockServer.Response.json("""
+					{"sha": "newtree", "tree": [], "truncated": false}
+					""");
+		});
+		this.mockServer.POST("/repos/test-owner/test-repo/git/commits", request -> {
+			commitBody.set(request.body());
+			return MockServer.Response.json("""
+					{"sha": "newcommit", "message": "commit", "tree": {"sha": "newtree"}, "parents": []}
+					""");
+		});
+		this.mockServer.PATCH("/repos/test-owner/test-repo/git/refs/heads/main", updateBranch);
+	}
+
+	private static MockServer.Response branchUpdated() {
+		return MockServer.Response.json("""
+				{"ref": "refs/heads/main", "object": {"sha": "newcommit", "type": "commit"}}
+				""");
+	}
+
+	private static MockServer.Response notFastForward() {
+		return MockServer.Response.builder()
+			.status(422)
+			.contentType(MediaType.APPLICATION_JSON_VALUE)
+			.body("{\"message\":\"Update is not a fast forward\"}")
+			.build();
+	}
+
+	private static String fileResponse(String formattedId, String sha) {
+		return """
+				{
+				  "name": "%s.md",
+				  "path": "content/%s.md",
+				  "sha": "%s",
+				  "content": "dGVzdA==",
+				  "type": "file"
+				}
+				""".formatted(formattedId, formattedId, sha);
+	}
+
+	private static String commitResponse(String formattedId, String sha) {
+		return """
+				{
+				  "content": {
+				    "name": "%s.md",
+				    "path": "content/%s.md",
+				    "sha": "%s"
+				  },
+				  "commit": {
+				    "sha": "commit%s",
+				    "message": "Update entry %s"
+				  }
+				}
+				""".formatted(formattedId, formattedId, sha, formattedId, formattedId);
+	}
+
 	private Entry createTestEntry(Long id) {
 		Instant now = Instant.now();
 		return Entry.builder()
@@ -0,0 +1,35 @@
+package am.ik.blog.entry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntrySortTest {
+
+	@Test
+	void defaultDirection() {
+		assertThat(EntrySort.valueOf("updated")).isEqualTo(EntrySort.DEFAULT);
+		assertThat(EntrySort.valueOf("created"))
+			.isEqualTo(new EntrySort(EntrySort.Field.CREATED, EntrySort.Direction.DESC));
+		assertThat(EntrySort.valueOf("title")).isEqualTo(new EntrySort(EntrySort.Field.TITLE, EntrySort.Direction.ASC));
+		assertThat(EntrySort.valueOf("entryId"))
+			.isEqualTo(new EntrySort(EntrySort.Field.ENTRY_ID, EntrySort.Direction.DESC));
+	}
+
+	@Test
+	void explicitDirection() {
+		assertThat(EntrySort.valueOf("updated,asc"))
+			.isEqualTo(new EntrySort(EntrySort.Field.UPDATED, EntrySort.Direction.ASC));
+		assertThat(EntrySort.valueOf("title,DESC"))
+			.isEqualTo(new EntrySort(EntrySort.Field.TITLE, EntrySort.Direction.DESC));
+		assertThat(EntrySort.valueOf("created,asc").toString()).isEqualTo("created,asc");
+	}
+
+	@Test
+	void invalid() {
+		assertThatThrownBy(() -> EntrySort.valueOf("summary")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> EntrySort.valueOf("title,up")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
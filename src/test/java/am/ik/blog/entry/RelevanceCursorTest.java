@@ -0,0 +1,34 @@
+package am.ik.blog.entry;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RelevanceCursorTest {
+
+	@Test
+	void roundTrip() {
+		RelevanceCursor cursor = new RelevanceCursor(1.2345678901234567, "00012|tenant1");
+		assertThat(cursor.toString()).isEqualTo("1.2345678901234567,00012|tenant1");
+		assertThat(RelevanceCursor.valueOf(cursor.toString())).isEqualTo(cursor);
+	}
+
+	@Test
+	void order() {
+		List<RelevanceCursor> cursors = new ArrayList<>(List.of(new RelevanceCursor(1.0, "00001"),
+				new RelevanceCursor(2.0, "00002"), new RelevanceCursor(1.0, "00003")));
+		cursors.sort(RelevanceCursor.ORDER);
+		assertThat(cursors).extracting(RelevanceCursor::entryKey).containsExactly("00002", "00003", "00001");
+	}
+
+	@Test
+	void invalidFormat() {
+		assertThatThrownBy(() -> RelevanceCursor.valueOf("00001")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RelevanceCursor.valueOf("abc,00001")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RelevanceCursor.valueOf("1.0,")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,35 @@
+package am.ik.blog.entry;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpdatedCursorTest {
+
+	@Test
+	void roundTrip() {
+		UpdatedCursor cursor = new UpdatedCursor(Instant.parse("2024-01-15T14:30:00Z"), 12L);
+		assertThat(cursor.toString()).isEqualTo("2024-01-15T14:30:00Z,12");
+		assertThat(UpdatedCursor.valueOf(cursor.toString())).isEqualTo(cursor);
+	}
+
+	@Test
+	void legacyCursor() {
+		UpdatedCursor cursor = UpdatedCursor.valueOf("2024-01-15T14:30:00Z");
+		assertThat(cursor.updated()).isEqualTo(Instant.parse("2024-01-15T14:30:00Z"));
+		assertThat(cursor.entryId()).isNull();
+		assertThat(cursor.toString()).isEqualTo("2024-01-15T14:30:00Z");
+	}
+
+	@Test
+	void invalidFormat() {
+		assertThatThrownBy(() -> UpdatedCursor.valueOf("abc")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> UpdatedCursor.valueOf("2024-01-15T14:30:00Z,abc"))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> UpdatedCursor.valueOf("2024-01-15T14:30:00Z,"))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,106 @@
+package am.ik.blog.entry.filesystem;
+
+import am.ik.blog.BlogProps;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryParser;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileSystemEntryFetcherTest {
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	void setup() throws Exception {
+		Files.createDirectories(this.directory.resolve("content"));
+	}
+
+	FileSystemEntryFetcher fetcher(String tenantId) {
+		BlogProps blogProps = new BlogProps();
+		blogProps.getLocal().setDirectory(this.directory.toString());
+		if (tenantId != null) {
+			blogProps.getLocal().setTenantId(tenantId);
+		}
+		return new FileSystemEntryFetcher(new EntryParser(JsonMapper.builder().build()), blogProps);
+	}
+
+	@Test
+	void fetchWithFrontMatterDates() throws Exception {
+		Files.writeString(this.directory.resolve("content/00001.md"), """
+				---
+				title: Hello
+				tags: ["java"]
+				categories: ["Dev"]
+				date: 2024-01-02T03:04:05Z
+				updated: 2024-02-03T04:05:06Z
+				---
+
+				Hello World!
+				""");
+		Optional<Entry> entry = fetcher(null).fetch(null, "owner", "repo", "content/00001.md");
+		assertThat(entry).isPresent();
+		assertThat(entry.get().entryKey()).isEqualTo(new EntryKey(1L));
+		assertThat(entry.get().frontMatter().title()).isEqualTo("Hello");
+		assertThat(entry.get().content()).contains("Hello World!");
+		assertThat(entry.get().created().date()).isEqualTo(Instant.parse("2024-01-02T03:04:05Z"));
+		assertThat(entry.get().updated().date()).isEqualTo(Instant.parse("2024-02-03T04:05:06Z"));
+	}
+
+	@Test
+	void fetchWithFileTimes() throws Exception {
+		Path file = Files.writeString(this.directory.resolve("content/00002.md"), """
+				---
+				title: No dates
+				---
+
+				Content
+				""");
+		Instant modified = Instant.parse("2025-05-06T07:08:09Z");
+		Files.setLastModifiedTime(file, FileTime.from(modified));
+		Optional<Entry> entry = fetcher(null).fetch(null, "owner", "repo", "content/00002.md");
+		assertThat(entry).isPresent();
+		assertThat(entry.get().updated().name()).isEqualTo("unknown");
+		assertThat(entry.get().updated().date()).isEqualTo(modified);
+		assertThat(entry.get().created().date()).isNotNull();
+	}
+
+	@Test
+	void fetchMissingFile() {
+		assertThat(fetcher(null).fetch(null, "owner", "repo", "content/00003.md")).isEmpty();
+	}
+
+	@Test
+	void fetchOutsideOfDirectory() throws Exception {
+		Files.writeString(this.directory.resolveSibling("00004.md"), """
+				---
+				title: Outside
+				---
+				""");
+		assertThat(fetcher(null).fetch(null, "owner", "repo", "../00004.md")).isEmpty();
+	}
+
+	@Test
+	void fetchOtherTenant() throws Exception {
+		Files.writeString(this.directory.resolve("content/00005.md"), """
+				---
+				title: Tenant
+				---
+				""");
+		assertThat(fetcher("t1").fetch(null, "owner", "repo", "content/00005.md")).isEmpty();
+		Optional<Entry> entry = fetcher("t1").fetch("t1", "owner", "repo", "content/00005.md");
+		assertThat(entry).isPresent();
+		assertThat(entry.get().entryKey()).isEqualTo(new EntryKey(5L, "t1"));
+	}
+
+}
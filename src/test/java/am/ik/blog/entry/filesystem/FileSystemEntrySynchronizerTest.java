@@ -0,0 +1,132 @@
+package am.ik.blog.entry.filesystem;
+
+import am.ik.blog.BlogProps;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryParser;
+import am.ik.blog.entry.EntryRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FileSystemEntrySynchronizerTest {
+
+	@TempDir
+	Path directory;
+
+	EntryRepository entryRepository = mock(EntryRepository.class);
+
+	FileSystemEntrySynchronizer synchronizer;
+
+	@BeforeEach
+	void setup() throws Exception {
+		Files.createDirectories(this.directory.resolve("content"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (this.synchronizer != null) {
+			this.synchronizer.stop();
+		}
+	}
+
+	FileSystemEntrySynchronizer synchronizer(boolean watch) {
+		BlogProps blogProps = new BlogProps();
+		blogProps.getLocal().setDirectory(this.directory.toString());
+		blogProps.getLocal().setWatch(watch);
+		FileSystemEntryFetcher fetcher = new FileSystemEntryFetcher(new EntryParser(JsonMapper.builder().build()),
+				blogProps);
+		this.synchronizer = new FileSystemEntrySynchronizer(fetcher, this.entryRepository, blogProps);
+		return this.synchronizer;
+	}
+
+	void write(long entryId, String title) throws Exception {
+		Files.writeString(this.directory.resolve("content").resolve(Entry.formatId(entryId) + ".md"), """
+				---
+				title: %s
+				---
+
+				Content
+				""".formatted(title));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void importOnStartup() throws Exception {
+		for (long i = 1; i <= FileSystemEntrySynchronizer.BATCH_SIZE + 1; i++) {
+			write(i, "Entry " + i);
+		}
+		Files.writeString(this.directory.resolve("content/README.md"), "# README");
+		synchronizer(false).start();
+		ArgumentCaptor<List<Entry>> captor = ArgumentCaptor.forClass(List.class);
+		verify(this.entryRepository, times(2)).saveAll(captor.capture());
+		assertThat(captor.getAllValues().get(0)).hasSize(FileSystemEntrySynchronizer.BATCH_SIZE);
+		assertThat(captor.getAllValues().get(1)).singleElement()
+			.extracting(Entry::entryKey)
+			.isEqualTo(new EntryKey(101L));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void importSkipsMalformedFiles() throws Exception {
+		write(1, "Entry 1");
+		Files.writeString(this.directory.resolve("content/00002.md"), "No front matter");
+		write(3, "Entry 3");
+		synchronizer(false).start();
+		ArgumentCaptor<List<Entry>> captor = ArgumentCaptor.forClass(List.class);
+		verify(this.entryRepository).saveAll(captor.capture());
+		assertThat(captor.getValue()).extracting(Entry::entryKey)
+			.containsExactly(new EntryKey(1L), new EntryKey(3L));
+	}
+
+	@Test
+	void reimportDeletesEntriesWhoseFilesAreGone() throws Exception {
+		write(1, "Entry 1");
+		Files.writeString(this.directory.resolve("content/00002.md"), "No front matter");
+		when(this.entryRepository.findBlobShas(null)).thenReturn(Map.of(1L, "sha1", 2L, "sha2", 3L, "sha3"));
+		synchronizer(false).reimportAll();
+		verify(this.entryRepository).deleteById(new EntryKey(3L));
+		verify(this.entryRepository, never()).deleteById(new EntryKey(1L));
+		// a file that cannot be read keeps its entry
+		verify(this.entryRepository, never()).deleteById(new EntryKey(2L));
+	}
+
+	@Test
+	void watch() throws Exception {
+		write(1, "Entry 1");
+		synchronizer(true).start();
+		verify(this.entryRepository).saveAll(anyList());
+		write(2, "Entry 2");
+		verify(this.entryRepository, timeout(30_000))
+			.saveAll(argThat((List<Entry> entries) -> entries.size() == 1
+					&& entries.get(0).entryKey().equals(new EntryKey(2L))));
+		Files.delete(this.directory.resolve("content/00001.md"));
+		verify(this.entryRepository, timeout(30_000)).deleteById(new EntryKey(1L));
+		verify(this.entryRepository, never()).deleteById(new EntryKey(2L));
+	}
+
+	@Test
+	void isEntryFile() {
+		assertThat(FileSystemEntrySynchronizer.isEntryFile(Path.of("content/00001.md"))).isTrue();
+		assertThat(FileSystemEntrySynchronizer.isEntryFile(Path.of("content/README.md"))).isFalse();
+		assertThat(FileSystemEntrySynchronizer.isEntryFile(Path.of("content/00001.md.swp"))).isFalse();
+	}
+
+}
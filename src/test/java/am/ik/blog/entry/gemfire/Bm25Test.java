@@ -0,0 +1,49 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Bm25Test {
+
+	final Bm25 bm25 = new Bm25(List.of("spring", "docker"), 10, new long[] { 2, 5 }, 100);
+
+	@Test
+	void rareTermScoresHigher() {
+		double spring = this.bm25.score(new int[] { 1, 0 }, 100, "", Set.of());
+		double docker = this.bm25.score(new int[] { 0, 1 }, 100, "", Set.of());
+		assertThat(spring).isGreaterThan(docker);
+	}
+
+	@Test
+	void termFrequencySaturates() {
+		double once = this.bm25.score(new int[] { 1, 0 }, 100, "", Set.of());
+		double twice = this.bm25.score(new int[] { 2, 0 }, 100, "", Set.of());
+		double tenTimes = this.bm25.score(new int[] { 10, 0 }, 100, "", Set.of());
+		assertThat(twice).isGreaterThan(once);
+		assertThat(tenTimes).isLessThan(once * 10);
+	}
+
+	@Test
+	void shorterEntryScoresHigher() {
+		double shorter = this.bm25.score(new int[] { 1, 0 }, 50, "", Set.of());
+		double longer = this.bm25.score(new int[] { 1, 0 }, 200, "", Set.of());
+		assertThat(shorter).isGreaterThan(longer);
+	}
+
+	@Test
+	void titleAndTagBoost() {
+		double body = this.bm25.score(new int[] { 1, 0 }, 100, "hello", Set.of());
+		double title = this.bm25.score(new int[] { 1, 0 }, 100, "getting started with spring boot", Set.of());
+		double tag = this.bm25.score(new int[] { 1, 0 }, 100, "hello", Set.of("Spring-Boot"));
+		assertThat(title).isGreaterThan(tag).isGreaterThan(body);
+	}
+
+	@Test
+	void noMatch() {
+		assertThat(this.bm25.score(new int[] { 0, 0 }, 100, "hello", Set.of("java"))).isZero();
+	}
+
+}
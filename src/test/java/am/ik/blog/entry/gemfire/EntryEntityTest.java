@@ -5,6 +5,7 @@ import am.ik.blog.entry.Category;
 import am.ik.blog.entry.Entry;
 import am.ik.blog.entry.EntryKey;
 import am.ik.blog.entry.FrontMatter;
+import am.ik.blog.entry.MockData;
 import am.ik.blog.entry.Tag;
 import java.time.Instant;
 import java.util.LinkedHashSet;
@@ -74,6 +75,27 @@ class EntryEntityTest {
 		assertThat(entity.getTagWithVersions()).containsExactlyInAnyOrder("java|21", "postgresql|16.0");
 	}
 
+	@Test
+	void fromModel_normalizesSearchText() {
+		Instant now = Instant.now();
+
+		Entry entry = Entry.builder()
+			.entryKey(new EntryKey(222L))
+			.frontMatter(FrontMatter.builder().title("Search Text").categories(new Category("Blog")).build())
+			.content("""
+					## Ｓｐｒｉｎｇ Ｂｏｏｔ
+
+					See **[the docs](https://docs.spring.io)** and run `./mvnw` in ﾀｰﾐﾅﾙ.
+					""")
+			.created(Author.builder().name("author").date(now).build())
+			.updated(Author.builder().name("author").date(now).build())
+			.build();
+
+		EntryEntity entity = EntryEntity.fromModel(entry);
+
+		assertThat(entity.getSearchText()).isEqualTo("spring boot see the docs and run ./mvnw in ターミナル.");
+	}
+
 	@Test
 	void fromModel_handlesNullContent() {
 		Instant now = Instant.now();
@@ -269,4 +291,69 @@ class EntryEntityTest {
 		assertThat(restored.updated().date()).isEqualTo(original.updated().date());
 	}
 
+	@Test
+	void blobShaRoundTrip() {
+		Entry original = Entry.builder()
+			.entryKey(new EntryKey(100L))
+			.frontMatter(FrontMatter.builder().title("Blob").summary("summary").build())
+			.content("content")
+			.created(Author.builder().name("creator").date(Instant.now()).build())
+			.updated(Author.builder().name("updater").date(Instant.now()).build())
+			.blobSha("0123456789abcdef")
+			.build();
+
+		EntryEntity entity = EntryEntity.fromModel(original);
+
+		assertThat(entity.getBlobSha()).isEqualTo("0123456789abcdef");
+		assertThat(entity.toModel().blobSha()).isEqualTo("0123456789abcdef");
+		assertThat(entity.toBuilder().build().getBlobSha()).isEqualTo("0123456789abcdef");
+		assertThat(EntryEntity.fromModel(original.toBuilder().blobSha(null).build()).getBlobSha()).isNull();
+	}
+
+	@Test
+	void contentHash() {
+		Entry original = Entry.builder()
+			.entryKey(new EntryKey(100L))
+			.frontMatter(FrontMatter.builder()
+				.title("Hash")
+				.summary("summary")
+				.tags(Tag.builder().name("java").version("21").build())
+				.build())
+			.content("content")
+			.created(Author.builder().name("creator").date(Instant.ofEpochMilli(1000)).build())
+			.updated(Author.builder().name("updater").date(Instant.ofEpochMilli(2000)).build())
+			.build();
+		String hash = EntryEntity.fromModel(original).getContentHash();
+
+		assertThat(hash).hasSize(64);
+		assertThat(EntryEntity.fromModel(original.toBuilder().build()).getContentHash()).isEqualTo(hash);
+		assertThat(EntryEntity.fromModel(original.toBuilder().blobSha("sha").build()).getContentHash())
+			.isEqualTo(hash);
+		assertThat(EntryEntity.fromModel(original.toBuilder().content("changed").build()).getContentHash())
+			.isNotEqualTo(hash);
+		FrontMatter newVersion = original.frontMatter()
+			.toBuilder()
+			.tags(Tag.builder().name("java").version("25").build())
+			.build();
+		assertThat(EntryEntity.fromModel(original.toBuilder().frontMatter(newVersion).build()).getContentHash())
+			.isNotEqualTo(hash);
+		Author updated = original.updated().toBuilder().date(Instant.ofEpochMilli(3000)).build();
+		assertThat(EntryEntity.fromModel(original.toBuilder().updated(updated).build()).getContentHash())
+			.isNotEqualTo(hash);
+	}
+
+	@Test
+	void contentHashComputedWhenBuilt() {
+		Entry entry = MockData.ENTRY1;
+		EntryEntity entity = EntryEntity.fromModel(entry);
+
+		assertThat(entity.getContentHash()).isEqualTo(entry.contentHash());
+		assertThat(entity.toModel().contentHash()).isEqualTo(entry.contentHash());
+		assertThat(entry.toBuilder().blobSha("sha").build().contentHash()).isEqualTo(entry.contentHash());
+		assertThat(entry.toBuilder().content("changed").build().contentHash()).isNotEqualTo(entry.contentHash());
+		entity.setContent("");
+		assertThat(entity.getContentHash()).isNull();
+		assertThat(entity.toModel().contentHash()).isEqualTo(entry.toBuilder().content("").build().contentHash());
+	}
+
 }
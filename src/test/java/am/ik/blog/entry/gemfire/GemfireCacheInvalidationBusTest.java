@@ -0,0 +1,89 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.MockConfig;
+import am.ik.blog.TestcontainersConfiguration;
+import am.ik.blog.entry.CacheNames;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.MockData;
+import org.apache.geode.cache.Region;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		properties = { "logging.level.am.ik.blog.entry.gemfire.GemfireEntryRepository=warn" })
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ TestcontainersConfiguration.class, MockConfig.class, GemfireCacheInvalidationBusTest.CacheConfig.class })
+class GemfireCacheInvalidationBusTest {
+
+	@Autowired
+	GemfireEntryRepository entryRepository;
+
+	@Autowired
+	@Qualifier("cacheInvalidationRegion")
+	Region<String, CacheInvalidation> cacheInvalidationRegion;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	Cache entryCache;
+
+	Cache latestEntriesCache;
+
+	@BeforeEach
+	void setup() {
+		this.entryRepository.deleteAll();
+		this.entryCache = this.cacheManager.getCache(CacheNames.ENTRY);
+		this.latestEntriesCache = this.cacheManager.getCache(CacheNames.LATEST_ENTRIES);
+		this.entryCache.clear();
+		this.latestEntriesCache.clear();
+	}
+
+	@Test
+	void evictLocalCachesOnWrite() {
+		this.entryCache.put(new EntryKey(1L), MockData.ENTRY1);
+		this.entryCache.put(new EntryKey(2L), MockData.ENTRY2);
+		this.latestEntriesCache.put(EntryKey.DEFAULT_TENANT_ID, "latest");
+		this.entryRepository.save(MockData.ENTRY1);
+		assertThat(this.entryCache.get(new EntryKey(1L))).isNull();
+		assertThat(this.entryCache.get(new EntryKey(2L))).isNotNull();
+		assertThat(this.latestEntriesCache.get(EntryKey.DEFAULT_TENANT_ID)).isNull();
+	}
+
+	@Test
+	void evictOnInvalidationFromOtherReplica() throws Exception {
+		this.entryCache.put(new EntryKey(1L), MockData.ENTRY1);
+		this.entryCache.put(new EntryKey(2L), MockData.ENTRY2);
+		this.latestEntriesCache.put(EntryKey.DEFAULT_TENANT_ID, "latest");
+		this.cacheInvalidationRegion.put("test",
+				new CacheInvalidation("other-replica", EntryKey.DEFAULT_TENANT_ID, "00002"));
+		for (int i = 0; i < 100 && this.entryCache.get(new EntryKey(2L)) != null; i++) {
+			Thread.sleep(100);
+		}
+		assertThat(this.entryCache.get(new EntryKey(2L))).isNull();
+		assertThat(this.entryCache.get(new EntryKey(1L))).isNotNull();
+		assertThat(this.latestEntriesCache.get(EntryKey.DEFAULT_TENANT_ID)).isNull();
+	}
+
+	@TestConfiguration(proxyBeanMethods = false)
+	static class CacheConfig {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager(CacheNames.ENTRY, CacheNames.LATEST_ENTRIES);
+		}
+
+	}
+
+}
@@ -0,0 +1,72 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.MockConfig;
+import am.ik.blog.TestcontainersConfiguration;
+import am.ik.blog.entry.EntryChange;
+import am.ik.blog.entry.EntryChangeStream;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.MockData;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		properties = { "logging.level.am.ik.blog.entry.gemfire.GemfireEntryRepository=warn" })
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ TestcontainersConfiguration.class, MockConfig.class })
+class GemfireEntryChangeStreamTest {
+
+	@Autowired
+	GemfireEntryRepository entryRepository;
+
+	@Autowired
+	GemfireEntryChangeStream entryChangeStream;
+
+	@BeforeEach
+	void setup() {
+		this.entryRepository.deleteAll();
+		this.entryRepository.saveAll(MockData.ALL_ENTRIES);
+	}
+
+	@Test
+	void subscribe() throws Exception {
+		BlockingQueue<EntryChange> changes = new LinkedBlockingQueue<>();
+		BlockingQueue<EntryChange> otherTenant = new LinkedBlockingQueue<>();
+		try (EntryChangeStream.Subscription subscription = this.entryChangeStream.subscribe(null, changes::add);
+				EntryChangeStream.Subscription other = this.entryChangeStream.subscribe("t1", otherTenant::add)) {
+			this.entryRepository.save(MockData.ENTRY1.toBuilder()
+				.frontMatter(MockData.ENTRY1.frontMatter().toBuilder().summary("Updated").build())
+				.build());
+			this.entryRepository.deleteById(new EntryKey(2L));
+			EntryChange upsert = changes.poll(10, TimeUnit.SECONDS);
+			assertThat(upsert).isNotNull();
+			assertThat(upsert.type()).isEqualTo(EntryChange.Type.UPSERT);
+			assertThat(upsert.entryKey()).isEqualTo(new EntryKey(1L));
+			assertThat(upsert.entry()).isNotNull();
+			assertThat(upsert.entry().frontMatter().summary()).isEqualTo("Updated");
+			EntryChange delete = changes.poll(10, TimeUnit.SECONDS);
+			assertThat(delete).isNotNull();
+			assertThat(delete.type()).isEqualTo(EntryChange.Type.DELETE);
+			assertThat(delete.entryKey()).isEqualTo(new EntryKey(2L));
+			assertThat(delete.changedAt()).isGreaterThan(upsert.changedAt());
+			assertThat(otherTenant).isEmpty();
+		}
+		this.entryRepository.deleteById(new EntryKey(3L));
+		assertThat(changes.poll(1, TimeUnit.SECONDS)).isNull();
+	}
+
+	@Test
+	void quote() {
+		assertThat(GemfireEntryChangeStream.quote("t1")).isEqualTo("'t1'");
+		assertThat(GemfireEntryChangeStream.quote("it's")).isEqualTo("'it''s'");
+	}
+
+}
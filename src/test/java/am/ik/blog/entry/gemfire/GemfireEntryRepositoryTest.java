@@ -1,28 +1,58 @@
 package am.ik.blog.entry.gemfire;
 
+import am.ik.blog.GitHubProps;
 import am.ik.blog.MockConfig;
 import am.ik.blog.TestcontainersConfiguration;
 import am.ik.blog.entry.Author;
 import am.ik.blog.entry.Category;
+import am.ik.blog.entry.ChangeCursor;
 import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryChange;
+import am.ik.blog.entry.EntryChunk;
+import am.ik.blog.entry.EntryCursor;
+import am.ik.blog.entry.EntryFetcher;
 import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryService;
+import am.ik.blog.entry.EntrySort;
+import am.ik.blog.entry.Facet;
+import am.ik.blog.entry.Facets;
 import am.ik.blog.entry.FrontMatter;
 import am.ik.blog.entry.MockData;
+import am.ik.blog.entry.RelevanceCursor;
 import am.ik.blog.entry.SearchCriteria;
+import am.ik.blog.entry.SearchResultPage;
+import am.ik.blog.entry.Snippet;
 import am.ik.blog.entry.Tag;
+import am.ik.blog.entry.TagAndCount;
+import am.ik.blog.entry.UpdatedCursor;
 import am.ik.pagination.CursorPage;
 import am.ik.pagination.CursorPageRequest;
 import am.ik.pagination.CursorPageRequest.Navigation;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
+import java.time.InstantSource;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ClientCache;
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Import;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
 		properties = { "logging.level.am.ik.blog.entry.gemfire.GemfireEntryRepository=warn" })
@@ -33,6 +63,48 @@ class GemfireEntryRepositoryTest {
 	@Autowired
 	GemfireEntryRepository entryRepository;
 
+	@Autowired
+	@Qualifier("entryRegion")
+	Region<String, EntryEntity> entryRegion;
+
+	@Autowired
+	@Qualifier("latestEntriesRegion")
+	Region<String, LatestEntries> latestEntriesRegion;
+
+	@Autowired
+	@Qualifier("searchStatisticsRegion")
+	Region<String, SearchStatistics> searchStatisticsRegion;
+
+	@Autowired
+	@Qualifier("documentFrequencyRegion")
+	Region<String, Integer> documentFrequencyRegion;
+
+	@Autowired
+	@Qualifier("entryTombstoneRegion")
+	Region<String, EntryTombstone> entryTombstoneRegion;
+
+	@Autowired
+	@Qualifier("tenantWatermarkRegion")
+	Region<String, Long> tenantWatermarkRegion;
+
+	@Autowired
+	ClientCache clientCache;
+
+	@Autowired
+	EntryFetcher entryFetcher;
+
+	@Autowired
+	GitHubProps gitHubProps;
+
+	@Autowired
+	InstantSource instantSource;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
 	@BeforeEach
 	void setup() {
 		this.entryRepository.deleteAll();
@@ -92,37 +164,191 @@ class GemfireEntryRepositoryTest {
 
 	}
 
+	@Test
+	void saveUnchangedIsSkipped() {
+		long watermark = this.entryRepository.watermark(null);
+		this.entryRepository.save(MockData.ENTRY1);
+		this.entryRepository.saveAll(MockData.ENTRY1, MockData.ENTRY2);
+		assertThat(this.entryRepository.watermark(null)).isEqualTo(watermark);
+		Entry updated = MockData.ENTRY1.toBuilder().content("Updated content").build();
+		this.entryRepository.saveAll(updated, MockData.ENTRY2);
+		assertThat(this.entryRepository.watermark(null)).isGreaterThan(watermark);
+		assertThat(this.entryRepository.findById(new EntryKey(1L))).hasValueSatisfying(
+				entry -> assertThat(entry.content()).isEqualTo("Updated content"));
+		// a new blob SHA is written even if the content is the same
+		watermark = this.entryRepository.watermark(null);
+		this.entryRepository.save(updated.toBuilder().blobSha("sha1").build());
+		assertThat(this.entryRepository.watermark(null)).isGreaterThan(watermark);
+		watermark = this.entryRepository.watermark(null);
+		this.entryRepository.save(updated);
+		assertThat(this.entryRepository.watermark(null)).isEqualTo(watermark);
+		assertThat(this.entryRepository.findBlobShas(null)).containsEntry(1L, "sha1");
+	}
+
+	@Test
+	void findBlobShas() {
+		this.entryRepository.save(MockData.ENTRY1.toBuilder().blobSha("sha1").build());
+		this.entryRepository.save(MockData.ENTRY2.toBuilder().blobSha("sha2").build());
+		Map<Long, String> blobShas = this.entryRepository.findBlobShas(null);
+		assertThat(blobShas).hasSize(10).containsEntry(1L, "sha1").containsEntry(2L, "sha2").containsEntry(3L, null);
+		assertThat(this.entryRepository.findById(new EntryKey(1L))).hasValueSatisfying(
+				entry -> assertThat(entry.blobSha()).isEqualTo("sha1"));
+		assertThat(this.entryRepository.findBlobShas("t1")).isEmpty();
+	}
+
+	@Test
+	void findBlobSha() {
+		this.entryRepository.save(MockData.ENTRY1.toBuilder().blobSha("sha1").build());
+		assertThat(this.entryRepository.findBlobSha(new EntryKey(1L))).isEqualTo("sha1");
+		assertThat(this.entryRepository.findBlobSha(new EntryKey(2L))).isNull();
+		assertThat(this.entryRepository.findBlobSha(new EntryKey(100L))).isNull();
+		assertThat(this.entryRepository.findBlobSha(new EntryKey(1L, "t1"))).isNull();
+	}
+
+	@Test
+	void findLatest() {
+		CursorPage<Entry, UpdatedCursor> latest = this.entryRepository.findLatest(null);
+		assertThat(latest.content()).extracting(e -> e.entryKey().entryId())
+			.containsExactly(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+		assertThat(latest.hasNext()).isFalse();
+		// maintained on write without reloading
+		this.entryRepository.save(MockData.ENTRY3.toBuilder()
+			.updated(MockData.ENTRY3.updated().withDate(Instant.parse("2030-01-01T00:00:00Z")))
+			.build());
+		this.entryRepository.deleteById(new EntryKey(5L));
+		CursorPage<Entry, UpdatedCursor> updated = this.entryRepository.findLatest(null);
+		assertThat(updated.content()).extracting(e -> e.entryKey().entryId())
+			.containsExactly(3L, 10L, 9L, 8L, 7L, 6L, 4L, 2L, 1L);
+		assertThat(updated.content()).isEqualTo(this.entryRepository
+			.findOrderByUpdated(null, SearchCriteria.NULL_CRITERIA,
+					new CursorPageRequest<>(null, EntryService.DEFAULT_PAGE_SIZE, Navigation.NEXT))
+			.content());
+	}
+
+	@Test
+	void findLatestDoesNotKeepEntriesLoadedDuringWrite() {
+		Entry updatedEntry = MockData.ENTRY3.toBuilder()
+			.updated(MockData.ENTRY3.updated().withDate(Instant.parse("2030-01-01T00:00:00Z")))
+			.build();
+		// another instance saves the entry after the query has read the latest entries,
+		// and finds no latest entries to update
+		GemfireEntryRepository loadingRepository = new GemfireEntryRepository(this.entryRegion,
+				this.latestEntriesRegion, this.searchStatisticsRegion, this.documentFrequencyRegion,
+				this.entryTombstoneRegion, this.tenantWatermarkRegion, this.clientCache, this.entryFetcher,
+				this.gitHubProps, this.instantSource, this.eventPublisher, this.meterRegistry) {
+			@Override
+			public CursorPage<Entry, UpdatedCursor> findOrderByUpdated(@Nullable String tenantId,
+					SearchCriteria searchCriteria, CursorPageRequest<UpdatedCursor> pageRequest) {
+				CursorPage<Entry, UpdatedCursor> page = super.findOrderByUpdated(tenantId, searchCriteria,
+						pageRequest);
+				GemfireEntryRepositoryTest.this.entryRepository.save(updatedEntry);
+				return page;
+			}
+		};
+		CursorPage<Entry, UpdatedCursor> loaded = loadingRepository.findLatest(null);
+		assertThat(loaded.content()).extracting(e -> e.entryKey().entryId())
+			.containsExactly(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+		assertThat(this.latestEntriesRegion.get(EntryKey.DEFAULT_TENANT_ID)).isNull();
+		CursorPage<Entry, UpdatedCursor> latest = this.entryRepository.findLatest(null);
+		assertThat(latest.content()).extracting(e -> e.entryKey().entryId())
+			.containsExactly(3L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 2L, 1L);
+	}
+
 	@Test
 	void findOrderByUpdated() {
 		SearchCriteria searchCriteria = SearchCriteria.builder().build();
 		int pageSize = 6;
-		CursorPage<Entry, Instant> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
 				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
 		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(10L, 9L, 8L, 7L, 6L, 5L);
 		assertThat(page1.hasNext()).isTrue();
 		assertThat(page1.hasPrevious()).isFalse();
-		CursorPage<Entry, Instant> page2 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+		CursorPage<Entry, UpdatedCursor> page2 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
 				new CursorPageRequest<>(page1.head(), pageSize, Navigation.NEXT));
 		assertThat(page2.content()).extracting(e -> e.entryKey().entryId()).containsExactly(4L, 3L, 2L, 1L);
 		assertThat(page2.hasNext()).isFalse();
 		assertThat(page2.hasPrevious()).isTrue();
 	}
 
+	@Test
+	void findOrderByUpdatedPrevious() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().build();
+		int pageSize = 4;
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
+		CursorPage<Entry, UpdatedCursor> page2 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				new CursorPageRequest<>(page1.head(), pageSize, Navigation.NEXT));
+		assertThat(page2.content()).extracting(e -> e.entryKey().entryId()).containsExactly(6L, 5L, 4L, 3L);
+		UpdatedCursor first = page2.content().getFirst().toCursor();
+		CursorPage<Entry, UpdatedCursor> previous = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				new CursorPageRequest<>(first, pageSize, Navigation.PREVIOUS));
+		assertThat(previous.content()).extracting(e -> e.entryKey().entryId()).containsExactly(10L, 9L, 8L, 7L);
+		assertThat(previous.hasPrevious()).isFalse();
+		assertThat(previous.hasNext()).isTrue();
+		UpdatedCursor epoch = new UpdatedCursor(Instant.EPOCH);
+		CursorPage<Entry, UpdatedCursor> previousOfLast = this.entryRepository.findOrderByUpdated(null,
+				searchCriteria, new CursorPageRequest<>(epoch, pageSize, Navigation.PREVIOUS));
+		assertThat(previousOfLast.content()).extracting(e -> e.entryKey().entryId()).containsExactly(4L, 3L, 2L, 1L);
+		assertThat(previousOfLast.hasPrevious()).isTrue();
+	}
+
+	@Test
+	void findOrderByUpdatedSameUpdatedAt() {
+		Instant updatedAt = Instant.parse("2030-01-01T00:00:00Z");
+		List<Entry> entries = Stream.of(21L, 22L, 23L, 24L, 25L)
+			.map(id -> MockData.ENTRY1.toBuilder()
+				.entryKey(new EntryKey(id))
+				.updated(MockData.ENTRY1.updated().withDate(updatedAt))
+				.build())
+			.toList();
+		this.entryRepository.saveAll(entries);
+		SearchCriteria searchCriteria = SearchCriteria.builder().build();
+		int pageSize = 2;
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
+		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(25L, 24L);
+		CursorPage<Entry, UpdatedCursor> page2 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				new CursorPageRequest<>(page1.head(), pageSize, Navigation.NEXT));
+		assertThat(page2.content()).extracting(e -> e.entryKey().entryId()).containsExactly(23L, 22L);
+		CursorPage<Entry, UpdatedCursor> page3 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				new CursorPageRequest<>(page2.head(), pageSize, Navigation.NEXT));
+		assertThat(page3.content()).extracting(e -> e.entryKey().entryId()).containsExactly(21L, 10L);
+		CursorPage<Entry, UpdatedCursor> previous = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				new CursorPageRequest<>(page3.content().getFirst().toCursor(), pageSize, Navigation.PREVIOUS));
+		assertThat(previous.content()).extracting(e -> e.entryKey().entryId()).containsExactly(23L, 22L);
+	}
+
 	@Test
 	void findOrderByUpdatedByTag() {
 		SearchCriteria searchCriteria = SearchCriteria.builder().tag("aws").build();
 		int pageSize = 3;
-		CursorPage<Entry, Instant> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
 				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
 		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(10L);
 		assertThat(page1.hasNext()).isFalse();
 	}
 
+	@Test
+	void findOrderByUpdatedIsInvalidatedOnWrite() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().tag("aws").build();
+		CursorPageRequest<UpdatedCursor> pageRequest = new CursorPageRequest<>(null, 3, Navigation.NEXT);
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				pageRequest);
+		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(10L);
+		assertThat(this.entryRepository.findOrderByUpdated(null, searchCriteria, pageRequest)).isSameAs(page1);
+		this.entryRepository.save(MockData.ENTRY1.toBuilder()
+			.frontMatter(MockData.ENTRY1.frontMatter().toBuilder().tags(List.of(new Tag("aws"))).build())
+			.build());
+		CursorPage<Entry, UpdatedCursor> page2 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+				pageRequest);
+		assertThat(page2.content()).extracting(e -> e.entryKey().entryId()).containsExactly(10L, 1L);
+	}
+
 	@Test
 	void findOrderByUpdatedByCategories() {
 		SearchCriteria searchCriteria = SearchCriteria.builder().categories(List.of("Programming")).build();
 		int pageSize = 3;
-		CursorPage<Entry, Instant> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
 				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
 		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(4L, 3L, 1L);
 		assertThat(page1.hasNext()).isFalse();
@@ -134,7 +360,7 @@ class GemfireEntryRepositoryTest {
 			.categories(List.of("Programming", "JavaScript"))
 			.build();
 		int pageSize = 3;
-		CursorPage<Entry, Instant> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
 				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
 		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(4L, 3L);
 		assertThat(page1.hasNext()).isFalse();
@@ -144,7 +370,7 @@ class GemfireEntryRepositoryTest {
 	void findOrderByUpdatedByQuery() {
 		SearchCriteria searchCriteria = SearchCriteria.builder().query("install").build();
 		int pageSize = 3;
-		CursorPage<Entry, Instant> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
 				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
 		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(6L, 3L, 2L);
 		assertThat(page1.hasNext()).isFalse();
@@ -154,12 +380,259 @@ class GemfireEntryRepositoryTest {
 	void findOrderByUpdatedByQueryAnd() {
 		SearchCriteria searchCriteria = SearchCriteria.builder().query("npm install").build();
 		int pageSize = 3;
-		CursorPage<Entry, Instant> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
+		CursorPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdated(null, searchCriteria,
 				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
 		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(3L);
 		assertThat(page1.hasNext()).isFalse();
 	}
 
+	@Test
+	void findOrderByCreated() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().build();
+		EntrySort sort = EntrySort.valueOf("created,asc");
+		int pageSize = 4;
+		CursorPage<Entry, EntryCursor> page1 = this.entryRepository.findOrderBy(null, searchCriteria, sort,
+				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
+		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(1L, 2L, 3L, 4L);
+		assertThat(page1.hasNext()).isTrue();
+		CursorPage<Entry, EntryCursor> page2 = this.entryRepository.findOrderBy(null, searchCriteria, sort,
+				new CursorPageRequest<>(page1.head(), pageSize, Navigation.NEXT));
+		assertThat(page2.content()).extracting(e -> e.entryKey().entryId()).containsExactly(5L, 6L, 7L, 8L);
+		assertThat(page2.hasPrevious()).isTrue();
+		assertThat(page2.hasNext()).isTrue();
+		CursorPage<Entry, EntryCursor> previous = this.entryRepository.findOrderBy(null, searchCriteria, sort,
+				new CursorPageRequest<>(page2.content().getFirst().toCursor(sort.field()), pageSize,
+						Navigation.PREVIOUS));
+		assertThat(previous.content()).extracting(e -> e.entryKey().entryId()).containsExactly(1L, 2L, 3L, 4L);
+		assertThat(previous.hasPrevious()).isFalse();
+	}
+
+	@Test
+	void findOrderByTitle() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().build();
+		EntrySort sort = EntrySort.valueOf("title");
+		int pageSize = 3;
+		CursorPage<Entry, EntryCursor> page1 = this.entryRepository.findOrderBy(null, searchCriteria, sort,
+				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
+		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(3L, 8L, 10L);
+		CursorPage<Entry, EntryCursor> page2 = this.entryRepository.findOrderBy(null, searchCriteria, sort,
+				new CursorPageRequest<>(page1.head(), pageSize, Navigation.NEXT));
+		assertThat(page2.content()).extracting(e -> e.entryKey().entryId()).containsExactly(9L, 5L, 1L);
+		CursorPage<Entry, EntryCursor> desc = this.entryRepository.findOrderBy(null, searchCriteria,
+				EntrySort.valueOf("title,desc"), new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
+		assertThat(desc.content()).extracting(e -> e.entryKey().entryId()).containsExactly(4L, 7L, 6L);
+	}
+
+	@Test
+	void findOrderByEntryId() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().categories(List.of("Programming")).build();
+		EntrySort sort = EntrySort.valueOf("entryId");
+		int pageSize = 2;
+		CursorPage<Entry, EntryCursor> page1 = this.entryRepository.findOrderBy(null, searchCriteria, sort,
+				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
+		assertThat(page1.content()).extracting(e -> e.entryKey().entryId()).containsExactly(4L, 3L);
+		assertThat(page1.hasNext()).isTrue();
+		CursorPage<Entry, EntryCursor> page2 = this.entryRepository.findOrderBy(null, searchCriteria, sort,
+				new CursorPageRequest<>(page1.head(), pageSize, Navigation.NEXT));
+		assertThat(page2.content()).extracting(e -> e.entryKey().entryId()).containsExactly(1L);
+		assertThat(page2.hasNext()).isFalse();
+		CursorPage<Entry, EntryCursor> asc = this.entryRepository.findOrderBy(null, searchCriteria,
+				EntrySort.valueOf("entryId,asc"), new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
+		assertThat(asc.content()).extracting(e -> e.entryKey().entryId()).containsExactly(1L, 3L);
+	}
+
+	@Test
+	void findOrderByUpdatedWithFacets() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().categories(List.of("Programming")).build();
+		int pageSize = 2;
+		SearchResultPage<Entry, UpdatedCursor> page1 = this.entryRepository.findOrderByUpdatedWithFacets(null,
+				searchCriteria, new CursorPageRequest<>(null, pageSize, Navigation.NEXT),
+				Set.of(Facet.TAGS, Facet.CATEGORIES));
+		assertThat(page1.page().content()).extracting(e -> e.entryKey().entryId()).containsExactly(4L, 3L);
+		assertThat(page1.page().hasNext()).isTrue();
+		// facets are counted over all matched entries, not only the page
+		Facets facets = page1.facets();
+		assertThat(facets.tags()).hasSize(8);
+		assertThat(facets.tags().getFirst()).isEqualTo(new TagAndCount(new Tag("rest-api"), 2));
+		assertThat(facets.categories()).hasSize(3).allSatisfy(c -> assertThat(c.count()).isEqualTo(1));
+		SearchResultPage<Entry, UpdatedCursor> page2 = this.entryRepository.findOrderByUpdatedWithFacets(null,
+				searchCriteria, new CursorPageRequest<>(page1.page().head(), pageSize, Navigation.NEXT),
+				Set.of(Facet.TAGS));
+		assertThat(page2.page().content()).extracting(e -> e.entryKey().entryId()).containsExactly(1L);
+		assertThat(page2.page().hasNext()).isFalse();
+		assertThat(page2.facets().tags()).hasSize(8);
+		assertThat(page2.facets().categories()).isNull();
+	}
+
+	@Test
+	void findSnippets() {
+		Map<EntryKey, Snippet> snippets = this.entryRepository.findSnippets(null,
+				List.of(new EntryKey(1L), new EntryKey(2L), new EntryKey(99L)), "spring");
+		assertThat(snippets).containsOnlyKeys(new EntryKey(1L), new EntryKey(2L));
+		Snippet snippet = snippets.get(new EntryKey(1L));
+		assertThat(snippet.text()).startsWith("Getting Started with Spring Boot");
+		assertThat(snippet.highlights()).isNotEmpty()
+			.allSatisfy(h -> assertThat(snippet.text().substring(h.start(), h.end())).isEqualToIgnoringCase("spring"));
+		assertThat(snippets.get(new EntryKey(2L)).highlights()).isEmpty();
+	}
+
+	@Test
+	void findOrderByRelevance() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().query("spring").build();
+		CursorPage<Entry, RelevanceCursor> page = this.entryRepository.findOrderByRelevance(null, searchCriteria,
+				new CursorPageRequest<>(null, 3, Navigation.NEXT));
+		assertThat(page.content()).extracting(e -> e.entryKey().entryId()).containsExactly(1L);
+		assertThat(page.content().getFirst().content()).isEmpty();
+		assertThat(page.hasNext()).isFalse();
+		assertThat(page.hasPrevious()).isFalse();
+	}
+
+	@Test
+	void searchStatisticsMaintainedOnWrite() {
+		SearchStatistics initial = loadSearchStatistics();
+		this.entryRepository.save(MockData.ENTRY2.toBuilder().content("Spring GemFire").build());
+		this.entryRepository.deleteById(new EntryKey(1L));
+		SearchStatistics maintained = this.searchStatisticsRegion.get(EntryKey.DEFAULT_TENANT_ID);
+		assertThat(maintained).isNotNull();
+		assertThat(maintained.getWatermark()).isEqualTo(initial.getWatermark());
+		long[] maintainedFrequencies = documentFrequencies(maintained);
+		this.searchStatisticsRegion.remove(EntryKey.DEFAULT_TENANT_ID);
+		SearchStatistics loaded = loadSearchStatistics();
+		assertThat(maintained.getDocumentCount()).isEqualTo(9).isEqualTo(loaded.getDocumentCount());
+		assertThat(maintained.getTotalLength()).isEqualTo(loaded.getTotalLength());
+		assertThat(maintainedFrequencies).containsExactly(documentFrequencies(loaded));
+		// the counts of the previous load are dropped
+		assertThat(this.documentFrequencyRegion.keySetOnServer())
+			.allMatch(key -> key.startsWith(EntryKey.DEFAULT_TENANT_ID + "|" + loaded.getWatermark() + "|"));
+	}
+
+	@Test
+	void searchStatisticsCountConcurrentWritesOfAnEntryOnce() {
+		loadSearchStatistics();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 8; i++) {
+				Entry entry = MockData.ENTRY2.toBuilder().content("Spring GemFire " + i).build();
+				executor.submit(() -> this.entryRepository.save(entry));
+				executor.submit(() -> this.entryRepository.deleteById(new EntryKey(3L)));
+			}
+		}
+		SearchStatistics maintained = loadSearchStatistics();
+		long[] maintainedFrequencies = documentFrequencies(maintained);
+		this.searchStatisticsRegion.remove(EntryKey.DEFAULT_TENANT_ID);
+		SearchStatistics loaded = loadSearchStatistics();
+		assertThat(maintained.getDocumentCount()).isEqualTo(9).isEqualTo(loaded.getDocumentCount());
+		assertThat(maintained.getTotalLength()).isEqualTo(loaded.getTotalLength());
+		assertThat(maintainedFrequencies).containsExactly(documentFrequencies(loaded));
+	}
+
+	@Test
+	void searchStatisticsLoadedAgainAfterBatchWrite() {
+		loadSearchStatistics();
+		this.entryRepository.saveAll(MockData.ENTRY2.toBuilder().content("Spring GemFire").build());
+		assertThat(this.searchStatisticsRegion.get(EntryKey.DEFAULT_TENANT_ID)).isNull();
+		assertThat(loadSearchStatistics().getDocumentCount()).isEqualTo(10);
+	}
+
+	/**
+	 * Runs a relevance search, which loads the search statistics unless they are kept.
+	 */
+	private SearchStatistics loadSearchStatistics() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().query("spring").build();
+		this.entryRepository.findOrderByRelevance(null, searchCriteria,
+				new CursorPageRequest<>(null, 3, Navigation.NEXT));
+		SearchStatistics statistics = this.searchStatisticsRegion.get(EntryKey.DEFAULT_TENANT_ID);
+		assertThat(statistics).isNotNull();
+		return statistics;
+	}
+
+	private long[] documentFrequencies(SearchStatistics statistics) {
+		List<String> terms = SearchCriteriaToOql.extractTerms("spring gemfire boot java");
+		return new DocumentFrequencies(this.documentFrequencyRegion, this.clientCache.getQueryService())
+			.get(EntryKey.DEFAULT_TENANT_ID, statistics.getWatermark(), terms);
+	}
+
+	@Test
+	void findOrderByRelevancePaging() {
+		SearchCriteria searchCriteria = SearchCriteria.builder().query("install").build();
+		int pageSize = 2;
+		CursorPage<Entry, RelevanceCursor> page1 = this.entryRepository.findOrderByRelevance(null, searchCriteria,
+				new CursorPageRequest<>(null, pageSize, Navigation.NEXT));
+		assertThat(page1.content()).hasSize(2);
+		assertThat(page1.hasNext()).isTrue();
+		assertThat(page1.hasPrevious()).isFalse();
+		CursorPage<Entry, RelevanceCursor> page2 = this.entryRepository.findOrderByRelevance(null, searchCriteria,
+				new CursorPageRequest<>(page1.head(), pageSize, Navigation.NEXT));
+		assertThat(page2.content()).hasSize(1);
+		assertThat(page2.hasNext()).isFalse();
+		assertThat(page2.hasPrevious()).isTrue();
+		assertThat(Stream.concat(page1.content().stream(), page2.content().stream()))
+			.extracting(e -> e.entryKey().entryId())
+			.containsExactlyInAnyOrder(6L, 3L, 2L);
+	}
+
+	@Test
+	void findChanges() {
+		List<Long> synced = new ArrayList<>();
+		ChangeCursor since = null;
+		boolean hasNext = true;
+		while (hasNext) {
+			CursorPage<EntryChange, ChangeCursor> page = this.entryRepository.findChanges(null, since, null, 4);
+			assertThat(page.content()).allSatisfy(change -> {
+				assertThat(change.type()).isEqualTo(EntryChange.Type.UPSERT);
+				assertThat(change.entry()).isNotNull();
+				assertThat(change.entry().content()).isNotEmpty();
+			});
+			page.content().forEach(change -> synced.add(change.entryKey().entryId()));
+			since = Objects.requireNonNullElse(page.head(), since);
+			hasNext = page.hasNext();
+		}
+		assertThat(synced).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+		assertThat(this.entryRepository.findChanges(null, since, null, 4).content()).isEmpty();
+		this.entryRepository.deleteById(new EntryKey(2L));
+		this.entryRepository.save(MockData.ENTRY1.toBuilder()
+			.frontMatter(MockData.ENTRY1.frontMatter().toBuilder().summary("Updated").build())
+			.build());
+		CursorPage<EntryChange, ChangeCursor> changes = this.entryRepository.findChanges(null, since, null, 4);
+		assertThat(changes.content()).extracting(EntryChange::type, change -> change.entryKey().entryId())
+			.containsExactly(tuple(EntryChange.Type.DELETE, 2L), tuple(EntryChange.Type.UPSERT, 1L));
+		assertThat(changes.content().get(1).entry().frontMatter().summary()).isEqualTo("Updated");
+		assertThat(changes.hasNext()).isFalse();
+		assertThat(this.entryRepository.findChanges(null, changes.head(), null, 4).content()).isEmpty();
+	}
+
+	@Test
+	void findChangesHoldsBackUnsettledChanges() {
+		ChangeCursor since = this.entryRepository.findChanges(null, null, null, 10).head();
+		this.entryRepository.deleteById(new EntryKey(2L));
+		long deletedAt = this.entryRepository.findChanges(null, since, null, 4).content().getFirst().changedAt();
+		this.entryRepository.save(MockData.ENTRY1.toBuilder()
+			.frontMatter(MockData.ENTRY1.frontMatter().toBuilder().summary("Updated").build())
+			.build());
+		// the update is not settled yet, so the cursor must not move past it
+		CursorPage<EntryChange, ChangeCursor> settled = this.entryRepository.findChanges(null, since,
+				Instant.ofEpochMilli(deletedAt + 1), 4);
+		assertThat(settled.content()).extracting(EntryChange::type, change -> change.entryKey().entryId())
+			.containsExactly(tuple(EntryChange.Type.DELETE, 2L));
+		assertThat(settled.hasNext()).isFalse();
+		assertThat(this.entryRepository.findChanges(null, settled.head(), null, 4).content())
+			.extracting(EntryChange::type, change -> change.entryKey().entryId())
+			.containsExactly(tuple(EntryChange.Type.UPSERT, 1L));
+	}
+
+	@Test
+	void findAllAfter() {
+		// the padded key of 100000 is ordered before the one of 2 as a string
+		this.entryRepository.save(MockData.ENTRY1.toBuilder().entryKey(new EntryKey(100_000L)).build());
+		EntryChunk first = this.entryRepository.findAllAfter(null, null, 6);
+		assertThat(first.entries()).extracting(entry -> entry.entryKey().entryId())
+			.containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+		assertThat(first.next()).isEqualTo(6L);
+		EntryChunk second = this.entryRepository.findAllAfter(null, first.next(), 6);
+		assertThat(second.entries()).extracting(entry -> entry.entryKey().entryId())
+			.containsExactly(7L, 8L, 9L, 10L, 100_000L);
+		assertThat(second.hasNext()).isFalse();
+	}
+
 	@Test
 	void nextId() {
 		{
@@ -0,0 +1,91 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatestEntriesTest {
+
+	static EntryEntity entity(long entryId, long updatedAt) {
+		return EntryEntity.builder()
+			.entryKey("%05d".formatted(entryId))
+			.title("Title " + entryId)
+			.summary("")
+			.categories(List.of())
+			.tags(Set.of())
+			.tagWithVersions(Set.of())
+			.content("")
+			.createdBy("test")
+			.createdAt(updatedAt)
+			.updatedBy("test")
+			.updatedAt(updatedAt)
+			.tenantId("_")
+			.build();
+	}
+
+	static List<String> keys(LatestEntries latest) {
+		return latest.getEntries().stream().map(EntryEntity::getEntryKey).toList();
+	}
+
+	@Test
+	void insertInOrder() {
+		LatestEntries latest = new LatestEntries(new ArrayList<>(), true, 0).with(entity(1, 100))
+			.with(entity(3, 300))
+			.with(entity(2, 200))
+			.with(entity(4, 300));
+		assertThat(keys(latest)).containsExactly("00004", "00003", "00002", "00001");
+		assertThat(latest.isComplete()).isTrue();
+	}
+
+	@Test
+	void updateMovesEntry() {
+		LatestEntries latest = new LatestEntries(new ArrayList<>(), true, 0).with(entity(1, 100))
+			.with(entity(2, 200))
+			.with(entity(1, 300));
+		assertThat(keys(latest)).containsExactly("00001", "00002");
+	}
+
+	@Test
+	void boundedToCapacity() {
+		LatestEntries latest = new LatestEntries(new ArrayList<>(), true, 0);
+		for (int i = 1; i <= LatestEntries.CAPACITY + 1; i++) {
+			latest = latest.with(entity(i, i * 100L));
+		}
+		assertThat(latest.getEntries()).hasSize(LatestEntries.CAPACITY);
+		assertThat(latest.getEntries().getLast().getEntryKey()).isEqualTo("00002");
+		assertThat(latest.isComplete()).isFalse();
+		// older than every kept entry
+		assertThat(keys(latest.with(entity(100, 1)))).doesNotContain("00100");
+	}
+
+	@Test
+	void updateBeyondKeptEntriesRemovesEntry() {
+		List<EntryEntity> entries = IntStream.rangeClosed(1, 3)
+			.mapToObj(i -> entity(10 - i, (10 - i) * 100L))
+			.collect(Collectors.toList());
+		LatestEntries latest = new LatestEntries(entries, false, 0).with(entity(9, 1));
+		assertThat(keys(latest)).containsExactly("00008", "00007");
+	}
+
+	@Test
+	void without() {
+		LatestEntries latest = new LatestEntries(new ArrayList<>(), true, 0).with(entity(1, 100))
+			.with(entity(2, 200))
+			.without("00002");
+		assertThat(keys(latest)).containsExactly("00001");
+	}
+
+	@Test
+	void covers() {
+		LatestEntries latest = new LatestEntries(new ArrayList<>(List.of(entity(2, 200), entity(1, 100))), false, 0);
+		assertThat(latest.covers(1)).isTrue();
+		assertThat(latest.covers(2)).isFalse();
+		assertThat(new LatestEntries(latest.getEntries(), true, 0).covers(2)).isTrue();
+	}
+
+}
@@ -1,78 +1,211 @@
 package am.ik.blog.entry.gemfire;
 
 import am.ik.blog.entry.gemfire.SearchCriteriaToOql.QueryAndParams;
+import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class SearchCriteriaToOqlTest {
 
 	@Test
 	void simpleQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("hello", 1);
-		assertThat(queryAndParams.query()).isEqualTo("content.toLowerCase() LIKE $1");
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1");
 		assertThat(queryAndParams.params()).containsExactly("%hello%");
 	}
 
 	@Test
 	void andQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("hello world", 1);
-		assertThat(queryAndParams.query()).isEqualTo("content.toLowerCase() LIKE $1 AND content.toLowerCase() LIKE $2");
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1 AND searchText LIKE $2");
 		assertThat(queryAndParams.params()).containsExactly("%hello%", "%world%");
 	}
 
 	@Test
 	void caseInsensitiveQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("Hello World", 1);
-		assertThat(queryAndParams.query()).isEqualTo("content.toLowerCase() LIKE $1 AND content.toLowerCase() LIKE $2");
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1 AND searchText LIKE $2");
 		assertThat(queryAndParams.params()).containsExactly("%hello%", "%world%");
 	}
 
 	@Test
 	void quotedQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("\"hello world\"", 1);
-		assertThat(queryAndParams.query()).isEqualTo("content.toLowerCase() LIKE $1");
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1");
 		assertThat(queryAndParams.params()).containsExactly("%hello world%");
 	}
 
+	@Test
+	void quotedQueryWithMultipleSpaces() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("\"hello  world\"", 1);
+		assertThat(queryAndParams.params()).containsExactly("%hello world%");
+	}
+
+	@Test
+	void markdownInQuery() {
+		// stripped like the stored text is
+		assertThat(SearchCriteriaToOql.convertQuery("__init__", 1).params()).containsExactly("%init%");
+		assertThat(SearchCriteriaToOql.convertQuery("\"a**b\"", 1).params()).containsExactly("%ab%");
+		assertThat(SearchCriteriaToOql.convertQuery("`code`", 1).params()).containsExactly("%code%");
+		assertThat(SearchCriteriaToOql.convertQuery("title:__init__", 1).params()).containsExactly("%__init__%");
+		assertThat(SearchCriteriaToOql.extractPhrases("__init__ \"a  `b`\"")).containsExactly("init", "a b");
+	}
+
+	@Test
+	void wildcardQueryKeepsWildcards() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("__spr*ing", 1);
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1");
+		assertThat(queryAndParams.params()).containsExactly("spr%ing");
+	}
+
 	@Test
 	void orQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("hello or world", 1);
-		assertThat(queryAndParams.query()).isEqualTo("content.toLowerCase() LIKE $1 OR content.toLowerCase() LIKE $2");
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1 OR searchText LIKE $2");
 		assertThat(queryAndParams.params()).containsExactly("%hello%", "%world%");
 	}
 
 	@Test
 	void notQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("hello -world", 1);
-		assertThat(queryAndParams.query())
-			.isEqualTo("content.toLowerCase() LIKE $1 AND NOT (content.toLowerCase() LIKE $2)");
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1 AND NOT (searchText LIKE $2)");
 		assertThat(queryAndParams.params()).containsExactly("%hello%", "%world%");
 	}
 
 	@Test
 	void singleNotQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("-hello", 1);
-		assertThat(queryAndParams.query()).isEqualTo("NOT (content.toLowerCase() LIKE $1)");
+		assertThat(queryAndParams.query()).isEqualTo("NOT (searchText LIKE $1)");
 		assertThat(queryAndParams.params()).containsExactly("%hello%");
 	}
 
 	@Test
 	void hyphenQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("hello-world", 1);
-		assertThat(queryAndParams.query()).isEqualTo("content.toLowerCase() LIKE $1");
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1");
 		assertThat(queryAndParams.params()).containsExactly("%hello-world%");
 	}
 
 	@Test
 	void nestedQuery() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("hello (world or java)", 1);
-		assertThat(queryAndParams.query()).isEqualTo(
-				"content.toLowerCase() LIKE $1 AND (content.toLowerCase() LIKE $2 OR content.toLowerCase() LIKE $3)");
+		assertThat(queryAndParams.query())
+			.isEqualTo("searchText LIKE $1 AND (searchText LIKE $2 OR searchText LIKE $3)");
 		assertThat(queryAndParams.params()).containsExactly("%hello%", "%world%", "%java%");
 	}
 
+	@Test
+	void fullWidthQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("ＳＰＲＩＮＧ ｶﾀｶﾅ", 1);
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1 AND searchText LIKE $2");
+		assertThat(queryAndParams.params()).containsExactly("%spring%", "%カタカナ%");
+	}
+
+	@Test
+	void titleFieldQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("title:Spring", 1);
+		assertThat(queryAndParams.query()).isEqualTo("searchTitle LIKE $1");
+		assertThat(queryAndParams.params()).containsExactly("%spring%");
+	}
+
+	@Test
+	void tagFieldQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("hello tag:Java", 1);
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1 AND $2 IN tags");
+		assertThat(queryAndParams.params()).containsExactly("%hello%", "Java");
+	}
+
+	@Test
+	void categoryFieldQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("category:Dev", 1);
+		assertThat(queryAndParams.query()).isEqualTo("$1 IN categories");
+		assertThat(queryAndParams.params()).containsExactly("Dev");
+	}
+
+	@Test
+	void dateFieldQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("updated:2024-01-01", 1);
+		assertThat(queryAndParams.query()).isEqualTo("(updatedAt >= $1 AND updatedAt < $2)");
+		assertThat(queryAndParams.params()).containsExactly(Instant.parse("2024-01-01T00:00:00Z").toEpochMilli(),
+				Instant.parse("2024-01-02T00:00:00Z").toEpochMilli());
+	}
+
+	@Test
+	void dateRangeQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("created:[2024-01-01 TO 2024-01-31]", 1);
+		assertThat(queryAndParams.query()).isEqualTo("(createdAt >= $1 AND createdAt < $2)");
+		assertThat(queryAndParams.params()).containsExactly(Instant.parse("2024-01-01T00:00:00Z").toEpochMilli(),
+				Instant.parse("2024-02-01T00:00:00Z").toEpochMilli());
+	}
+
+	@Test
+	void exclusiveDateRangeQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("created:{2024-01-01 TO 2024-01-31}", 1);
+		assertThat(queryAndParams.query()).isEqualTo("(createdAt >= $1 AND createdAt < $2)");
+		assertThat(queryAndParams.params()).containsExactly(Instant.parse("2024-01-02T00:00:00Z").toEpochMilli(),
+				Instant.parse("2024-01-31T00:00:00Z").toEpochMilli());
+	}
+
+	@Test
+	void openDateRangeQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("spring updated:[2024-01-01 TO *]", 1);
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1 AND updatedAt >= $2");
+		assertThat(queryAndParams.params()).containsExactly("%spring%",
+				Instant.parse("2024-01-01T00:00:00Z").toEpochMilli());
+	}
+
+	@Test
+	void invalidDateRangeQuery() {
+		assertThatThrownBy(() -> SearchCriteriaToOql.convertQuery("created:[yesterday TO *]", 1))
+			.isInstanceOf(ResponseStatusException.class);
+	}
+
+	@Test
+	void unsupportedRangeQuery() {
+		assertThatThrownBy(() -> SearchCriteriaToOql.convertQuery("title:[a TO c]", 1))
+			.isInstanceOf(ResponseStatusException.class);
+		assertThatThrownBy(() -> SearchCriteriaToOql.convertQuery("spring title:{a TO c}", 1))
+			.isInstanceOf(ResponseStatusException.class);
+	}
+
+	@Test
+	void unknownFieldQuery() {
+		QueryAndParams queryAndParams = SearchCriteriaToOql.convertQuery("foo:bar", 1);
+		assertThat(queryAndParams.query()).isEqualTo("searchText LIKE $1");
+		assertThat(queryAndParams.params()).containsExactly("%foo:bar%");
+	}
+
+	@Test
+	void extractTerms() {
+		assertThat(SearchCriteriaToOql.extractTerms("Spring \"boot starter\" -kotlin tag:java title:テスト"))
+			.containsExactly("spring", "boot", "starter", "テス", "スト");
+	}
+
+	@Test
+	void extractPhrases() {
+		assertThat(SearchCriteriaToOql.extractPhrases("Spring \"Boot Starter\" -kotlin sprin* category:dev"))
+			.containsExactly("spring", "boot starter", "sprin");
+	}
+
+	@Test
+	void canonicalize() {
+		assertThat(SearchCriteriaToOql.canonicalize("Spring boot"))
+			.isEqualTo(SearchCriteriaToOql.canonicalize("boot AND spring"));
+		assertThat(SearchCriteriaToOql.canonicalize("(java OR Kotlin) spring"))
+			.isEqualTo(SearchCriteriaToOql.canonicalize("spring (kotlin OR java)"));
+		assertThat(SearchCriteriaToOql.canonicalize("spring -boot"))
+			.isNotEqualTo(SearchCriteriaToOql.canonicalize("boot -spring"));
+		// tags are matched case-sensitively
+		assertThat(SearchCriteriaToOql.canonicalize("tag:Java"))
+			.isNotEqualTo(SearchCriteriaToOql.canonicalize("tag:java"));
+		assertThat(SearchCriteriaToOql.canonicalize("title:Java"))
+			.isEqualTo(SearchCriteriaToOql.canonicalize("title:java"));
+	}
+
 	@Test
 	void tag() {
 		QueryAndParams queryAndParams = SearchCriteriaToOql.convertTag("foo", 1);
@@ -0,0 +1,61 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.SearchCriteria;
+import am.ik.blog.entry.UpdatedCursor;
+import am.ik.pagination.CursorPage;
+import am.ik.pagination.CursorPageRequest;
+import am.ik.pagination.CursorPageRequest.Navigation;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+	static final CursorPage<Entry, UpdatedCursor> PAGE = new CursorPage<>(List.of(), 30, Entry::toCursor, false,
+			false);
+
+	static SearchResultCache.Key key(String query) {
+		return SearchResultCache.key("_", SearchCriteria.builder().query(query).build(),
+				new CursorPageRequest<>(null, 30, Navigation.NEXT));
+	}
+
+	@Test
+	void hitWhileWatermarkIsUnchanged() {
+		SearchResultCache cache = new SearchResultCache(10);
+		cache.put(key("spring boot"), 100, PAGE);
+		assertThat(cache.get(key("Boot Spring"), 100)).isSameAs(PAGE);
+		assertThat(cache.get(key("spring"), 100)).isNull();
+	}
+
+	@Test
+	void missAfterWrite() {
+		SearchResultCache cache = new SearchResultCache(10);
+		cache.put(key("spring"), 100, PAGE);
+		assertThat(cache.get(key("spring"), 101)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() {
+		SearchResultCache cache = new SearchResultCache(2);
+		cache.put(key("a"), 1, PAGE);
+		cache.put(key("b"), 1, PAGE);
+		cache.get(key("a"), 1);
+		cache.put(key("c"), 1, PAGE);
+		assertThat(cache.get(key("a"), 1)).isNotNull();
+		assertThat(cache.get(key("b"), 1)).isNull();
+		assertThat(cache.get(key("c"), 1)).isNotNull();
+	}
+
+	@Test
+	void keyIncludesPageRequest() {
+		SearchCriteria criteria = SearchCriteria.builder().tag("java").build();
+		assertThat(SearchResultCache.key("_", criteria, new CursorPageRequest<>(null, 30, Navigation.NEXT)))
+			.isNotEqualTo(SearchResultCache.key("_", criteria, new CursorPageRequest<>(null, 10, Navigation.NEXT)));
+		assertThat(SearchResultCache.key("_", criteria, new CursorPageRequest<>(null, 30, Navigation.NEXT)))
+			.isNotEqualTo(SearchResultCache.key("t1", criteria, new CursorPageRequest<>(null, 30, Navigation.NEXT)));
+	}
+
+}
@@ -0,0 +1,53 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchStatisticsTest {
+
+	static final SearchStatistics EMPTY = new SearchStatistics(0, 0, 0);
+
+	@Test
+	void addEntries() {
+		SearchStatistics statistics = EMPTY.with(null, new SearchStatistics.Terms(3, List.of("spring", "boot")))
+			.with(null, new SearchStatistics.Terms(5, List.of("spring", "java")));
+		assertThat(statistics.getDocumentCount()).isEqualTo(2);
+		assertThat(statistics.getTotalLength()).isEqualTo(8);
+		assertThat(statistics.averageLength()).isEqualTo(4.0);
+	}
+
+	@Test
+	void replaceEntry() {
+		SearchStatistics.Terms previous = new SearchStatistics.Terms(3, List.of("spring", "boot"));
+		SearchStatistics statistics = EMPTY.with(null, previous)
+			.with(null, new SearchStatistics.Terms(5, List.of("spring", "java")))
+			.with(previous, new SearchStatistics.Terms(4, List.of("spring", "gemfire")));
+		assertThat(statistics.getDocumentCount()).isEqualTo(2);
+		assertThat(statistics.getTotalLength()).isEqualTo(9);
+	}
+
+	@Test
+	void deleteEntry() {
+		SearchStatistics.Terms deleted = new SearchStatistics.Terms(3, List.of("spring", "boot"));
+		SearchStatistics statistics = EMPTY.with(null, deleted)
+			.with(null, new SearchStatistics.Terms(5, List.of("spring", "java")))
+			.with(deleted, null);
+		assertThat(statistics.getDocumentCount()).isEqualTo(1);
+		assertThat(statistics.getTotalLength()).isEqualTo(5);
+	}
+
+	@Test
+	void keepsWatermark() {
+		SearchStatistics statistics = new SearchStatistics(1, 3, 42)
+			.with(null, new SearchStatistics.Terms(5, List.of("spring")));
+		assertThat(statistics.getWatermark()).isEqualTo(42);
+	}
+
+	@Test
+	void emptyStatistics() {
+		assertThat(EMPTY.averageLength()).isZero();
+	}
+
+}
@@ -0,0 +1,84 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTextNormalizerTest {
+
+	@Test
+	void normalizeFoldsWidthAndCase() {
+		assertThat(SearchTextNormalizer.normalize("Ｈｅｌｌｏ ＷＯＲＬＤ １２３")).isEqualTo("hello world 123");
+		assertThat(SearchTextNormalizer.normalize("ｶﾞｷﾞｸﾞ")).isEqualTo("ガギグ");
+		assertThat(SearchTextNormalizer.normalize(null)).isEmpty();
+	}
+
+	@Test
+	void fromMarkdownStripsHeadingsAndEmphasis() {
+		assertThat(SearchTextNormalizer.fromMarkdown("""
+				# Title
+
+				Some **bold**, *italic* and ~~struck~~ text with `code`.
+				""")).isEqualTo("title some bold, italic and struck text with code.");
+	}
+
+	@Test
+	void fromMarkdownKeepsLinkAndImageText() {
+		assertThat(SearchTextNormalizer.fromMarkdown("![Logo](/logo.png) [Spring](https://spring.io) <br/>"))
+			.isEqualTo("logo spring");
+	}
+
+	@Test
+	void fromMarkdownKeepsCodeBlockBody() {
+		assertThat(SearchTextNormalizer.fromMarkdown("""
+				```bash
+				npm install express
+				```
+				""")).isEqualTo("npm install express");
+	}
+
+	@Test
+	void fromMarkdownStripsListsAndQuotes() {
+		assertThat(SearchTextNormalizer.fromMarkdown("""
+				> quoted
+				- item1
+				1. item2
+
+				---
+				""")).isEqualTo("quoted item1 item2");
+	}
+
+	@Test
+	void plainTextFromMarkdownKeepsCaseAndWidth() {
+		String markdown = """
+				# Title
+
+				Some **Bold** [Ｌｉｎｋ](https://example.com) and `Code`.
+				""";
+		assertThat(SearchTextNormalizer.plainTextFromMarkdown(markdown))
+			.isEqualTo("Title Some Bold Ｌｉｎｋ and Code.");
+		assertThat(SearchTextNormalizer.normalize(SearchTextNormalizer.plainTextFromMarkdown(markdown)))
+			.isEqualTo(SearchTextNormalizer.fromMarkdown(markdown));
+	}
+
+	@Test
+	void normalizeInlineMatchesFromMarkdown() {
+		for (String text : List.of("__init__", "a**b", "`code`", "a  b", "~~Struck~~ ＴＥＸＴ")) {
+			assertThat(SearchTextNormalizer.normalizeInline(text)).isEqualTo(SearchTextNormalizer.fromMarkdown(text));
+		}
+		assertThat(SearchTextNormalizer.normalizeInline("  Hello \t `World`  ")).isEqualTo("hello world");
+	}
+
+	@Test
+	void normalizeWildcardKeepsWildcards() {
+		assertThat(SearchTextNormalizer.normalizeWildcard("__Init*__?")).isEqualTo("init*?");
+		assertThat(SearchTextNormalizer.normalizeWildcard("a  b*")).isEqualTo("a b*");
+	}
+
+	@Test
+	void fromMarkdownKeepsSnakeCase() {
+		assertThat(SearchTextNormalizer.fromMarkdown("snake_case_name")).isEqualTo("snake_case_name");
+	}
+
+}
@@ -0,0 +1,34 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class SearchTokenizerTest {
+
+	@Test
+	void tokenizeWords() {
+		assertThat(SearchTokenizer.tokenize("spring-boot 3.5, run ./mvnw")).containsExactly("spring", "boot", "3", "5",
+				"run", "mvnw");
+	}
+
+	@Test
+	void tokenizeJapaneseIntoBigrams() {
+		assertThat(SearchTokenizer.tokenize("spring で カタカナ とテスト")).containsExactly("spring", "で", "カタ", "タカ", "カナ",
+				"とテ", "テス", "スト");
+	}
+
+	@Test
+	void tokenizeEmpty() {
+		assertThat(SearchTokenizer.tokenize("")).isEmpty();
+	}
+
+	@Test
+	void termFrequencies() {
+		assertThat(SearchTokenizer.termFrequencies(List.of("spring", "boot", "spring")))
+			.containsOnly(entry("spring", 2), entry("boot", 1));
+	}
+
+}
@@ -0,0 +1,61 @@
+package am.ik.blog.entry.gemfire;
+
+import am.ik.blog.entry.Snippet;
+import am.ik.blog.entry.Snippet.Highlight;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnippetGeneratorTest {
+
+	@Test
+	void shortText() {
+		Snippet snippet = SnippetGenerator.generate("spring boot makes it easy", List.of("boot"));
+		assertThat(snippet.text()).isEqualTo("spring boot makes it easy");
+		assertThat(snippet.highlights()).containsExactly(new Highlight(7, 11));
+	}
+
+	@Test
+	void longTextIsCutAroundMatches() {
+		String text = "lorem ipsum dolor sit amet ".repeat(10)
+				+ "spring boot makes it easy to create stand-alone applications. "
+				+ "consectetur adipiscing elit ".repeat(10);
+		Snippet snippet = SnippetGenerator.generate(text, List.of("spring boot", "easy"));
+		assertThat(snippet.text()).startsWith("…").endsWith("…");
+		assertThat(snippet.text().length()).isLessThanOrEqualTo(SnippetGenerator.MAX_LENGTH + 2);
+		assertThat(snippet.highlights()).extracting(h -> snippet.text().substring(h.start(), h.end()))
+			.containsExactly("spring boot", "easy");
+	}
+
+	@Test
+	void noMatch() {
+		String text = "lorem ipsum dolor sit amet ".repeat(10);
+		Snippet snippet = SnippetGenerator.generate(text, List.of("spring"));
+		assertThat(snippet.text()).startsWith("lorem ipsum").endsWith("…");
+		assertThat(snippet.highlights()).isEmpty();
+	}
+
+	@Test
+	void overlappingMatchesAreMerged() {
+		Snippet snippet = SnippetGenerator.generate("ab ab", List.of("ab", "b a"));
+		assertThat(snippet.highlights()).containsExactly(new Highlight(0, 5));
+	}
+
+	@Test
+	void textIsCutAsDisplayed() {
+		String text = "Lorem ipsum dolor sit amet. ".repeat(10) + "Getting Started with ＳＰＲＩＮＧ Boot and ｶﾞｲﾄﾞ. "
+				+ "Consectetur adipiscing elit. ".repeat(10);
+		Snippet snippet = SnippetGenerator.generate(text, List.of("spring boot", "ガイド"));
+		assertThat(snippet.text()).contains("Getting Started with ＳＰＲＩＮＧ Boot and ｶﾞｲﾄﾞ.");
+		assertThat(snippet.highlights()).extracting(h -> snippet.text().substring(h.start(), h.end()))
+			.containsExactly("ＳＰＲＩＮＧ Boot", "ｶﾞｲﾄﾞ");
+	}
+
+	@Test
+	void japanese() {
+		Snippet snippet = SnippetGenerator.generate("これはカタカナのテストです", List.of("テスト"));
+		assertThat(snippet.highlights()).containsExactly(new Highlight(8, 11));
+	}
+
+}
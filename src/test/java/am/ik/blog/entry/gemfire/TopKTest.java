@@ -0,0 +1,32 @@
+package am.ik.blog.entry.gemfire;
+
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+	@Test
+	void keepsFirstKInOrder() {
+		TopK<Integer> topK = new TopK<>(3, Comparator.reverseOrder());
+		List.of(5, 1, 9, 3, 7, 2).forEach(topK::offer);
+		assertThat(topK.toSortedList()).containsExactly(9, 7, 5);
+	}
+
+	@Test
+	void fewerThanK() {
+		TopK<Integer> topK = new TopK<>(3, Comparator.naturalOrder());
+		List.of(5, 1).forEach(topK::offer);
+		assertThat(topK.toSortedList()).containsExactly(1, 5);
+	}
+
+	@Test
+	void zero() {
+		TopK<Integer> topK = new TopK<>(0, Comparator.naturalOrder());
+		topK.offer(1);
+		assertThat(topK.toSortedList()).isEmpty();
+	}
+
+}
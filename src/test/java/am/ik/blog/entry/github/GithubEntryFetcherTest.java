@@ -0,0 +1,143 @@
+package am.ik.blog.entry.github;
+
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryParser;
+import am.ik.blog.github.Commit;
+import am.ik.blog.github.File;
+import am.ik.blog.github.GitCommit;
+import am.ik.blog.github.GitCommitter;
+import am.ik.blog.github.GitHubClient;
+import am.ik.blog.github.HedgedReads;
+import am.ik.blog.github.RequestPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.registry.HttpServiceProxyRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GithubEntryFetcherTest {
+
+	static final String PATH = "content/00001.md";
+
+	GitHubClient gitHubClient = mock(GitHubClient.class);
+
+	HedgedReads hedgedReads = new HedgedReads(false, Duration.ofSeconds(10), new SimpleMeterRegistry());
+
+	GithubEntryFetcher entryFetcher;
+
+	@BeforeEach
+	void setup() {
+		HttpServiceProxyRegistry registry = mock(HttpServiceProxyRegistry.class);
+		when(registry.getClient("github", GitHubClient.class)).thenReturn(this.gitHubClient);
+		this.entryFetcher = new GithubEntryFetcher(new EntryParser(JsonMapper.builder().build()), registry,
+				this.hedgedReads);
+	}
+
+	@AfterEach
+	void close() {
+		this.hedgedReads.close();
+	}
+
+	@Test
+	void fileAndCommitsAreRetrievedConcurrently() {
+		// neither call returns before the other has started
+		CountDownLatch started = new CountDownLatch(2);
+		when(this.gitHubClient.getFile("owner", "repo", PATH)).thenAnswer(invocation -> {
+			started.countDown();
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			return ResponseEntity.ok(file());
+		});
+		when(this.gitHubClient.getCommits(any(), any(), any())).thenAnswer(invocation -> {
+			started.countDown();
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			return List.of(commit("updater", "2026-02-01T00:00:00Z"), commit("creator", "2026-01-01T00:00:00Z"));
+		});
+
+		Optional<Entry> entry = this.entryFetcher.fetch(null, "owner", "repo", PATH);
+
+		assertThat(entry).hasValueSatisfying(e -> {
+			assertThat(e.frontMatter().title()).isEqualTo("Hello");
+			assertThat(e.created().name()).isEqualTo("creator");
+			assertThat(e.updated().name()).isEqualTo("updater");
+			assertThat(e.blobSha()).isEqualTo("sha1");
+		});
+	}
+
+	@Test
+	void commitsLookupIsCancelledWhenFileIsNotFound() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch cancelled = new CountDownLatch(1);
+		when(this.gitHubClient.getCommits(any(), any(), any())).thenAnswer(invocation -> {
+			started.countDown();
+			try {
+				new CountDownLatch(1).await();
+			}
+			catch (InterruptedException e) {
+				cancelled.countDown();
+				throw e;
+			}
+			return List.of();
+		});
+		when(this.gitHubClient.getFile("owner", "repo", PATH)).thenAnswer(invocation -> {
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		});
+
+		Optional<Entry> entry = this.entryFetcher.fetch(null, "owner", "repo", PATH);
+
+		assertThat(entry).isEmpty();
+		assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void commitsLookupKeepsThePriority() {
+		AtomicReference<RequestPriority> priority = new AtomicReference<>();
+		when(this.gitHubClient.getFile("owner", "repo", PATH)).thenReturn(ResponseEntity.ok(file()));
+		when(this.gitHubClient.getCommits(any(), any(), any())).thenAnswer(invocation -> {
+			priority.set(RequestPriority.current());
+			return List.of();
+		});
+
+		RequestPriority.runInBackground(() -> this.entryFetcher.fetch(null, "owner", "repo", PATH));
+
+		assertThat(priority).hasValue(RequestPriority.BACKGROUND);
+	}
+
+	static File file() {
+		String markdown = """
+				---
+				title: Hello
+				tags: ["test"]
+				categories: ["category"]
+				---
+
+				Hello World!
+				""";
+		String content = Base64.getEncoder().encodeToString(markdown.getBytes(StandardCharsets.UTF_8));
+		return new File("00001.md", PATH, "sha1", null, null, null, null, content, "file");
+	}
+
+	static Commit commit(String author, String date) {
+		GitCommitter committer = new GitCommitter(author, author + "@example.com", Instant.parse(date));
+		GitCommit commit = new GitCommit("c", null, null, committer, committer, null, "message", List.of());
+		return new Commit("c", null, null, null, commit, null, null, List.of());
+	}
+
+}
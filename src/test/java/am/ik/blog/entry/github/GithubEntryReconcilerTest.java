@@ -0,0 +1,185 @@
+package am.ik.blog.entry.github;
+
+import am.ik.blog.BlogProps;
+import am.ik.blog.GitHubProps;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryRepository;
+import am.ik.blog.entry.Leases;
+import am.ik.blog.entry.MockData;
+import am.ik.blog.github.GitHubClient;
+import am.ik.blog.github.GitTree;
+import am.ik.blog.github.GitTreeEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.registry.HttpServiceProxyRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GithubEntryReconcilerTest {
+
+	GithubEntryFetcher entryFetcher = mock(GithubEntryFetcher.class);
+
+	EntryRepository entryRepository = mock(EntryRepository.class);
+
+	Leases leases = mock(Leases.class);
+
+	GitHubClient gitHubClient = mock(GitHubClient.class);
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	GithubEntryReconciler reconciler;
+
+	@BeforeEach
+	void setup() {
+		GitHubProps gitHubProps = new GitHubProps();
+		gitHubProps.setContentOwner("owner");
+		gitHubProps.setContentRepo("repo");
+		HttpServiceProxyRegistry registry = mock(HttpServiceProxyRegistry.class);
+		when(registry.getClient("github", GitHubClient.class)).thenReturn(this.gitHubClient);
+		this.reconciler = new GithubEntryReconciler(this.entryFetcher, this.entryRepository, this.leases, gitHubProps,
+				registry, this.meterRegistry, new BlogProps());
+	}
+
+	static GitTreeEntry blob(String path, String sha) {
+		return new GitTreeEntry(path, "100644", GitTreeEntry.BLOB, sha);
+	}
+
+	@Test
+	void drift() {
+		Map<Long, String> local = new HashMap<>();
+		local.put(1L, "a");
+		local.put(2L, "b");
+		local.put(3L, null);
+		local.put(5L, "e");
+		local.put(6L, null);
+		GithubEntryReconciler.Drift drift = GithubEntryReconciler.Drift
+			.of(Map.of(1L, "a", 2L, "B", 3L, "c", 4L, "d"), local, true);
+		assertThat(drift.missing()).containsExactly(4L);
+		assertThat(drift.mismatched()).containsExactly(2L);
+		assertThat(drift.unverified()).containsExactly(3L);
+		assertThat(drift.extra()).containsExactly(5L);
+		assertThat(drift.all()).containsExactly(4L, 2L, 3L, 5L);
+	}
+
+	@Test
+	void driftIgnoresLocalEntriesWithoutSha() {
+		Map<Long, String> local = new HashMap<>();
+		local.put(1L, "a");
+		local.put(2L, null);
+		GithubEntryReconciler.Drift drift = GithubEntryReconciler.Drift.of(Map.of(1L, "a"), local, true);
+		assertThat(drift.isEmpty()).isTrue();
+	}
+
+	@Test
+	void driftWithoutCompleteTree() {
+		GithubEntryReconciler.Drift drift = GithubEntryReconciler.Drift.of(Map.of(1L, "a"), Map.of(1L, "a", 2L, "b"),
+				false);
+		assertThat(drift.isEmpty()).isTrue();
+	}
+
+	@Test
+	void reconcile() {
+		when(this.gitHubClient.getTree("owner", "repo", GithubEntryReconciler.CONTENT_TREE))
+			.thenReturn(ResponseEntity.ok(new GitTree("tree", List.of(blob("00001.md", "a"), blob("00002.md", "B"),
+					blob("README.md", "r"), new GitTreeEntry("images", "040000", "tree", "t")), false)));
+		when(this.entryRepository.findBlobShas(null)).thenReturn(Map.of(1L, "a", 2L, "b", 3L, "c"));
+		Entry entry2 = MockData.ENTRY2.toBuilder().blobSha("B").build();
+		when(this.entryFetcher.fetch(null, "owner", "repo", "content/00002.md")).thenReturn(Optional.of(entry2));
+		when(this.entryFetcher.fetch(null, "owner", "repo", "content/00003.md")).thenReturn(Optional.empty());
+
+		GithubEntryReconciler.Drift drift = this.reconciler.reconcile(null);
+
+		assertThat(drift.missing()).isEmpty();
+		assertThat(drift.mismatched()).containsExactly(2L);
+		assertThat(drift.extra()).containsExactly(3L);
+		verify(this.entryRepository).saveAll(List.of(entry2));
+		verify(this.entryRepository).deleteById(new EntryKey(3L));
+		verify(this.entryFetcher, never()).fetch(null, "owner", "repo", "content/00001.md");
+		assertThat(this.meterRegistry.get("entry.reconciliation.drift").tag("type", "mismatched").counter().count())
+			.isEqualTo(1);
+		assertThat(this.meterRegistry.get("entry.reconciliation.drift").tag("type", "extra").counter().count())
+			.isEqualTo(1);
+		assertThat(this.meterRegistry.get("entry.reconciliation.drift").tag("type", "missing").counter().count())
+			.isZero();
+	}
+
+	@Test
+	void reconcileKeepsLocalEntriesWithoutSha() {
+		when(this.gitHubClient.getTree("owner", "repo", GithubEntryReconciler.CONTENT_TREE))
+			.thenReturn(ResponseEntity.ok(new GitTree("tree", List.of(blob("00001.md", "a")), false)));
+		Map<Long, String> local = new HashMap<>();
+		local.put(1L, "a");
+		local.put(2L, null);
+		when(this.entryRepository.findBlobShas(null)).thenReturn(local);
+
+		GithubEntryReconciler.Drift drift = this.reconciler.reconcile(null);
+
+		assertThat(drift.isEmpty()).isTrue();
+		verifyNoInteractions(this.entryFetcher);
+		verify(this.entryRepository, never()).deleteById(any());
+		verify(this.entryRepository, never()).saveAll(anyList());
+	}
+
+	@Test
+	void reconcileRefreshesEntriesWithoutShaOnGitHub() {
+		when(this.gitHubClient.getTree("owner", "repo", GithubEntryReconciler.CONTENT_TREE)).thenReturn(
+				ResponseEntity.ok(new GitTree("tree", List.of(blob("00001.md", "a"), blob("00002.md", "b")), false)));
+		Map<Long, String> local = new HashMap<>();
+		local.put(1L, null);
+		local.put(2L, null);
+		when(this.entryRepository.findBlobShas(null)).thenReturn(local);
+		Entry entry1 = MockData.ENTRY1.toBuilder().blobSha("a").build();
+		when(this.entryFetcher.fetch(null, "owner", "repo", "content/00001.md")).thenReturn(Optional.of(entry1));
+		// deleted since the tree was read
+		when(this.entryFetcher.fetch(null, "owner", "repo", "content/00002.md")).thenReturn(Optional.empty());
+
+		GithubEntryReconciler.Drift drift = this.reconciler.reconcile(null);
+
+		assertThat(drift.unverified()).containsExactly(1L, 2L);
+		assertThat(drift.mismatched()).isEmpty();
+		assertThat(drift.extra()).isEmpty();
+		verify(this.entryRepository).saveAll(List.of(entry1));
+		verify(this.entryRepository, never()).deleteById(any());
+		assertThat(this.meterRegistry.get("entry.reconciliation.drift").tag("type", "unverified").counter().count())
+			.isEqualTo(2);
+	}
+
+	@Test
+	void reconcileAllWithoutLease() {
+		when(this.leases.tryAcquire(eq(GithubEntryReconciler.LEASE_NAME), any())).thenReturn(false);
+
+		this.reconciler.reconcileAll();
+
+		verifyNoInteractions(this.gitHubClient, this.entryRepository, this.entryFetcher);
+	}
+
+	@Test
+	void reconcileAllWithLease() {
+		when(this.leases.tryAcquire(eq(GithubEntryReconciler.LEASE_NAME), any())).thenReturn(true);
+		when(this.gitHubClient.getTree(anyString(), anyString(), anyString()))
+			.thenReturn(ResponseEntity.ok(new GitTree("tree", List.of(blob("00001.md", "a")), false)));
+		when(this.entryRepository.findBlobShas(null)).thenReturn(Map.of(1L, "a"));
+
+		this.reconciler.reconcileAll();
+
+		verify(this.entryRepository).findBlobShas(null);
+		verifyNoInteractions(this.entryFetcher);
+	}
+
+}
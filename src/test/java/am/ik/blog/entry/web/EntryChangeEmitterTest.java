@@ -0,0 +1,92 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.entry.EntryChange;
+import am.ik.blog.entry.EntryKey;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntryChangeEmitterTest {
+
+	@Test
+	void bufferUntilStarted() throws Exception {
+		RecordingSseEmitter sseEmitter = new RecordingSseEmitter();
+		EntryChangeEmitter emitter = new EntryChangeEmitter(sseEmitter, 4, Runnable::run);
+		emitter.offer(EntryChange.delete(new EntryKey(2L), 11));
+		emitter.send(EntryChange.delete(new EntryKey(1L), 10));
+		assertThat(sseEmitter.events).hasSize(1);
+		emitter.start();
+		assertThat(sseEmitter.events).hasSize(2);
+		assertThat(sseEmitter.events.get(0)).contains("id:10,1").contains("event:change");
+		assertThat(sseEmitter.events.get(1)).contains("id:11,2").contains("event:change");
+		emitter.heartbeat();
+		assertThat(sseEmitter.events.get(2)).startsWith(":heartbeat\n");
+		assertThat(sseEmitter.completed).isFalse();
+	}
+
+	@Test
+	void overflow() {
+		RecordingSseEmitter sseEmitter = new RecordingSseEmitter();
+		EntryChangeEmitter emitter = new EntryChangeEmitter(sseEmitter, 2, Runnable::run);
+		AtomicInteger closed = new AtomicInteger();
+		emitter.onClose(closed::incrementAndGet);
+		for (long i = 1; i <= 3; i++) {
+			emitter.offer(EntryChange.delete(new EntryKey(i), i));
+		}
+		emitter.start();
+		assertThat(sseEmitter.events).hasSize(1);
+		assertThat(sseEmitter.events.getFirst()).contains("event:overflow");
+		assertThat(sseEmitter.completed).isTrue();
+		assertThat(emitter.isClosed()).isTrue();
+		assertThat(closed).hasValue(1);
+		emitter.offer(EntryChange.delete(new EntryKey(4L), 4));
+		assertThat(sseEmitter.events).hasSize(1);
+	}
+
+	@Test
+	void closeWhenClientHasGone() {
+		RecordingSseEmitter sseEmitter = new RecordingSseEmitter();
+		sseEmitter.failing = true;
+		EntryChangeEmitter emitter = new EntryChangeEmitter(sseEmitter, 2, Runnable::run);
+		AtomicInteger closed = new AtomicInteger();
+		emitter.onClose(closed::incrementAndGet);
+		emitter.start();
+		emitter.offer(EntryChange.delete(new EntryKey(1L), 1));
+		assertThat(emitter.isClosed()).isTrue();
+		assertThat(closed).hasValue(1);
+	}
+
+	static class RecordingSseEmitter extends SseEmitter {
+
+		final List<String> events = new ArrayList<>();
+
+		boolean failing;
+
+		boolean completed;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (this.failing) {
+				throw new IOException("Broken pipe");
+			}
+			this.events.add(builder.build()
+				.stream()
+				.filter(data -> data.getData() instanceof String)
+				.map(data -> (String) data.getData())
+				.collect(Collectors.joining()));
+		}
+
+		@Override
+		public void complete() {
+			this.completed = true;
+		}
+
+	}
+
+}
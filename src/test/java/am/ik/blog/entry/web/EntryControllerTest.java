@@ -3,13 +3,17 @@ package am.ik.blog.entry.web;
 import am.ik.blog.MockConfig;
 import am.ik.blog.TestcontainersConfiguration;
 import am.ik.blog.entry.Category;
+import am.ik.blog.entry.ChangeCursor;
 import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryChange;
+import am.ik.blog.entry.EntryCursor;
 import am.ik.blog.entry.EntryKey;
 import am.ik.blog.entry.EntryService;
 import am.ik.blog.entry.FrontMatter;
 import am.ik.blog.entry.MockData;
 import am.ik.blog.entry.Tag;
 import am.ik.blog.entry.TagAndCount;
+import am.ik.blog.entry.UpdatedCursor;
 import am.ik.blog.entry.gemfire.GemfireEntryRepository;
 import am.ik.blog.mockserver.MockServer;
 import am.ik.blog.mockserver.MockServer.Response;
@@ -47,6 +51,7 @@ import static am.ik.blog.entry.MockData.ENTRY7;
 import static am.ik.blog.entry.MockData.ENTRY8;
 import static am.ik.blog.entry.MockData.ENTRY9;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @Testcontainers(disabledWithoutDocker = true)
 @Import({ TestcontainersConfiguration.class, MockConfig.class })
@@ -55,7 +60,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 				"blog.tenant.users[1]=readonly|{noop}secret|t1=GET,LIST",
 				"blog.tenant.users[2]=editor|{noop}password|_=EDIT,DELETE|t1=EDIT,DELETE,GET",
 				"blog.github.direct-update=false", "blog.github.tenants.t1.api-url=http://PLACEHOLDER",
-				"logging.level.am.ik.blog.entry.gemfire.GemfireEntryRepository=warn",
+				"blog.changes.settle-time=0s", "logging.level.am.ik.blog.entry.gemfire.GemfireEntryRepository=warn",
 				"logging.level.org.springframework.cache=trace" })
 class EntryControllerTest {
 
@@ -134,10 +139,10 @@ class EntryControllerTest {
 				.uri(path, uriBuilder -> uriBuilder.queryParam("size", 4).build())
 				.headers(configureAuth(username, password))
 				.retrieve()
-				.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+				.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 				});
 			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-			CursorPage<Entry, Instant> page = response.getBody();
+			CursorPage<Entry, UpdatedCursor> page = response.getBody();
 			assertThat(page).isNotNull();
 			assertThat(page.size()).isEqualTo(4);
 			assertThat(page.hasPrevious()).isFalse();
@@ -154,10 +159,10 @@ class EntryControllerTest {
 				.uri(path, uriBuilder -> uriBuilder.queryParam("size", 4).queryParam("cursor", cursor).build())
 				.headers(configureAuth(username, password))
 				.retrieve()
-				.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+				.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 				});
 			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-			CursorPage<Entry, Instant> page = response.getBody();
+			CursorPage<Entry, UpdatedCursor> page = response.getBody();
 			assertThat(page).isNotNull();
 			assertThat(page.size()).isEqualTo(4);
 			assertThat(page.hasPrevious()).isTrue();
@@ -174,10 +179,10 @@ class EntryControllerTest {
 				.uri(path, uriBuilder -> uriBuilder.queryParam("size", 4).queryParam("cursor", cursor).build())
 				.headers(configureAuth(username, password))
 				.retrieve()
-				.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+				.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 				});
 			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-			CursorPage<Entry, Instant> page = response.getBody();
+			CursorPage<Entry, UpdatedCursor> page = response.getBody();
 			assertThat(page).isNotNull();
 			assertThat(page.size()).isEqualTo(4);
 			assertThat(page.hasPrevious()).isTrue();
@@ -197,10 +202,10 @@ class EntryControllerTest {
 			.uri(path)
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(EntryService.DEFAULT_PAGE_SIZE);
 		assertThat(page.hasPrevious()).isFalse();
@@ -223,10 +228,10 @@ class EntryControllerTest {
 			.uri(path, uriBuilder -> uriBuilder.queryParam("query", "Learn").build())
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(EntryService.DEFAULT_PAGE_SIZE);
 		assertThat(page.hasPrevious()).isFalse();
@@ -244,10 +249,10 @@ class EntryControllerTest {
 			.uri(path, uriBuilder -> uriBuilder.queryParam("query", "Learn python").build())
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(EntryService.DEFAULT_PAGE_SIZE);
 		assertThat(page.hasPrevious()).isFalse();
@@ -264,10 +269,10 @@ class EntryControllerTest {
 			.uri(path, uriBuilder -> uriBuilder.queryParam("query", "Learn -python").build())
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(EntryService.DEFAULT_PAGE_SIZE);
 		assertThat(page.hasPrevious()).isFalse();
@@ -284,10 +289,10 @@ class EntryControllerTest {
 			.uri(path, uriBuilder -> uriBuilder.queryParam("query", "Spring OR React").build())
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(EntryService.DEFAULT_PAGE_SIZE);
 		assertThat(page.hasPrevious()).isFalse();
@@ -305,10 +310,10 @@ class EntryControllerTest {
 			.uri(path, uriBuilder -> uriBuilder.queryParam("tag", "rest-api").build())
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(EntryService.DEFAULT_PAGE_SIZE);
 		assertThat(page.hasPrevious()).isFalse();
@@ -317,6 +322,40 @@ class EntryControllerTest {
 				withTenantIdAndEmptyContent(ENTRY1, tenantId));
 	}
 
+	@ParameterizedTest
+	@CsvSource({ "/entries,,", "/tenants/t1/entries,admin,changeme", "/tenants/t1/entries,readonly,secret" })
+	void getEntriesSortedByTitle(String path, String username, String password) {
+		String tenantId = path.startsWith("/tenants/") ? path.split("/")[2] : null;
+		prepareMockData(tenantId);
+		var response = this.restClient.get()
+			.uri(path, uriBuilder -> uriBuilder.queryParam("sort", "title").queryParam("size", 3).build())
+			.headers(configureAuth(username, password))
+			.retrieve()
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, EntryCursor>>() {
+			});
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		CursorPage<Entry, EntryCursor> page = response.getBody();
+		assertThat(page).isNotNull();
+		assertThat(page.hasPrevious()).isFalse();
+		assertThat(page.hasNext()).isTrue();
+		assertThat(page.content()).containsExactly(withTenantIdAndEmptyContent(ENTRY3, tenantId),
+				withTenantIdAndEmptyContent(ENTRY8, tenantId), withTenantIdAndEmptyContent(ENTRY10, tenantId));
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "/entries,,", "/tenants/t1/entries,admin,changeme" })
+	void getEntriesSortedWithMismatchedCursor(String path, String username, String password) {
+		var response = this.restClient.get()
+			.uri(path,
+					uriBuilder -> uriBuilder.queryParam("sort", "title")
+						.queryParam("cursor", "2024-01-15T14:30:00Z,12")
+						.build())
+			.headers(configureAuth(username, password))
+			.retrieve()
+			.toEntity(ProblemDetail.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
 	@ParameterizedTest
 	@CsvSource({ "/entries,,", "/tenants/t1/entries,admin,changeme", "/tenants/t1/entries,readonly,secret" })
 	void getEntriesWithCategories(String path, String username, String password) {
@@ -326,10 +365,10 @@ class EntryControllerTest {
 			.uri(path, uriBuilder -> uriBuilder.queryParam("categories", "Programming,JavaScript").build())
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(EntryService.DEFAULT_PAGE_SIZE);
 		assertThat(page.hasPrevious()).isFalse();
@@ -351,10 +390,10 @@ class EntryControllerTest {
 						.build())
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(EntryService.DEFAULT_PAGE_SIZE);
 		assertThat(page.hasPrevious()).isFalse();
@@ -369,10 +408,10 @@ class EntryControllerTest {
 			.uri(path, uriBuilder -> uriBuilder.queryParam("size", 4).build())
 			.headers(configureAuth(username, password))
 			.retrieve()
-			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, Instant>>() {
+			.toEntity(new ParameterizedTypeReference<CursorPage<Entry, UpdatedCursor>>() {
 			});
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		CursorPage<Entry, Instant> page = response.getBody();
+		CursorPage<Entry, UpdatedCursor> page = response.getBody();
 		assertThat(page).isNotNull();
 		assertThat(page.size()).isEqualTo(4);
 		assertThat(page.hasPrevious()).isFalse();
@@ -696,6 +735,84 @@ class EntryControllerTest {
 		assertThat(this.entryRepository.exists(entry1.entryKey())).isFalse();
 	}
 
+	@ParameterizedTest
+	@CsvSource({ "/changes,,", "/tenants/t1/changes,admin,changeme", "/tenants/t1/changes,readonly,secret" })
+	void getChanges(String path, String username, String password) {
+		String tenantId = path.startsWith("/tenants/") ? path.split("/")[2] : null;
+		prepareMockData(tenantId);
+		var response = this.restClient.get()
+			.uri(path, uriBuilder -> uriBuilder.queryParam("size", 8).build())
+			.headers(configureAuth(username, password))
+			.retrieve()
+			.toEntity(new ParameterizedTypeReference<CursorPage<EntryChange, ChangeCursor>>() {
+			});
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		CursorPage<EntryChange, ChangeCursor> page = response.getBody();
+		assertThat(page).isNotNull();
+		assertThat(page.hasNext()).isTrue();
+		assertThat(page.content()).hasSize(8);
+		assertThat(page.content()).extracting(change -> change.entryKey().entryId())
+			.containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+		this.entryRepository.deleteById(withTenantId(ENTRY10, tenantId).entryKey());
+		ChangeCursor since = page.content().getLast().toCursor();
+		var next = this.restClient.get()
+			.uri(path, uriBuilder -> uriBuilder.queryParam("size", 8).queryParam("since", since).build())
+			.headers(configureAuth(username, password))
+			.retrieve()
+			.toEntity(new ParameterizedTypeReference<CursorPage<EntryChange, ChangeCursor>>() {
+			});
+		assertThat(next.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(next.getBody()).isNotNull();
+		assertThat(next.getBody().hasNext()).isFalse();
+		assertThat(next.getBody().content())
+			.extracting(EntryChange::type, change -> change.entryKey().entryId())
+			.containsExactly(tuple(EntryChange.Type.UPSERT, 9L), tuple(EntryChange.Type.DELETE, 10L));
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "abc,400", "0,410" })
+	void getChangesWithInvalidSince(String since, int status) {
+		var response = this.restClient.get()
+			.uri("/changes", uriBuilder -> uriBuilder.queryParam("since", since).build())
+			.retrieve()
+			.toEntity(ProblemDetail.class);
+		assertThat(response.getStatusCode().value()).isEqualTo(status);
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "/entries,,", "/entries?entryIds=1&entryIds=2,,", "/entries?query=Spring&sort=relevance,,",
+			"/categories,,", "/tags,,", "/tenants/t1/entries,admin,changeme", "/tenants/t1/tags,readonly,secret" })
+	void getListNotModified(String path, String username, String password) {
+		String tenantId = path.startsWith("/tenants/") ? path.split("/")[2] : null;
+		prepareMockData(tenantId);
+		var response = this.restClient.get()
+			.uri(path)
+			.headers(configureAuth(username, password))
+			.retrieve()
+			.toEntity(String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		String eTag = response.getHeaders().getETag();
+		assertThat(eTag).isNotNull().startsWith("\"");
+		assertThat(response.getHeaders().getLastModified()).isPositive();
+		var notModified = this.restClient.get()
+			.uri(path)
+			.header(HttpHeaders.IF_NONE_MATCH, eTag)
+			.headers(configureAuth(username, password))
+			.retrieve()
+			.toEntity(String.class);
+		assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(notModified.getBody()).isNull();
+		this.entryRepository.deleteById(withTenantId(ENTRY10, tenantId).entryKey());
+		var modified = this.restClient.get()
+			.uri(path)
+			.header(HttpHeaders.IF_NONE_MATCH, eTag)
+			.headers(configureAuth(username, password))
+			.retrieve()
+			.toEntity(String.class);
+		assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(modified.getHeaders().getETag()).isNotEqualTo(eTag);
+	}
+
 	@ParameterizedTest
 	@CsvSource({ "/categories,,", "/tenants/t1/categories,admin,changeme", "/tenants/t1/categories,readonly,secret" })
 	void getCategories(String path, String username, String password) {
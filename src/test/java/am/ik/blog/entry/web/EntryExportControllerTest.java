@@ -0,0 +1,127 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.MockConfig;
+import am.ik.blog.TestcontainersConfiguration;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.MockData;
+import am.ik.blog.entry.gemfire.GemfireEntryRepository;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.RestClient;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import tools.jackson.databind.json.JsonMapper;
+
+import static am.ik.blog.entry.web.EntryControllerTest.withTenantId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ TestcontainersConfiguration.class, MockConfig.class })
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = { "blog.tenant.users[0]=blog-ui|{noop}empty|_=GET,LIST",
+				"blog.tenant.users[1]=readonly|{noop}secret|t1=GET,LIST",
+				"blog.tenant.users[2]=exporter|{noop}password|t1=EXPORT",
+				"logging.level.am.ik.blog.entry.gemfire.GemfireEntryRepository=warn" })
+class EntryExportControllerTest {
+
+	RestClient restClient;
+
+	@Autowired
+	GemfireEntryRepository entryRepository;
+
+	@Autowired
+	JsonMapper jsonMapper;
+
+	@LocalServerPort
+	int port;
+
+	@BeforeEach
+	void setup(@Autowired RestClient.Builder restClientBuilder) {
+		this.restClient = restClientBuilder.baseUrl("http://localhost:" + port)
+			.defaultStatusHandler(HttpStatusCode::is4xxClientError, (req, res) -> {
+			})
+			.build();
+		this.entryRepository.deleteAll();
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "/export,,admin,changeme", "/tenants/t1/export,t1,admin,changeme",
+			"/tenants/t1/export,t1,exporter,password" })
+	void export(String path, String tenantId, String username, String password) {
+		List<Entry> entries = LongStream.rangeClosed(1, EntryExportController.CHUNK_SIZE * 2 + 5)
+			.mapToObj(id -> withTenantId(MockData.ENTRY1.toBuilder().entryKey(new EntryKey(id)).build(), tenantId))
+			.toList();
+		this.entryRepository.saveAll(entries);
+		var response = this.restClient.get()
+			.uri(path)
+			.headers(headers -> headers.setBasicAuth(username, password))
+			.retrieve()
+			.toEntity(String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType()).isEqualTo(EntryExportController.APPLICATION_NDJSON);
+		assertThat(parse(response.getBody())).containsExactlyElementsOf(entries);
+		var resumed = this.restClient.get()
+			.uri(path + "?after={after}", 200)
+			.headers(headers -> headers.setBasicAuth(username, password))
+			.retrieve()
+			.toEntity(String.class);
+		assertThat(resumed.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(parse(resumed.getBody())).containsExactlyElementsOf(entries.subList(200, entries.size()));
+	}
+
+	@Test
+	void exportGzip() throws IOException {
+		this.entryRepository.saveAll(MockData.ALL_ENTRIES);
+		var response = this.restClient.get()
+			.uri("/export")
+			.headers(headers -> {
+				headers.setBasicAuth("admin", "changeme");
+				headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+			})
+			.retrieve()
+			.toEntity(byte[].class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getBody()).isNotNull();
+		try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+			String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+			assertThat(parse(body)).containsExactlyElementsOf(MockData.ALL_ENTRIES);
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "/export,,,401", "/export,readonly,secret,403", "/tenants/t1/export,,,401",
+			"/tenants/t1/export,readonly,secret,403", "/export,exporter,password,403" })
+	void exportForbidden(String path, String username, String password, int status) {
+		var response = this.restClient.get().uri(path).headers(headers -> {
+			if (username != null) {
+				headers.setBasicAuth(username, password);
+			}
+		}).retrieve().toBodilessEntity();
+		assertThat(response.getStatusCode().value()).isEqualTo(status);
+	}
+
+	List<Entry> parse(String body) {
+		if (body == null || body.isEmpty()) {
+			return List.of();
+		}
+		return Arrays.stream(body.split("\n")).map(line -> this.jsonMapper.readValue(line, Entry.class)).toList();
+	}
+
+}
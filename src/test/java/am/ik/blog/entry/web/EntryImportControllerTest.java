@@ -0,0 +1,188 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.MockConfig;
+import am.ik.blog.TestcontainersConfiguration;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.MockData;
+import am.ik.blog.entry.gemfire.GemfireEntryRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ TestcontainersConfiguration.class, MockConfig.class })
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = { "blog.tenant.users[0]=blog-ui|{noop}empty|_=GET,LIST",
+				"blog.tenant.users[1]=importer|{noop}password|t1=IMPORT",
+				"blog.tenant.users[2]=editor|{noop}password|_=EDIT,DELETE|t1=EDIT,DELETE,GET",
+				"logging.level.am.ik.blog.entry.gemfire.GemfireEntryRepository=warn" })
+class EntryImportControllerTest {
+
+	RestClient restClient;
+
+	@Autowired
+	GemfireEntryRepository entryRepository;
+
+	@Autowired
+	JsonMapper jsonMapper;
+
+	@LocalServerPort
+	int port;
+
+	@BeforeEach
+	void setup(@Autowired RestClient.Builder restClientBuilder) {
+		this.restClient = restClientBuilder.baseUrl("http://localhost:" + port)
+			.defaultStatusHandler(HttpStatusCode::is4xxClientError, (req, res) -> {
+			})
+			.build();
+		this.entryRepository.deleteAll();
+	}
+
+	@Test
+	void importZip() throws IOException {
+		ByteArrayOutputStream zip = new ByteArrayOutputStream();
+		try (ZipOutputStream outputStream = new ZipOutputStream(zip)) {
+			outputStream.putNextEntry(new ZipEntry("README.md"));
+			outputStream.write("# README".getBytes(StandardCharsets.UTF_8));
+			for (Entry entry : List.of(MockData.ENTRY1, MockData.ENTRY2)) {
+				outputStream.putNextEntry(new ZipEntry("content/%s.md".formatted(entry.formatId())));
+				outputStream.write(entry.toMarkdown().getBytes(StandardCharsets.UTF_8));
+			}
+			outputStream.putNextEntry(new ZipEntry("content/draft.md"));
+			outputStream.write(MockData.ENTRY3.toMarkdown().getBytes(StandardCharsets.UTF_8));
+		}
+		List<ImportResult> results = post("/admin/import", zip.toByteArray(), "admin", "changeme");
+		assertThat(results).extracting(ImportResult::path, ImportResult::entryId, ImportResult::status)
+			.containsExactly(tuple("content/00001.md", 1L, ImportResult.Status.IMPORTED),
+					tuple("content/00002.md", 2L, ImportResult.Status.IMPORTED),
+					tuple("content/draft.md", null, ImportResult.Status.FAILED));
+		Optional<Entry> imported = this.entryRepository.findById(new EntryKey(1L));
+		assertThat(imported).isPresent();
+		assertThat(imported.get().frontMatter().title()).isEqualTo(MockData.ENTRY1.frontMatter().title());
+		assertThat(imported.get().content()).isEqualTo(MockData.ENTRY1.content());
+		assertThat(this.entryRepository.findById(new EntryKey(2L))).isPresent();
+	}
+
+	@Test
+	void importTarGzForTenant() throws IOException {
+		TarBuilder tar = new TarBuilder();
+		for (long id = 1; id <= EntryImportController.BATCH_SIZE + 5; id++) {
+			tar.file("blog-main/content/%s.md".formatted(Entry.formatId(id)), MockData.ENTRY1.toMarkdown());
+		}
+		tar.file("blog-main/content/latest.md", MockData.ENTRY2.toMarkdown());
+		List<ImportResult> results = post("/tenants/t1/admin/import", tar.buildGzip(), "importer", "password");
+		assertThat(results).hasSize(EntryImportController.BATCH_SIZE + 6);
+		assertThat(results.subList(0, EntryImportController.BATCH_SIZE + 5))
+			.allMatch(result -> result.status() == ImportResult.Status.IMPORTED);
+		assertThat(results.getLast().status()).isEqualTo(ImportResult.Status.FAILED);
+		assertThat(this.entryRepository.findById(new EntryKey(105L, "t1"))).isPresent();
+		assertThat(this.entryRepository.findById(new EntryKey(1L, "t1"))).isPresent();
+	}
+
+	@Test
+	void importKeepsCreatedOfExistingEntries() throws IOException {
+		this.entryRepository.save(MockData.ENTRY1);
+		TarBuilder tar = new TarBuilder();
+		tar.file("content/00001.md", """
+				---
+				title: Updated
+				---
+
+				Updated content
+				""");
+		tar.file("content/00099.md", """
+				---
+				title: New
+				---
+
+				New content
+				""");
+		List<ImportResult> results = post("/admin/import", tar.buildGzip(), "admin", "changeme");
+		assertThat(results).allMatch(result -> result.status() == ImportResult.Status.IMPORTED);
+		Entry updated = this.entryRepository.findById(new EntryKey(1L)).orElseThrow();
+		assertThat(updated.frontMatter().title()).isEqualTo("Updated");
+		assertThat(updated.created()).isEqualTo(MockData.ENTRY1.created());
+		assertThat(updated.updated().name()).isEqualTo("admin");
+		Entry created = this.entryRepository.findById(new EntryKey(99L)).orElseThrow();
+		assertThat(created.created().name()).isEqualTo("admin");
+	}
+
+	@Test
+	void importUnsupportedFormat() {
+		var response = this.restClient.post()
+			.uri("/admin/import")
+			.headers(headers -> headers.setBasicAuth("admin", "changeme"))
+			.contentType(MediaType.APPLICATION_OCTET_STREAM)
+			.body("# Hello".getBytes(StandardCharsets.UTF_8))
+			.retrieve()
+			.toBodilessEntity();
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "/admin/import,,,401", "/admin/import,editor,password,403", "/tenants/t1/admin/import,,,401",
+			"/tenants/t1/admin/import,editor,password,403", "/admin/import,importer,password,403" })
+	void importForbidden(String path, String username, String password, int status) throws IOException {
+		var response = this.restClient.post()
+			.uri(path)
+			.headers(headers -> {
+				if (username != null) {
+					headers.setBasicAuth(username, password);
+				}
+			})
+			.contentType(MediaType.APPLICATION_OCTET_STREAM)
+			.body(new TarBuilder().file("content/00001.md", MockData.ENTRY1.toMarkdown()).buildGzip())
+			.retrieve()
+			.toBodilessEntity();
+		assertThat(response.getStatusCode().value()).isEqualTo(status);
+		assertThat(this.entryRepository.findById(new EntryKey(1L))).isEmpty();
+	}
+
+	@Test
+	void isEntryFile() {
+		assertThat(EntryImportController.isEntryFile("content/00001.md")).isTrue();
+		assertThat(EntryImportController.isEntryFile("blog-main/content/00001.md")).isTrue();
+		assertThat(EntryImportController.isEntryFile("00001.md")).isFalse();
+		assertThat(EntryImportController.isEntryFile("content/00001.txt")).isFalse();
+		assertThat(EntryImportController.isEntryFile("blog-main/docs/content/00001.md")).isFalse();
+	}
+
+	List<ImportResult> post(String path, byte[] archive, String username, String password) {
+		var response = this.restClient.post()
+			.uri(path)
+			.headers(headers -> headers.setBasicAuth(username, password))
+			.contentType(MediaType.APPLICATION_OCTET_STREAM)
+			.body(archive)
+			.retrieve()
+			.toEntity(String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isNotNull();
+		return Arrays.stream(response.getBody().split("\n"))
+			.map(line -> this.jsonMapper.readValue(line, ImportResult.class))
+			.toList();
+	}
+
+}
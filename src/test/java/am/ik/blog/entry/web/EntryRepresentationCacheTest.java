@@ -0,0 +1,100 @@
+package am.ik.blog.entry.web;
+
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.web.EntryRepresentationCache.Format;
+import am.ik.blog.entry.web.EntryRepresentationCache.Representation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static am.ik.blog.entry.MockData.ENTRY1;
+import static am.ik.blog.entry.MockData.ENTRY2;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntryRepresentationCacheTest {
+
+	JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	static byte[] gunzip(byte[] gzip) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			return in.readAllBytes();
+		}
+	}
+
+	@Test
+	void getSerializesOnce() throws IOException {
+		EntryRepresentationCache cache = new EntryRepresentationCache(this.jsonMapper, Long.MAX_VALUE);
+		Representation json = cache.get(ENTRY1, Format.JSON);
+		assertThat(json.identity()).isEqualTo(this.jsonMapper.writeValueAsBytes(ENTRY1));
+		assertThat(gunzip(json.gzip())).isEqualTo(json.identity());
+		assertThat(cache.get(ENTRY1, Format.JSON)).isSameAs(json);
+		Representation markdown = cache.get(ENTRY1, Format.MARKDOWN);
+		assertThat(new String(markdown.identity(), StandardCharsets.UTF_8)).isEqualTo(ENTRY1.toMarkdown());
+		assertThat(cache.get(ENTRY1, Format.MARKDOWN)).isSameAs(markdown);
+		assertThat(cache.bytes()).isEqualTo(json.size() + markdown.size());
+	}
+
+	@Test
+	void getRebuildsChangedEntry() {
+		EntryRepresentationCache cache = new EntryRepresentationCache(this.jsonMapper, Long.MAX_VALUE);
+		Representation json = cache.get(ENTRY1, Format.JSON);
+		Entry updated = ENTRY1.toBuilder()
+			.updated(ENTRY1.updated().withDate(ENTRY1.updated().date().plusSeconds(1)))
+			.build();
+		Representation updatedJson = cache.get(updated, Format.JSON);
+		assertThat(updatedJson).isNotSameAs(json);
+		assertThat(updatedJson.identity()).isEqualTo(this.jsonMapper.writeValueAsBytes(updated));
+		Entry summarized = updated.toBuilder()
+			.frontMatter(updated.frontMatter().toBuilder().summary("Updated summary").build())
+			.build();
+		assertThat(cache.get(summarized, Format.JSON).identity())
+			.isEqualTo(this.jsonMapper.writeValueAsBytes(summarized));
+		assertThat(cache.bytes()).isEqualTo(cache.get(summarized, Format.JSON).size());
+	}
+
+	@Test
+	void getKeysOnContentHash() {
+		EntryRepresentationCache cache = new EntryRepresentationCache(this.jsonMapper, Long.MAX_VALUE);
+		Representation json = cache.get(ENTRY1, Format.JSON);
+		// the blob SHA is not rendered
+		assertThat(cache.get(ENTRY1.toBuilder().blobSha("sha").build(), Format.JSON)).isSameAs(json);
+		// changed without a new update date
+		Entry edited = ENTRY1.toBuilder().content("Edited").build();
+		assertThat(cache.get(edited, Format.JSON).identity()).isEqualTo(this.jsonMapper.writeValueAsBytes(edited));
+		Entry withoutContent = ENTRY1.toBuilder().content(null).build();
+		Entry emptyContent = ENTRY1.toBuilder().content("").build();
+		assertThat(withoutContent.contentHash()).isEqualTo(emptyContent.contentHash());
+		assertThat(cache.get(withoutContent, Format.JSON).identity())
+			.isEqualTo(this.jsonMapper.writeValueAsBytes(withoutContent));
+		assertThat(cache.get(emptyContent, Format.JSON).identity())
+			.isEqualTo(this.jsonMapper.writeValueAsBytes(emptyContent));
+	}
+
+	@Test
+	void getEvictsLeastRecentlyUsed() {
+		long size = Representation.of(this.jsonMapper.writeValueAsBytes(ENTRY1)).size();
+		EntryRepresentationCache cache = new EntryRepresentationCache(this.jsonMapper, size);
+		Representation json1 = cache.get(ENTRY1, Format.JSON);
+		cache.get(ENTRY2, Format.JSON);
+		assertThat(cache.bytes()).isLessThanOrEqualTo(size);
+		assertThat(cache.get(ENTRY1, Format.JSON)).isNotSameAs(json1);
+	}
+
+	@Test
+	void acceptsGzip() {
+		assertThat(EntryRepresentationCache.acceptsGzip(null)).isFalse();
+		assertThat(EntryRepresentationCache.acceptsGzip("")).isFalse();
+		assertThat(EntryRepresentationCache.acceptsGzip("gzip")).isTrue();
+		assertThat(EntryRepresentationCache.acceptsGzip("br, GZIP;q=0.8, deflate")).isTrue();
+		assertThat(EntryRepresentationCache.acceptsGzip("*")).isTrue();
+		assertThat(EntryRepresentationCache.acceptsGzip("gzip;q=0")).isFalse();
+		assertThat(EntryRepresentationCache.acceptsGzip("gzip;q=0, *")).isFalse();
+		assertThat(EntryRepresentationCache.acceptsGzip("*;q=0, gzip")).isTrue();
+		assertThat(EntryRepresentationCache.acceptsGzip("br, deflate")).isFalse();
+		assertThat(EntryRepresentationCache.acceptsGzip("identity")).isFalse();
+	}
+
+}
@@ -0,0 +1,80 @@
+package am.ik.blog.entry.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class MarkdownArchiveTest {
+
+	@Test
+	void zip() throws IOException {
+		ByteArrayOutputStream zip = new ByteArrayOutputStream();
+		try (ZipOutputStream outputStream = new ZipOutputStream(zip)) {
+			outputStream.putNextEntry(new ZipEntry("content/"));
+			outputStream.putNextEntry(new ZipEntry("content/00001.md"));
+			outputStream.write("first".getBytes(StandardCharsets.UTF_8));
+			outputStream.putNextEntry(new ZipEntry("content/00002.md"));
+			outputStream.write("second".getBytes(StandardCharsets.UTF_8));
+		}
+		assertThat(read(zip.toByteArray())).containsExactly(entry("content/00001.md", "first"),
+				entry("content/00002.md", "second"));
+	}
+
+	@Test
+	void tarGz() throws IOException {
+		String longName = "blog-main/content/" + "a".repeat(120) + ".md";
+		byte[] archive = new TarBuilder().directory("content/")
+			.file("content/00001.md", "first")
+			.fileWithPrefix("blog-main/content", "00002.md", "second".repeat(100))
+			.gnuLongName(longName, "long")
+			.paxPath("blog-main/content/00003.md", "pax")
+			.file("content/00004.md", "")
+			.buildGzip();
+		assertThat(read(archive)).containsExactly(entry("content/00001.md", "first"),
+				entry("blog-main/content/00002.md", "second".repeat(100)), entry(longName, "long"),
+				entry("blog-main/content/00003.md", "pax"), entry("content/00004.md", ""));
+	}
+
+	@Test
+	void partiallyReadContent() throws IOException {
+		byte[] archive = new TarBuilder().file("content/00001.md", "first".repeat(200))
+			.file("content/00002.md", "second")
+			.buildGzip();
+		Map<String, String> files = new LinkedHashMap<>();
+		MarkdownArchive.open(new ByteArrayInputStream(archive))
+			.forEach((path, content) -> files.put(path, new String(content.readNBytes(5), StandardCharsets.UTF_8)));
+		assertThat(files).containsExactly(entry("content/00001.md", "first"), entry("content/00002.md", "secon"));
+	}
+
+	@Test
+	void unsupportedFormat() {
+		assertThatThrownBy(
+				() -> MarkdownArchive.open(new ByteArrayInputStream("# Hello".getBytes(StandardCharsets.UTF_8))))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void parsePaxPath() {
+		assertThat(MarkdownArchive.parsePaxPath("30 mtime=1432668921.098285006\n25 path=content/00001.md\n"))
+			.isEqualTo("content/00001.md");
+		assertThat(MarkdownArchive.parsePaxPath("30 mtime=1432668921.098285006\n")).isNull();
+	}
+
+	static Map<String, String> read(byte[] archive) throws IOException {
+		Map<String, String> files = new LinkedHashMap<>();
+		MarkdownArchive.open(new ByteArrayInputStream(archive))
+			.forEach((path, content) -> files.put(path, new String(content.readAllBytes(), StandardCharsets.UTF_8)));
+		return files;
+	}
+
+}
@@ -0,0 +1,79 @@
+package am.ik.blog.entry.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes ustar archives for tests.
+ */
+final class TarBuilder {
+
+	private final ByteArrayOutputStream tar = new ByteArrayOutputStream();
+
+	TarBuilder file(String name, String content) {
+		return entry(name, "", (byte) '0', content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	TarBuilder fileWithPrefix(String prefix, String name, String content) {
+		return entry(name, prefix, (byte) '0', content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	TarBuilder directory(String name) {
+		return entry(name, "", (byte) '5', new byte[0]);
+	}
+
+	TarBuilder gnuLongName(String longName, String content) {
+		entry("././@LongLink", "", (byte) 'L', (longName + "\0").getBytes(StandardCharsets.UTF_8));
+		return entry(longName.substring(0, 50), "", (byte) '0', content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	TarBuilder paxPath(String path, String content) {
+		String record = " path=" + path + "\n";
+		// the length of a record includes its own digits
+		int length = record.length() + Integer.toString(record.length()).length();
+		entry("PaxHeaders/" + path.hashCode(), "", (byte) 'x',
+				(length + record).getBytes(StandardCharsets.UTF_8));
+		return entry("truncated", "", (byte) '0', content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private TarBuilder entry(String name, String prefix, byte type, byte[] content) {
+		byte[] header = new byte[512];
+		put(header, 0, name);
+		put(header, 100, "0000644");
+		put(header, 124, "%011o".formatted(content.length));
+		put(header, 136, "%011o".formatted(0));
+		header[156] = type;
+		put(header, 257, "ustar");
+		put(header, 263, "00");
+		put(header, 345, prefix);
+		for (int i = 148; i < 156; i++) {
+			header[i] = ' ';
+		}
+		long checksum = 0;
+		for (byte b : header) {
+			checksum += b & 0xff;
+		}
+		put(header, 148, "%06o".formatted(checksum));
+		this.tar.writeBytes(header);
+		this.tar.writeBytes(content);
+		this.tar.writeBytes(new byte[(512 - content.length % 512) % 512]);
+		return this;
+	}
+
+	private static void put(byte[] header, int offset, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		System.arraycopy(bytes, 0, header, offset, bytes.length);
+	}
+
+	byte[] buildGzip() throws IOException {
+		this.tar.writeBytes(new byte[1024]);
+		ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+		try (GZIPOutputStream outputStream = new GZIPOutputStream(gzip)) {
+			outputStream.write(this.tar.toByteArray());
+		}
+		return gzip.toByteArray();
+	}
+
+}
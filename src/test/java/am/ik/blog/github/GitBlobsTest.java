@@ -0,0 +1,17 @@
+package am.ik.blog.github;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitBlobsTest {
+
+	@Test
+	void shaMatchesGitHashObject() {
+		assertThat(GitBlobs.sha("hello\n".getBytes(StandardCharsets.UTF_8)))
+			.isEqualTo("ce013625030ba8dba906f756967f9e9ca394464a");
+		assertThat(GitBlobs.sha(new byte[0])).isEqualTo("e69de29bb2d1d6434b8b29ae775ad8c2e48c5391");
+	}
+
+}
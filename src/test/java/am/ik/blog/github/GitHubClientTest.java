@@ -20,6 +20,7 @@ import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = { MockConfig.class, GitHubClientTest.TestConfig.class })
@@ -475,4 +476,45 @@ class GitHubClientTest {
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
 	}
 
+	@Test
+	void getTree_shouldReturnTreeOnSuccess() {
+		String jsonResponse = """
+				{
+				  "sha": "tree123",
+				  "url": "https://api.github.com/repos/test-owner/test-repo/git/trees/tree123",
+				  "tree": [
+				    {
+				      "path": "00001.md",
+				      "mode": "100644",
+				      "type": "blob",
+				      "sha": "blob001",
+				      "size": 123,
+				      "url": "https://api.github.com/repos/test-owner/test-repo/git/blobs/blob001"
+				    },
+				    {
+				      "path": "images",
+				      "mode": "040000",
+				      "type": "tree",
+				      "sha": "tree456",
+				      "url": "https://api.github.com/repos/test-owner/test-repo/git/trees/tree456"
+				    }
+				  ],
+				  "truncated": false
+				}
+				""";
+
+		this.mockServer.GET("/repos/test-owner/test-repo/git/trees/HEAD:content",
+				request -> MockServer.Response.json(jsonResponse));
+
+		ResponseEntity<GitTree> response = this.gitHubClient.getTree("test-owner", "test-repo", "HEAD:content");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isNotNull();
+		GitTree tree = response.getBody();
+		assertThat(tree.sha()).isEqualTo("tree123");
+		assertThat(tree.truncated()).isFalse();
+		assertThat(tree.tree()).extracting(GitTreeEntry::path, GitTreeEntry::sha, GitTreeEntry::isBlob)
+			.containsExactly(tuple("00001.md", "blob001", true), tuple("images", "tree456", false));
+	}
+
 }
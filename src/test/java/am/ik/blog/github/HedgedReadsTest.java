@@ -0,0 +1,144 @@
+package am.ik.blog.github;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgedReadsTest {
+
+	final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	HedgedReads hedgedReads;
+
+	@AfterEach
+	void close() {
+		if (this.hedgedReads != null) {
+			this.hedgedReads.close();
+		}
+	}
+
+	@Test
+	void slowReadIsHedged() {
+		this.hedgedReads = new HedgedReads(true, Duration.ofSeconds(5), this.meterRegistry);
+		warmUp();
+		AtomicInteger attempts = new AtomicInteger();
+		String result = this.hedgedReads.read("getFile", () -> {
+			if (attempts.incrementAndGet() == 1) {
+				sleep(Duration.ofSeconds(10));
+				return "slow";
+			}
+			return "hedged";
+		});
+		assertThat(result).isEqualTo("hedged");
+		assertThat(attempts).hasValue(2);
+		assertThat(this.meterRegistry.counter("github.reads.hedged", "operation", "getFile").count()).isEqualTo(1);
+	}
+
+	@Test
+	void readIsNotHedgedWithoutEnoughLatencies() {
+		this.hedgedReads = new HedgedReads(true, Duration.ofSeconds(5), this.meterRegistry);
+		AtomicInteger attempts = new AtomicInteger();
+		String result = this.hedgedReads.read("getFile", () -> {
+			attempts.incrementAndGet();
+			sleep(Duration.ofMillis(100));
+			return "ok";
+		});
+		assertThat(result).isEqualTo("ok");
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	void readIsNotHedgedWhenDisabled() {
+		this.hedgedReads = new HedgedReads(false, Duration.ofSeconds(5), this.meterRegistry);
+		warmUp();
+		AtomicInteger attempts = new AtomicInteger();
+		String result = this.hedgedReads.read("getFile", () -> {
+			attempts.incrementAndGet();
+			sleep(Duration.ofMillis(100));
+			return "ok";
+		});
+		assertThat(result).isEqualTo("ok");
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	void deadlineAdaptsToLatencies() {
+		this.hedgedReads = new HedgedReads(false, Duration.ofSeconds(30), this.meterRegistry);
+		warmUp();
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> this.hedgedReads.read("getFile", () -> {
+			sleep(Duration.ofSeconds(30));
+			return "slow";
+		})).isInstanceOfSatisfying(ResponseStatusException.class,
+				e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void deadlineIsBounded() {
+		this.hedgedReads = new HedgedReads(false, Duration.ofSeconds(30), this.meterRegistry);
+		LatencyWindow window = new LatencyWindow(HedgedReads.WINDOW_SIZE, HedgedReads.MIN_SAMPLES);
+		assertThat(this.hedgedReads.timeout(window)).isEqualTo(Duration.ofSeconds(30));
+		for (int i = 0; i < HedgedReads.MIN_SAMPLES; i++) {
+			window.record(Duration.ofMillis(1));
+		}
+		assertThat(this.hedgedReads.timeout(window)).isEqualTo(HedgedReads.MIN_TIMEOUT);
+		for (int i = 0; i < HedgedReads.MIN_SAMPLES; i++) {
+			window.record(Duration.ofSeconds(20));
+		}
+		assertThat(this.hedgedReads.timeout(window)).isEqualTo(Duration.ofSeconds(30));
+	}
+
+	@Test
+	void backgroundReadRunsOnTheCallingThread() {
+		this.hedgedReads = new HedgedReads(true, Duration.ofSeconds(5), this.meterRegistry);
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		RequestPriority.runInBackground(() -> this.hedgedReads.read("getFile", () -> {
+			thread.set(Thread.currentThread());
+			return "ok";
+		}));
+		assertThat(thread).hasValue(Thread.currentThread());
+	}
+
+	@Test
+	void percentile() {
+		LatencyWindow window = new LatencyWindow(100, 10);
+		for (int i = 1; i <= 9; i++) {
+			window.record(Duration.ofMillis(i));
+		}
+		assertThat(window.percentile(0.5)).isNull();
+		window.record(Duration.ofMillis(10));
+		assertThat(window.percentile(0.5)).isEqualTo(Duration.ofMillis(5));
+		assertThat(window.percentile(0.95)).isEqualTo(Duration.ofMillis(10));
+		// the oldest latencies are dropped
+		for (int i = 0; i < 100; i++) {
+			window.record(Duration.ofMillis(100));
+		}
+		assertThat(window.percentile(0.5)).isEqualTo(Duration.ofMillis(100));
+	}
+
+	void warmUp() {
+		for (int i = 0; i < HedgedReads.MIN_SAMPLES; i++) {
+			this.hedgedReads.read("getFile", () -> "warm");
+		}
+	}
+
+	static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package am.ik.blog.github;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class RateLimitSchedulerTest {
+
+	final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+
+	final RateLimitScheduler scheduler = new RateLimitScheduler(this.now::get, 0.2, Duration.ofSeconds(1));
+
+	@Test
+	void unknownBudgetDoesNotWait() {
+		assertThat(this.scheduler.tryAcquire(RequestPriority.INTERACTIVE)).isZero();
+		assertThat(this.scheduler.tryAcquire(RequestPriority.BACKGROUND)).isZero();
+		assertThat(this.scheduler.tryAcquire(RequestPriority.BACKGROUND)).isZero();
+		assertThat(this.scheduler.remaining()).isEqualTo(-1);
+	}
+
+	@Test
+	void backgroundCallsAreSpreadOverTheBudget() {
+		update(HttpStatus.OK, 100, 60, 100);
+		assertThat(this.scheduler.tryAcquire(RequestPriority.BACKGROUND)).isZero();
+		// 100 seconds for 40 calls above the reserve of 20
+		assertThat(this.scheduler.tryAcquire(RequestPriority.BACKGROUND)).isEqualTo(Duration.ofMillis(2500));
+		assertThat(this.scheduler.tryAcquire(RequestPriority.INTERACTIVE)).isZero();
+		assertThat(this.scheduler.remaining()).isEqualTo(58);
+		this.now.set(this.now.get().plusMillis(2500));
+		assertThat(this.scheduler.tryAcquire(RequestPriority.BACKGROUND)).isZero();
+	}
+
+	@Test
+	void backgroundCallsLeaveTheReserveToInteractiveCalls() {
+		update(HttpStatus.OK, 100, 20, 100);
+		assertThat(this.scheduler.tryAcquire(RequestPriority.BACKGROUND)).isEqualTo(Duration.ofSeconds(100));
+		assertThat(this.scheduler.tryAcquire(RequestPriority.INTERACTIVE)).isZero();
+		assertThat(this.scheduler.remaining()).isEqualTo(19);
+	}
+
+	@Test
+	void exhaustedBudgetWaitsForTheReset() {
+		update(HttpStatus.FORBIDDEN, 100, 0, 100);
+		assertThat(this.scheduler.tryAcquire(RequestPriority.INTERACTIVE)).isEqualTo(Duration.ofSeconds(100));
+		assertThat(this.scheduler.tryAcquire(RequestPriority.BACKGROUND)).isEqualTo(Duration.ofSeconds(100));
+		this.now.set(this.now.get().plusSeconds(100));
+		assertThat(this.scheduler.tryAcquire(RequestPriority.INTERACTIVE)).isZero();
+		assertThat(this.scheduler.remaining()).isEqualTo(-1);
+	}
+
+	@Test
+	void interactiveCallsDoNotWaitLongerThanTheMaximum() {
+		update(HttpStatus.FORBIDDEN, 100, 0, 100);
+		assertTimeoutPreemptively(Duration.ofSeconds(1), () -> this.scheduler.acquire(RequestPriority.INTERACTIVE));
+	}
+
+	@Test
+	void retryAfterBlocksAllCalls() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "30");
+		this.scheduler.update(HttpStatus.FORBIDDEN, headers);
+		assertThat(this.scheduler.tryAcquire(RequestPriority.INTERACTIVE)).isEqualTo(Duration.ofSeconds(30));
+		assertThat(this.scheduler.tryAcquire(RequestPriority.BACKGROUND)).isEqualTo(Duration.ofSeconds(30));
+	}
+
+	@Test
+	void tooManyRequestsWithoutRetryAfterBlocksForAMinute() {
+		this.scheduler.update(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders());
+		assertThat(this.scheduler.tryAcquire(RequestPriority.INTERACTIVE)).isEqualTo(Duration.ofMinutes(1));
+	}
+
+	@Test
+	void backgroundPriorityIsScoped() {
+		assertThat(RequestPriority.current()).isEqualTo(RequestPriority.INTERACTIVE);
+		AtomicReference<RequestPriority> priority = new AtomicReference<>();
+		RequestPriority.runInBackground(() -> priority.set(RequestPriority.current()));
+		assertThat(priority).hasValue(RequestPriority.BACKGROUND);
+		assertThat(RequestPriority.current()).isEqualTo(RequestPriority.INTERACTIVE);
+	}
+
+	void update(HttpStatus status, long limit, long remaining, long resetInSeconds) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(RateLimitScheduler.LIMIT, String.valueOf(limit));
+		headers.set(RateLimitScheduler.REMAINING, String.valueOf(remaining));
+		Instant reset = this.now.get().plusSeconds(resetInSeconds);
+		headers.set(RateLimitScheduler.RESET, String.valueOf(reset.getEpochSecond()));
+		this.scheduler.update(status, headers);
+	}
+
+}
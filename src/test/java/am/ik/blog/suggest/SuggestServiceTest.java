@@ -0,0 +1,98 @@
+package am.ik.blog.suggest;
+
+import am.ik.blog.entry.Author;
+import am.ik.blog.entry.Category;
+import am.ik.blog.entry.Entry;
+import am.ik.blog.entry.EntryChangedEvent;
+import am.ik.blog.entry.EntryCursor;
+import am.ik.blog.entry.EntryKey;
+import am.ik.blog.entry.EntryRepository;
+import am.ik.blog.entry.EntrySort;
+import am.ik.blog.entry.FrontMatter;
+import am.ik.blog.entry.Tag;
+import am.ik.blog.suggest.Suggestion.Type;
+import am.ik.pagination.CursorPage;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SuggestServiceTest {
+
+	EntryRepository entryRepository = mock(EntryRepository.class);
+
+	SuggestService suggestService = new SuggestService(this.entryRepository);
+
+	static Entry entry(long entryId, String title, List<String> categories, List<String> tags) {
+		Instant now = Instant.parse("2025-01-01T00:00:00Z");
+		return Entry.builder()
+			.entryKey(new EntryKey(entryId))
+			.content("")
+			.frontMatter(FrontMatter.builder()
+				.title(title)
+				.categories(categories.stream().map(Category::new).toList())
+				.tags(tags.stream().map(tag -> Tag.builder().name(tag).build()).toList())
+				.build())
+			.created(Author.builder().name("test").date(now).build())
+			.updated(Author.builder().name("test").date(now).build())
+			.build();
+	}
+
+	@BeforeEach
+	void setUp() {
+		List<Entry> entries = List.of(
+				entry(1L, "Getting Started with Spring Boot", List.of("Programming", "Java"),
+						List.of("spring-boot", "tutorial")),
+				entry(2L, "Spring Security in Depth", List.of("Programming", "Java"), List.of("spring-boot")),
+				entry(3L, "Introduction to Docker", List.of("DevOps"), List.of("docker", "tutorial")));
+		when(this.entryRepository.watermark("_")).thenReturn(100L);
+		when(this.entryRepository.findOrderBy(eq("_"), any(), any(), any()))
+			.thenReturn(new CursorPage<Entry, EntryCursor>(entries, 1024,
+					entry -> entry.toCursor(EntrySort.Field.ENTRY_ID), false, false));
+	}
+
+	@Test
+	void suggest() {
+		assertThat(this.suggestService.suggest(null, "Sp", 10)).containsExactly(
+				new Suggestion("spring-boot", Type.TAG, 2),
+				new Suggestion("Getting Started with Spring Boot", Type.TITLE, 1),
+				new Suggestion("Spring Security in Depth", Type.TITLE, 1));
+		assertThat(this.suggestService.suggest(null, "  ｐｒｏ", 10))
+			.containsExactly(new Suggestion("Programming", Type.CATEGORY, 2));
+		assertThat(this.suggestService.suggest(null, "in", 10)).containsExactly(
+				new Suggestion("Introduction to Docker", Type.TITLE, 1),
+				new Suggestion("Spring Security in Depth", Type.TITLE, 1));
+		verify(this.entryRepository, times(1)).findOrderBy(eq("_"), any(), any(), any());
+	}
+
+	@Test
+	void suggestAppliesEntryChangedEvents() {
+		this.suggestService.suggest(null, "t", 10);
+		this.suggestService.onEntryChanged(new EntryChangedEvent(new EntryKey(4L),
+				entry(4L, "Testing Spring Boot", List.of("Programming"), List.of("spring-boot", "testing")), 100L,
+				101L));
+		this.suggestService.onEntryChanged(new EntryChangedEvent(new EntryKey(3L), null, 101L, 102L));
+		assertThat(this.suggestService.suggest(null, "t", 10)).containsExactly(new Suggestion("testing", Type.TAG, 1),
+				new Suggestion("tutorial", Type.TAG, 1), new Suggestion("Testing Spring Boot", Type.TITLE, 1));
+		assertThat(this.suggestService.suggest(null, "spring-", 10))
+			.containsExactly(new Suggestion("spring-boot", Type.TAG, 3));
+		verify(this.entryRepository, times(1)).findOrderBy(eq("_"), any(), any(), any());
+	}
+
+	@Test
+	void suggestReloadsAfterMissedWrites() {
+		this.suggestService.suggest(null, "t", 10);
+		this.suggestService.onEntryChanged(new EntryChangedEvent(new EntryKey(3L), null, 105L, 106L));
+		this.suggestService.suggest(null, "t", 10);
+		verify(this.entryRepository, times(2)).findOrderBy(eq("_"), any(), any(), any());
+	}
+
+}
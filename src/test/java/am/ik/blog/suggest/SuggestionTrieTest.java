@@ -0,0 +1,61 @@
+package am.ik.blog.suggest;
+
+import am.ik.blog.suggest.Suggestion.Type;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+	@Test
+	void completeOrdersByWeight() {
+		SuggestionTrie trie = new SuggestionTrie();
+		trie.add("spring", Type.TAG, "Spring", 1);
+		trie.add("spring-boot", Type.TAG, "spring-boot", 3);
+		trie.add("sql", Type.TAG, "SQL", 2);
+		trie.add("java", Type.TAG, "Java", 5);
+		assertThat(trie.complete("s", 10)).containsExactly(new Suggestion("spring-boot", Type.TAG, 3),
+				new Suggestion("SQL", Type.TAG, 2), new Suggestion("Spring", Type.TAG, 1));
+		assertThat(trie.complete("spr", 10)).containsExactly(new Suggestion("spring-boot", Type.TAG, 3),
+				new Suggestion("Spring", Type.TAG, 1));
+		assertThat(trie.complete("s", 1)).containsExactly(new Suggestion("spring-boot", Type.TAG, 3));
+		assertThat(trie.complete("x", 10)).isEmpty();
+	}
+
+	@Test
+	void completeCountsSuggestionUnderSeveralKeysOnce() {
+		SuggestionTrie trie = new SuggestionTrie();
+		trie.add("spring in spring", Type.TITLE, "Spring in Spring", 1);
+		trie.add("spring", Type.TITLE, "Spring in Spring", 1);
+		assertThat(trie.complete("spring", 10)).containsExactly(new Suggestion("Spring in Spring", Type.TITLE, 1));
+	}
+
+	@Test
+	void addUpdatesCachedTop() {
+		SuggestionTrie trie = new SuggestionTrie();
+		trie.add("java", Type.TAG, "Java", 1);
+		trie.add("javascript", Type.TAG, "JavaScript", 2);
+		assertThat(trie.complete("j", 10)).containsExactly(new Suggestion("JavaScript", Type.TAG, 2),
+				new Suggestion("Java", Type.TAG, 1));
+		trie.add("java", Type.TAG, "Java", 2);
+		assertThat(trie.complete("j", 10)).containsExactly(new Suggestion("Java", Type.TAG, 3),
+				new Suggestion("JavaScript", Type.TAG, 2));
+		trie.add("javascript", Type.TAG, "JavaScript", -2);
+		assertThat(trie.complete("j", 10)).containsExactly(new Suggestion("Java", Type.TAG, 3));
+		assertThat(trie.complete("javas", 10)).isEmpty();
+	}
+
+	@Test
+	void completeKeepsTopK() {
+		SuggestionTrie trie = new SuggestionTrie();
+		IntStream.rangeClosed(1, 50).forEach(i -> trie.add("tag" + i, Type.TAG, "tag" + i, i));
+		List<Suggestion> suggestions = trie.complete("tag", 100);
+		assertThat(suggestions).hasSize(SuggestionTrie.TOP_K);
+		assertThat(suggestions.getFirst()).isEqualTo(new Suggestion("tag50", Type.TAG, 50));
+		assertThat(suggestions.getLast()).isEqualTo(new Suggestion("tag31", Type.TAG, 31));
+		assertThat(trie.complete("tag1", 100)).first().isEqualTo(new Suggestion("tag19", Type.TAG, 19));
+	}
+
+}